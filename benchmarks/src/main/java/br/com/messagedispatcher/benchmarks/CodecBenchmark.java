@@ -0,0 +1,77 @@
+package br.com.messagedispatcher.benchmarks;
+
+import br.com.messagedispatcher.benchmarks.support.BenchmarkFixtures;
+import br.com.messagedispatcher.benchmarks.support.BenchmarkPayloads.PayloadSize;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede os codecs configurados pelo starter: o {@link Jackson2JsonMessageConverter} usado pelo RabbitTemplate e o
+ * {@link ObjectMapper} usado pelo router para desserializar o corpo da mensagem.
+ * <p>
+ * Measures the codecs configured by the starter: the {@link Jackson2JsonMessageConverter} used by the RabbitTemplate
+ * and the {@link ObjectMapper} used by the router to deserialize the message body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodecBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private PayloadSize size;
+
+    private ObjectMapper objectMapper;
+    private Jackson2JsonMessageConverter converter;
+    private Object payload;
+    private Message message;
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        converter = BenchmarkFixtures.messageConverter(objectMapper);
+        payload = size.create();
+        message = converterToMessage();
+        body = message.getBody();
+    }
+
+    @Benchmark
+    public Message converterToMessage() {
+        return converter.toMessage(payload, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object converterFromMessage() {
+        return converter.fromMessage(message);
+    }
+
+    @Benchmark
+    public byte[] objectMapperWrite() throws IOException {
+        return objectMapper.writeValueAsBytes(payload);
+    }
+
+    @Benchmark
+    public Object objectMapperRead() throws IOException {
+        return objectMapper.readValue(body, size.type());
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.messagedispatcher.benchmarks;
+
+import br.com.messagedispatcher.benchmarks.support.BenchmarkFixtures;
+import br.com.messagedispatcher.benchmarks.support.BenchmarkPayloads.PayloadSize;
+import br.com.messagedispatcher.handlerdiscover.impl.MessageDispatcherAnnotatedHandlerDiscoverImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.COMMAND;
+
+/**
+ * Mede a busca do handler em {@link MessageDispatcherAnnotatedHandlerDiscoverImpl} a partir do tipo de handler e
+ * do nome simples do payload, da mesma forma que o router faz a cada mensagem.
+ * <p>
+ * Measures the handler lookup in {@link MessageDispatcherAnnotatedHandlerDiscoverImpl} from the handler type and
+ * the payload simple name, the same way the router does for every message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HandlerLookupBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private PayloadSize size;
+
+    private GenericApplicationContext context;
+    private MessageDispatcherAnnotatedHandlerDiscoverImpl handlerDiscover;
+    private String bodyType;
+    private String handlerType;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkFixtures.applicationContext();
+        handlerDiscover = BenchmarkFixtures.handlerDiscover(context);
+        bodyType = size.type().getSimpleName();
+        handlerType = COMMAND.name();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Inclui a conversão do header textual para {@code HandlerType}, como ocorre no router.
+     * <p>
+     * Includes the conversion of the textual header into {@code HandlerType}, as the router does.
+     */
+    @Benchmark
+    public Method getHandler() {
+        return handlerDiscover.getHandler(HandlerType.valueOf(handlerType), bodyType);
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.messagedispatcher.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Ponto de entrada dos benchmarks. Aceita as mesmas opções de linha de comando do JMH e, quando nenhum formato de
+ * resultado é informado, grava os resultados em JSON em {@code target/jmh-result.json} para que possam ser
+ * comparados entre versões do starter.
+ * <p>
+ * Benchmarks entry point. Accepts the same command line options as JMH and, when no result format is given,
+ * writes the results as JSON to {@code target/jmh-result.json} so they can be compared between starter releases.
+ */
+public final class MessageDispatcherBenchmarks {
+
+    static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    private MessageDispatcherBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        var commandLine = new CommandLineOptions(args);
+
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        var options = new OptionsBuilder().parent(commandLine);
+
+        if (commandLine.getResultFormat().hasValue() || commandLine.getResult().hasValue()) {
+            new Runner(options.build()).run();
+            return;
+        }
+
+        new Runner(options
+                .resultFormat(ResultFormatType.JSON)
+                .result(DEFAULT_RESULT_FILE)
+                .build()).run();
+    }
+}
@@ -0,0 +1,64 @@
+package br.com.messagedispatcher.benchmarks;
+
+import br.com.messagedispatcher.benchmarks.support.BenchmarkFixtures;
+import br.com.messagedispatcher.benchmarks.support.BenchmarkPayloads.PayloadSize;
+import br.com.messagedispatcher.router.impl.AnnotatedMessageRouter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede {@link AnnotatedMessageRouter#routeMessage(Object)} de ponta a ponta: leitura dos headers, busca do handler,
+ * desserialização do corpo e invocação do método.
+ * <p>
+ * Measures {@link AnnotatedMessageRouter#routeMessage(Object)} end to end: header lookup, handler lookup,
+ * body deserialization and method invocation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageRouterBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private PayloadSize size;
+
+    private GenericApplicationContext context;
+    private AnnotatedMessageRouter router;
+    private Message message;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var objectMapper = BenchmarkFixtures.objectMapper();
+        BenchmarkFixtures.properties();
+        context = BenchmarkFixtures.applicationContext();
+        router = BenchmarkFixtures.router(objectMapper, context);
+        message = BenchmarkFixtures.inboundMessage(objectMapper, size.create());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object routeMessage() {
+        return router.routeMessage(message);
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.messagedispatcher.benchmarks;
+
+import br.com.messagedispatcher.benchmarks.support.BenchmarkFixtures;
+import br.com.messagedispatcher.benchmarks.support.BenchmarkPayloads.PayloadSize;
+import br.com.messagedispatcher.model.MessageDispatcherRemoteInvocationResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o envelope de resposta das chamadas doQuery/doCommand: o consumidor encapsula o retorno do handler em
+ * {@link MessageDispatcherRemoteInvocationResult} e o publicador o converte de volta para o tipo esperado,
+ * como em {@code RabbitTemplateProxy.sendAndReceive}.
+ * <p>
+ * Measures the reply envelope of doQuery/doCommand calls: the consumer wraps the handler return value into
+ * {@link MessageDispatcherRemoteInvocationResult} and the publisher converts it back to the expected type,
+ * as in {@code RabbitTemplateProxy.sendAndReceive}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplyEnvelopeBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private PayloadSize size;
+
+    private ObjectMapper objectMapper;
+    private Jackson2JsonMessageConverter converter;
+    private Object payload;
+    private Message reply;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = BenchmarkFixtures.objectMapper();
+        converter = BenchmarkFixtures.messageConverter(objectMapper);
+        BenchmarkFixtures.properties();
+        payload = size.create();
+        reply = encode();
+    }
+
+    @Benchmark
+    public Message encode() {
+        return converter.toMessage(MessageDispatcherRemoteInvocationResult.of(payload), new MessageProperties());
+    }
+
+    @Benchmark
+    public Object decode() {
+        var result = objectMapper.convertValue(converter.fromMessage(reply), MessageDispatcherRemoteInvocationResult.class);
+        return objectMapper.convertValue(result.value(), size.type());
+    }
+}
@@ -0,0 +1,86 @@
+package br.com.messagedispatcher.benchmarks.support;
+
+import br.com.messagedispatcher.config.MessageConverterAutoConfig;
+import br.com.messagedispatcher.config.ObjectMapperAutoConfig;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.handlerdiscover.impl.MessageDispatcherAnnotatedHandlerDiscoverImpl;
+import br.com.messagedispatcher.router.impl.AnnotatedMessageRouter;
+import br.com.messagedispatcher.util.MessageDispatcherUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.context.support.GenericApplicationContext;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.COMMAND;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.BODY_TYPE;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.HANDLER_TYPE;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.MESSAGE_SOURCE;
+
+/**
+ * Monta os componentes do starter da mesma forma que a auto configuração, sem broker e sem contexto Spring Boot.
+ * <p>
+ * Assembles the starter components the same way the auto configuration does, without a broker and without
+ * a Spring Boot context.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String APP_NAME = "benchmark";
+
+    private BenchmarkFixtures() {
+    }
+
+    public static ObjectMapper objectMapper() {
+        return new ObjectMapperAutoConfig().objectMapper();
+    }
+
+    public static Jackson2JsonMessageConverter messageConverter(ObjectMapper objectMapper) {
+        return new MessageConverterAutoConfig().jackson2JsonMessageConverter(objectMapper);
+    }
+
+    public static MessageDispatcherProperties properties() {
+        var properties = new MessageDispatcherProperties();
+        properties.setQueueName(APP_NAME);
+        var mapped = new MessageDispatcherProperties.Mapped();
+        mapped.setHeaders("X-Request-ID,X-Correlation-ID,X-User-ID");
+        properties.setMapped(mapped);
+        properties.init();
+        new MessageDispatcherUtils(properties);
+        return properties;
+    }
+
+    public static GenericApplicationContext applicationContext() {
+        var context = new GenericApplicationContext();
+        context.registerBean(BenchmarkHandlers.class);
+        context.refresh();
+        return context;
+    }
+
+    public static MessageDispatcherAnnotatedHandlerDiscoverImpl handlerDiscover(GenericApplicationContext context) {
+        return new MessageDispatcherAnnotatedHandlerDiscoverImpl(context);
+    }
+
+    public static AnnotatedMessageRouter router(ObjectMapper objectMapper, GenericApplicationContext context) {
+        return new AnnotatedMessageRouter(objectMapper, handlerDiscover(context), context);
+    }
+
+    /**
+     * Cria uma mensagem como recebida do broker, com os headers definidos pelo publicador.
+     * <p>
+     * Creates a message as received from the broker, with the headers set by the publisher.
+     */
+    public static Message inboundMessage(ObjectMapper objectMapper, Object payload) {
+        var properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setHeader(HANDLER_TYPE.getHeaderName(), COMMAND.name());
+        properties.setHeader(BODY_TYPE.getHeaderName(), payload.getClass().getSimpleName());
+        properties.setHeader(MESSAGE_SOURCE.getHeaderName(), APP_NAME);
+        properties.setHeader("X-Request-ID", "5f0c6c2e-benchmark");
+        try {
+            return new Message(objectMapper.writeValueAsBytes(payload), properties);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
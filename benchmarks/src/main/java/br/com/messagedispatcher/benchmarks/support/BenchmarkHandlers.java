@@ -0,0 +1,32 @@
+package br.com.messagedispatcher.benchmarks.support;
+
+import br.com.messagedispatcher.annotation.Command;
+import br.com.messagedispatcher.annotation.MessageListener;
+
+import static br.com.messagedispatcher.benchmarks.support.BenchmarkPayloads.LargePayload;
+import static br.com.messagedispatcher.benchmarks.support.BenchmarkPayloads.MediumPayload;
+import static br.com.messagedispatcher.benchmarks.support.BenchmarkPayloads.SmallPayload;
+
+/**
+ * Handlers triviais que devolvem o próprio payload, para que o custo medido seja apenas o do starter.
+ * <p>
+ * Trivial handlers returning the payload itself, so that the measured cost is the starter's only.
+ */
+@MessageListener
+public class BenchmarkHandlers {
+
+    @Command
+    public SmallPayload handleSmall(SmallPayload payload) {
+        return payload;
+    }
+
+    @Command
+    public MediumPayload handleMedium(MediumPayload payload) {
+        return payload;
+    }
+
+    @Command
+    public LargePayload handleLarge(LargePayload payload) {
+        return payload;
+    }
+}
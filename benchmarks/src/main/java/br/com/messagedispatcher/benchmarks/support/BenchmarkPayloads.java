@@ -0,0 +1,82 @@
+package br.com.messagedispatcher.benchmarks.support;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Payloads utilizados pelos benchmarks em três tamanhos: SMALL (~100 bytes), MEDIUM (~2 KB) e LARGE (~64 KB).
+ * <p>
+ * Payloads used by the benchmarks in three sizes: SMALL (~100 bytes), MEDIUM (~2 KB) and LARGE (~64 KB).
+ */
+public final class BenchmarkPayloads {
+
+    private static final OffsetDateTime CREATED_AT = OffsetDateTime.of(2025, 5, 9, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    private BenchmarkPayloads() {
+    }
+
+    public enum PayloadSize {
+        SMALL(SmallPayload.class),
+        MEDIUM(MediumPayload.class),
+        LARGE(LargePayload.class);
+
+        private final Class<?> type;
+
+        PayloadSize(Class<?> type) {
+            this.type = type;
+        }
+
+        public Class<?> type() {
+            return type;
+        }
+
+        public Object create() {
+            return switch (this) {
+                case SMALL -> small();
+                case MEDIUM -> medium();
+                case LARGE -> large();
+            };
+        }
+    }
+
+    public static SmallPayload small() {
+        return new SmallPayload(UUID.nameUUIDFromBytes("small".getBytes()).toString(), "small-payload", 42);
+    }
+
+    public static MediumPayload medium() {
+        return new MediumPayload(UUID.nameUUIDFromBytes("medium".getBytes()).toString(), "medium-payload",
+                "x".repeat(1024), tags(40), CREATED_AT);
+    }
+
+    public static LargePayload large() {
+        var items = new ArrayList<Item>(600);
+        for (var i = 0; i < 600; i++) {
+            items.add(new Item("sku-" + i, "Item de benchmark número " + i, i % 10, BigDecimal.valueOf(i, 2)));
+        }
+        return new LargePayload(UUID.nameUUIDFromBytes("large".getBytes()).toString(), "large-payload", items, CREATED_AT);
+    }
+
+    private static List<String> tags(int size) {
+        var tags = new ArrayList<String>(size);
+        for (var i = 0; i < size; i++) {
+            tags.add("tag-" + i);
+        }
+        return tags;
+    }
+
+    public record SmallPayload(String id, String name, int quantity) {
+    }
+
+    public record MediumPayload(String id, String name, String description, List<String> tags, OffsetDateTime createdAt) {
+    }
+
+    public record LargePayload(String id, String name, List<Item> items, OffsetDateTime createdAt) {
+    }
+
+    public record Item(String sku, String description, int quantity, BigDecimal price) {
+    }
+}
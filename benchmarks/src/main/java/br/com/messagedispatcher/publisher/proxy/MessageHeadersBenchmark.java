@@ -0,0 +1,109 @@
+package br.com.messagedispatcher.publisher.proxy;
+
+import br.com.messagedispatcher.benchmarks.support.BenchmarkFixtures;
+import br.com.messagedispatcher.benchmarks.support.BenchmarkPayloads.PayloadSize;
+import br.com.messagedispatcher.lane.HandlerLanes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Exchange.CONSISTENT_HASH;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.COMMAND;
+
+/**
+ * Mede {@link RabbitTemplateProxy#setMessageHeaders} com e sem uma requisição HTTP ativa, já que os headers
+ * mapeados só são copiados quando há uma requisição no contexto. A variante com chave publica com prioridade e chave
+ * de partição em uma exchange consistent-hash com header de hash. Fica no mesmo pacote do proxy para acessar o método
+ * sem reflexão.
+ * <p>
+ * Measures {@link RabbitTemplateProxy#setMessageHeaders} with and without an active HTTP request, since mapped
+ * headers are only copied when there is a request in context. The keyed variant publishes with a priority and a
+ * partition key on a consistent-hash exchange with a hash header. Lives in the proxy package to reach the method
+ * without reflection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageHeadersBenchmark {
+
+    private static final String EXCHANGE = "message.dispatcher.ex";
+    private static final String ROUTING_KEY = "benchmark";
+    private static final SendOptions KEYED = SendOptions.NONE.withPriority(5).withPartitionKey("order-42");
+
+    @Param({"SMALL", "MEDIUM", "LARGE"})
+    private PayloadSize size;
+
+    @Param({"false", "true"})
+    private boolean httpRequest;
+
+    private RabbitTemplateProxy proxy;
+    private RabbitTemplateProxy keyedProxy;
+    private String keyedExchange;
+    private Object payload;
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        var objectMapper = BenchmarkFixtures.objectMapper();
+        var properties = BenchmarkFixtures.properties();
+        proxy = new RabbitTemplateProxy(new RabbitTemplate(), objectMapper, properties,
+                new HandlerLanes(properties, List::of));
+        var partitioned = BenchmarkFixtures.properties();
+        partitioned.setExchangeType(CONSISTENT_HASH);
+        partitioned.setExchangeConsistentHashArguments(Map.of("hash-header", "partition-key"));
+        partitioned.init();
+        keyedProxy = new RabbitTemplateProxy(new RabbitTemplate(), objectMapper, partitioned,
+                new HandlerLanes(partitioned, List::of));
+        keyedExchange = partitioned.getExchangeName();
+        payload = size.create();
+        body = objectMapper.writeValueAsBytes(payload);
+
+        if (httpRequest) {
+            var request = new MockHttpServletRequest();
+            request.addHeader("X-Request-ID", "5f0c6c2e-benchmark");
+            request.addHeader("X-Correlation-ID", "9a1d7e44-benchmark");
+            request.addHeader("X-User-ID", "benchmark-user");
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Message setMessageHeaders() {
+        var message = new Message(body, new MessageProperties());
+        return proxy.setMessageHeaders(payload, message, COMMAND, SendOptions.NONE, EXCHANGE, ROUTING_KEY);
+    }
+
+    @Benchmark
+    public Message setMessageHeadersKeyed() {
+        var message = new Message(body, new MessageProperties());
+        return keyedProxy.setMessageHeaders(payload, message, COMMAND, KEYED, keyedExchange, ROUTING_KEY);
+    }
+}
@@ -0,0 +1,26 @@
+package br.com.messagedispatcher.loadtest;
+
+import br.com.messagedispatcher.annotation.EnableMessageDispatcher;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+
+/**
+ * Serviço de exemplo usado pelo gerador de carga. Sobe um broker AMQP embarcado, o starter com os handlers de
+ * {@link br.com.messagedispatcher.loadtest.sample.LoadTestHandlers} e dispara a carga configurada em
+ * {@link LoadTestProperties}.
+ * <p>
+ * Sample service used by the load generator. Boots an embedded AMQP broker, the starter with the handlers in
+ * {@link br.com.messagedispatcher.loadtest.sample.LoadTestHandlers} and fires the load configured in
+ * {@link LoadTestProperties}.
+ */
+@SpringBootApplication
+@EnableMessageDispatcher
+@EnableConfigurationProperties(LoadTestProperties.class)
+public class LoadTestApplication {
+
+    public static void main(String[] args) {
+        var context = SpringApplication.run(LoadTestApplication.class, args);
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -0,0 +1,172 @@
+package br.com.messagedispatcher.loadtest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Parâmetros da execução de carga, configuráveis pela linha de comando (ex.: {@code --loadtest.rate=2000}).
+ * <p>
+ * Load run parameters, configurable from the command line (e.g. {@code --loadtest.rate=2000}).
+ */
+@ConfigurationProperties(prefix = "loadtest")
+public class LoadTestProperties {
+
+    /**
+     * Mensagens por segundo disparadas em malha aberta, somando todas as operações.
+     */
+    private int rate = 1000;
+
+    /**
+     * Duração da medição.
+     */
+    private Duration duration = Duration.ofSeconds(30);
+
+    /**
+     * Aquecimento antes da medição; os resultados deste período são descartados.
+     */
+    private Duration warmup = Duration.ofSeconds(10);
+
+    /**
+     * Pesos de cada operação no mix (event, command, query).
+     */
+    private Map<String, Integer> mix = new LinkedHashMap<>(Map.of("event", 60, "command", 20, "query", 20));
+
+    /**
+     * Tamanho aproximado, em bytes, do campo de dados de cada payload.
+     */
+    private int payloadBytes = 256;
+
+    /**
+     * Máximo de envios simultâneos. Acima disso os envios aguardam, e a espera entra na latência medida.
+     */
+    private int maxInFlight = 256;
+
+    /**
+     * Intervalo entre os relatórios parciais.
+     */
+    private Duration reportInterval = Duration.ofSeconds(5);
+
+    /**
+     * Diretório onde os histogramas (.hgrm) de cada operação são gravados. Vazio para não gravar.
+     */
+    private String histogramDir = "target";
+
+    /**
+     * Tempo de serviço simulado pelos handlers em cada mensagem. Zero para medir apenas o starter e o broker.
+     */
+    private Duration handlerTime = Duration.ZERO;
+
+    /**
+     * Tempo de serviço das mensagens lentas, que representam handlers presos (ex.: 2s).
+     */
+    private Duration slowHandlerTime = Duration.ZERO;
+
+    /**
+     * Percentual (0-100) das mensagens que usam {@code slowHandlerTime}.
+     */
+    private int slowHandlerPercent = 0;
+
+    /**
+     * Indica se o broker AMQP embarcado deve ser iniciado. Desative para medir contra um RabbitMQ externo.
+     */
+    private boolean embeddedBroker = true;
+
+    public int getRate() {
+        return rate;
+    }
+
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Duration duration) {
+        this.duration = duration;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(Duration warmup) {
+        this.warmup = warmup;
+    }
+
+    public Map<String, Integer> getMix() {
+        return mix;
+    }
+
+    public void setMix(Map<String, Integer> mix) {
+        this.mix = mix;
+    }
+
+    public int getPayloadBytes() {
+        return payloadBytes;
+    }
+
+    public void setPayloadBytes(int payloadBytes) {
+        this.payloadBytes = payloadBytes;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Duration getReportInterval() {
+        return reportInterval;
+    }
+
+    public void setReportInterval(Duration reportInterval) {
+        this.reportInterval = reportInterval;
+    }
+
+    public String getHistogramDir() {
+        return histogramDir;
+    }
+
+    public void setHistogramDir(String histogramDir) {
+        this.histogramDir = histogramDir;
+    }
+
+    public Duration getHandlerTime() {
+        return handlerTime;
+    }
+
+    public void setHandlerTime(Duration handlerTime) {
+        this.handlerTime = handlerTime;
+    }
+
+    public Duration getSlowHandlerTime() {
+        return slowHandlerTime;
+    }
+
+    public void setSlowHandlerTime(Duration slowHandlerTime) {
+        this.slowHandlerTime = slowHandlerTime;
+    }
+
+    public int getSlowHandlerPercent() {
+        return slowHandlerPercent;
+    }
+
+    public void setSlowHandlerPercent(int slowHandlerPercent) {
+        this.slowHandlerPercent = slowHandlerPercent;
+    }
+
+    public boolean isEmbeddedBroker() {
+        return embeddedBroker;
+    }
+
+    public void setEmbeddedBroker(boolean embeddedBroker) {
+        this.embeddedBroker = embeddedBroker;
+    }
+}
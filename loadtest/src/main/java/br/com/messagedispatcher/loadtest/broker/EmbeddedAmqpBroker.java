@@ -0,0 +1,76 @@
+package br.com.messagedispatcher.loadtest.broker;
+
+import org.apache.qpid.server.SystemLauncher;
+import org.apache.qpid.server.model.SystemConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Broker AMQP 0-9-1 em memória (Qpid Broker-J) executado no mesmo processo, dispensando um RabbitMQ externo.
+ * Não oferece direct reply-to; o RabbitTemplate detecta isso e passa a usar filas de resposta temporárias.
+ * Os argumentos de dead letter do RabbitMQ são ignorados.
+ * <p>
+ * In-memory AMQP 0-9-1 broker (Qpid Broker-J) running in the same process, removing the need for an external
+ * RabbitMQ. It does not offer direct reply-to; the RabbitTemplate detects it and falls back to temporary reply queues.
+ * RabbitMQ dead letter arguments are ignored.
+ */
+public class EmbeddedAmqpBroker implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedAmqpBroker.class);
+    private static final String INITIAL_CONFIGURATION = "embedded-broker-config.json";
+    private static final String INITIAL_SYSTEM_PROPERTIES = "embedded-broker-system.properties";
+
+    private final SystemLauncher systemLauncher = new SystemLauncher();
+    private final int port;
+    private Path workDir;
+
+    public EmbeddedAmqpBroker(int port) {
+        this.port = port;
+    }
+
+    public void start() throws Exception {
+        workDir = Files.createTempDirectory("message-dispatcher-loadtest-broker");
+
+        var context = new HashMap<String, String>();
+        context.put("qpid.amqp_port", String.valueOf(port));
+        context.put("qpid.work_dir", workDir.toString());
+        // Mesmo limite de canais por conexão do RabbitMQ (o padrão do Qpid é 256)
+        context.put("qpid.port.sessionCountLimit", "2047");
+        // x-dead-letter-* são específicos do RabbitMQ: ignorados aqui, as mensagens rejeitadas são descartadas
+        context.put("queue.behaviourOnUnknownDeclareArgument", "IGNORE");
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(SystemConfig.TYPE, "Memory");
+        attributes.put(SystemConfig.INITIAL_CONFIGURATION_LOCATION, resource(INITIAL_CONFIGURATION));
+        // O padrão "classpath:" depende de um URL handler registrado apenas pelo Main do Qpid
+        attributes.put(SystemConfig.INITIAL_SYSTEM_PROPERTIES_LOCATION, resource(INITIAL_SYSTEM_PROPERTIES));
+        attributes.put(SystemConfig.STARTUP_LOGGED_TO_SYSTEM_OUT, false);
+        attributes.put(SystemConfig.CONTEXT, context);
+
+        systemLauncher.startup(attributes);
+        log.info("Broker AMQP embarcado iniciado na porta {}", port);
+    }
+
+    private static String resource(String name) {
+        return EmbeddedAmqpBroker.class.getClassLoader().getResource(name).toExternalForm();
+    }
+
+    @Override
+    public void close() throws IOException {
+        systemLauncher.shutdown();
+        if (workDir != null) {
+            try (Stream<Path> paths = Files.walk(workDir)) {
+                paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+        log.info("Broker AMQP embarcado finalizado");
+    }
+}
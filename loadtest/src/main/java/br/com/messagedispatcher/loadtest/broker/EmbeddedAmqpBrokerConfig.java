@@ -0,0 +1,27 @@
+package br.com.messagedispatcher.loadtest.broker;
+
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Inicia o broker embarcado antes das conexões do starter, na porta configurada em
+ * {@code message.dispatcher.port}. A conexão só é aberta quando os containers de listener são iniciados,
+ * depois que todos os singletons (incluindo este) foram criados.
+ * <p>
+ * Starts the embedded broker before the starter connections, on the port configured in
+ * {@code message.dispatcher.port}. The connection is only opened when the listener containers start,
+ * after every singleton (including this one) has been created.
+ */
+@Configuration
+@ConditionalOnProperty(value = "loadtest.embedded-broker", havingValue = "true", matchIfMissing = true)
+public class EmbeddedAmqpBrokerConfig {
+
+    @Bean(destroyMethod = "close")
+    public EmbeddedAmqpBroker embeddedAmqpBroker(MessageDispatcherProperties properties) throws Exception {
+        var broker = new EmbeddedAmqpBroker(properties.getPort());
+        broker.start();
+        return broker;
+    }
+}
@@ -0,0 +1,167 @@
+package br.com.messagedispatcher.loadtest.generator;
+
+import br.com.messagedispatcher.loadtest.LoadTestProperties;
+import br.com.messagedispatcher.loadtest.sample.LoadTestHandlers;
+import br.com.messagedispatcher.publisher.MessagePublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga em malha aberta: as mensagens são agendadas em instantes fixos, independentemente de quanto as
+ * anteriores demoraram, e cada envio roda em uma virtual thread. A latência é medida a partir do instante agendado,
+ * de modo que atrasos do sistema sob teste aparecem nos percentis em vez de reduzirem a taxa. O limite de envios
+ * simultâneos funciona como um pool de conexões do cliente: a espera por ele também é contada na latência. Os envios
+ * agendados no aquecimento nunca são registrados, mesmo quando concluem já dentro do período medido.
+ * <p>
+ * Open-loop load generator: messages are scheduled at fixed instants, regardless of how long the previous ones took,
+ * and every send runs on a virtual thread. Latency is measured from the scheduled instant, so delays of the system
+ * under test show up in the percentiles instead of lowering the rate. The in-flight limit works like a client
+ * connection pool: waiting for it is counted in the latency as well. Sends scheduled during the warmup are never
+ * recorded, even when they complete after the measured period has started.
+ */
+@Component
+public class LoadGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private final MessagePublisher publisher;
+    private final LoadTestHandlers handlers;
+    private final LoadTestProperties properties;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final Semaphore permits;
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong maxInFlight = new AtomicLong();
+
+    public LoadGenerator(MessagePublisher publisher, LoadTestHandlers handlers, LoadTestProperties properties) {
+        this.publisher = publisher;
+        this.handlers = handlers;
+        this.properties = properties;
+        this.permits = new Semaphore(Math.max(1, properties.getMaxInFlight()));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        var schedule = buildSchedule();
+        var data = "x".repeat(Math.max(0, properties.getPayloadBytes()));
+        var report = new LoadReport(stats.values(), properties);
+
+        log.info("Iniciando carga: {} msg/s, mix {}, aquecimento {}, duração {}", properties.getRate(),
+                properties.getMix(), properties.getWarmup(), properties.getDuration());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            drive(executor, schedule, data, properties.getWarmup().toNanos(), null);
+            var eventsBefore = handlers.consumedEvents();
+            maxInFlight.set(inFlight.get());
+
+            var start = System.nanoTime();
+            drive(executor, schedule, data, properties.getDuration().toNanos(), report);
+            var elapsedNanos = System.nanoTime() - start;
+
+            executor.shutdown();
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("{} mensagens ainda em andamento após 30s", inFlight.get());
+            }
+            report.summary(elapsedNanos, handlers.consumedEvents() - eventsBefore, maxInFlight.get());
+        }
+    }
+
+    private void drive(ExecutorService executor, Operation[] schedule, String data, long durationNanos,
+                       LoadReport report) {
+        var intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, properties.getRate());
+        var reportIntervalNanos = properties.getReportInterval().toNanos();
+        var start = System.nanoTime();
+        var nextReport = start + reportIntervalNanos;
+
+        for (long sequence = 0; ; sequence++) {
+            var intendedStart = start + sequence * intervalNanos;
+            if (intendedStart - start >= durationNanos) {
+                return;
+            }
+
+            var now = System.nanoTime();
+            if (intendedStart > now) {
+                LockSupport.parkNanos(intendedStart - now);
+            }
+
+            if (report != null && now >= nextReport) {
+                report.interval(now - (nextReport - reportIntervalNanos));
+                nextReport += reportIntervalNanos;
+            }
+
+            var operation = schedule[(int) (sequence % schedule.length)];
+            var messageSequence = sequence;
+            executor.execute(() -> send(operation, messageSequence, data, intendedStart, report != null));
+        }
+    }
+
+    private void send(Operation operation, long sequence, String data, long intendedStart, boolean measured) {
+        var operationStats = stats.get(operation);
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (measured) {
+                operationStats.recordError();
+            }
+            return;
+        }
+
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            operation.execute(publisher, sequence, data);
+            if (measured) {
+                operationStats.recordSuccess(System.nanoTime() - intendedStart);
+            }
+        } catch (RuntimeException e) {
+            if (measured) {
+                operationStats.recordError();
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Falha ao executar {}: {}", operation, e.getMessage());
+            }
+        } finally {
+            inFlight.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * Monta uma sequência embaralhada com 100 posições respeitando os pesos do mix, repetida durante a execução.
+     * <p>
+     * Builds a shuffled 100-slot sequence honoring the mix weights, repeated during the run.
+     */
+    private Operation[] buildSchedule() {
+        var totalWeight = properties.getMix().values().stream().mapToInt(Integer::intValue).sum();
+        if (totalWeight <= 0) {
+            throw new IllegalArgumentException("loadtest.mix deve ter ao menos um peso positivo");
+        }
+
+        List<Operation> slots = new ArrayList<>(100);
+        properties.getMix().forEach((name, weight) -> {
+            var operation = Operation.of(name);
+            stats.put(operation, new OperationStats(operation));
+            var count = Math.round(weight * 100f / totalWeight);
+            for (var i = 0; i < count; i++) {
+                slots.add(operation);
+            }
+        });
+        Collections.shuffle(slots, ThreadLocalRandom.current());
+        return slots.toArray(Operation[]::new);
+    }
+}
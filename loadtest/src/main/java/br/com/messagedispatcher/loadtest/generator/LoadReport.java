@@ -0,0 +1,87 @@
+package br.com.messagedispatcher.loadtest.generator;
+
+import br.com.messagedispatcher.loadtest.LoadTestProperties;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relatórios parciais e final da execução: vazão e percentis de latência (HdrHistogram) por operação.
+ * <p>
+ * Interim and final reports of the run: throughput and latency percentiles (HdrHistogram) per operation.
+ */
+final class LoadReport {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadReport.class);
+    private static final String HEADER = String.format("%-8s %10s %8s %10s %10s %10s %10s %10s %10s",
+            "op", "count", "errors", "msg/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+    private final Collection<OperationStats> stats;
+    private final LoadTestProperties properties;
+
+    LoadReport(Collection<OperationStats> stats, LoadTestProperties properties) {
+        this.stats = stats;
+        this.properties = properties;
+    }
+
+    void interval(long elapsedNanos) {
+        var lines = new StringBuilder("Intervalo:\n").append(HEADER);
+        stats.forEach(s -> lines.append('\n').append(line(s.operation(), s.interval(), s.errors(), elapsedNanos)));
+        log.info(lines.toString());
+    }
+
+    void summary(long elapsedNanos, long consumedEvents, long maxInFlight) {
+        var lines = new StringBuilder("Resultado final:\n").append(HEADER);
+        var totalCount = 0L;
+        for (var s : stats) {
+            s.interval();
+            var histogram = s.total();
+            totalCount += histogram.getTotalCount();
+            lines.append('\n').append(line(s.operation(), histogram, s.errors(), elapsedNanos));
+            writeHistogram(s.operation(), histogram);
+        }
+        lines.append(String.format("%nTotal: %d mensagens em %.1fs (%.0f msg/s), eventos consumidos: %d, máximo em andamento: %d",
+                totalCount, elapsedNanos / 1e9, perSecond(totalCount, elapsedNanos), consumedEvents, maxInFlight));
+        log.info(lines.toString());
+    }
+
+    private static String line(Operation operation, Histogram histogram, long errors, long elapsedNanos) {
+        return String.format("%-8s %10d %8d %10.0f %10.3f %10.3f %10.3f %10.3f %10.3f",
+                operation.name().toLowerCase(),
+                histogram.getTotalCount(),
+                errors,
+                perSecond(histogram.getTotalCount(), elapsedNanos),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private void writeHistogram(Operation operation, Histogram histogram) {
+        if (properties.getHistogramDir() == null || properties.getHistogramDir().isBlank()) {
+            return;
+        }
+
+        var file = Path.of(properties.getHistogramDir(), "loadtest-" + operation.name().toLowerCase() + ".hgrm");
+        try (var out = new PrintStream(file.toFile())) {
+            histogram.outputPercentileDistribution(out, 1000.0);
+        } catch (FileNotFoundException e) {
+            log.warn("Não foi possível gravar o histograma em {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static double perSecond(long count, long elapsedNanos) {
+        return elapsedNanos == 0 ? 0 : count * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
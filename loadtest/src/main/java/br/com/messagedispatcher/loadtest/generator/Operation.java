@@ -0,0 +1,43 @@
+package br.com.messagedispatcher.loadtest.generator;
+
+import br.com.messagedispatcher.publisher.MessagePublisher;
+
+import static br.com.messagedispatcher.loadtest.sample.LoadTestPayloads.LoadCommand;
+import static br.com.messagedispatcher.loadtest.sample.LoadTestPayloads.LoadEvent;
+import static br.com.messagedispatcher.loadtest.sample.LoadTestPayloads.LoadQuery;
+import static br.com.messagedispatcher.loadtest.sample.LoadTestPayloads.LoadReply;
+
+/**
+ * Operações do {@link MessagePublisher} exercitadas pelo gerador. O evento mede apenas a publicação;
+ * comando e consulta medem a ida e volta completa.
+ * <p>
+ * {@link MessagePublisher} operations exercised by the generator. The event measures the publish only;
+ * command and query measure the full round trip.
+ */
+enum Operation {
+
+    EVENT {
+        @Override
+        void execute(MessagePublisher publisher, long sequence, String data) {
+            publisher.sendEvent(new LoadEvent(sequence, data));
+        }
+    },
+    COMMAND {
+        @Override
+        void execute(MessagePublisher publisher, long sequence, String data) {
+            publisher.doCommand(new LoadCommand(sequence, data), LoadReply.class);
+        }
+    },
+    QUERY {
+        @Override
+        void execute(MessagePublisher publisher, long sequence, String data) {
+            publisher.doQuery(new LoadQuery(sequence, data), LoadReply.class);
+        }
+    };
+
+    abstract void execute(MessagePublisher publisher, long sequence, String data);
+
+    static Operation of(String name) {
+        return valueOf(name.trim().toUpperCase());
+    }
+}
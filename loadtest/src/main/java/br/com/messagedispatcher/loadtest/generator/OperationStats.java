@@ -0,0 +1,59 @@
+package br.com.messagedispatcher.loadtest.generator;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências e contadores de uma operação. As latências são registradas em microssegundos a partir do instante
+ * em que a mensagem deveria ter sido enviada, evitando a omissão coordenada.
+ * <p>
+ * Latencies and counters of one operation. Latencies are recorded in microseconds from the instant the message
+ * was supposed to be sent, avoiding coordinated omission.
+ */
+final class OperationStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Operation operation;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+
+    OperationStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    void recordSuccess(long latencyNanos) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    void recordError() {
+        errors.increment();
+    }
+
+    /**
+     * Retorna o histograma do intervalo desde a última chamada e o acumula no total.
+     * <p>
+     * Returns the histogram of the interval since the last call and accumulates it into the total.
+     */
+    synchronized Histogram interval() {
+        var interval = recorder.getIntervalHistogram();
+        total.add(interval);
+        return interval;
+    }
+
+    synchronized Histogram total() {
+        return total.copy();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    Operation operation() {
+        return operation;
+    }
+}
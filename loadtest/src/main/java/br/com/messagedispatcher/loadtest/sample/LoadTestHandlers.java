@@ -0,0 +1,73 @@
+package br.com.messagedispatcher.loadtest.sample;
+
+import br.com.messagedispatcher.annotation.Command;
+import br.com.messagedispatcher.annotation.Event;
+import br.com.messagedispatcher.annotation.MessageListener;
+import br.com.messagedispatcher.annotation.Query;
+import br.com.messagedispatcher.loadtest.LoadTestProperties;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static br.com.messagedispatcher.loadtest.sample.LoadTestPayloads.LoadCommand;
+import static br.com.messagedispatcher.loadtest.sample.LoadTestPayloads.LoadEvent;
+import static br.com.messagedispatcher.loadtest.sample.LoadTestPayloads.LoadQuery;
+import static br.com.messagedispatcher.loadtest.sample.LoadTestPayloads.LoadReply;
+
+/**
+ * Handlers do serviço de exemplo. Por padrão não executam trabalho algum, para que o resultado reflita apenas o custo
+ * do starter e do broker; com {@code loadtest.handler-time} e {@code loadtest.slow-handler-*} simulam um tempo de
+ * serviço, com uma fração de mensagens lentas. Os eventos consumidos são contados para calcular a vazão de consumo.
+ * <p>
+ * Sample service handlers. By default they do no work, so that the result reflects only the starter and broker cost;
+ * with {@code loadtest.handler-time} and {@code loadtest.slow-handler-*} they simulate a service time, with a fraction
+ * of slow messages. Consumed events are counted to compute the consume throughput.
+ */
+@MessageListener
+public class LoadTestHandlers {
+
+    private final LongAdder consumedEvents = new LongAdder();
+    private final long handlerNanos;
+    private final long slowHandlerNanos;
+    private final int slowHandlerPercent;
+
+    public LoadTestHandlers(LoadTestProperties properties) {
+        this.handlerNanos = properties.getHandlerTime().toNanos();
+        this.slowHandlerNanos = properties.getSlowHandlerTime().toNanos();
+        this.slowHandlerPercent = properties.getSlowHandlerPercent();
+    }
+
+    @Event
+    public void onEvent(LoadEvent event) {
+        serve(event.sequence());
+        consumedEvents.increment();
+    }
+
+    @Command
+    public LoadReply onCommand(LoadCommand command) {
+        serve(command.sequence());
+        return new LoadReply(command.sequence());
+    }
+
+    @Query
+    public LoadReply onQuery(LoadQuery query) {
+        serve(query.sequence());
+        return new LoadReply(query.sequence());
+    }
+
+    /**
+     * Simula o tempo de serviço. A escolha das mensagens lentas pela sequência distribui-as uniformemente pela execução.
+     * <p>
+     * Simulates the service time. Picking slow messages by sequence spreads them evenly over the run.
+     */
+    private void serve(long sequence) {
+        var nanos = sequence % 100 < slowHandlerPercent ? slowHandlerNanos : handlerNanos;
+        if (nanos > 0) {
+            LockSupport.parkNanos(nanos);
+        }
+    }
+
+    public long consumedEvents() {
+        return consumedEvents.sum();
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.messagedispatcher.loadtest.sample;
+
+/**
+ * Payloads trocados entre o gerador de carga e os handlers do serviço de exemplo.
+ * <p>
+ * Payloads exchanged between the load generator and the sample service handlers.
+ */
+public final class LoadTestPayloads {
+
+    private LoadTestPayloads() {
+    }
+
+    public record LoadEvent(long sequence, String data) {
+    }
+
+    public record LoadCommand(long sequence, String data) {
+    }
+
+    public record LoadQuery(long sequence, String data) {
+    }
+
+    public record LoadReply(long sequence) {
+    }
+}
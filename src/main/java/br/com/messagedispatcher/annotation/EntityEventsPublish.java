@@ -1,5 +1,6 @@
 package br.com.messagedispatcher.annotation;
 
+import br.com.messagedispatcher.listener.EntityEventMapper;
 import br.com.messagedispatcher.listener.MessageDispatcherEntityEventsListenerImpl;
 
 import java.lang.annotation.Documented;
@@ -36,4 +37,65 @@ public @interface EntityEventsPublish {
     boolean publishCreate() default true;
 
     boolean publishUpdate() default true;
+
+    /**
+     * Exchange dos eventos da entidade; vazio usa {@code message.dispatcher.entity-events.exchange}.
+     * <p>
+     * Exchange of the entity events; empty uses {@code message.dispatcher.entity-events.exchange}.
+     */
+    String exchange() default "";
+
+    /**
+     * Routing key dos eventos da entidade; vazio usa {@code message.dispatcher.entity-events.routing-key}. Aceita os
+     * placeholders {@code {entity}}, o nome JPA da entidade, e {@code {action}}, {@code created}, {@code updated} ou
+     * {@code snapshot}.
+     * <p>
+     * Routing key of the entity events; empty uses {@code message.dispatcher.entity-events.routing-key}. Accepts the
+     * {@code {entity}} placeholder, the JPA entity name, and {@code {action}}, {@code created}, {@code updated} or
+     * {@code snapshot}.
+     */
+    String routingKey() default "";
+
+    /**
+     * Publica as atualizações como {@code EntityDelta}, com o id, a versão e apenas as propriedades alteradas, em vez
+     * da entidade inteira.
+     * <p>
+     * Publishes updates as {@code EntityDelta}, with the id, the version and only the changed properties, instead of
+     * the whole entity.
+     */
+    boolean delta() default false;
+
+    /**
+     * No modo delta, inclui também os valores anteriores das propriedades alteradas.
+     * <p>
+     * In delta mode, also includes the previous values of the changed properties.
+     */
+    boolean includePreviousValues() default false;
+
+    /**
+     * Propriedades que não geram evento de atualização quando são as únicas alteradas, como {@code lastAccessed}. No
+     * modo delta também ficam fora das alterações publicadas.
+     * <p>
+     * Properties that do not trigger an update event when they are the only ones changed, such as
+     * {@code lastAccessed}. In delta mode they are also left out of the published changes.
+     */
+    String[] ignoredProperties() default {};
+
+    /**
+     * Propriedades publicadas no lugar da entidade, lidas do estado do evento do Hibernate sem disparar lazy loading. O
+     * evento passa a ser um mapa com o id e essas propriedades.
+     * <p>
+     * Properties published instead of the entity, read from the Hibernate event state without triggering lazy loading.
+     * The event becomes a map with the id and these properties.
+     */
+    String[] properties() default {};
+
+    /**
+     * Mapper que monta o corpo do evento a partir do estado já carregado da entidade, restrito a {@link #properties()}
+     * quando informadas; o padrão publica a entidade.
+     * <p>
+     * Mapper that builds the event body from the already-loaded state of the entity, restricted to
+     * {@link #properties()} when given; the default publishes the entity.
+     */
+    Class<? extends EntityEventMapper> mapper() default EntityEventMapper.class;
 }
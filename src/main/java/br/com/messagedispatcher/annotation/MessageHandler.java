@@ -29,4 +29,10 @@ public @interface MessageHandler {
      * Type of Payload that's handler process.
      */
     Class<?> kind() default Object.class;
+
+    /**
+     * Lane, configurada em message.dispatcher.lanes, que recebe as mensagens deste handler.
+     * Lane, configured in message.dispatcher.lanes, that receives this handler's messages.
+     */
+    String lane() default "";
 }
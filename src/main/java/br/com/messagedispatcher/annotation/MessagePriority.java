@@ -0,0 +1,35 @@
+package br.com.messagedispatcher.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Prioridade padrão das mensagens com este payload, de 0 a 255. Tem precedência sobre a prioridade do tipo de handler
+ * e é substituída pela informada em {@code MessagePublisher.withPriority}. Só tem efeito em filas declaradas com
+ * {@code message.dispatcher.max-priority}, onde valores acima do máximo valem como o máximo.
+ * <p>
+ * Default priority of messages with this payload, from 0 to 255. Takes precedence over the handler type priority and is
+ * replaced by the one given to {@code MessagePublisher.withPriority}. Only effective on queues declared with
+ * {@code message.dispatcher.max-priority}, where values above the maximum count as the maximum.
+ * <p>
+ * <blockquote><pre>
+ * Exemplo:
+ * {@snippet java:
+ * @MessagePriority(0)
+ * public record BackfillOrders(LocalDate from, LocalDate to) {
+ * }
+ *}
+ * </pre></blockquote>
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface MessagePriority {
+
+    int value();
+}
@@ -0,0 +1,32 @@
+package br.com.messagedispatcher.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca o campo ou componente de record cujo valor é a chave de hash do payload na exchange consistent-hash padrão.
+ * Mensagens com a mesma chave caem na mesma partição e são processadas em ordem. O valor é convertido com
+ * {@code String.valueOf}; um valor nulo publica com a routing key informada. Apenas um membro por classe pode ser
+ * anotado, e a chave informada em {@code MessagePublisher.withPartitionKey} tem precedência.
+ * <p>
+ * Marks the field or record component whose value is the payload hash key on the default consistent-hash exchange.
+ * Messages with the same key land on the same shard and are processed in order. The value is converted with
+ * {@code String.valueOf}; a null value publishes with the given routing key. Only one member per class may be
+ * annotated, and the key given to {@code MessagePublisher.withPartitionKey} takes precedence.
+ * <p>
+ * <blockquote><pre>
+ * Exemplo:
+ * {@snippet java:
+ * public record OrderShipped(@PartitionKey UUID orderId, Instant shippedAt) {
+ * }
+ *}
+ * </pre></blockquote>
+ */
+@Target({ElementType.FIELD, ElementType.RECORD_COMPONENT})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface PartitionKey {
+}
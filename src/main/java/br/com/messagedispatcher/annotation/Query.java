@@ -1,5 +1,7 @@
 package br.com.messagedispatcher.annotation;
 
+import org.springframework.core.annotation.AliasFor;
+
 import java.lang.annotation.Documented;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -31,4 +33,13 @@ import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Hand
 @Documented
 @MessageHandler(handlerType = HandlerType.QUERY)
 public @interface Query {
+
+    /**
+     * Lane, configurada em message.dispatcher.lanes, que recebe as mensagens deste handler. Padrão é vazio, que mantém
+     * a lane do tipo de handler ou a fila padrão.
+     * Lane, configured in message.dispatcher.lanes, that receives this handler's messages. Default is empty, which keeps
+     * the lane of the handler type or the default queue.
+     */
+    @AliasFor(annotation = MessageHandler.class)
+    String lane() default "";
 }
\ No newline at end of file
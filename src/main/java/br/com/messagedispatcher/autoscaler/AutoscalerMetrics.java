@@ -0,0 +1,44 @@
+package br.com.messagedispatcher.autoscaler;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Expõe o estado e as decisões do {@link ConsumerAutoscaler} no Micrometer. Os medidores leem o estado do autoscaler
+ * no momento da coleta, sem nenhum custo no caminho das mensagens.
+ * <p>
+ * Exposes the {@link ConsumerAutoscaler} state and decisions through Micrometer. Meters read the autoscaler state at
+ * scrape time, at no cost on the message path.
+ */
+public class AutoscalerMetrics {
+
+    public static final String METRIC_PREFIX = "message.dispatcher.autoscaler";
+
+    public AutoscalerMetrics(ConsumerAutoscaler autoscaler, MeterRegistry meterRegistry) {
+        Gauge.builder(METRIC_PREFIX + ".consumers", autoscaler, ConsumerAutoscaler::getConsumers)
+                .description("Consumidores definidos pelo autoscaler")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".prefetch", autoscaler, ConsumerAutoscaler::getPrefetch)
+                .description("Prefetch definido pelo autoscaler")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".queue.depth", autoscaler, ConsumerAutoscaler::getQueueDepth)
+                .description("Mensagens prontas na fila de entrada na última avaliação")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".dwell", autoscaler, ConsumerAutoscaler::getMeanDwellMillis)
+                .description("Permanência média das mensagens na última janela")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".estimated.latency", autoscaler, ConsumerAutoscaler::getEstimatedLatencyMillis)
+                .description("Latência estimada que motivou a última decisão")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        for (var action : ScalingDecision.Action.values()) {
+            FunctionCounter.builder(METRIC_PREFIX + ".decisions", autoscaler, a -> a.getDecisionCount(action))
+                    .description("Decisões do autoscaler")
+                    .tag("action", action.name())
+                    .register(meterRegistry);
+        }
+    }
+}
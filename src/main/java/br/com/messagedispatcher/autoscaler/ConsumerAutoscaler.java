@@ -0,0 +1,205 @@
+package br.com.messagedispatcher.autoscaler;
+
+import br.com.messagedispatcher.interceptor.impl.DwellTimeDispatchInterceptor;
+import br.com.messagedispatcher.listener.ListenerContainers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Ajusta periodicamente a quantidade de consumidores e o prefetch dos containers da fila de entrada em direção a uma
+ * latência alvo. A cada intervalo lê a profundidade da fila (declare passivo em um canal do cache), a permanência
+ * média medida pelo {@link DwellTimeDispatchInterceptor} e aplica a decisão do {@link ScalingPolicy}.
+ * <p>
+ * Ao assumir o controle, o autoscaler fixa o mínimo e o máximo do container simple no mesmo valor, desligando a
+ * heurística própria do container. O prefetch de um consumidor é fixado pelo broker quando ele é criado, então uma
+ * alteração de prefetch reinicia os containers em execução: as mensagens em andamento terminam e as não confirmadas
+ * voltam para a fila.
+ * <p>
+ * Periodically adjusts the consumer count and prefetch of the inbox containers toward a target latency. On every
+ * interval it reads the queue depth (passive declare on a cached channel), the mean dwell time measured by the
+ * {@link DwellTimeDispatchInterceptor} and applies the {@link ScalingPolicy} decision.
+ * <p>
+ * When taking over, the autoscaler pins the simple container's minimum and maximum to the same value, turning off the
+ * container's own heuristic. The broker fixes a consumer's prefetch when it is created, so a prefetch change restarts
+ * the running containers: in-flight messages finish and unacknowledged ones go back to the queue.
+ */
+public class ConsumerAutoscaler implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsumerAutoscaler.class);
+
+    private final AmqpAdmin amqpAdmin;
+    private final Supplier<? extends Iterable<MessageListenerContainer>> containers;
+    private final DwellTimeDispatchInterceptor dwellTime;
+    private final ScalingPolicy policy;
+    private final String queueName;
+    private final Duration interval;
+    private final Map<ScalingDecision.Action, LongAdder> decisions = new EnumMap<>(ScalingDecision.Action.class);
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    private volatile int consumers;
+    private volatile int prefetch;
+    private volatile long queueDepth;
+    private volatile double meanDwellMillis;
+    private volatile double estimatedLatencyMillis;
+    private long lastEvaluationNanos;
+    private long lastChangeNanos;
+
+    public ConsumerAutoscaler(AmqpAdmin amqpAdmin, Supplier<? extends Iterable<MessageListenerContainer>> containers,
+                              DwellTimeDispatchInterceptor dwellTime, ScalingPolicy policy, String queueName,
+                              Duration interval, int initialConsumers, int initialPrefetch) {
+        this.amqpAdmin = amqpAdmin;
+        this.containers = containers;
+        this.dwellTime = dwellTime;
+        this.policy = policy;
+        this.queueName = queueName;
+        this.interval = interval;
+        this.consumers = Math.clamp(initialConsumers, policy.getMinConsumers(), policy.getMaxConsumers());
+        this.prefetch = initialPrefetch;
+        for (var action : ScalingDecision.Action.values()) {
+            decisions.put(action, new LongAdder());
+        }
+    }
+
+    @Override
+    public void start() {
+        apply(inboxContainers(), consumers, prefetch);
+        lastEvaluationNanos = System.nanoTime();
+        lastChangeNanos = lastEvaluationNanos;
+        dwellTime.drain();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "message-dispatcher-autoscaler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::evaluateSafely, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        running = true;
+        log.info("Autoscaler iniciado para a fila {}: {} consumidores ({}-{}), prefetch {}", queueName, consumers,
+                policy.getMinConsumers(), policy.getMaxConsumers(), prefetch);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void evaluateSafely() {
+        try {
+            evaluate();
+        } catch (RuntimeException e) {
+            log.warn("Falha na avaliação do autoscaler: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Executa uma avaliação: mede, decide, aplica e registra a decisão.
+     * <p>
+     * Runs one evaluation: measures, decides, applies and records the decision.
+     */
+    ScalingDecision evaluate() {
+        var now = System.nanoTime();
+        var window = dwellTime.drain();
+        var depth = readQueueDepth();
+        var observation = new ScalingPolicy.Observation(depth, window.received(), window.meanDwellMillis(),
+                now - lastEvaluationNanos);
+        lastEvaluationNanos = now;
+
+        var decision = policy.decide(consumers, prefetch, observation, now - lastChangeNanos);
+        decisions.get(decision.action()).increment();
+        queueDepth = depth;
+        meanDwellMillis = window.meanDwellMillis();
+        estimatedLatencyMillis = decision.estimatedLatencyMillis();
+
+        if (decision.consumers() != consumers || decision.prefetch() != prefetch) {
+            log.info("Autoscaler {}: consumidores {} -> {}, prefetch {} -> {} (latência estimada {} ms, fila {})",
+                    decision.action(), consumers, decision.consumers(), prefetch, decision.prefetch(),
+                    Math.round(decision.estimatedLatencyMillis()), depth);
+            if (decision.consumers() != consumers) {
+                lastChangeNanos = now;
+            }
+            var restart = decision.prefetch() != prefetch;
+            consumers = decision.consumers();
+            prefetch = decision.prefetch();
+            var inbox = inboxContainers();
+            apply(inbox, consumers, prefetch);
+            if (restart) {
+                ListenerContainers.restart(inbox);
+            }
+        } else if (log.isDebugEnabled()) {
+            log.debug("Autoscaler {}: {} consumidores, prefetch {} (latência estimada {} ms, fila {})",
+                    decision.action(), consumers, prefetch, Math.round(decision.estimatedLatencyMillis()), depth);
+        }
+
+        return decision;
+    }
+
+    private long readQueueDepth() {
+        try {
+            var info = amqpAdmin.getQueueInfo(queueName);
+            return info == null ? 0 : info.getMessageCount();
+        } catch (AmqpException e) {
+            log.debug("Não foi possível ler a profundidade da fila {}: {}", queueName, e.getMessage());
+            return 0;
+        }
+    }
+
+    private List<AbstractMessageListenerContainer> inboxContainers() {
+        return ListenerContainers.consuming(containers.get(), queueName);
+    }
+
+    private static void apply(List<AbstractMessageListenerContainer> containers, int consumers, int prefetch) {
+        for (var container : containers) {
+            container.setPrefetchCount(prefetch);
+            ListenerContainers.setConsumers(container, consumers, consumers);
+        }
+    }
+
+    public int getConsumers() {
+        return consumers;
+    }
+
+    public int getPrefetch() {
+        return prefetch;
+    }
+
+    public long getQueueDepth() {
+        return queueDepth;
+    }
+
+    public double getMeanDwellMillis() {
+        return meanDwellMillis;
+    }
+
+    public double getEstimatedLatencyMillis() {
+        return estimatedLatencyMillis;
+    }
+
+    public long getDecisionCount(ScalingDecision.Action action) {
+        return decisions.get(action).sum();
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.messagedispatcher.autoscaler;
+
+/**
+ * Resultado de uma avaliação do {@link ScalingPolicy}.
+ * <p>
+ * Result of one {@link ScalingPolicy} evaluation.
+ *
+ * @param action                 decisão tomada / decision taken
+ * @param consumers              consumidores após a decisão / consumers after the decision
+ * @param prefetch               prefetch após a decisão / prefetch after the decision
+ * @param estimatedLatencyMillis latência estimada que motivou a decisão / estimated latency behind the decision
+ */
+public record ScalingDecision(Action action, int consumers, int prefetch, double estimatedLatencyMillis) {
+
+    public enum Action {
+        /**
+         * Latência acima do alvo: mais consumidores.
+         * Latency above target: more consumers.
+         */
+        SCALE_UP,
+        /**
+         * Latência bem abaixo do alvo: menos consumidores.
+         * Latency well below target: fewer consumers.
+         */
+        SCALE_DOWN,
+        /**
+         * Latência dentro da faixa de histerese.
+         * Latency within the hysteresis band.
+         */
+        HOLD,
+        /**
+         * Latência acima do alvo, mas já no máximo de consumidores.
+         * Latency above target, but already at the consumer limit.
+         */
+        SATURATED
+    }
+}
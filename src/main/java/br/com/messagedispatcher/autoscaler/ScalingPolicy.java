@@ -0,0 +1,110 @@
+package br.com.messagedispatcher.autoscaler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regra de decisão do {@link ConsumerAutoscaler}, sem estado e sem dependência do broker.
+ * <p>
+ * A latência estimada é a maior entre a permanência média observada e o tempo para escoar a fila na vazão atual
+ * (profundidade / vazão). Acima do alvo os consumidores crescem na proporção do excesso; abaixo de
+ * {@code scaleDownRatio} do alvo, e após {@code scaleDownDelay} desde a última alteração, diminuem um a um. Entre os
+ * dois limites nada muda (histerese). O prefetch acompanha a vazão por consumidor: no máximo o que um consumidor
+ * processa dentro do alvo, para que o buffer de prefetch não exceda a latência desejada. Como alterar o prefetch reinicia
+ * os consumidores, ele só muda quando o novo valor fica fora de um fator 2 do atual.
+ * <p>
+ * Decision rule of the {@link ConsumerAutoscaler}, stateless and independent of the broker.
+ * <p>
+ * The estimated latency is the greater of the observed mean dwell time and the time to drain the queue at the current
+ * throughput (depth / throughput). Above the target, consumers grow in proportion to the excess; below
+ * {@code scaleDownRatio} of the target, and after {@code scaleDownDelay} since the last change, they shrink one at a
+ * time. Between both limits nothing changes (hysteresis). Prefetch follows the per-consumer throughput: at most what
+ * one consumer processes within the target, so that the prefetch buffer does not exceed the desired latency. Since a
+ * prefetch change restarts the consumers, it only moves when the new value falls outside a factor of 2 of the current
+ * one.
+ */
+public final class ScalingPolicy {
+
+    private static final int PREFETCH_TOLERANCE = 2;
+
+    private final int minConsumers;
+    private final int maxConsumers;
+    private final int maxPrefetch;
+    private final double targetMillis;
+    private final double scaleDownRatio;
+    private final long scaleDownDelayNanos;
+
+    public ScalingPolicy(int minConsumers, int maxConsumers, int maxPrefetch, long targetMillis, double scaleDownRatio,
+                         long scaleDownDelayNanos) {
+        if (minConsumers < 1 || maxConsumers < minConsumers) {
+            throw new IllegalArgumentException("Limites de consumidores inválidos: " + minConsumers + "-" + maxConsumers);
+        }
+        this.minConsumers = minConsumers;
+        this.maxConsumers = maxConsumers;
+        this.maxPrefetch = Math.max(1, maxPrefetch);
+        this.targetMillis = Math.max(1, targetMillis);
+        this.scaleDownRatio = scaleDownRatio;
+        this.scaleDownDelayNanos = scaleDownDelayNanos;
+    }
+
+    public ScalingDecision decide(int consumers, int prefetch, Observation observation, long nanosSinceLastChange) {
+        var seconds = observation.windowNanos() / (double) TimeUnit.SECONDS.toNanos(1);
+        var throughput = seconds > 0 ? observation.received() / seconds : 0;
+        var backlogMillis = observation.queueDepth() == 0 ? 0
+                : throughput > 0 ? observation.queueDepth() / throughput * 1000 : Double.POSITIVE_INFINITY;
+        var estimatedMillis = Math.max(observation.meanDwellMillis(), backlogMillis);
+
+        var action = ScalingDecision.Action.HOLD;
+        var targetConsumers = consumers;
+
+        if (estimatedMillis > targetMillis) {
+            if (consumers >= maxConsumers) {
+                action = ScalingDecision.Action.SATURATED;
+            } else {
+                action = ScalingDecision.Action.SCALE_UP;
+                targetConsumers = Double.isInfinite(estimatedMillis)
+                        ? consumers * 2
+                        : Math.max(consumers + 1, (int) Math.ceil(consumers * estimatedMillis / targetMillis));
+            }
+        } else if (estimatedMillis < targetMillis * scaleDownRatio
+                && consumers > minConsumers
+                && nanosSinceLastChange >= scaleDownDelayNanos) {
+            action = ScalingDecision.Action.SCALE_DOWN;
+            targetConsumers = consumers - 1;
+        }
+
+        targetConsumers = Math.clamp(targetConsumers, minConsumers, maxConsumers);
+
+        var targetPrefetch = prefetch;
+        if (throughput > 0) {
+            var perConsumer = throughput / targetConsumers;
+            var sizedPrefetch = Math.clamp((long) Math.ceil(perConsumer * targetMillis / 1000), 1, maxPrefetch);
+            // Reajustar o prefetch reinicia os consumidores: só fora de um fator 2 do atual, evitando oscilação
+            if (sizedPrefetch > prefetch * PREFETCH_TOLERANCE || sizedPrefetch * PREFETCH_TOLERANCE < prefetch) {
+                targetPrefetch = sizedPrefetch;
+            }
+        }
+
+        return new ScalingDecision(action, targetConsumers, targetPrefetch, estimatedMillis);
+    }
+
+    public int getMinConsumers() {
+        return minConsumers;
+    }
+
+    public int getMaxConsumers() {
+        return maxConsumers;
+    }
+
+    /**
+     * Medições de uma janela de avaliação.
+     * <p>
+     * Measurements of one evaluation window.
+     *
+     * @param queueDepth      mensagens prontas na fila / ready messages in the queue
+     * @param received        mensagens recebidas na janela / messages received in the window
+     * @param meanDwellMillis permanência média, em ms / mean dwell time, in ms
+     * @param windowNanos     duração da janela / window length
+     */
+    public record Observation(long queueDepth, long received, double meanDwellMillis, long windowNanos) {
+    }
+}
@@ -5,8 +5,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Configuration
 public class ConnectionFactoryAutoConfig {
@@ -15,7 +22,9 @@ public class ConnectionFactoryAutoConfig {
 
     @Bean
     @SuppressWarnings("unused")
-    protected ConnectionFactory connectionFactory(final MessageDispatcherProperties properties) {
+    protected ConnectionFactory connectionFactory(final MessageDispatcherProperties properties,
+                                                  @Qualifier("messageDispatcherConsumerExecutor")
+                                                  final ObjectProvider<ExecutorService> consumerExecutor) {
         log.debug("Configurando ConnectionFactory");
         CachingConnectionFactory connectionFactory = new CachingConnectionFactory();
         connectionFactory.setHost(properties.getHost());
@@ -25,8 +34,27 @@ public class ConnectionFactoryAutoConfig {
         connectionFactory.setVirtualHost(properties.getVirtualHost());
         connectionFactory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
         connectionFactory.setPublisherReturns(true);
+        consumerExecutor.ifAvailable(connectionFactory::setExecutor);
 
         log.debug("ConnectionFactory configurada");
         return connectionFactory;
     }
+
+    /**
+     * Executor das entregas do cliente AMQP, usado quando {@code message.dispatcher.consumer-executor-threads > 0}.
+     * Com o container direct é nele que os listeners executam.
+     * <p>
+     * AMQP client delivery executor, used when {@code message.dispatcher.consumer-executor-threads > 0}.
+     * With the direct container this is where the listeners run.
+     */
+    @Configuration
+    @ConditionalOnExpression("${message.dispatcher.consumer-executor-threads:0} > 0")
+    static class ConsumerExecutorConfig {
+
+        @Bean(destroyMethod = "shutdown")
+        public ExecutorService messageDispatcherConsumerExecutor(MessageDispatcherProperties properties) {
+            return Executors.newFixedThreadPool(properties.getConsumerExecutorThreads(),
+                    new CustomizableThreadFactory("message-dispatcher-amqp-"));
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package br.com.messagedispatcher.config;
+
+import br.com.messagedispatcher.interceptor.DispatchInterceptor;
+import br.com.messagedispatcher.interceptor.DispatchInterceptorChain;
+import br.com.messagedispatcher.interceptor.impl.MetricsDispatchInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Compõe a {@link DispatchInterceptorChain} a partir de todos os beans {@link DispatchInterceptor},
+ * respeitando a ordem definida via {@link org.springframework.core.annotation.Order}.
+ * <p>
+ * Composes the {@link DispatchInterceptorChain} from every {@link DispatchInterceptor} bean,
+ * honoring the order defined through {@link org.springframework.core.annotation.Order}.
+ */
+@Configuration
+public class DispatchInterceptorAutoConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchInterceptorAutoConfig.class);
+
+    @Bean
+    public DispatchInterceptorChain dispatchInterceptorChain(ObjectProvider<DispatchInterceptor> interceptors) {
+        var ordered = interceptors.orderedStream().toList();
+        log.debug("DispatchInterceptorChain composta com {} interceptors: {}", ordered.size(),
+                ordered.stream().map(i -> i.getClass().getSimpleName()).toList());
+        return new DispatchInterceptorChain(ordered);
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    @ConditionalOnProperty(value = "message.dispatcher.metrics.enabled", havingValue = "true", matchIfMissing = true)
+    static class MetricsInterceptorConfig {
+
+        @Bean
+        public MetricsDispatchInterceptor metricsDispatchInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+            return new MetricsDispatchInterceptor(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.messagedispatcher.config;
+
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.config.rabbitmq.ExchangesQueuesBindingConfigAutoConfig;
+import br.com.messagedispatcher.handlerdiscover.impl.MessageListenerBeanDiscover;
+import br.com.messagedispatcher.interceptor.impl.LaneRoutingDispatchInterceptor;
+import br.com.messagedispatcher.lane.HandlerLanes;
+import br.com.messagedispatcher.lane.LaneListenerConfigurer;
+import br.com.messagedispatcher.listener.RabbitMqMessageDispatcherListener;
+import br.com.messagedispatcher.listener.WorkSharingDispatcher;
+import br.com.messagedispatcher.util.factory.ExchangeFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.rabbit.listener.api.RabbitListenerErrorHandler;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+
+/**
+ * Configura as lanes de {@code message.dispatcher.lanes}. A resolução de lanes é usada também na publicação, por isso
+ * existe mesmo sem o listener padrão; filas, containers e a validação das lanes recebidas só são criados com ele.
+ * <p>
+ * Configures the lanes of {@code message.dispatcher.lanes}. Lane resolution is also used when publishing, so it exists
+ * even without the default listener; lane queues, containers and the validation of received lanes are only created
+ * with it.
+ */
+@Configuration
+public class HandlerLanesAutoConfig {
+
+    @Bean
+    public HandlerLanes handlerLanes(MessageDispatcherProperties properties, ApplicationContext applicationContext) {
+        return new HandlerLanes(properties, () -> MessageListenerBeanDiscover.getMessageListeners(applicationContext));
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "message.dispatcher.default-listener-enabled", havingValue = "true", matchIfMissing = true)
+    static class LaneListenerConfig {
+
+        private static final Logger log = LoggerFactory.getLogger(LaneListenerConfig.class);
+
+        @Bean
+        public Declarables handlerLaneQueues(HandlerLanes lanes, MessageDispatcherProperties properties) {
+            var declarables = new ArrayList<Declarable>();
+            var exchange = ExchangeFactory
+                    .buildExchange(properties.getExchangeName(),
+                            properties.isExchangeDurable(),
+                            properties.getExchangeType(),
+                            properties.getExchangeConsistentHashArguments());
+
+            lanes.getLanes().keySet().forEach(lane -> {
+                var queue = ExchangesQueuesBindingConfigAutoConfig.inboxQueue(lanes.queueName(lane), properties);
+                declarables.add(queue);
+                declarables.add(BindingBuilder.bind(queue).to(exchange).with(lanes.bindingKey(lane)).noargs());
+                log.debug("Fila {} da lane {} ligada pela routing key {}", queue.getName(), lane,
+                        lanes.bindingKey(lane));
+            });
+            return new Declarables(declarables);
+        }
+
+        @Bean
+        public LaneRoutingDispatchInterceptor laneRoutingDispatchInterceptor(HandlerLanes lanes,
+                                                                             MessageDispatcherProperties properties) {
+            return new LaneRoutingDispatchInterceptor(lanes, properties.getQueueName());
+        }
+
+        @Bean
+        public LaneListenerConfigurer laneListenerConfigurer(HandlerLanes lanes,
+                                                             MessageDispatcherProperties properties,
+                                                             RabbitMqMessageDispatcherListener listener,
+                                                             @Qualifier("messageDispatcherErrorHandler")
+                                                             RabbitListenerErrorHandler errorHandler,
+                                                             ObjectProvider<WorkSharingDispatcher> workSharingDispatcher,
+                                                             BeanFactory beanFactory) {
+            if (!lanes.isEmpty() && workSharingDispatcher.getIfAvailable() != null) {
+                log.warn("Lanes habilitadas junto com work-sharing: os containers das lanes entregam para o mesmo pool "
+                        + "de workers da fila padrão, então uma lane pode aguardar atrás de outra");
+            }
+            return new LaneListenerConfigurer(lanes, properties.getContainerType(), listener, errorHandler,
+                    beanFactory);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.messagedispatcher.config;
+
+import br.com.messagedispatcher.config.properties.InProcessTransportProperties;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.interceptor.DispatchInterceptorChain;
+import br.com.messagedispatcher.lane.HandlerLanes;
+import br.com.messagedispatcher.publisher.proxy.InProcessTemplateProxy;
+import br.com.messagedispatcher.publisher.proxy.RabbitTemplateProxy;
+import br.com.messagedispatcher.router.MessageRouter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Registra o {@link InProcessTemplateProxy} como {@link br.com.messagedispatcher.publisher.proxy.TemplateProxy}
+ * principal, decorando o {@link RabbitTemplateProxy}.
+ * <p>
+ * Registers the {@link InProcessTemplateProxy} as the primary
+ * {@link br.com.messagedispatcher.publisher.proxy.TemplateProxy}, decorating the {@link RabbitTemplateProxy}.
+ */
+@Configuration
+@ConditionalOnProperty(value = "message.dispatcher.in-process.enabled", havingValue = "true")
+public class InProcessTransportAutoConfig {
+
+    @Bean
+    @Primary
+    public InProcessTemplateProxy inProcessTemplateProxy(RabbitTemplateProxy rabbitTemplateProxy,
+                                                         MessageRouter messageRouter,
+                                                         DispatchInterceptorChain dispatchInterceptorChain,
+                                                         MessageConverter messageConverter,
+                                                         ObjectMapper objectMapper,
+                                                         MessageDispatcherProperties properties,
+                                                         HandlerLanes handlerLanes,
+                                                         InProcessTransportProperties inProcessProperties,
+                                                         ObjectProvider<PlatformTransactionManager> transactionManager) {
+        return new InProcessTemplateProxy(rabbitTemplateProxy, messageRouter, dispatchInterceptorChain,
+                messageConverter, objectMapper, properties, handlerLanes, inProcessProperties,
+                transactionManager.getIfUnique());
+    }
+}
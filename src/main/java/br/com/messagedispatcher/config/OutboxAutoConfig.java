@@ -0,0 +1,67 @@
+package br.com.messagedispatcher.config;
+
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.config.properties.OutboxProperties;
+import br.com.messagedispatcher.outbox.OutboxRelay;
+import br.com.messagedispatcher.outbox.OutboxStore;
+import br.com.messagedispatcher.publisher.MessagePublisher;
+import br.com.messagedispatcher.publisher.RabbitMessagePublisher;
+import br.com.messagedispatcher.publisher.proxy.OutboxTemplateProxy;
+import br.com.messagedispatcher.publisher.proxy.RabbitTemplateProxy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Configura o outbox transacional. O publicador {@code outboxMessagePublisher} não é candidato padrão à injeção de
+ * {@link MessagePublisher}: o serviço que quer gravar no outbox o injeta pelo nome, dentro da sua transação.
+ * <p>
+ * Configures the transactional outbox. The {@code outboxMessagePublisher} publisher is not a default candidate for
+ * {@link MessagePublisher} injection: a service that wants to write to the outbox injects it by name, inside its
+ * transaction.
+ */
+@Configuration
+@ConditionalOnClass(name = "org.springframework.jdbc.core.JdbcTemplate")
+@ConditionalOnProperty(value = "message.dispatcher.outbox.enabled", havingValue = "true")
+public class OutboxAutoConfig {
+
+    @Bean
+    public OutboxStore outboxStore(DataSource dataSource, ObjectMapper objectMapper, OutboxProperties outboxProperties) {
+        var store = new OutboxStore(new JdbcTemplate(dataSource), objectMapper, outboxProperties.getTableName());
+        if (outboxProperties.isInitializeSchema()) {
+            store.initializeSchema();
+        }
+        return store;
+    }
+
+    @Bean(defaultCandidate = false)
+    public MessagePublisher outboxMessagePublisher(RabbitTemplateProxy rabbitTemplateProxy,
+                                                   RabbitTemplate rabbitTemplate,
+                                                   OutboxStore outboxStore,
+                                                   MessageDispatcherProperties properties) {
+        var templateProxy = new OutboxTemplateProxy(rabbitTemplateProxy, rabbitTemplate.getMessageConverter(),
+                outboxStore, properties);
+        return new RabbitMessagePublisher(templateProxy, properties);
+    }
+
+    @Bean
+    public OutboxRelay outboxRelay(OutboxStore outboxStore, RabbitTemplate rabbitTemplate, DataSource dataSource,
+                                   OutboxProperties outboxProperties) {
+        var transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        return new OutboxRelay(outboxStore, rabbitTemplate, transactions,
+                outboxProperties.getRelays(),
+                outboxProperties.getBatchSize(),
+                outboxProperties.getPollInterval(),
+                outboxProperties.getConfirmTimeout(),
+                outboxProperties.getRetention(),
+                outboxProperties.getCleanupInterval());
+    }
+}
@@ -0,0 +1,47 @@
+package br.com.messagedispatcher.config;
+
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.config.properties.ReadModelProperties;
+import br.com.messagedispatcher.publisher.MessagePublisher;
+import br.com.messagedispatcher.readmodel.ReadModelCache;
+import br.com.messagedispatcher.readmodel.ReadModelMetrics;
+import br.com.messagedispatcher.readmodel.ReadModels;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Disponibiliza a fábrica de read models; os read models em si são beans declarados pela aplicação.
+ * <p>
+ * Provides the read model factory; the read models themselves are beans declared by the application.
+ */
+@Configuration
+public class ReadModelAutoConfig {
+
+    @Bean
+    public ReadModels readModels(ReadModelProperties readModelProperties, MessageDispatcherProperties properties,
+                                 MessagePublisher publisher, ObjectMapper objectMapper,
+                                 ConnectionFactory connectionFactory, ObjectProvider<AmqpAdmin> amqpAdmin) {
+        return new ReadModels(readModelProperties, properties.getRoutingKey(), publisher, objectMapper,
+                connectionFactory, amqpAdmin.getIfAvailable(() -> new RabbitAdmin(connectionFactory)));
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class ReadModelMetricsConfig {
+
+        @Bean
+        public ReadModelMetrics readModelMetrics(ObjectProvider<ReadModelCache<?>> caches,
+                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+            return new ReadModelMetrics(caches.orderedStream().toList(),
+                    meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        }
+    }
+}
@@ -1,10 +1,31 @@
 package br.com.messagedispatcher.config.listener;
 
+import br.com.messagedispatcher.config.properties.AsyncEntityEventsProperties;
+import br.com.messagedispatcher.config.properties.EntityBootstrapProperties;
 import br.com.messagedispatcher.config.properties.EntityEventsProperties;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.config.properties.OutboxProperties;
+import br.com.messagedispatcher.listener.EntityBootstrap;
+import br.com.messagedispatcher.listener.EntityBootstrapEndpoint;
+import br.com.messagedispatcher.listener.EntityBootstrapMetrics;
+import br.com.messagedispatcher.listener.EntityEventMetrics;
 import br.com.messagedispatcher.listener.MessageDispatcherEntityEventsListener;
 import br.com.messagedispatcher.listener.MessageDispatcherEntityEventsListenerImpl;
+import br.com.messagedispatcher.listener.MicrometerEntityEventMetrics;
+import br.com.messagedispatcher.publisher.AsyncEventMetrics;
+import br.com.messagedispatcher.publisher.AsyncEventPublisher;
 import br.com.messagedispatcher.publisher.MessagePublisher;
+import br.com.messagedispatcher.publisher.proxy.RabbitTemplateProxy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.slf4j.Logger;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,9 +37,111 @@ public class MessageDispatcherEntityListenerAutoConfig {
     private final Logger log = org.slf4j.LoggerFactory.getLogger(MessageDispatcherEntityListenerAutoConfig.class);
 
 
+    /**
+     * Com o outbox habilitado, os eventos são gravados pelo {@code outboxMessagePublisher}, na transação da entidade.
+     * Senão, com a publicação assíncrona habilitada, são entregues ao {@code entityEventsAsyncPublisher}.
+     * <p>
+     * With the outbox enabled, events are written by the {@code outboxMessagePublisher}, in the entity transaction.
+     * Otherwise, with asynchronous publishing enabled, they are handed to the {@code entityEventsAsyncPublisher}.
+     */
     @Bean
-    public MessageDispatcherEntityEventsListener messageDispatcherEntityListener(MessagePublisher publisher, EntityEventsProperties properties) {
+    public MessageDispatcherEntityEventsListener messageDispatcherEntityListener(MessagePublisher publisher, EntityEventsProperties properties,
+                                                                                 OutboxProperties outboxProperties,
+                                                                                 AsyncEntityEventsProperties asyncProperties,
+                                                                                 @Qualifier("outboxMessagePublisher")
+                                                                                 ObjectProvider<MessagePublisher> outboxPublisher,
+                                                                                 @Qualifier("entityEventsAsyncPublisher")
+                                                                                 ObjectProvider<AsyncEventPublisher> asyncPublisher,
+                                                                                 ObjectProvider<EntityEventMetrics> metrics) {
         log.debug("Inicializando Entity Listener.");
-        return new MessageDispatcherEntityEventsListenerImpl(publisher, properties);
+        var entityEventMetrics = metrics.getIfAvailable(() -> EntityEventMetrics.NONE);
+        if (outboxProperties.isEnabled()) {
+            if (asyncProperties.isEnabled()) {
+                log.warn("Publicação assíncrona de eventos ignorada: com o outbox os eventos são gravados na transação");
+            }
+            return new MessageDispatcherEntityEventsListenerImpl(outboxPublisher.getObject(), properties, true,
+                    entityEventMetrics);
+        }
+        MessagePublisher async = asyncPublisher.getIfAvailable();
+        return new MessageDispatcherEntityEventsListenerImpl(async != null ? async : publisher, properties, false,
+                entityEventMetrics);
     }
-}
\ No newline at end of file
+
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    @ConditionalOnProperty(value = "message.dispatcher.metrics.enabled", havingValue = "true", matchIfMissing = true)
+    static class EntityEventMetricsConfig {
+
+        @Bean
+        public EntityEventMetrics entityEventMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+            return new MicrometerEntityEventMetrics(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        }
+    }
+
+    @Configuration
+    @ConditionalOnExpression("${message.dispatcher.entity-events.async.enabled:false} and !${message.dispatcher.outbox.enabled:false}")
+    static class AsyncEntityEventsConfig {
+
+        @Bean(defaultCandidate = false)
+        public AsyncEventPublisher entityEventsAsyncPublisher(MessagePublisher publisher,
+                                                              MessageDispatcherProperties properties,
+                                                              AsyncEntityEventsProperties asyncProperties,
+                                                              ObjectMapper objectMapper) {
+            return new AsyncEventPublisher(publisher, properties, asyncProperties, objectMapper);
+        }
+
+        @Configuration
+        @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+        static class AsyncEventMetricsConfig {
+
+            @Bean
+            public AsyncEventMetrics asyncEventMetrics(@Qualifier("entityEventsAsyncPublisher") AsyncEventPublisher publisher,
+                                                       ObjectProvider<MeterRegistry> meterRegistry) {
+                return new AsyncEventMetrics(publisher, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+            }
+        }
+    }
+
+    /**
+     * Bootstrap das entidades publicadas, exposto pelo endpoint {@code entitybootstrap} com o actuator no classpath.
+     * <p>
+     * Bootstrap of the published entities, exposed through the {@code entitybootstrap} endpoint with the actuator on
+     * the classpath.
+     */
+    @Configuration
+    @ConditionalOnClass(name = "org.hibernate.SessionFactory")
+    static class EntityBootstrapConfig {
+
+        @Bean
+        public EntityBootstrap entityBootstrap(EntityManagerFactory entityManagerFactory,
+                                               RabbitTemplateProxy templateProxy,
+                                               EntityEventsProperties properties,
+                                               EntityBootstrapProperties bootstrapProperties,
+                                               ObjectMapper objectMapper) {
+            return new EntityBootstrap(entityManagerFactory.unwrap(SessionFactoryImplementor.class), templateProxy,
+                    properties, bootstrapProperties, objectMapper);
+        }
+
+        @Configuration
+        @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+        static class EntityBootstrapEndpointConfig {
+
+            @Bean
+            public EntityBootstrapEndpoint entityBootstrapEndpoint(EntityBootstrap entityBootstrap) {
+                return new EntityBootstrapEndpoint(entityBootstrap);
+            }
+        }
+
+        @Configuration
+        @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+        static class EntityBootstrapMetricsConfig {
+
+            @Bean
+            public EntityBootstrapMetrics entityBootstrapMetrics(EntityBootstrap entityBootstrap,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+                return new EntityBootstrapMetrics(entityBootstrap,
+                        meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+            }
+        }
+    }
+}
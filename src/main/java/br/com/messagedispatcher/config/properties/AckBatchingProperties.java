@@ -0,0 +1,59 @@
+package br.com.messagedispatcher.config.properties;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Propriedades do agrupamento de acks ({@code message.dispatcher.ack-batching}).
+ * <p>
+ * Ack batching properties ({@code message.dispatcher.ack-batching}).
+ */
+@Component
+@Validated
+@ConfigurationProperties(prefix = "message.dispatcher.ack-batching")
+public class AckBatchingProperties {
+
+    /**
+     * Habilita o agrupamento de acks do listener padrão. Padrão é false
+     */
+    private boolean enabled = false;
+
+    /**
+     * Mensagens por ack, limitado à metade do prefetch de cada canal. Padrão é 50
+     */
+    @Min(1)
+    private int size = 50;
+
+    /**
+     * Tempo máximo que uma mensagem processada aguarda o ack. Padrão é 100ms
+     */
+    private Duration timeout = Duration.ofMillis(100);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
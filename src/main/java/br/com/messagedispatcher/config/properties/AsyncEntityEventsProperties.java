@@ -0,0 +1,98 @@
+package br.com.messagedispatcher.config.properties;
+
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.OverflowPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Propriedades da publicação assíncrona de eventos de entidade ({@code message.dispatcher.entity-events.async}).
+ * <p>
+ * Asynchronous entity event publishing properties ({@code message.dispatcher.entity-events.async}).
+ */
+@Component
+@ConfigurationProperties(prefix = "message.dispatcher.entity-events.async")
+public class AsyncEntityEventsProperties {
+
+    /**
+     * Publica os eventos de entidade em threads próprias, fora da thread do commit. Padrão é false
+     */
+    private boolean enabled = false;
+
+    /**
+     * Envios aguardando publicação antes de aplicar a política de estouro. Padrão é 10000
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Threads que publicam os eventos da fila. Os eventos de uma mesma entidade vão sempre para a mesma thread, na
+     * ordem do commit. Padrão é 2
+     */
+    private int publishers = 2;
+
+    /**
+     * O que fazer com a fila cheia: BLOCK, DROP_OLDEST ou SPILL. Padrão é BLOCK
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    /**
+     * Diretório dos eventos gravados em disco pela política SPILL. Padrão é message-dispatcher-spill no diretório
+     * temporário
+     */
+    private Path spillDirectory = Path.of(System.getProperty("java.io.tmpdir"), "message-dispatcher-spill");
+
+    /**
+     * Tempo máximo para publicar os eventos da fila no encerramento. Padrão é 30 segundos
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public int getPublishers() {
+        return publishers;
+    }
+
+    public void setPublishers(int publishers) {
+        this.publishers = publishers;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public Path getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    public void setSpillDirectory(Path spillDirectory) {
+        this.spillDirectory = spillDirectory;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+}
@@ -0,0 +1,120 @@
+package br.com.messagedispatcher.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propriedades do autoscaler de consumidores ({@code message.dispatcher.autoscaler}).
+ * <p>
+ * Consumer autoscaler properties ({@code message.dispatcher.autoscaler}).
+ */
+@Component
+@ConfigurationProperties(prefix = "message.dispatcher.autoscaler")
+public class AutoscalerProperties {
+
+    /**
+     * Habilita o autoscaler de consumidores do listener padrão. Padrão é false
+     */
+    private boolean enabled = false;
+
+    /**
+     * Latência alvo: tempo entre a publicação e o início do processamento. Padrão é 200ms
+     */
+    private Duration targetDwellTime = Duration.ofMillis(200);
+
+    /**
+     * Intervalo entre as avaliações. Padrão é 5 segundos
+     */
+    private Duration interval = Duration.ofSeconds(5);
+
+    /**
+     * Mínimo de consumidores. Padrão é 0, que usa o mínimo de {concurrency}
+     */
+    private int minConsumers = 0;
+
+    /**
+     * Máximo de consumidores. Padrão é 0, que usa o máximo de {concurrency}
+     */
+    private int maxConsumers = 0;
+
+    /**
+     * Limite superior do prefetch ajustado. Padrão é 100
+     */
+    private int maxPrefetch = 100;
+
+    /**
+     * Histerese: só reduz consumidores quando a latência fica abaixo desta fração do alvo. Padrão é 0.5
+     */
+    private double scaleDownRatio = 0.5;
+
+    /**
+     * Tempo mínimo desde a última alteração antes de reduzir consumidores. Padrão é 30 segundos
+     */
+    private Duration scaleDownDelay = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTargetDwellTime() {
+        return targetDwellTime;
+    }
+
+    public void setTargetDwellTime(Duration targetDwellTime) {
+        this.targetDwellTime = targetDwellTime;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public int getMinConsumers() {
+        return minConsumers;
+    }
+
+    public void setMinConsumers(int minConsumers) {
+        this.minConsumers = minConsumers;
+    }
+
+    public int getMaxConsumers() {
+        return maxConsumers;
+    }
+
+    public void setMaxConsumers(int maxConsumers) {
+        this.maxConsumers = maxConsumers;
+    }
+
+    public int getMaxPrefetch() {
+        return maxPrefetch;
+    }
+
+    public void setMaxPrefetch(int maxPrefetch) {
+        this.maxPrefetch = maxPrefetch;
+    }
+
+    public double getScaleDownRatio() {
+        return scaleDownRatio;
+    }
+
+    public void setScaleDownRatio(double scaleDownRatio) {
+        this.scaleDownRatio = scaleDownRatio;
+    }
+
+    public Duration getScaleDownDelay() {
+        return scaleDownDelay;
+    }
+
+    public void setScaleDownDelay(Duration scaleDownDelay) {
+        this.scaleDownDelay = scaleDownDelay;
+    }
+}
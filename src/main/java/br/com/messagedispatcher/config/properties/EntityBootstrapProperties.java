@@ -0,0 +1,72 @@
+package br.com.messagedispatcher.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Propriedades do bootstrap de entidades ({@code message.dispatcher.entity-events.bootstrap}), que publica as linhas
+ * existentes como eventos SNAPSHOT.
+ * <p>
+ * Entity bootstrap properties ({@code message.dispatcher.entity-events.bootstrap}), which publishes the existing rows
+ * as SNAPSHOT events.
+ */
+@Component
+@ConfigurationProperties(prefix = "message.dispatcher.entity-events.bootstrap")
+public class EntityBootstrapProperties {
+
+    /**
+     * Linhas lidas e publicadas por lote, cada lote confirmado pelo broker antes do checkpoint. Padrão é 1000
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Máximo de eventos publicados por segundo em cada bootstrap; 0 não limita. Padrão é 0
+     */
+    private int rateLimit = 0;
+
+    /**
+     * Tempo máximo de espera pelas confirmações do broker de um lote. Padrão é 30 segundos
+     */
+    private Duration confirmTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Diretório dos checkpoints, um arquivo por entidade com o último id publicado; deve sobreviver a reinícios e é
+     * obrigatório para iniciar um bootstrap. Padrão é vazio
+     */
+    private Path checkpointDirectory;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getRateLimit() {
+        return rateLimit;
+    }
+
+    public void setRateLimit(int rateLimit) {
+        this.rateLimit = rateLimit;
+    }
+
+    public Duration getConfirmTimeout() {
+        return confirmTimeout;
+    }
+
+    public void setConfirmTimeout(Duration confirmTimeout) {
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    public Path getCheckpointDirectory() {
+        return checkpointDirectory;
+    }
+
+    public void setCheckpointDirectory(Path checkpointDirectory) {
+        this.checkpointDirectory = checkpointDirectory;
+    }
+}
@@ -16,7 +16,8 @@ public class EntityEventsProperties {
     private String exchange;
 
     /**
-     * Routing key para onde os eventos de entidade serão enviados
+     * Routing key para onde os eventos de entidade serão enviados. Aceita os placeholders {entity}, o nome da entidade,
+     * e {action}, created, updated ou snapshot, como em {entity}.{action}. Padrão é #
      */
     private String routingKey;
 
@@ -30,6 +31,12 @@ public class EntityEventsProperties {
      */
     private boolean enabled = false;
 
+    /**
+     * Agrupa os eventos de cada transação, um por entidade com o estado final, publicados em um único envio após o
+     * commit. Padrão é true
+     */
+    private boolean coalesce = true;
+
     @Value("${spring.application.name}")
     private String appName;
 
@@ -68,6 +75,14 @@ public class EntityEventsProperties {
         this.enabled = enabled;
     }
 
+    public boolean isCoalesce() {
+        return coalesce;
+    }
+
+    public void setCoalesce(boolean coalesce) {
+        this.coalesce = coalesce;
+    }
+
     public MessageDispatcherConstants.Exchange getExchangeType() {
         return exchangeType;
     }
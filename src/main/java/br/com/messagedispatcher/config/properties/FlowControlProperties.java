@@ -0,0 +1,55 @@
+package br.com.messagedispatcher.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Propriedades do controle de fluxo por bytes ({@code message.dispatcher.flow-control}).
+ * <p>
+ * Byte-based flow control properties ({@code message.dispatcher.flow-control}).
+ */
+@Component
+@ConfigurationProperties(prefix = "message.dispatcher.flow-control")
+public class FlowControlProperties {
+
+    /**
+     * Habilita o controle de fluxo por bytes do listener padrão. Padrão é false
+     */
+    private boolean enabled = false;
+
+    /**
+     * Volume de corpos de mensagens entregues e ainda sem ack, por container, a partir do qual os consumidores dele são
+     * cancelados. Padrão é 64MB
+     */
+    private DataSize highWatermark = DataSize.ofMegabytes(64);
+
+    /**
+     * Volume abaixo do qual os consumidores cancelados são registrados novamente. Padrão é 32MB
+     */
+    private DataSize lowWatermark = DataSize.ofMegabytes(32);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public DataSize getHighWatermark() {
+        return highWatermark;
+    }
+
+    public void setHighWatermark(DataSize highWatermark) {
+        this.highWatermark = highWatermark;
+    }
+
+    public DataSize getLowWatermark() {
+        return lowWatermark;
+    }
+
+    public void setLowWatermark(DataSize lowWatermark) {
+        this.lowWatermark = lowWatermark;
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.messagedispatcher.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Propriedades do transporte em processo ({@code message.dispatcher.in-process}).
+ * <p>
+ * In-process transport properties ({@code message.dispatcher.in-process}).
+ */
+@Component
+@ConfigurationProperties(prefix = "message.dispatcher.in-process")
+public class InProcessTransportProperties {
+
+    /**
+     * Modos do transporte em processo.
+     * In-process transport modes.
+     */
+    public enum Mode {
+        /**
+         * Somente mensagens endereçadas à própria fila (exchange e routing key do serviço), sem lane nem chave de
+         * partição, são despachadas em processo; as demais seguem pelo broker.
+         * <p>
+         * Only messages addressed to the service's own queue (its exchange and routing key), without a lane or a
+         * partition key, are dispatched in-process; the others go through the broker.
+         */
+        LOCAL,
+        /**
+         * Todas as mensagens são despachadas em processo, sem broker. Indicado para testes.
+         * <p>
+         * Every message is dispatched in-process, without a broker. Meant for tests.
+         */
+        ALL
+    }
+
+    /**
+     * Habilita o transporte em processo. Padrão é false
+     */
+    private boolean enabled = false;
+
+    /**
+     * Quais rotas são despachadas em processo. Padrão é LOCAL
+     */
+    private Mode mode = Mode.LOCAL;
+
+    /**
+     * Serializa payload e resposta em JSON, como no broker. Com false o próprio objeto é entregue ao handler. Padrão é true
+     */
+    private boolean serialize = true;
+
+    /**
+     * Executa o handler na transação do publicador. Com false a transação é suspensa durante o handler, como se a
+     * mensagem viesse do broker; a suspensão requer um único PlatformTransactionManager. Padrão é false
+     */
+    private boolean joinTransaction = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public boolean isSerialize() {
+        return serialize;
+    }
+
+    public void setSerialize(boolean serialize) {
+        this.serialize = serialize;
+    }
+
+    public boolean isJoinTransaction() {
+        return joinTransaction;
+    }
+
+    public void setJoinTransaction(boolean joinTransaction) {
+        this.joinTransaction = joinTransaction;
+    }
+}
@@ -19,11 +19,15 @@ package br.com.messagedispatcher.config.properties;
 import br.com.messagedispatcher.config.MessageDispatcherAutoConfig;
 import br.com.messagedispatcher.config.rabbitmq.RabbitTemplateAutoConfig;
 import br.com.messagedispatcher.constants.MessageDispatcherConstants;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.ContainerType;
 import br.com.messagedispatcher.constants.MessageDispatcherConstants.Exchange;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
 import br.com.messagedispatcher.exceptions.MessageDispatcherBeanResolutionException;
 import jakarta.annotation.PostConstruct;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -32,7 +36,11 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import static java.util.Objects.isNull;
@@ -82,6 +90,10 @@ import static java.util.Objects.isNull;
  * <p>
  * message.dispatcher.prefetchCount default 10
  * <p>
+ * message.dispatcher.containerType default simple
+ * <p>
+ * message.dispatcher.consumersPerQueue default 1
+ * <p>
  * message.dispatcher.receive-timeout default 10
  *
  * @author Cleber Souza
@@ -95,6 +107,20 @@ import static java.util.Objects.isNull;
 @Validated
 public class MessageDispatcherProperties {
 
+    /**
+     * Prefetch máximo sem o controle de fluxo por bytes, em que só a quantidade de mensagens limita o buffer.
+     * <p>
+     * Maximum prefetch without byte-based flow control, where only the message count bounds the buffer.
+     */
+    public static final int MAX_PREFETCH_COUNT = 100;
+
+    /**
+     * Prefetch máximo do protocolo AMQP, aceito com o controle de fluxo por bytes.
+     * <p>
+     * AMQP protocol maximum prefetch, accepted with byte-based flow control.
+     */
+    public static final int MAX_FLOW_CONTROLLED_PREFETCH_COUNT = 65535;
+
     @PostConstruct
     public void init() {
         final Logger log = LoggerFactory.getLogger(MessageDispatcherProperties.class);
@@ -180,8 +206,9 @@ public class MessageDispatcherProperties {
     private String routingKey;
 
     /**
-     * Configuração de concorrência do consumidor. Padrão é "1-10"
+     * Configuração de concorrência do consumidor, no formato mínimo-máximo. Padrão é "1-10"
      */
+    @Pattern(regexp = "[1-9]\\d*-[1-9]\\d*")
     private String concurrency = "1-10";
 
     /**
@@ -227,30 +254,58 @@ public class MessageDispatcherProperties {
     /**
      * Retentativas máximas antes de enviar para a dead letter. Padrão é 3
      */
+    @Min(1)
     private int maxRetryAttempts = 3;
 
     /**
      * Intervalo inicial entre as tentativas. Padrão é 5000ms
      */
+    @Min(1)
     private int initialInterval = 2000;
 
     /**
      * Multiplicador do intervalo entre as tentativas. Padrão é 2
      */
+    @Min(1)
     private int multiplier = 2;
 
     /**
      * Intervalo máximo entre as tentativas. Padrão é 10000ms
      */
+    @Min(1)
     private int maxInterval = 10000;
 
     /**
-     * Quantidade de mensagens que serão consumidas por vez. Padrão é 10
+     * Quantidade de mensagens que serão consumidas por vez, até 100 ou, com o controle de fluxo por bytes, até 65535.
+     * Padrão é 10
      */
     @Min(1)
-    @Max(100)
+    @Max(MAX_FLOW_CONTROLLED_PREFETCH_COUNT)
     private int prefetchCount = 10;
 
+    /**
+     * Tipo do container de listener: simple ou direct. Padrão é simple
+     */
+    private ContainerType containerType = ContainerType.SIMPLE;
+
+    /**
+     * Consumidores por fila quando o container é direct; substitui {concurrency}. Padrão é 1
+     */
+    @Min(1)
+    private int consumersPerQueue = 1;
+
+    /**
+     * Intervalo, em ms, com que o container direct verifica e recupera consumidores. Padrão é 10000ms
+     */
+    private long monitorInterval = 10_000;
+
+    /**
+     * Threads do executor do cliente AMQP, onde as entregas de cada canal são processadas (e onde os listeners executam
+     * quando o container é direct). Padrão é 0, que mantém o executor padrão do cliente
+     */
+    @Min(0)
+    private int consumerExecutorThreads = 0;
+
     /**
      * Tempo máximo de espera por uma resposta. Padrão é 10 segundos
      */
@@ -258,6 +313,27 @@ public class MessageDispatcherProperties {
 
     private Mapped mapped = new Mapped();
 
+    /**
+     * Prioridade máxima (x-max-priority) da fila padrão e das lanes, de 1 a 255. Padrão é 0, que declara as filas sem
+     * prioridade
+     */
+    @Min(0)
+    @Max(255)
+    private int maxPriority = 0;
+
+    /**
+     * Prioridade das mensagens publicadas por tipo de handler, quando nem a chamada nem o payload definem uma. Padrão é
+     * nenhuma
+     */
+    private Map<HandlerType, @Min(0) @Max(255) Integer> defaultPriorities = new EnumMap<>(HandlerType.class);
+
+    /**
+     * Lanes: filas e containers separados por tipo de handler ou por handler, indexados pelo nome da lane. Padrão é
+     * nenhuma, com todas as mensagens na fila {queueName}
+     */
+    @Valid
+    private Map<String, Lane> lanes = new LinkedHashMap<>();
+
     /**
      * Indica se exceções ocorridas durante o processamento das mensagens dem ser retornadas ao cliente publicador.
      */
@@ -477,6 +553,8 @@ public class MessageDispatcherProperties {
                 ", routingKey='" + routingKey + '\'' +
                 ", queueDurable=" + queueDurable +
                 ", concurrency='" + concurrency + '\'' +
+                ", containerType=" + containerType +
+                ", consumersPerQueue=" + consumersPerQueue +
                 ", deadLetterExchangeName='" + deadLetterExchangeName + '\'' +
                 ", deadLetterExchangeDurable=" + deadLetterExchangeDurable +
                 ", deadLetterQueueName='" + deadLetterQueueName + '\'' +
@@ -488,6 +566,9 @@ public class MessageDispatcherProperties {
                 ", prefetchCount=" + prefetchCount +
                 ", replyTimeOut= " + replyTimeOut +
                 ", mappedHeaders=" + mapped +
+                ", maxPriority=" + maxPriority +
+                ", defaultPriorities=" + defaultPriorities +
+                ", lanes=" + lanes +
                 '}';
     }
 
@@ -499,6 +580,73 @@ public class MessageDispatcherProperties {
         this.mapped = mapped;
     }
 
+    public int getMaxPriority() {
+        return maxPriority;
+    }
+
+    public void setMaxPriority(int maxPriority) {
+        this.maxPriority = maxPriority;
+    }
+
+    public Map<HandlerType, Integer> getDefaultPriorities() {
+        return defaultPriorities;
+    }
+
+    public void setDefaultPriorities(Map<HandlerType, Integer> defaultPriorities) {
+        this.defaultPriorities = defaultPriorities;
+    }
+
+    public Map<String, Lane> getLanes() {
+        return lanes;
+    }
+
+    public void setLanes(Map<String, Lane> lanes) {
+        this.lanes = lanes;
+    }
+
+    public ContainerType getContainerType() {
+        return containerType;
+    }
+
+    public void setContainerType(ContainerType containerType) {
+        this.containerType = containerType;
+    }
+
+    public int getConsumersPerQueue() {
+        return consumersPerQueue;
+    }
+
+    public void setConsumersPerQueue(int consumersPerQueue) {
+        this.consumersPerQueue = consumersPerQueue;
+    }
+
+    public long getMonitorInterval() {
+        return monitorInterval;
+    }
+
+    public void setMonitorInterval(long monitorInterval) {
+        this.monitorInterval = monitorInterval;
+    }
+
+    public int getConsumerExecutorThreads() {
+        return consumerExecutorThreads;
+    }
+
+    public void setConsumerExecutorThreads(int consumerExecutorThreads) {
+        this.consumerExecutorThreads = consumerExecutorThreads;
+    }
+
+    /**
+     * Concorrência informada ao listener padrão: {concurrency} no container simple e {consumersPerQueue} no direct,
+     * que aceita apenas um número fixo.
+     * <p>
+     * Concurrency given to the default listener: {concurrency} on the simple container and {consumersPerQueue} on the
+     * direct one, which only accepts a fixed number.
+     */
+    public String listenerConcurrency() {
+        return containerType == ContainerType.DIRECT ? String.valueOf(consumersPerQueue) : concurrency;
+    }
+
     public int minConsumers() {
         return Integer.parseInt(getConcurrency().split("-")[0]);
     }
@@ -531,6 +679,96 @@ public class MessageDispatcherProperties {
         this.deadLetterExchangeConsistentHashArguments = deadLetterExchangeConsistentHashArguments;
     }
 
+    /**
+     * Lane: fila própria, ligada à exchange padrão pela routing key {routingKey}.{nome}, consumida por um container
+     * próprio. Recebe as mensagens dos tipos de handler e de payload listados e dos handlers anotados com a lane.
+     * <p>
+     * Lane: its own queue, bound to the default exchange with the routing key {routingKey}.{name}, consumed by its own
+     * container. Receives the messages of the listed handler and payload types and of the handlers annotated with the
+     * lane.
+     */
+    public static class Lane {
+
+        /**
+         * Tipos de handler direcionados à lane. Padrão é nenhum
+         */
+        private List<HandlerType> handlerTypes = new ArrayList<>();
+
+        /**
+         * Nomes simples das classes de payload direcionadas à lane, com precedência sobre {handlerTypes}. Padrão é
+         * nenhum
+         */
+        private List<String> payloadTypes = new ArrayList<>();
+
+        /**
+         * Concorrência do container da lane, no formato mínimo-máximo; no container direct vale o máximo. Padrão é
+         * "1-1"
+         */
+        @Pattern(regexp = "[1-9]\\d*-[1-9]\\d*")
+        private String concurrency = "1-1";
+
+        /**
+         * Prefetch dos consumidores da lane, até 100 ou, com o controle de fluxo por bytes, até 65535. Padrão é 10
+         */
+        @Min(1)
+        @Max(MAX_FLOW_CONTROLLED_PREFETCH_COUNT)
+        private int prefetchCount = 10;
+
+        public List<HandlerType> getHandlerTypes() {
+            return handlerTypes;
+        }
+
+        public void setHandlerTypes(List<HandlerType> handlerTypes) {
+            this.handlerTypes = handlerTypes;
+        }
+
+        public List<String> getPayloadTypes() {
+            return payloadTypes;
+        }
+
+        public void setPayloadTypes(List<String> payloadTypes) {
+            this.payloadTypes = payloadTypes;
+        }
+
+        public String getConcurrency() {
+            return concurrency;
+        }
+
+        public void setConcurrency(String concurrency) {
+            this.concurrency = concurrency.trim();
+        }
+
+        public int getPrefetchCount() {
+            return prefetchCount;
+        }
+
+        public void setPrefetchCount(int prefetchCount) {
+            this.prefetchCount = prefetchCount;
+        }
+
+        /**
+         * Concorrência informada ao container da lane: {concurrency} no container simple e o máximo no direct.
+         * <p>
+         * Concurrency given to the lane container: {concurrency} on the simple container and the maximum on the direct
+         * one.
+         */
+        public String listenerConcurrency(ContainerType containerType) {
+            return containerType == ContainerType.DIRECT
+                    ? concurrency.substring(concurrency.indexOf('-') + 1)
+                    : concurrency;
+        }
+
+        @Override
+        public String toString() {
+            return "Lane{" +
+                    "handlerTypes=" + handlerTypes +
+                    ", payloadTypes=" + payloadTypes +
+                    ", concurrency='" + concurrency + '\'' +
+                    ", prefetchCount=" + prefetchCount +
+                    '}';
+        }
+    }
+
     /**
      * Mapeia os headers que serão mapeados para o objeto MessageProperties do RabbitMQ.
      * <p>
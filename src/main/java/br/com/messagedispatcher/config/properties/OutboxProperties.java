@@ -0,0 +1,134 @@
+package br.com.messagedispatcher.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propriedades do outbox transacional ({@code message.dispatcher.outbox}).
+ * <p>
+ * Transactional outbox properties ({@code message.dispatcher.outbox}).
+ */
+@Component
+@ConfigurationProperties(prefix = "message.dispatcher.outbox")
+public class OutboxProperties {
+
+    /**
+     * Habilita o outbox: eventos de entidade e o publicador outboxMessagePublisher gravam na tabela, na transação
+     * corrente, e os relays publicam no broker. Padrão é false
+     */
+    private boolean enabled = false;
+
+    /**
+     * Nome da tabela do outbox. Padrão é message_dispatcher_outbox
+     */
+    private String tableName = "message_dispatcher_outbox";
+
+    /**
+     * Cria a tabela na inicialização, se não existir. Padrão é false
+     */
+    private boolean initializeSchema = false;
+
+    /**
+     * Registros lidos e publicados por lote. Padrão é 100
+     */
+    private int batchSize = 100;
+
+    /**
+     * Espera entre as consultas quando o lote anterior não veio cheio. Padrão é 1 segundo
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * Relays em paralelo por instância, cada um com uma faixa das chaves. Padrão é 1
+     */
+    private int relays = 1;
+
+    /**
+     * Tempo máximo de espera pelas confirmações do broker de um lote. Padrão é 10 segundos
+     */
+    private Duration confirmTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Tempo que os registros publicados permanecem na tabela. Padrão é 0, que os remove ao publicar
+     */
+    private Duration retention = Duration.ZERO;
+
+    /**
+     * Intervalo da remoção dos registros publicados com a retenção vencida. Padrão é 1 minuto
+     */
+    private Duration cleanupInterval = Duration.ofMinutes(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public boolean isInitializeSchema() {
+        return initializeSchema;
+    }
+
+    public void setInitializeSchema(boolean initializeSchema) {
+        this.initializeSchema = initializeSchema;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public int getRelays() {
+        return relays;
+    }
+
+    public void setRelays(int relays) {
+        this.relays = relays;
+    }
+
+    public Duration getConfirmTimeout() {
+        return confirmTimeout;
+    }
+
+    public void setConfirmTimeout(Duration confirmTimeout) {
+        this.confirmTimeout = confirmTimeout;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public Duration getCleanupInterval() {
+        return cleanupInterval;
+    }
+
+    public void setCleanupInterval(Duration cleanupInterval) {
+        this.cleanupInterval = cleanupInterval;
+    }
+}
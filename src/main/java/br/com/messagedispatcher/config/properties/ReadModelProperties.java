@@ -0,0 +1,178 @@
+package br.com.messagedispatcher.config.properties;
+
+import br.com.messagedispatcher.constants.MessageDispatcherConstants;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.ReadModelStorage;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Propriedades dos read models ({@code message.dispatcher.read-models}): réplicas locais de entidades de outro
+ * serviço, alimentadas pelos eventos de entidade dele.
+ * <p>
+ * Read model properties ({@code message.dispatcher.read-models}): local replicas of another service's entities, fed
+ * by its entity events.
+ */
+@Component
+@ConfigurationProperties(prefix = "message.dispatcher.read-models")
+public class ReadModelProperties {
+
+    /**
+     * Read models por nome, o mesmo informado em ReadModels.cache. Padrão é nenhum
+     */
+    private Map<String, ReadModel> caches = new LinkedHashMap<>();
+
+    public Map<String, ReadModel> getCaches() {
+        return caches;
+    }
+
+    public void setCaches(Map<String, ReadModel> caches) {
+        this.caches = caches;
+    }
+
+    /**
+     * Read model: fila própria de cada instância, ligada à exchange de eventos de entidade do outro serviço, e um mapa
+     * local limitado pelo id da entidade. Leituras sem entrada local caem em um doQuery ao serviço dono.
+     * <p>
+     * Read model: a queue of its own per instance, bound to the other service's entity events exchange, and a bounded
+     * local map by entity id. Reads without a local entry fall back to a doQuery to the owning service.
+     */
+    public static class ReadModel {
+
+        /**
+         * Exchange de eventos de entidade do serviço dono, em geral {spring.application.name}-entity-events dele
+         */
+        private String exchange;
+
+        /**
+         * Tipo da exchange de eventos de entidade. Padrão é TOPIC
+         */
+        private MessageDispatcherConstants.Exchange exchangeType = MessageDispatcherConstants.Exchange.TOPIC;
+
+        /**
+         * Binding keys da fila na exchange, como Product.* quando o serviço dono publica com {entity}.{action}.
+         * Padrão é #
+         */
+        private List<String> bindingKeys = new ArrayList<>(List.of("#"));
+
+        /**
+         * Propriedade do corpo do evento com o id da entidade. Padrão é id
+         */
+        private String idProperty = "id";
+
+        /**
+         * Propriedade do corpo do evento com a versão da entidade, comparada com a versão dos deltas e das entradas
+         * locais para descartar estados antigos. Padrão é version
+         */
+        private String versionProperty = "version";
+
+        /**
+         * Máximo de entradas locais; acima dele saem as menos usadas recentemente. Padrão é 10000
+         */
+        private int maxEntries = 10000;
+
+        /**
+         * Onde as entradas ficam: HEAP ou OFF_HEAP. Padrão é HEAP
+         */
+        private ReadModelStorage storage = ReadModelStorage.HEAP;
+
+        /**
+         * Prefetch do consumidor da fila. Padrão é 250
+         */
+        private int prefetchCount = 250;
+
+        /**
+         * Exchange do doQuery feito sem entrada local. Padrão é a exchange padrão
+         */
+        private String queryExchange;
+
+        /**
+         * Routing key do doQuery feito sem entrada local, em geral o nome do serviço dono. Sem ela não há doQuery
+         */
+        private String queryRoutingKey;
+
+        public String getExchange() {
+            return exchange;
+        }
+
+        public void setExchange(String exchange) {
+            this.exchange = exchange;
+        }
+
+        public MessageDispatcherConstants.Exchange getExchangeType() {
+            return exchangeType;
+        }
+
+        public void setExchangeType(MessageDispatcherConstants.Exchange exchangeType) {
+            this.exchangeType = exchangeType;
+        }
+
+        public List<String> getBindingKeys() {
+            return bindingKeys;
+        }
+
+        public void setBindingKeys(List<String> bindingKeys) {
+            this.bindingKeys = bindingKeys;
+        }
+
+        public String getIdProperty() {
+            return idProperty;
+        }
+
+        public void setIdProperty(String idProperty) {
+            this.idProperty = idProperty;
+        }
+
+        public String getVersionProperty() {
+            return versionProperty;
+        }
+
+        public void setVersionProperty(String versionProperty) {
+            this.versionProperty = versionProperty;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public ReadModelStorage getStorage() {
+            return storage;
+        }
+
+        public void setStorage(ReadModelStorage storage) {
+            this.storage = storage;
+        }
+
+        public int getPrefetchCount() {
+            return prefetchCount;
+        }
+
+        public void setPrefetchCount(int prefetchCount) {
+            this.prefetchCount = prefetchCount;
+        }
+
+        public String getQueryExchange() {
+            return queryExchange;
+        }
+
+        public void setQueryExchange(String queryExchange) {
+            this.queryExchange = queryExchange;
+        }
+
+        public String getQueryRoutingKey() {
+            return queryRoutingKey;
+        }
+
+        public void setQueryRoutingKey(String queryRoutingKey) {
+            this.queryRoutingKey = queryRoutingKey;
+        }
+    }
+}
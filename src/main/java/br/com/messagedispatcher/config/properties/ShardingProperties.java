@@ -0,0 +1,70 @@
+package br.com.messagedispatcher.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propriedades do modo particionado ({@code message.dispatcher.sharding}).
+ * <p>
+ * Sharded mode properties ({@code message.dispatcher.sharding}).
+ */
+@Component
+@ConfigurationProperties(prefix = "message.dispatcher.sharding")
+public class ShardingProperties {
+
+    /**
+     * Habilita as filas de partição ligadas à exchange consistent-hash no lugar da fila de entrada. Padrão é false
+     */
+    private boolean enabled = false;
+
+    /**
+     * Quantidade de partições. Padrão é 4
+     */
+    private int shards = 4;
+
+    /**
+     * Peso de cada partição no anel de hash, na ordem das partições. Padrão é vazio, com peso 1 para todas
+     */
+    private List<Integer> weights = new ArrayList<>();
+
+    /**
+     * Intervalo entre as verificações de rebalanceamento e a coleta das métricas das partições. Padrão é 30 segundos
+     */
+    private Duration rebalanceInterval = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    public List<Integer> getWeights() {
+        return weights;
+    }
+
+    public void setWeights(List<Integer> weights) {
+        this.weights = weights;
+    }
+
+    public Duration getRebalanceInterval() {
+        return rebalanceInterval;
+    }
+
+    public void setRebalanceInterval(Duration rebalanceInterval) {
+        this.rebalanceInterval = rebalanceInterval;
+    }
+}
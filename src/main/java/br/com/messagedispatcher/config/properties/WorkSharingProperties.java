@@ -0,0 +1,55 @@
+package br.com.messagedispatcher.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Propriedades do despacho com fila de trabalho compartilhada ({@code message.dispatcher.work-sharing}).
+ * <p>
+ * Shared work queue dispatch properties ({@code message.dispatcher.work-sharing}).
+ */
+@Component
+@ConfigurationProperties(prefix = "message.dispatcher.work-sharing")
+public class WorkSharingProperties {
+
+    /**
+     * Habilita o despacho com fila de trabalho compartilhada entre os consumidores. Padrão é false
+     */
+    private boolean enabled = false;
+
+    /**
+     * Quantidade de workers que processam as mensagens. Padrão é 0, que usa o máximo de consumidores de {concurrency}
+     */
+    private int workers = 0;
+
+    /**
+     * Tempo máximo de espera pelas mensagens em processamento no desligamento. Padrão é 30 segundos
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+}
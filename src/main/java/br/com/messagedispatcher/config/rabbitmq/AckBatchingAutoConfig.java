@@ -0,0 +1,29 @@
+package br.com.messagedispatcher.config.rabbitmq;
+
+import br.com.messagedispatcher.config.properties.AckBatchingProperties;
+import br.com.messagedispatcher.listener.AckBatcher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
+
+/**
+ * Registra o {@link AckBatcher} quando {@code message.dispatcher.ack-batching.enabled=true}. Não se aplica com
+ * work-sharing, em que os workers concluem as mensagens fora de ordem. O lote de cada canal é limitado à metade do
+ * prefetch aplicado nele, pelos canais decorados do container.
+ * <p>
+ * Registers the {@link AckBatcher} when {@code message.dispatcher.ack-batching.enabled=true}. It does not apply with
+ * work-sharing, where workers complete messages out of order. The batch of each channel is capped at half the prefetch
+ * applied to it, through the container's decorated channels.
+ */
+@Configuration
+@ConditionalOnExpression("${message.dispatcher.default-listener-enabled:true} and ${message.dispatcher.ack-batching.enabled:false} and !${message.dispatcher.work-sharing.enabled:false}")
+public class AckBatchingAutoConfig {
+
+    @Bean
+    public AckBatcher ackBatcher(RetryOperationsInterceptor retryOperationsInterceptor,
+                                 AckBatchingProperties ackBatchingProperties) {
+        return new AckBatcher(ackBatchingProperties.getSize(), ackBatchingProperties.getTimeout(),
+                retryOperationsInterceptor);
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.messagedispatcher.config.rabbitmq;
+
+import br.com.messagedispatcher.autoscaler.AutoscalerMetrics;
+import br.com.messagedispatcher.autoscaler.ConsumerAutoscaler;
+import br.com.messagedispatcher.autoscaler.ScalingPolicy;
+import br.com.messagedispatcher.config.properties.AutoscalerProperties;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.interceptor.impl.DwellTimeDispatchInterceptor;
+import br.com.messagedispatcher.listener.WorkSharingDispatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.ContainerType;
+
+/**
+ * Registra o {@link ConsumerAutoscaler} da fila de entrada quando {@code message.dispatcher.autoscaler.enabled=true}.
+ * Os limites de consumidores, quando não informados, vêm de {@code message.dispatcher.concurrency}.
+ * <p>
+ * Registers the inbox {@link ConsumerAutoscaler} when {@code message.dispatcher.autoscaler.enabled=true}. Consumer
+ * bounds, when not set, come from {@code message.dispatcher.concurrency}.
+ */
+@Configuration
+@ConditionalOnExpression("${message.dispatcher.default-listener-enabled:true} and ${message.dispatcher.autoscaler.enabled:false}")
+public class ConsumerAutoscalerAutoConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsumerAutoscalerAutoConfig.class);
+
+    @Bean
+    public DwellTimeDispatchInterceptor dwellTimeDispatchInterceptor(MessageDispatcherProperties properties) {
+        return new DwellTimeDispatchInterceptor(properties.getQueueName());
+    }
+
+    @Bean
+    public ConsumerAutoscaler consumerAutoscaler(ObjectProvider<AmqpAdmin> amqpAdmin,
+                                                 ConnectionFactory connectionFactory,
+                                                 RabbitListenerEndpointRegistry registry,
+                                                 DwellTimeDispatchInterceptor dwellTimeDispatchInterceptor,
+                                                 MessageDispatcherProperties properties,
+                                                 AutoscalerProperties autoscalerProperties,
+                                                 ObjectProvider<WorkSharingDispatcher> workSharingDispatcher) {
+        if (workSharingDispatcher.getIfAvailable() != null) {
+            log.warn("Autoscaler habilitado junto com work-sharing: os consumidores apenas entregam para o pool de "
+                    + "workers, então escalá-los não aumenta a capacidade de processamento");
+        }
+
+        var minConsumers = autoscalerProperties.getMinConsumers() > 0
+                ? autoscalerProperties.getMinConsumers()
+                : properties.minConsumers();
+        var maxConsumers = autoscalerProperties.getMaxConsumers() > 0
+                ? autoscalerProperties.getMaxConsumers()
+                : properties.maxConsumers();
+        var policy = new ScalingPolicy(minConsumers, maxConsumers, autoscalerProperties.getMaxPrefetch(),
+                autoscalerProperties.getTargetDwellTime().toMillis(), autoscalerProperties.getScaleDownRatio(),
+                autoscalerProperties.getScaleDownDelay().toNanos());
+        var initialConsumers = properties.getContainerType() == ContainerType.DIRECT
+                ? properties.getConsumersPerQueue()
+                : properties.minConsumers();
+
+        return new ConsumerAutoscaler(amqpAdmin.getIfAvailable(() -> new RabbitAdmin(connectionFactory)),
+                registry::getListenerContainers, dwellTimeDispatchInterceptor, policy, properties.getQueueName(),
+                autoscalerProperties.getInterval(), initialConsumers, properties.getPrefetchCount());
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class AutoscalerMetricsConfig {
+
+        @Bean
+        public AutoscalerMetrics autoscalerMetrics(ConsumerAutoscaler consumerAutoscaler,
+                                                   ObjectProvider<MeterRegistry> meterRegistry) {
+            return new AutoscalerMetrics(consumerAutoscaler, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package br.com.messagedispatcher.config.rabbitmq;
 
 import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.config.properties.ShardingProperties;
 import br.com.messagedispatcher.util.factory.ExchangeFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -49,19 +50,27 @@ public class ExchangesQueuesBindingConfigAutoConfig {
 
     private final Logger log = LoggerFactory.getLogger(ExchangesQueuesBindingConfigAutoConfig.class);
 
+    /**
+     * Com partições habilitadas, a fila de entrada continua declarada mas não é ligada à exchange, pois ocuparia uma
+     * parte do anel de hash sem consumidor único.
+     * <p>
+     * With sharding enabled, the inbox queue is still declared but not bound to the exchange, since it would take a
+     * share of the hash ring without a single consumer.
+     */
     @Bean
-    public Declarables defaultExchangeAndQueue(MessageDispatcherProperties properties) {
+    public Declarables defaultExchangeAndQueue(MessageDispatcherProperties properties, ShardingProperties sharding) {
         var exchange = ExchangeFactory
                 .buildExchange(properties.getExchangeName(),
                         properties.isExchangeDurable(),
                         properties.getExchangeType(),
                         properties.getExchangeConsistentHashArguments());
 
-        var queue = QueueBuilder
-                .durable(properties.getQueueName())
-                .deadLetterExchange(properties.getDeadLetterExchangeName())
-                .deadLetterRoutingKey(properties.getDeadLetterRoutingKey())
-                .build();
+        var queue = inboxQueue(properties.getQueueName(), properties);
+
+        if (sharding.isEnabled()) {
+            log.debug("Fila {} declarada sem binding: as mensagens seguem para as partições", queue.getName());
+            return new Declarables(List.of(exchange, queue));
+        }
 
         var binding = BindingBuilder
                 .bind(queue)
@@ -101,6 +110,33 @@ public class ExchangesQueuesBindingConfigAutoConfig {
         );
     }
 
+    /**
+     * Fila de entrada com dead letter e, se configurada, prioridade máxima. Uma fila já existente não aceita mudança
+     * de argumentos: alterar {@code max-priority} exige recriá-la.
+     * <p>
+     * Inbox queue with dead letter and, if configured, maximum priority. An existing queue does not accept argument
+     * changes: changing {@code max-priority} requires recreating it.
+     */
+    public static Queue inboxQueue(String name, MessageDispatcherProperties properties) {
+        return inboxQueueBuilder(name, properties).build();
+    }
+
+    /**
+     * Builder da fila de entrada, para filas derivadas com argumentos adicionais.
+     * <p>
+     * Inbox queue builder, for derived queues with additional arguments.
+     */
+    public static QueueBuilder inboxQueueBuilder(String name, MessageDispatcherProperties properties) {
+        var builder = QueueBuilder
+                .durable(name)
+                .deadLetterExchange(properties.getDeadLetterExchangeName())
+                .deadLetterRoutingKey(properties.getDeadLetterRoutingKey());
+        if (properties.getMaxPriority() > 0) {
+            builder.maxPriority(properties.getMaxPriority());
+        }
+        return builder;
+    }
+
     private void log(String info, Exchange exchange, Queue queue, Binding binding) {
         log.debug("Criando Exchange, Queue e Binding para {}", info);
         log.debug("Exchange {} criada", exchange.getName());
@@ -0,0 +1,42 @@
+package br.com.messagedispatcher.config.rabbitmq;
+
+import br.com.messagedispatcher.config.properties.FlowControlProperties;
+import br.com.messagedispatcher.listener.ByteBudget;
+import br.com.messagedispatcher.listener.ByteBudgets;
+import br.com.messagedispatcher.listener.ByteBudgetMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra os {@link ByteBudgets} do listener padrão quando {@code message.dispatcher.flow-control.enabled=true}. A
+ * fábrica de containers cria um {@link ByteBudget} por container (fila padrão, lanes e partições), aplicado nos canais
+ * dos consumidores dele.
+ * <p>
+ * Registers the default listener {@link ByteBudgets} when {@code message.dispatcher.flow-control.enabled=true}. The
+ * container factory creates one {@link ByteBudget} per container (default queue, lanes and shards), applied on its
+ * consumer channels.
+ */
+@Configuration
+@ConditionalOnExpression("${message.dispatcher.default-listener-enabled:true} and ${message.dispatcher.flow-control.enabled:false}")
+public class FlowControlAutoConfig {
+
+    @Bean
+    public ByteBudgets byteBudgets(FlowControlProperties properties) {
+        return new ByteBudgets(properties.getHighWatermark().toBytes(), properties.getLowWatermark().toBytes());
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class FlowControlMetricsConfig {
+
+        @Bean
+        public ByteBudgetMetrics byteBudgetMetrics(ByteBudgets byteBudgets, ObjectProvider<MeterRegistry> meterRegistry) {
+            return new ByteBudgetMetrics(byteBudgets, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        }
+    }
+}
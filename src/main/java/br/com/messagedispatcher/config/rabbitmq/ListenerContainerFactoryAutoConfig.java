@@ -1,17 +1,33 @@
 package br.com.messagedispatcher.config.rabbitmq;
 
 import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.listener.AckBatcher;
+import br.com.messagedispatcher.listener.ByteBudgets;
+import br.com.messagedispatcher.exceptions.MessageDispatcherBeanResolutionException;
+import br.com.messagedispatcher.listener.ListenerChannels;
+import br.com.messagedispatcher.listener.WorkSharingDispatcher;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.config.AbstractRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.retry.interceptor.RetryOperationsInterceptor;
 
+import java.util.List;
+import java.util.function.Function;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.ContainerType;
+
 
 /**
  * @author Cleber Souza
@@ -25,29 +41,115 @@ public class ListenerContainerFactoryAutoConfig {
 
     @PostConstruct
     public void init() {
-        log.debug("Configurando SimpleRabbitListenerContainerFactory");
+        log.debug("Configurando RabbitListenerContainerFactory");
     }
 
     @Bean
-    protected SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(ConnectionFactory connectionFactory,
-                                                                                  MessageConverter messageConverter,
-                                                                                  RetryOperationsInterceptor retryOperationsInterceptor,
-                                                                                  MessageDispatcherProperties properties) {
-        var minConsumers = properties.minConsumers();
-        var maxConsumers = properties.maxConsumers();
+    protected AbstractRabbitListenerContainerFactory<?> rabbitListenerContainerFactory(ConnectionFactory connectionFactory,
+                                                                                        MessageConverter messageConverter,
+                                                                                        RetryOperationsInterceptor retryOperationsInterceptor,
+                                                                                        MessageDispatcherProperties properties,
+                                                                                        ObjectProvider<WorkSharingDispatcher> workSharingDispatcher,
+                                                                                        ObjectProvider<ByteBudgets> byteBudgets,
+                                                                                        ObjectProvider<AckBatcher> ackBatcher) {
+        var factory = properties.getContainerType() == ContainerType.DIRECT
+                ? directContainerFactory(properties)
+                : simpleContainerFactory(properties);
+
+        configure(factory, connectionFactory, messageConverter, retryOperationsInterceptor, properties,
+                workSharingDispatcher.getIfAvailable(), byteBudgets.getIfAvailable(), ackBatcher.getIfAvailable());
+
+        log.debug("RabbitListenerContainerFactory configurado: {}", factory);
 
+        return factory;
+    }
+
+    private static SimpleRabbitListenerContainerFactory simpleContainerFactory(MessageDispatcherProperties properties) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
-        factory.setConnectionFactory(connectionFactory);
+        factory.setConcurrentConsumers(properties.minConsumers());
+        factory.setMaxConcurrentConsumers(properties.maxConsumers());
+        return factory;
+    }
+
+    /**
+     * O listener executa na thread de entrega do cliente AMQP, sem a fila interna e a troca de thread do container
+     * simple. A concorrência é fixa: {consumersPerQueue} consumidores, cada um em seu canal.
+     * <p>
+     * The listener runs on the AMQP client's delivery thread, without the simple container's internal queue and
+     * thread switch. Concurrency is fixed: {consumersPerQueue} consumers, each on its own channel.
+     */
+    private static DirectRabbitListenerContainerFactory directContainerFactory(MessageDispatcherProperties properties) {
+        DirectRabbitListenerContainerFactory factory = new DirectRabbitListenerContainerFactory();
+        factory.setConsumersPerQueue(properties.getConsumersPerQueue());
+        factory.setMonitorInterval(properties.getMonitorInterval());
+        log.info("Container direct com {} consumidores por fila; a propriedade concurrency é ignorada",
+                properties.getConsumersPerQueue());
+        return factory;
+    }
+
+    private static <C extends AbstractMessageListenerContainer> void configure(AbstractRabbitListenerContainerFactory<C> factory,
+                                                                               ConnectionFactory connectionFactory,
+                                                                               MessageConverter messageConverter,
+                                                                               RetryOperationsInterceptor retryOperationsInterceptor,
+                                                                               MessageDispatcherProperties properties,
+                                                                               WorkSharingDispatcher dispatcher,
+                                                                               ByteBudgets byteBudgets,
+                                                                               AckBatcher ackBatcher) {
+        if (byteBudgets == null) {
+            checkPrefetchCap("prefetch-count", properties.getPrefetchCount());
+            properties.getLanes().forEach((name, lane) ->
+                    checkPrefetchCap("lanes." + name + ".prefetch-count", lane.getPrefetchCount()));
+        }
+        var batchingAcks = dispatcher == null && ackBatcher != null;
+        List<ListenerChannels.ChannelListener> channelListeners = batchingAcks ? List.of(ackBatcher) : List.of();
+        if (byteBudgets == null && batchingAcks) {
+            // O AckBatcher acompanha o prefetch e o fechamento de cada canal
+            factory.setConnectionFactory(new ListenerChannels(null, channelListeners).decorate(connectionFactory));
+        } else {
+            // Com controle de fluxo, cada container recebe os próprios canais decorados no customizer
+            factory.setConnectionFactory(connectionFactory);
+        }
         factory.setMessageConverter(messageConverter);
         factory.setDefaultRequeueRejected(false);
-        factory.setAdviceChain(retryOperationsInterceptor);
         factory.setConsumerTagStrategy(queue -> queue + "-consumer");
         factory.setPrefetchCount(properties.getPrefetchCount());
-        factory.setConcurrentConsumers(minConsumers);
-        factory.setMaxConcurrentConsumers(maxConsumers);
 
-        log.debug("RabbitListenerContainerFactory configurado: {}", factory);
+        Function<MessageListener, MessageListener> wrapper = null;
+        if (dispatcher != null) {
+            // Ack e retentativas passam para os workers, após o processamento
+            factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+            wrapper = dispatcher::wrap;
+        } else if (ackBatcher != null) {
+            // Acks em lote enviados pelo AckBatcher, que aplica as retentativas
+            factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+            wrapper = ackBatcher::wrap;
+        } else {
+            factory.setAdviceChain(retryOperationsInterceptor);
+        }
 
-        return factory;
+        if (byteBudgets != null || wrapper != null) {
+            var listenerWrapper = wrapper;
+            factory.setContainerCustomizer(container -> {
+                if (byteBudgets != null) {
+                    // Bytes contabilizados na entrega e liberados no ack, com pausa por cancelamento dos consumidores;
+                    // um controle por container, para que uma lane ou partição inundada não pause as demais
+                    var byteBudget = byteBudgets.create(container.getListenerId(),
+                            List.of(container.getQueueNames()));
+                    container.setConnectionFactory(new ListenerChannels(byteBudget, channelListeners)
+                            .decorate(connectionFactory));
+                }
+                if (listenerWrapper != null) {
+                    container.setMessageListener(listenerWrapper.apply(container.getMessageListener()));
+                }
+            });
+        }
+    }
+
+    private static void checkPrefetchCap(String property, int prefetchCount) {
+        if (prefetchCount > MessageDispatcherProperties.MAX_PREFETCH_COUNT) {
+            throw new MessageDispatcherBeanResolutionException(property + " " + prefetchCount + " acima de "
+                    + MessageDispatcherProperties.MAX_PREFETCH_COUNT
+                    + " exige message.dispatcher.flow-control.enabled=true, que limita o volume das entregas");
+        }
     }
 }
@@ -6,10 +6,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.backoff.ExponentialBackOffPolicy;
 import org.springframework.retry.interceptor.RetryOperationsInterceptor;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
 
 @Configuration
 @ConditionalOnProperty(value = "message.dispatcher.default-listener-enabled", havingValue = "true", matchIfMissing = true)
@@ -23,16 +27,32 @@ public class RetryInterceptorAutoConfig {
         log.debug("Configurando RetryInterceptor");
     }
 
+    /**
+     * Template de retentativas do listener padrão. Não é candidato à injeção por tipo, para não conflitar com um
+     * {@link RetryTemplate} da aplicação; as políticas podem ser substituídas em tempo de execução.
+     * <p>
+     * Retry template of the default listener. It is not a by-type injection candidate, so it does not clash with an
+     * application {@link RetryTemplate}; its policies can be replaced at runtime.
+     */
+    @Bean(defaultCandidate = false)
+    protected RetryTemplate messageDispatcherRetryTemplate(MessageDispatcherProperties properties) {
+        var backOffPolicy = new ExponentialBackOffPolicy();
+        backOffPolicy.setInitialInterval(properties.getInitialInterval());
+        backOffPolicy.setMultiplier(properties.getMultiplier());
+        backOffPolicy.setMaxInterval(properties.getMaxInterval());
+
+        var retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(new SimpleRetryPolicy(properties.getMaxRetryAttempts()));
+        retryTemplate.setBackOffPolicy(backOffPolicy);
+        return retryTemplate;
+    }
+
     @Bean
     protected RetryOperationsInterceptor retryOperationsInterceptor(MessageRecoverer messageRecoverer,
-                                                                    MessageDispatcherProperties properties) {
+                                                                    @Qualifier("messageDispatcherRetryTemplate")
+                                                                    RetryTemplate retryTemplate) {
         return RetryInterceptorBuilder.stateless()
-                .maxAttempts(properties.getMaxRetryAttempts())
-                .backOffOptions(
-                        properties.getInitialInterval(),
-                        properties.getMultiplier(),
-                        properties.getMaxInterval()
-                )
+                .retryOperations(retryTemplate)
                 .recoverer(messageRecoverer).build();
     }
 }
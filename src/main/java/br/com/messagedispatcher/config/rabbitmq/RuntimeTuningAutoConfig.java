@@ -0,0 +1,64 @@
+package br.com.messagedispatcher.config.rabbitmq;
+
+import br.com.messagedispatcher.autoscaler.ConsumerAutoscaler;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.listener.ByteBudgets;
+import br.com.messagedispatcher.tuning.DispatcherTuner;
+import br.com.messagedispatcher.tuning.DispatcherTuningEndpoint;
+import br.com.messagedispatcher.tuning.DispatcherTuningMBean;
+import br.com.messagedispatcher.util.validator.BeanValidatorUtil;
+import jakarta.validation.Validator;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.support.RetryTemplate;
+
+/**
+ * Registra o {@link DispatcherTuner} e o expõe pelo endpoint do actuator ou, sem o actuator no classpath, via JMX.
+ * <p>
+ * Registers the {@link DispatcherTuner} and exposes it through the actuator endpoint or, without the actuator on the
+ * classpath, through JMX.
+ */
+@Configuration
+@ConditionalOnProperty(value = "message.dispatcher.default-listener-enabled", havingValue = "true", matchIfMissing = true)
+public class RuntimeTuningAutoConfig {
+
+    private static final String ACTUATOR_ENDPOINT = "org.springframework.boot.actuate.endpoint.annotation.Endpoint";
+
+    @Bean
+    public DispatcherTuner dispatcherTuner(MessageDispatcherProperties properties,
+                                           RabbitListenerEndpointRegistry registry,
+                                           @Qualifier("messageDispatcherRetryTemplate") RetryTemplate retryTemplate,
+                                           ObjectProvider<ConsumerAutoscaler> consumerAutoscaler,
+                                           ObjectProvider<ByteBudgets> byteBudgets,
+                                           ObjectProvider<Validator> validator) {
+        return new DispatcherTuner(properties, registry::getListenerContainers, retryTemplate,
+                consumerAutoscaler.getIfAvailable() != null, byteBudgets.getIfAvailable() != null,
+                validator.getIfUnique(BeanValidatorUtil::getValidator));
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = ACTUATOR_ENDPOINT)
+    static class ActuatorTuningConfig {
+
+        @Bean
+        public DispatcherTuningEndpoint dispatcherTuningEndpoint(DispatcherTuner dispatcherTuner) {
+            return new DispatcherTuningEndpoint(dispatcherTuner);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnMissingClass(ACTUATOR_ENDPOINT)
+    static class JmxTuningConfig {
+
+        @Bean
+        public DispatcherTuningMBean dispatcherTuningMBean(DispatcherTuner dispatcherTuner) {
+            return new DispatcherTuningMBean(dispatcherTuner);
+        }
+    }
+}
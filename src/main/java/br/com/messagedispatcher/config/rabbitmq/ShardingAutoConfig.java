@@ -0,0 +1,108 @@
+package br.com.messagedispatcher.config.rabbitmq;
+
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.config.properties.ShardingProperties;
+import br.com.messagedispatcher.exceptions.MessageDispatcherBeanResolutionException;
+import br.com.messagedispatcher.listener.RabbitMqMessageDispatcherListener;
+import br.com.messagedispatcher.listener.WorkSharingDispatcher;
+import br.com.messagedispatcher.shard.ShardLayout;
+import br.com.messagedispatcher.shard.ShardListenerConfigurer;
+import br.com.messagedispatcher.shard.ShardMetrics;
+import br.com.messagedispatcher.shard.ShardRebalancer;
+import br.com.messagedispatcher.util.factory.ExchangeFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.api.RabbitListenerErrorHandler;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+
+/**
+ * Configura as partições quando {@code message.dispatcher.sharding.enabled=true}: declara as filas de partição, de
+ * consumidor único ativo, ligadas à exchange consistent-hash pelo seu peso, registra um container por partição e o
+ * {@link ShardRebalancer}.
+ * <p>
+ * Configures the shards when {@code message.dispatcher.sharding.enabled=true}: declares the single-active-consumer
+ * shard queues bound to the consistent-hash exchange by their weight, registers one container per shard and the
+ * {@link ShardRebalancer}.
+ */
+@Configuration
+@ConditionalOnExpression("${message.dispatcher.default-listener-enabled:true} and ${message.dispatcher.sharding.enabled:false}")
+public class ShardingAutoConfig {
+
+    @Bean
+    public ShardLayout shardLayout(MessageDispatcherProperties properties, ShardingProperties sharding) {
+        return new ShardLayout(properties, sharding);
+    }
+
+    @Bean
+    public Declarables shardQueues(ShardLayout layout, MessageDispatcherProperties properties) {
+        var declarables = new ArrayList<Declarable>();
+        var exchange = ExchangeFactory
+                .buildExchange(properties.getExchangeName(),
+                        properties.isExchangeDurable(),
+                        properties.getExchangeType(),
+                        properties.getExchangeConsistentHashArguments());
+
+        for (var shard = 0; shard < layout.getShards(); shard++) {
+            var queue = ExchangesQueuesBindingConfigAutoConfig
+                    .inboxQueueBuilder(layout.queueName(shard), properties)
+                    .singleActiveConsumer()
+                    .build();
+            declarables.add(queue);
+            // Na exchange consistent-hash a binding key é o peso da fila no anel
+            declarables.add(BindingBuilder.bind(queue).to(exchange).with(String.valueOf(layout.weight(shard))).noargs());
+        }
+        return new Declarables(declarables);
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ObjectProvider<AmqpAdmin> amqpAdmin,
+                                           ConnectionFactory connectionFactory,
+                                           RabbitListenerEndpointRegistry registry,
+                                           ShardLayout layout,
+                                           ShardingProperties sharding) {
+        return new ShardRebalancer(amqpAdmin.getIfAvailable(() -> new RabbitAdmin(connectionFactory)),
+                registry::getListenerContainers, layout, sharding.getRebalanceInterval());
+    }
+
+    @Bean
+    public ShardListenerConfigurer shardListenerConfigurer(ShardLayout layout,
+                                                           ShardRebalancer rebalancer,
+                                                           MessageDispatcherProperties properties,
+                                                           RabbitMqMessageDispatcherListener listener,
+                                                           @Qualifier("messageDispatcherErrorHandler")
+                                                           RabbitListenerErrorHandler errorHandler,
+                                                           ObjectProvider<WorkSharingDispatcher> workSharingDispatcher,
+                                                           BeanFactory beanFactory) {
+        if (workSharingDispatcher.getIfAvailable() != null) {
+            throw new MessageDispatcherBeanResolutionException("Partições não podem ser usadas com work-sharing: o "
+                    + "pool de workers processaria as mensagens de uma partição fora de ordem");
+        }
+        return new ShardListenerConfigurer(layout, rebalancer, properties.getContainerType(), listener, errorHandler,
+                beanFactory);
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class ShardMetricsConfig {
+
+        @Bean
+        public ShardMetrics shardMetrics(ShardRebalancer rebalancer, ObjectProvider<MeterRegistry> meterRegistry) {
+            return new ShardMetrics(rebalancer, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package br.com.messagedispatcher.config.rabbitmq;
+
+import br.com.messagedispatcher.config.properties.AckBatchingProperties;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.config.properties.WorkSharingProperties;
+import br.com.messagedispatcher.listener.WorkSharingDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
+
+/**
+ * Registra o {@link WorkSharingDispatcher} quando {@code message.dispatcher.work-sharing.enabled=true}. As retentativas
+ * passam a ser aplicadas nos workers, e não mais nas threads dos consumidores. O agrupamento de acks não se aplica com
+ * work-sharing e, se habilitado junto, é ignorado com um aviso na inicialização.
+ * <p>
+ * Registers the {@link WorkSharingDispatcher} when {@code message.dispatcher.work-sharing.enabled=true}. Retries are
+ * then applied on the workers instead of on the consumer threads. Ack batching does not apply with work-sharing and, if
+ * enabled alongside it, is ignored with a warning at startup.
+ */
+@Configuration
+@ConditionalOnExpression("${message.dispatcher.default-listener-enabled:true} and ${message.dispatcher.work-sharing.enabled:false}")
+public class WorkSharingAutoConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkSharingAutoConfig.class);
+
+    @Bean
+    public WorkSharingDispatcher workSharingDispatcher(RetryOperationsInterceptor retryOperationsInterceptor,
+                                                       MessageDispatcherProperties properties,
+                                                       WorkSharingProperties workSharingProperties,
+                                                       AckBatchingProperties ackBatchingProperties) {
+        if (ackBatchingProperties.isEnabled()) {
+            log.warn("Agrupamento de acks habilitado junto com work-sharing: ignorado, pois os workers concluem as "
+                    + "mensagens fora de ordem e cada uma é confirmada individualmente");
+        }
+        var workers = workSharingProperties.getWorkers() > 0
+                ? workSharingProperties.getWorkers()
+                : properties.maxConsumers();
+        return new WorkSharingDispatcher(workers, workSharingProperties.getShutdownTimeout(),
+                retryOperationsInterceptor);
+    }
+}
@@ -7,6 +7,7 @@ public final class MessageDispatcherConstants {
     public enum Headers {
         HANDLER_TYPE("handler-type"),
         MESSAGE_TIMESTAMP("timestamp"),
+        PUBLISHED_AT("published-at"),
         MESSAGE_SOURCE("remoteService"),
         BODY_TYPE("body-type"),
         RESPONSE_FROM("response-from"),
@@ -75,4 +76,100 @@ public final class MessageDispatcherConstants {
             return type;
         }
     }
+
+    /**
+     * Tipos de container de listener.
+     * Listener container types.
+     */
+    public enum ContainerType {
+        /**
+         * SimpleMessageListenerContainer: uma thread por consumidor, que recebe as entregas por uma fila interna.
+         * Aceita concorrência variável (ex.: "1-10").
+         * <p>
+         * SimpleMessageListenerContainer: one thread per consumer, receiving deliveries through an internal queue.
+         * Supports variable concurrency (e.g. "1-10").
+         */
+        SIMPLE,
+        /**
+         * DirectMessageListenerContainer: o listener executa na própria thread do cliente AMQP, sem fila interna nem
+         * troca de thread. A concorrência é fixa, definida por consumersPerQueue.
+         * <p>
+         * DirectMessageListenerContainer: the listener runs on the AMQP client's own thread, without an internal
+         * queue or thread switch. Concurrency is fixed, set by consumersPerQueue.
+         */
+        DIRECT
+    }
+
+    /**
+     * Política quando a fila de publicação assíncrona está cheia.
+     * Policy when the asynchronous publishing queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * A thread que publica aguarda espaço na fila.
+         * <p>
+         * The publishing thread waits for room in the queue.
+         */
+        BLOCK,
+        /**
+         * Descarta o evento mais antigo da fila para abrir espaço.
+         * <p>
+         * Drops the oldest event in the queue to make room.
+         */
+        DROP_OLDEST,
+        /**
+         * Grava o evento em disco; os eventos gravados são publicados quando a fila esvazia e na próxima
+         * inicialização.
+         * <p>
+         * Writes the event to disk; written events are published when the queue empties and on the next startup.
+         */
+        SPILL
+    }
+
+    /**
+     * Situação do bootstrap de uma entidade.
+     * Status of an entity bootstrap.
+     */
+    public enum BootstrapStatus {
+        RUNNING,
+        /**
+         * Todas as linhas foram publicadas e o checkpoint removido.
+         * <p>
+         * All rows were published and the checkpoint removed.
+         */
+        COMPLETED,
+        /**
+         * Interrompido a pedido; retoma do checkpoint no próximo início.
+         * <p>
+         * Stopped on request; resumes from the checkpoint on the next start.
+         */
+        STOPPED,
+        /**
+         * Interrompido por erro; retoma do checkpoint no próximo início.
+         * <p>
+         * Stopped by an error; resumes from the checkpoint on the next start.
+         */
+        FAILED
+    }
+
+    /**
+     * Onde a réplica local de um read model guarda as entradas.
+     * Where the local replica of a read model keeps its entries.
+     */
+    public enum ReadModelStorage {
+        /**
+         * Objetos já convertidos no heap; leitura sem custo de conversão.
+         * <p>
+         * Already converted objects on the heap; reads without conversion cost.
+         */
+        HEAP,
+        /**
+         * JSON de cada entrada em memória direta, fora do heap; cada leitura converte o JSON. Indicado para conjuntos
+         * grandes, que pesariam no GC.
+         * <p>
+         * JSON of each entry in direct memory, off the heap; each read converts the JSON. Meant for large sets, which
+         * would weigh on the GC.
+         */
+        OFF_HEAP
+    }
 }
@@ -1,5 +1,6 @@
 package br.com.messagedispatcher.integrator;
 
+import br.com.messagedispatcher.config.properties.OutboxProperties;
 import br.com.messagedispatcher.listener.MessageDispatcherEntityEventsListener;
 import br.com.messagedispatcher.integrator.hibernate.MessageDispatcherHibernateIntegrator;
 import org.hibernate.integrator.spi.Integrator;
@@ -14,13 +15,16 @@ import java.util.List;
 public class MessageDispatcherIntegratorProvider implements IntegratorProvider {
 
     private final MessageDispatcherEntityEventsListener listener;
+    private final OutboxProperties outboxProperties;
 
-    public MessageDispatcherIntegratorProvider(MessageDispatcherEntityEventsListener listener) {
+    public MessageDispatcherIntegratorProvider(MessageDispatcherEntityEventsListener listener,
+                                               OutboxProperties outboxProperties) {
         this.listener = listener;
+        this.outboxProperties = outboxProperties;
     }
 
     @Override
     public List<Integrator> getIntegrators() {
-        return List.of(new MessageDispatcherHibernateIntegrator(listener));
+        return List.of(new MessageDispatcherHibernateIntegrator(listener, outboxProperties.isEnabled()));
     }
 }
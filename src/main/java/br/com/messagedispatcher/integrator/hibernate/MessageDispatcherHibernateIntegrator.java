@@ -7,31 +7,57 @@ import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.event.service.spi.EventListenerRegistry;
 import org.hibernate.event.spi.EventType;
 import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.mapping.PersistentClass;
 import org.hibernate.service.spi.SessionFactoryServiceRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Objects;
+
 public class MessageDispatcherHibernateIntegrator implements Integrator {
 
     private static final Logger log = LoggerFactory.getLogger(MessageDispatcherHibernateIntegrator.class);
     private final MessageDispatcherEntityEventsListener listener;
+    private final boolean inTransaction;
 
     public MessageDispatcherHibernateIntegrator(MessageDispatcherEntityEventsListener listener) {
+        this(listener, false);
+    }
+
+    /**
+     * @param inTransaction registra o listener nos eventos disparados dentro da transação (POST_INSERT/POST_UPDATE),
+     *                      usado pelo outbox, em vez dos disparados após o commit
+     *                      / registers the listener on the events fired inside the transaction
+     *                      (POST_INSERT/POST_UPDATE), used by the outbox, instead of the ones fired after commit
+     */
+    public MessageDispatcherHibernateIntegrator(MessageDispatcherEntityEventsListener listener, boolean inTransaction) {
         this.listener = listener;
+        this.inTransaction = inTransaction;
     }
 
     @Override
     public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
                           SessionFactoryImplementor sessionFactory) {
         log.debug("Registrando MessageDispatcherEntityEventsListener via Integrator");
+        listener.validate(metadata.getEntityBindings().stream()
+                .map(PersistentClass::getMappedClass)
+                .filter(Objects::nonNull)
+                .toList());
 
         var eventListenerRegistry =
                 sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
 
-        eventListenerRegistry.getEventListenerGroup(EventType.POST_COMMIT_INSERT)
-                .appendListener(listener);
-        eventListenerRegistry.getEventListenerGroup(EventType.POST_COMMIT_UPDATE)
-                .appendListener(listener);
+        if (inTransaction) {
+            eventListenerRegistry.getEventListenerGroup(EventType.POST_INSERT)
+                    .appendListener(listener);
+            eventListenerRegistry.getEventListenerGroup(EventType.POST_UPDATE)
+                    .appendListener(listener);
+        } else {
+            eventListenerRegistry.getEventListenerGroup(EventType.POST_COMMIT_INSERT)
+                    .appendListener(listener);
+            eventListenerRegistry.getEventListenerGroup(EventType.POST_COMMIT_UPDATE)
+                    .appendListener(listener);
+        }
 
         log.debug("MessageDispatcherEntityEventsListener registrado com sucesso");
     }
@@ -0,0 +1,58 @@
+package br.com.messagedispatcher.interceptor;
+
+import org.springframework.amqp.core.Message;
+
+/**
+ * Ponto de extensão para preocupações transversais no caminho de consumo das mensagens (contexto, logging, métricas,
+ * auditoria, tenant, etc.).
+ * <p>
+ * Extension point for cross-cutting concerns on the message consume path (context, logging, metrics, auditing,
+ * tenant tagging, etc.).
+ * <p>
+ * Os interceptors registrados como beans são ordenados via {@link org.springframework.core.annotation.Order} e
+ * compostos uma única vez na inicialização em um {@link DispatchInterceptorChain}. Os hooks {@code before} são
+ * executados na ordem declarada e os hooks {@code after} e {@code error} na ordem inversa.
+ * <p>
+ * Interceptors registered as beans are ordered through {@link org.springframework.core.annotation.Order} and
+ * composed once at startup into a {@link DispatchInterceptorChain}. The {@code before} hooks run in declared order
+ * and the {@code after} and {@code error} hooks run in reverse order.
+ *
+ * @author Cleber Souza
+ * @version 1.0
+ */
+public interface DispatchInterceptor {
+
+    /**
+     * Executado antes da mensagem ser roteada. Uma exceção lançada aqui interrompe o despacho.
+     * <p>
+     * Invoked before the message is routed. An exception thrown here aborts the dispatch.
+     *
+     * @param message mensagem recebida / received message
+     */
+    default void beforeDispatch(Message message) {
+    }
+
+    /**
+     * Executado após o roteamento concluído com sucesso.
+     * <p>
+     * Invoked after the message was successfully routed.
+     *
+     * @param message      mensagem recebida / received message
+     * @param result       resultado do handler, pode ser null / handler result, may be null
+     * @param elapsedNanos tempo de despacho em nanossegundos / dispatch time in nanoseconds
+     */
+    default void afterDispatch(Message message, Object result, long elapsedNanos) {
+    }
+
+    /**
+     * Executado quando o roteamento falha.
+     * <p>
+     * Invoked when routing fails.
+     *
+     * @param message      mensagem recebida / received message
+     * @param exception    exceção lançada / thrown exception
+     * @param elapsedNanos tempo de despacho em nanossegundos / dispatch time in nanoseconds
+     */
+    default void onDispatchError(Message message, Throwable exception, long elapsedNanos) {
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.messagedispatcher.interceptor;
+
+import br.com.messagedispatcher.router.MessageRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+
+import java.util.List;
+
+/**
+ * Cadeia de {@link DispatchInterceptor} composta uma única vez na inicialização em um array plano.
+ * O despacho não utiliza proxies e não aloca objetos por mensagem.
+ * <p>
+ * Chain of {@link DispatchInterceptor} composed once at startup into a flat array.
+ * Dispatching uses no proxies and allocates no objects per message.
+ *
+ * @author Cleber Souza
+ * @version 1.0
+ */
+public final class DispatchInterceptorChain {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchInterceptorChain.class);
+
+    private final DispatchInterceptor[] interceptors;
+
+    /**
+     * @param interceptors interceptors já ordenados / interceptors already ordered
+     */
+    public DispatchInterceptorChain(List<? extends DispatchInterceptor> interceptors) {
+        this.interceptors = interceptors.toArray(DispatchInterceptor[]::new);
+    }
+
+    public static DispatchInterceptorChain empty() {
+        return new DispatchInterceptorChain(List.of());
+    }
+
+    /**
+     * Roteia a mensagem através do {@link MessageRouter} aplicando os interceptors.
+     * <p>
+     * Routes the message through the {@link MessageRouter} applying the interceptors.
+     *
+     * @param message mensagem recebida / received message
+     * @param router  roteador de destino / target router
+     * @return resultado do handler / handler result
+     */
+    public Object dispatch(Message message, MessageRouter router) {
+        final var start = System.nanoTime();
+        var applied = 0;
+        final Object result;
+
+        try {
+            for (; applied < interceptors.length; applied++) {
+                interceptors[applied].beforeDispatch(message);
+            }
+            result = router.routeMessage(message);
+        } catch (RuntimeException | Error e) {
+            triggerOnError(message, e, System.nanoTime() - start, applied);
+            throw e;
+        }
+
+        triggerAfter(message, result, System.nanoTime() - start);
+        return result;
+    }
+
+    private void triggerAfter(Message message, Object result, long elapsedNanos) {
+        for (var i = interceptors.length - 1; i >= 0; i--) {
+            try {
+                interceptors[i].afterDispatch(message, result, elapsedNanos);
+            } catch (RuntimeException e) {
+                log.error("Erro no afterDispatch do interceptor {}", interceptors[i].getClass().getName(), e);
+            }
+        }
+    }
+
+    private void triggerOnError(Message message, Throwable exception, long elapsedNanos, int applied) {
+        for (var i = applied - 1; i >= 0; i--) {
+            try {
+                interceptors[i].onDispatchError(message, exception, elapsedNanos);
+            } catch (RuntimeException e) {
+                log.error("Erro no onDispatchError do interceptor {}", interceptors[i].getClass().getName(), e);
+            }
+        }
+    }
+
+    public int size() {
+        return interceptors.length;
+    }
+}
@@ -0,0 +1,35 @@
+package br.com.messagedispatcher.interceptor.impl;
+
+import br.com.messagedispatcher.interceptor.DispatchInterceptor;
+import br.com.messagedispatcher.util.context.MessageDispatcherContextHolder;
+import org.springframework.amqp.core.Message;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Popula o {@link MessageDispatcherContextHolder} com os headers da mensagem e o limpa ao final do despacho.
+ * Executa primeiro para que os demais interceptors e o handler já enxerguem o contexto.
+ * <p>
+ * Populates the {@link MessageDispatcherContextHolder} with the message headers and clears it at the end of the dispatch.
+ * Runs first so that the remaining interceptors and the handler already see the context.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ContextHolderDispatchInterceptor implements DispatchInterceptor {
+
+    @Override
+    public void beforeDispatch(Message message) {
+        MessageDispatcherContextHolder.setHeaders(message.getMessageProperties().getHeaders());
+    }
+
+    @Override
+    public void afterDispatch(Message message, Object result, long elapsedNanos) {
+        MessageDispatcherContextHolder.clear();
+    }
+
+    @Override
+    public void onDispatchError(Message message, Throwable exception, long elapsedNanos) {
+        MessageDispatcherContextHolder.clear();
+    }
+}
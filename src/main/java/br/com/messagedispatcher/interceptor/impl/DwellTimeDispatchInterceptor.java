@@ -0,0 +1,79 @@
+package br.com.messagedispatcher.interceptor.impl;
+
+import br.com.messagedispatcher.interceptor.DispatchInterceptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.PUBLISHED_AT;
+
+/**
+ * Mede o tempo de permanência (dwell time) das mensagens da fila de entrada: do header de publicação em epoch millis
+ * até o início do despacho, incluindo a espera na fila e no buffer de prefetch. Mensagens sem o header, de publicadores
+ * anteriores, usam a propriedade AMQP {@code timestamp}, com precisão de segundos. Acumula apenas soma e contagem,
+ * lidas e zeradas a cada avaliação do autoscaler. Mensagens despachadas em processo não passam pela fila e são
+ * ignoradas.
+ * <p>
+ * Measures the dwell time of inbox messages: from the epoch-millis publish header to the start of the dispatch,
+ * including the wait in the queue and in the prefetch buffer. Messages without the header, from older publishers, use
+ * the AMQP {@code timestamp} property, with second precision. Only sum and count are accumulated, read and reset on
+ * every autoscaler evaluation. Messages dispatched in-process do not go through the queue and are ignored.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 5)
+public class DwellTimeDispatchInterceptor implements DispatchInterceptor {
+
+    private final String queueName;
+    private final LongAdder received = new LongAdder();
+    private final LongAdder dwellCount = new LongAdder();
+    private final LongAdder dwellMillis = new LongAdder();
+
+    public DwellTimeDispatchInterceptor(String queueName) {
+        this.queueName = queueName;
+    }
+
+    @Override
+    public void beforeDispatch(Message message) {
+        var messageProperties = message.getMessageProperties();
+        if (!queueName.equals(messageProperties.getConsumerQueue())) {
+            return;
+        }
+
+        received.increment();
+        var publishedAt = publishedAtMillis(messageProperties);
+        if (publishedAt > 0) {
+            // Relógios de hosts diferentes podem divergir; permanência negativa é tratada como zero
+            dwellMillis.add(Math.max(0, System.currentTimeMillis() - publishedAt));
+            dwellCount.increment();
+        }
+    }
+
+    /**
+     * Retorna as medições acumuladas desde a chamada anterior e as zera.
+     * <p>
+     * Returns the measurements accumulated since the previous call and resets them.
+     */
+    public Window drain() {
+        var count = dwellCount.sumThenReset();
+        var sum = dwellMillis.sumThenReset();
+        return new Window(received.sumThenReset(), count == 0 ? 0 : (double) sum / count);
+    }
+
+    private static long publishedAtMillis(MessageProperties messageProperties) {
+        if (messageProperties.getHeaders().get(PUBLISHED_AT.getHeaderName()) instanceof Number millis) {
+            return millis.longValue();
+        }
+        var timestamp = messageProperties.getTimestamp();
+        return timestamp == null ? 0 : timestamp.getTime();
+    }
+
+    /**
+     * Mensagens recebidas da fila e permanência média, em ms, das que traziam timestamp.
+     * <p>
+     * Messages received from the queue and mean dwell time, in ms, of those carrying a timestamp.
+     */
+    public record Window(long received, double meanDwellMillis) {
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.messagedispatcher.interceptor.impl;
+
+import br.com.messagedispatcher.interceptor.DispatchInterceptor;
+import br.com.messagedispatcher.lane.HandlerLanes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.BODY_TYPE;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.HANDLER_TYPE;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.MESSAGE_SOURCE;
+
+/**
+ * Valida, no consumo, a lane escolhida pelo publicador: quem publica resolve a lane pela própria configuração, então
+ * uma mensagem que chega à fila padrão ou a uma lane diferente da que este serviço atribui ao tipo dela indica que as
+ * configurações de {@code message.dispatcher.lanes} divergem. A mensagem é processada normalmente e a divergência é
+ * registrada uma vez por tipo, fila e origem.
+ * <p>
+ * Validates, on consume, the lane chosen by the publisher: publishers resolve the lane from their own configuration, so
+ * a message arriving on the default queue or on a lane other than the one this service assigns to its type means the
+ * {@code message.dispatcher.lanes} configurations diverge. The message is processed as usual and the mismatch is
+ * logged once per type, queue and source.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 6)
+public class LaneRoutingDispatchInterceptor implements DispatchInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(LaneRoutingDispatchInterceptor.class);
+
+    private final HandlerLanes lanes;
+    private final String queueName;
+    private final Set<String> reported = ConcurrentHashMap.newKeySet();
+
+    public LaneRoutingDispatchInterceptor(HandlerLanes lanes, String queueName) {
+        this.lanes = lanes;
+        this.queueName = queueName;
+    }
+
+    @Override
+    public void beforeDispatch(Message message) {
+        var messageProperties = message.getMessageProperties();
+        var queue = messageProperties.getConsumerQueue();
+        var payloadType = messageProperties.getHeaders().get(BODY_TYPE.getHeaderName());
+        var handlerType = handlerType(messageProperties.getHeaders().get(HANDLER_TYPE.getHeaderName()));
+        if (lanes.isEmpty() || queue == null || payloadType == null || handlerType == null
+                || !(queue.equals(queueName) || queue.startsWith(queueName + "."))) {
+            return;
+        }
+
+        var expected = lanes.expectedQueue(handlerType, payloadType.toString());
+        var source = messageProperties.getHeaders().get(MESSAGE_SOURCE.getHeaderName());
+        if (!expected.equals(queue) && reported.add(handlerType + ":" + payloadType + ":" + queue + ":" + source)) {
+            log.warn("{} {} de {} recebido na fila {}, mas as lanes deste serviço o atribuem à fila {}: o publicador "
+                            + "não usa a mesma configuração de message.dispatcher.lanes", handlerType, payloadType, source,
+                    queue, expected);
+        }
+    }
+
+    private static HandlerType handlerType(Object header) {
+        if (header instanceof HandlerType type) {
+            return type;
+        }
+        if (header == null) {
+            return null;
+        }
+        try {
+            return HandlerType.valueOf(header.toString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
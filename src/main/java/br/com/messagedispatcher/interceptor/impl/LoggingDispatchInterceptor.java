@@ -0,0 +1,73 @@
+package br.com.messagedispatcher.interceptor.impl;
+
+import br.com.messagedispatcher.interceptor.DispatchInterceptor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import static java.util.Objects.nonNull;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@ConditionalOnProperty(value = "message.dispatcher.logging.message-router.enabled", havingValue = "true")
+public class LoggingDispatchInterceptor implements DispatchInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingDispatchInterceptor.class);
+    private final ObjectMapper mapper;
+    private final MessageConverter messageConverter;
+
+    public LoggingDispatchInterceptor(ObjectMapper objectMapper, MessageConverter messageConverter) {
+        this.mapper = objectMapper;
+        this.messageConverter = messageConverter;
+        log.warn("""
+
+
+                    ########################################## Message Router com modo DEBUG ativo ##########################################
+
+                    Mensagens roteadas serão exibidas no log de depuração.
+                    Para desativar o modo debug, altere a propriedade 'message.dispatcher.logging.message-router.enabled' para 'false'
+
+                    #########################################################################################################################
+                """);
+    }
+
+    @Override
+    public void beforeDispatch(Message message) {
+        if (!log.isDebugEnabled()) {
+            return;
+        }
+
+        try {
+            var targetMethod = message.getMessageProperties().getTargetMethod();
+            log.debug("""
+
+                                Mensagem recebida por: {}.{}
+                                Exchange: {}
+                                RoutingKey: {}
+                                Headers: {}
+                                Body: {}
+                            """,
+                    nonNull(targetMethod) ? targetMethod.getDeclaringClass().getName() : null,
+                    nonNull(targetMethod) ? targetMethod.getName() : null,
+                    message.getMessageProperties().getReceivedExchange(),
+                    message.getMessageProperties().getReceivedRoutingKey(),
+                    message.getMessageProperties().getHeaders(),
+                    mapper.writeValueAsString(messageConverter.fromMessage(message)));
+        } catch (Exception e) {
+            log.error("Falha ao capturar informações de origem da mensagem em modo debug", e);
+        }
+    }
+
+    @Override
+    public void onDispatchError(Message message, Throwable exception, long elapsedNanos) {
+        if (log.isDebugEnabled()) {
+            log.debug("Falha ao rotear mensagem após {} ms: {}", elapsedNanos / 1_000_000, exception.getMessage());
+        }
+    }
+}
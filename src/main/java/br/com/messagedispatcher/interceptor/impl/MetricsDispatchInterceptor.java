@@ -0,0 +1,79 @@
+package br.com.messagedispatcher.interceptor.impl;
+
+import br.com.messagedispatcher.interceptor.DispatchInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.amqp.core.Message;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.concurrent.TimeUnit;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.HANDLER_TYPE;
+
+/**
+ * Registra o tempo de despacho por tipo de handler e resultado. Os timers são criados na inicialização
+ * para que nenhum builder seja alocado por mensagem.
+ * <p>
+ * Records the dispatch time per handler type and outcome. Timers are created at startup so that no builder
+ * is allocated per message.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class MetricsDispatchInterceptor implements DispatchInterceptor {
+
+    public static final String METRIC_NAME = "message.dispatcher.dispatch";
+    private static final String UNKNOWN = "UNKNOWN";
+
+    private final Timer[] successTimers;
+    private final Timer[] errorTimers;
+
+    public MetricsDispatchInterceptor(MeterRegistry meterRegistry) {
+        var handlerTypes = HandlerType.values();
+        this.successTimers = new Timer[handlerTypes.length + 1];
+        this.errorTimers = new Timer[handlerTypes.length + 1];
+
+        for (var handlerType : handlerTypes) {
+            successTimers[handlerType.ordinal()] = timer(meterRegistry, handlerType.name(), "success");
+            errorTimers[handlerType.ordinal()] = timer(meterRegistry, handlerType.name(), "error");
+        }
+        successTimers[handlerTypes.length] = timer(meterRegistry, UNKNOWN, "success");
+        errorTimers[handlerTypes.length] = timer(meterRegistry, UNKNOWN, "error");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String handlerType, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("Tempo de despacho das mensagens recebidas")
+                .tag("handler-type", handlerType)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterDispatch(Message message, Object result, long elapsedNanos) {
+        successTimers[index(message)].record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onDispatchError(Message message, Throwable exception, long elapsedNanos) {
+        errorTimers[index(message)].record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private int index(Message message) {
+        var handlerType = message.getMessageProperties().getHeaders().get(HANDLER_TYPE.getHeaderName());
+
+        if (handlerType instanceof HandlerType type) {
+            return type.ordinal();
+        }
+
+        if (handlerType != null) {
+            try {
+                return HandlerType.valueOf(handlerType.toString()).ordinal();
+            } catch (IllegalArgumentException e) {
+                return successTimers.length - 1;
+            }
+        }
+
+        return successTimers.length - 1;
+    }
+}
@@ -0,0 +1,187 @@
+package br.com.messagedispatcher.lane;
+
+import br.com.messagedispatcher.annotation.MessageHandler;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties.Lane;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.Exchange;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
+import br.com.messagedispatcher.exceptions.MessageDispatcherBeanResolutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Resolve a lane de cada mensagem, pelo handler anotado, pelo tipo de payload ou pelo tipo de handler, nessa ordem de
+ * precedência, e os nomes da fila e da routing key de cada lane. Mensagens sem lane seguem para a fila padrão.
+ * <p>
+ * Os handlers anotados são lidos na primeira resolução, pois os beans de listener podem depender do publicador. Na
+ * publicação eles só valem para mensagens à própria routing key do serviço; para outros serviços a lane vem apenas dos
+ * tipos de payload e de handler configurados aqui, que devem espelhar a configuração do destino.
+ * <p>
+ * Resolves the lane of each message, by annotated handler, payload type or handler type, in that order of precedence,
+ * and the queue and routing key names of each lane. Messages without a lane go to the default queue.
+ * <p>
+ * Annotated handlers are read on the first resolution, since listener beans may depend on the publisher. When
+ * publishing they only apply to messages to the service's own routing key; for other services the lane comes only from
+ * the payload and handler types configured here, which must mirror the target's configuration.
+ */
+public class HandlerLanes {
+
+    private static final Logger log = LoggerFactory.getLogger(HandlerLanes.class);
+    // O nome compõe a routing key; um ponto o tornaria um novo segmento do padrão topic
+    private static final Pattern LANE_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private final MessageDispatcherProperties properties;
+    private final Supplier<List<Object>> listeners;
+    private final Map<HandlerType, String> byHandlerType = new EnumMap<>(HandlerType.class);
+    private final Map<String, String> byPayloadType = new HashMap<>();
+    private volatile Map<HandlerType, Map<String, String>> byHandler;
+
+    public HandlerLanes(MessageDispatcherProperties properties, Supplier<List<Object>> listeners) {
+        this.properties = properties;
+        this.listeners = listeners;
+
+        if (properties.getLanes().isEmpty()) {
+            return;
+        }
+        if (properties.getExchangeType() != Exchange.TOPIC && properties.getExchangeType() != Exchange.DIRECT) {
+            throw new MessageDispatcherBeanResolutionException("Lanes exigem exchange do tipo topic ou direct, pois "
+                    + "são roteadas pela routing key: " + properties.getExchangeType());
+        }
+        properties.getLanes().forEach((name, lane) -> {
+            if (!LANE_NAME.matcher(name).matches()) {
+                throw new MessageDispatcherBeanResolutionException("Nome de lane inválido, use apenas letras, números, "
+                        + "'-' e '_': " + name);
+            }
+            lane.getHandlerTypes().forEach(handlerType -> assign(byHandlerType, handlerType, name));
+            lane.getPayloadTypes().forEach(payloadType -> assign(byPayloadType, payloadType.trim(), name));
+        });
+        log.info("Lanes configuradas: {}", properties.getLanes().keySet());
+    }
+
+    public boolean isEmpty() {
+        return properties.getLanes().isEmpty();
+    }
+
+    public Map<String, Lane> getLanes() {
+        return properties.getLanes();
+    }
+
+    /**
+     * Lane que recebe a mensagem, ou {@code null} para a fila padrão.
+     * <p>
+     * Lane receiving the message, or {@code null} for the default queue.
+     *
+     * @param handlerType tipo de handler / handler type
+     * @param payloadType nome simples da classe do payload / simple name of the payload class
+     */
+    public String laneOf(HandlerType handlerType, String payloadType) {
+        return laneOf(handlerType, payloadType, true);
+    }
+
+    private String laneOf(HandlerType handlerType, String payloadType, boolean ownHandlers) {
+        if (isEmpty()) {
+            return null;
+        }
+        var lane = ownHandlers ? handlerLanes().getOrDefault(handlerType, Map.of()).get(payloadType) : null;
+        if (lane == null) {
+            lane = byPayloadType.get(payloadType);
+        }
+        return lane != null ? lane : byHandlerType.get(handlerType);
+    }
+
+    /**
+     * Routing key da publicação: com o sufixo da lane quando a mensagem vai para a exchange padrão e tem lane, senão a
+     * própria routing key informada. A lane de um handler anotado só é aplicada a mensagens para este serviço.
+     * <p>
+     * Publishing routing key: suffixed with the lane when the message goes to the default exchange and has a lane,
+     * otherwise the given routing key itself. The lane of an annotated handler only applies to messages to this service.
+     */
+    public String routingKey(String exchange, String routingKey, HandlerType handlerType, Object body) {
+        if (isEmpty() || !properties.getExchangeName().equals(exchange)) {
+            return routingKey;
+        }
+        var lane = laneOf(handlerType, body.getClass().getSimpleName(), routingKey.equals(properties.getRoutingKey()));
+        return lane == null ? routingKey : laneRoutingKey(routingKey, lane);
+    }
+
+    /**
+     * Fila em que este serviço espera receber a mensagem: a da lane dela ou a fila padrão.
+     * <p>
+     * Queue on which this service expects to receive the message: that of its lane or the default queue.
+     */
+    public String expectedQueue(HandlerType handlerType, String payloadType) {
+        var lane = laneOf(handlerType, payloadType);
+        return lane == null ? properties.getQueueName() : queueName(lane);
+    }
+
+    public String queueName(String lane) {
+        return properties.getQueueName() + "." + lane;
+    }
+
+    public String bindingKey(String lane) {
+        return laneRoutingKey(properties.getRoutingKey(), lane);
+    }
+
+    private static String laneRoutingKey(String routingKey, String lane) {
+        return routingKey + "." + lane;
+    }
+
+    /**
+     * Lê os handlers anotados agora, para que uma lane não configurada falhe na inicialização.
+     * <p>
+     * Reads the annotated handlers now, so that an unconfigured lane fails at startup.
+     */
+    public void resolveHandlers() {
+        handlerLanes();
+    }
+
+    private Map<HandlerType, Map<String, String>> handlerLanes() {
+        var resolved = byHandler;
+        if (resolved == null) {
+            synchronized (this) {
+                resolved = byHandler;
+                if (resolved == null) {
+                    resolved = resolveAnnotatedHandlers();
+                    byHandler = resolved;
+                }
+            }
+        }
+        return resolved;
+    }
+
+    private Map<HandlerType, Map<String, String>> resolveAnnotatedHandlers() {
+        var resolved = new EnumMap<HandlerType, Map<String, String>>(HandlerType.class);
+        for (var listener : listeners.get()) {
+            for (var method : AopUtils.getTargetClass(listener).getMethods()) {
+                var annotation = AnnotatedElementUtils.findMergedAnnotation(method, MessageHandler.class);
+                if (annotation == null || annotation.lane().isBlank() || method.getParameterCount() == 0) {
+                    continue;
+                }
+                if (!properties.getLanes().containsKey(annotation.lane())) {
+                    throw new MessageDispatcherBeanResolutionException("Lane " + annotation.lane() + " do handler "
+                            + method.getName() + " não está configurada em message.dispatcher.lanes");
+                }
+                resolved.computeIfAbsent(annotation.handlerType(), handlerType -> new HashMap<>())
+                        .put(method.getParameterTypes()[0].getSimpleName(), annotation.lane());
+            }
+        }
+        return resolved;
+    }
+
+    private static <K> void assign(Map<K, String> assignments, K key, String lane) {
+        var previous = assignments.putIfAbsent(key, lane);
+        if (previous != null && !previous.equals(lane)) {
+            throw new MessageDispatcherBeanResolutionException(key + " está atribuído às lanes " + previous + " e "
+                    + lane);
+        }
+    }
+}
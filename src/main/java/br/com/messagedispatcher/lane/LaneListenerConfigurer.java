@@ -0,0 +1,106 @@
+package br.com.messagedispatcher.lane;
+
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.ContainerType;
+import br.com.messagedispatcher.listener.RabbitMqMessageDispatcherListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MethodRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.api.RabbitListenerErrorHandler;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.messaging.handler.annotation.support.MessageHandlerMethodFactory;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Registra um container por lane, consumindo a fila da lane com a concorrência e o prefetch dela. Os containers são
+ * criados pela mesma fábrica do listener padrão e invocam o mesmo listener, com o mesmo error handler, então
+ * retentativas, DLQ e respostas funcionam como na fila padrão.
+ * <p>
+ * Registers one container per lane, consuming the lane queue with its own concurrency and prefetch. The containers are
+ * created by the same factory as the default listener and invoke the same listener, with the same error handler, so
+ * retries, DLQ and replies work as on the default queue.
+ */
+public class LaneListenerConfigurer implements RabbitListenerConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(LaneListenerConfigurer.class);
+
+    private final HandlerLanes lanes;
+    private final ContainerType containerType;
+    private final RabbitMqMessageDispatcherListener listener;
+    private final RabbitListenerErrorHandler errorHandler;
+    private final BeanFactory beanFactory;
+
+    public LaneListenerConfigurer(HandlerLanes lanes, ContainerType containerType,
+                                  RabbitMqMessageDispatcherListener listener, RabbitListenerErrorHandler errorHandler,
+                                  BeanFactory beanFactory) {
+        this.lanes = lanes;
+        this.containerType = containerType;
+        this.listener = listener;
+        this.errorHandler = errorHandler;
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        lanes.resolveHandlers();
+        if (lanes.isEmpty()) {
+            return;
+        }
+
+        var method = ReflectionUtils.findMethod(RabbitMqMessageDispatcherListener.class, "onMessage", Message.class);
+        var handlerMethodFactory = handlerMethodFactory(registrar);
+
+        lanes.getLanes().forEach((name, lane) -> {
+            var endpoint = new LaneListenerEndpoint(lane.getPrefetchCount());
+            endpoint.setId("message-dispatcher-lane-" + name);
+            endpoint.setQueueNames(lanes.queueName(name));
+            endpoint.setConcurrency(lane.listenerConcurrency(containerType));
+            endpoint.setBean(listener);
+            endpoint.setMethod(method);
+            endpoint.setMessageHandlerMethodFactory(handlerMethodFactory);
+            endpoint.setErrorHandler(errorHandler);
+            endpoint.setReturnExceptions(false);
+            endpoint.setBeanFactory(beanFactory);
+            registrar.registerEndpoint(endpoint);
+            log.info("Lane {} registrada na fila {} com concorrência {} e prefetch {}", name, lanes.queueName(name),
+                    endpoint.getConcurrency(), lane.getPrefetchCount());
+        });
+    }
+
+    private MessageHandlerMethodFactory handlerMethodFactory(RabbitListenerEndpointRegistrar registrar) {
+        if (registrar.getMessageHandlerMethodFactory() != null) {
+            return registrar.getMessageHandlerMethodFactory();
+        }
+        var factory = new DefaultMessageHandlerMethodFactory();
+        factory.setBeanFactory(beanFactory);
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    /**
+     * O endpoint não tem prefetch próprio; ele é aplicado depois das configurações da fábrica.
+     * <p>
+     * The endpoint has no prefetch of its own; it is applied after the factory settings.
+     */
+    static final class LaneListenerEndpoint extends MethodRabbitListenerEndpoint {
+
+        private final int prefetchCount;
+
+        LaneListenerEndpoint(int prefetchCount) {
+            this.prefetchCount = prefetchCount;
+        }
+
+        @Override
+        public void setupListenerContainer(MessageListenerContainer listenerContainer) {
+            super.setupListenerContainer(listenerContainer);
+            if (listenerContainer instanceof AbstractMessageListenerContainer container) {
+                container.setPrefetchCount(prefetchCount);
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package br.com.messagedispatcher.listener;
+
+import com.rabbitmq.client.Channel;
+import org.aopalliance.aop.Advice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agrupa as confirmações das mensagens processadas com sucesso em um único {@code basic.ack} com
+ * {@code multiple=true}, enviado a cada {@code batchSize} mensagens de um canal ou a cada {@code timeout}, o que vier
+ * primeiro. Cada consumidor processa as entregas do seu canal em ordem, então o ack da última confirma todas as
+ * anteriores.
+ * <p>
+ * Como {@link ListenerChannels.ChannelListener}, limita o lote de cada canal à metade do prefetch aplicado nele, a cada
+ * mudança de prefetch: com o lote do tamanho do prefetch o broker para de entregar até o ack. Quando o container fecha
+ * o canal de um consumidor parado (rebalanceamento, redução de consumidores, reinício), o lote é confirmado antes.
+ * <p>
+ * Uma falha no meio do lote confirma antes as mensagens anteriores e então rejeita apenas a que falhou; com as
+ * retentativas e o recoverer na cadeia de advices, a mensagem enviada para a DLQ conta como concluída. No encerramento
+ * do contexto os lotes pendentes são confirmados e as mensagens seguintes passam a ser confirmadas uma a uma. Um canal
+ * fechado com lote pendente (perda de conexão) tem essas mensagens reentregues pelo broker.
+ * <p>
+ * Coalesces the acknowledgements of successfully processed messages into a single {@code basic.ack} with
+ * {@code multiple=true}, sent every {@code batchSize} messages of a channel or every {@code timeout}, whichever comes
+ * first. Each consumer processes its channel deliveries in order, so acking the last one confirms all earlier ones.
+ * <p>
+ * As a {@link ListenerChannels.ChannelListener}, it caps the batch of each channel at half the prefetch applied to it,
+ * on every prefetch change: with a batch as large as the prefetch the broker stops delivering until the ack. When the
+ * container closes the channel of a stopped consumer (rebalancing, scale-down, restart), the batch is acked first.
+ * <p>
+ * A failure in the middle of a batch first acks the earlier messages and then rejects only the failed one; with the
+ * retries and the recoverer in the advice chain, a message sent to the DLQ counts as completed. On context close the
+ * pending batches are acked and later messages are acked one by one. A channel closed with a pending batch (connection
+ * loss) has those messages redelivered by the broker.
+ */
+public class AckBatcher implements ApplicationListener<ContextClosedEvent>, DisposableBean,
+        ListenerChannels.ChannelListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AckBatcher.class);
+
+    private final int batchSize;
+    private final Advice[] adviceChain;
+    private final Map<Channel, PendingAcks> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder ackFrames = new LongAdder();
+    private final LongAdder ackedMessages = new LongAdder();
+    private volatile boolean closing;
+
+    public AckBatcher(int batchSize, Duration timeout, Advice... adviceChain) {
+        this.batchSize = batchSize;
+        this.adviceChain = adviceChain;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "message-dispatcher-ack-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::flushAll, timeout.toMillis(), timeout.toMillis(), TimeUnit.MILLISECONDS);
+        log.debug("AckBatcher inicializado: lotes de {} mensagens ou {}", batchSize, timeout);
+    }
+
+    /**
+     * Envolve o listener criado para o container, que passa a confirmar as mensagens em lotes.
+     * <p>
+     * Wraps the listener created for the container, which then acknowledges messages in batches.
+     */
+    public ChannelAwareMessageListener wrap(MessageListener listener) {
+        return new BatchingAckMessageListener(ListenerInvoker.advised(listener, adviceChain), this);
+    }
+
+    PendingAcks pendingAcks(Channel channel) {
+        return pending.computeIfAbsent(channel, PendingAcks::new);
+    }
+
+    @Override
+    public void prefetchChanged(Channel channel, int prefetchCount) {
+        // Sem limite de prefetch (0) vale o tamanho configurado
+        var limit = prefetchCount == 0 ? batchSize : Math.min(batchSize, Math.max(1, prefetchCount / 2));
+        pendingAcks(channel).limit = limit;
+        if (limit < batchSize) {
+            log.debug("Lote de acks limitado a {}, metade do prefetch {}", limit, prefetchCount);
+        }
+    }
+
+    @Override
+    public void closing(Channel channel) {
+        var acks = pending.remove(channel);
+        if (acks != null) {
+            acks.flush();
+        }
+    }
+
+    /**
+     * Confirma os lotes pendentes de todos os canais.
+     * <p>
+     * Acks the pending batches of every channel.
+     */
+    public void flushAll() {
+        pending.values().removeIf(acks -> {
+            acks.flush();
+            return !acks.channel.isOpen();
+        });
+    }
+
+    /**
+     * Mensagens processadas aguardando o envio do ack.
+     * <p>
+     * Processed messages waiting for the ack to be sent.
+     */
+    public int getPendingAcks() {
+        return pending.values().stream().mapToInt(acks -> acks.count).sum();
+    }
+
+    /**
+     * Quantidade de frames {@code basic.ack} enviados.
+     * <p>
+     * Number of {@code basic.ack} frames sent.
+     */
+    public long getAckFrames() {
+        return ackFrames.sum();
+    }
+
+    /**
+     * Quantidade de mensagens confirmadas pelos frames enviados.
+     * <p>
+     * Number of messages acknowledged by the frames sent.
+     */
+    public long getAckedMessages() {
+        return ackedMessages.sum();
+    }
+
+    /**
+     * O evento é publicado antes de os containers pararem, com os canais ainda abertos.
+     * <p>
+     * The event is published before the containers stop, with the channels still open.
+     */
+    @Override
+    public void onApplicationEvent(ContextClosedEvent event) {
+        closing = true;
+        flushAll();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        flushAll();
+    }
+
+    /**
+     * Lote pendente de um canal. As operações são sincronizadas porque o flush periódico concorre com a thread do
+     * consumidor.
+     * <p>
+     * Pending batch of one channel. Operations are synchronized because the periodic flush competes with the consumer
+     * thread.
+     */
+    final class PendingAcks {
+
+        private final Channel channel;
+        private long lastDeliveryTag;
+        private volatile int count;
+        private volatile int limit = batchSize;
+
+        private PendingAcks(Channel channel) {
+            this.channel = channel;
+        }
+
+        synchronized void ack(long deliveryTag) {
+            lastDeliveryTag = deliveryTag;
+            count++;
+            if (count >= limit || closing) {
+                flush();
+            }
+        }
+
+        synchronized void reject(long deliveryTag, boolean requeue) {
+            flush();
+            try {
+                channel.basicReject(deliveryTag, requeue);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Falha ao rejeitar a mensagem {}, ela será reentregue pelo broker: {}", deliveryTag,
+                        e.getMessage());
+            }
+        }
+
+        synchronized void flush() {
+            if (count == 0) {
+                return;
+            }
+            try {
+                channel.basicAck(lastDeliveryTag, true);
+                ackFrames.increment();
+                ackedMessages.add(count);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Falha ao confirmar {} mensagens até {}, elas serão reentregues pelo broker: {}", count,
+                        lastDeliveryTag, e.getMessage());
+            }
+            count = 0;
+        }
+    }
+}
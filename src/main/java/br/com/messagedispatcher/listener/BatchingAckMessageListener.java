@@ -0,0 +1,47 @@
+package br.com.messagedispatcher.listener;
+
+import com.rabbitmq.client.Channel;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+
+/**
+ * Listener instalado nos containers pelo {@link AckBatcher}. Executa o listener original na thread do consumidor e
+ * registra o resultado no lote pendente do canal.
+ * <p>
+ * Listener installed on the containers by the {@link AckBatcher}. Runs the original listener on the consumer thread
+ * and records the outcome in the channel's pending batch.
+ */
+final class BatchingAckMessageListener implements ChannelAwareMessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchingAckMessageListener.class);
+
+    private final ListenerInvoker invoker;
+    private final AckBatcher ackBatcher;
+
+    BatchingAckMessageListener(ListenerInvoker invoker, AckBatcher ackBatcher) {
+        this.invoker = invoker;
+        this.ackBatcher = ackBatcher;
+    }
+
+    @Override
+    public void onMessage(Message message, Channel channel) {
+        var deliveryTag = message.getMessageProperties().getDeliveryTag();
+        var pendingAcks = ackBatcher.pendingAcks(channel);
+
+        try {
+            invoker.invoke(channel, message);
+        } catch (Exception e) {
+            var requeue = ExceptionUtils.indexOfType(e, ImmediateRequeueAmqpException.class) >= 0;
+            log.warn("Falha ao processar a mensagem {}, rejeitada {} reenfileiramento: {}", deliveryTag,
+                    requeue ? "com" : "sem", ExceptionUtils.getRootCauseMessage(e));
+            pendingAcks.reject(deliveryTag, requeue);
+            return;
+        }
+
+        pendingAcks.ack(deliveryTag);
+    }
+}
@@ -0,0 +1,166 @@
+package br.com.messagedispatcher.listener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Controle de fluxo por bytes: contabiliza o volume de corpos de mensagens entregues pelo broker e ainda sem ack. Quando
+ * o total passa de {@code highWatermark} o controle pausa, e os {@link Listener}s cancelam os consumidores; ao voltar a
+ * {@code lowWatermark} ou menos, o controle é retomado e os consumidores voltam a consumir. Reservar e liberar nunca
+ * bloqueiam: as transições são entregues aos listeners, em ordem, em uma thread própria.
+ * <p>
+ * Byte-based flow control: accounts for the volume of bodies of messages delivered by the broker and not yet acked.
+ * Once the total goes over {@code highWatermark} the budget pauses, and the {@link Listener}s cancel the consumers; once
+ * it drops to {@code lowWatermark} or below, the budget resumes and the consumers consume again. Reserving and
+ * releasing never block: transitions are handed to the listeners, in order, on a thread of their own.
+ */
+public class ByteBudget implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ByteBudget.class);
+
+    private final long highWatermark;
+    private final long lowWatermark;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService notifier;
+    private final boolean ownsNotifier;
+    private final LongAdder pauses = new LongAdder();
+
+    private volatile long bufferedBytes;
+    private volatile boolean paused;
+
+    public ByteBudget(long highWatermark, long lowWatermark) {
+        this(highWatermark, lowWatermark, newNotifier(), true);
+    }
+
+    /**
+     * Controle que entrega as transições pelo {@code notifier} informado, encerrado por quem o criou.
+     * <p>
+     * Budget that hands its transitions to the given {@code notifier}, shut down by whoever created it.
+     */
+    ByteBudget(long highWatermark, long lowWatermark, ExecutorService notifier) {
+        this(highWatermark, lowWatermark, notifier, false);
+    }
+
+    private ByteBudget(long highWatermark, long lowWatermark, ExecutorService notifier, boolean ownsNotifier) {
+        checkWatermarks(highWatermark, lowWatermark);
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+        this.notifier = notifier;
+        this.ownsNotifier = ownsNotifier;
+    }
+
+    static void checkWatermarks(long highWatermark, long lowWatermark) {
+        if (highWatermark < 1 || lowWatermark < 0 || lowWatermark > highWatermark) {
+            throw new IllegalArgumentException("Limites de bytes inválidos: low-watermark " + lowWatermark
+                    + ", high-watermark " + highWatermark);
+        }
+    }
+
+    static ExecutorService newNotifier() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "message-dispatcher-flow-control");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Registra um listener das transições de pausa e retomada.
+     * <p>
+     * Registers a listener of the pause and resume transitions.
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Contabiliza os bytes de uma mensagem entregue, pausando o controle ao passar de {@code highWatermark}.
+     * <p>
+     * Accounts for the bytes of a delivered message, pausing the budget once {@code highWatermark} is exceeded.
+     */
+    public synchronized void reserve(long bytes) {
+        bufferedBytes += bytes;
+        if (!paused && bufferedBytes > highWatermark) {
+            paused = true;
+            pauses.increment();
+            log.debug("Consumidores pausados: {} bytes em buffer, limite {}", bufferedBytes, highWatermark);
+            notifyListeners(Listener::paused);
+        }
+    }
+
+    /**
+     * Libera os bytes de uma mensagem confirmada, retomando o controle ao atingir {@code lowWatermark}.
+     * <p>
+     * Releases the bytes of an acknowledged message, resuming the budget once {@code lowWatermark} is reached.
+     */
+    public synchronized void release(long bytes) {
+        bufferedBytes -= bytes;
+        if (paused && bufferedBytes <= lowWatermark) {
+            paused = false;
+            log.debug("Consumidores retomados: {} bytes em buffer", bufferedBytes);
+            notifyListeners(Listener::resumed);
+        }
+    }
+
+    private void notifyListeners(Consumer<Listener> transition) {
+        try {
+            notifier.execute(() -> listeners.forEach(listener -> {
+                try {
+                    transition.accept(listener);
+                } catch (RuntimeException e) {
+                    log.warn("Falha ao aplicar o controle de fluxo: {}", e.getMessage(), e);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            log.debug("Controle de fluxo encerrado, transição ignorada");
+        }
+    }
+
+    public long getBufferedBytes() {
+        return bufferedBytes;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public long getPauseCount() {
+        return pauses.sum();
+    }
+
+    public long getHighWatermark() {
+        return highWatermark;
+    }
+
+    public long getLowWatermark() {
+        return lowWatermark;
+    }
+
+    @Override
+    public void destroy() {
+        if (ownsNotifier) {
+            notifier.shutdownNow();
+        }
+    }
+
+    /**
+     * Recebe as transições do controle de fluxo, sempre na thread do controle.
+     * <p>
+     * Receives the flow control transitions, always on the budget's thread.
+     */
+    public interface Listener {
+
+        void paused();
+
+        void resumed();
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.messagedispatcher.listener;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.List;
+
+/**
+ * Expõe o estado do {@link ByteBudget} de cada container no Micrometer, lido no momento da coleta, com as tags
+ * {@code container} e {@code queue}.
+ * <p>
+ * Exposes the state of each container's {@link ByteBudget} through Micrometer, read at scrape time, tagged with
+ * {@code container} and {@code queue}.
+ */
+public class ByteBudgetMetrics implements ByteBudgets.Listener {
+
+    public static final String METRIC_PREFIX = "message.dispatcher.flow.control";
+
+    private final MeterRegistry meterRegistry;
+
+    public ByteBudgetMetrics(ByteBudgets byteBudgets, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        byteBudgets.addListener(this);
+    }
+
+    @Override
+    public void created(String container, List<String> queues, ByteBudget byteBudget) {
+        var tags = Tags.of("container", container, "queue", String.join(",", queues));
+        Gauge.builder(METRIC_PREFIX + ".buffered", byteBudget, ByteBudget::getBufferedBytes)
+                .description("Bytes de mensagens recebidas e não concluídas")
+                .baseUnit("bytes")
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".paused", byteBudget, budget -> budget.isPaused() ? 1 : 0)
+                .description("1 enquanto os consumidores estão pausados pelo controle de fluxo")
+                .tags(tags)
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".pauses", byteBudget, ByteBudget::getPauseCount)
+                .description("Pausas dos consumidores pelo controle de fluxo")
+                .tags(tags)
+                .register(meterRegistry);
+    }
+}
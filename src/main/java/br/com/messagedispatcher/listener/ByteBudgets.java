@@ -0,0 +1,101 @@
+package br.com.messagedispatcher.listener;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Cria um {@link ByteBudget} por container de listener, todos com os mesmos limites: uma lane ou partição inundada
+ * pausa apenas os próprios consumidores. As transições de todos os controles são entregues em uma única thread.
+ * <p>
+ * Creates one {@link ByteBudget} per listener container, all with the same watermarks: a flooded lane or shard pauses
+ * only its own consumers. The transitions of every budget are delivered on a single thread.
+ */
+public class ByteBudgets implements DisposableBean {
+
+    private final long highWatermark;
+    private final long lowWatermark;
+    private final ExecutorService notifier = ByteBudget.newNotifier();
+    private final Map<String, Budget> budgets = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public ByteBudgets(long highWatermark, long lowWatermark) {
+        ByteBudget.checkWatermarks(highWatermark, lowWatermark);
+        this.highWatermark = highWatermark;
+        this.lowWatermark = lowWatermark;
+    }
+
+    /**
+     * Retorna o controle do container, criando-o no primeiro uso.
+     * <p>
+     * Returns the container's budget, creating it on first use.
+     *
+     * @param container id do container / container id
+     * @param queues    filas consumidas pelo container / queues consumed by the container
+     */
+    public synchronized ByteBudget create(String container, List<String> queues) {
+        var budget = budgets.get(container);
+        if (budget == null) {
+            budget = new Budget(container, List.copyOf(queues), new ByteBudget(highWatermark, lowWatermark, notifier));
+            budgets.put(container, budget);
+            listeners.forEach(budget::reportTo);
+        }
+        return budget.byteBudget();
+    }
+
+    /**
+     * Registra um listener dos controles criados; os já existentes são informados na hora.
+     * <p>
+     * Registers a listener of the created budgets; existing ones are reported right away.
+     */
+    public synchronized void addListener(Listener listener) {
+        listeners.add(listener);
+        budgets.values().forEach(budget -> budget.reportTo(listener));
+    }
+
+    /**
+     * Controles criados, pelo id do container.
+     * <p>
+     * Created budgets, by container id.
+     */
+    public Map<String, ByteBudget> getBudgets() {
+        var byContainer = new TreeMap<String, ByteBudget>();
+        budgets.forEach((container, budget) -> byContainer.put(container, budget.byteBudget()));
+        return byContainer;
+    }
+
+    public long getHighWatermark() {
+        return highWatermark;
+    }
+
+    public long getLowWatermark() {
+        return lowWatermark;
+    }
+
+    @Override
+    public void destroy() {
+        notifier.shutdownNow();
+    }
+
+    /**
+     * Avisado de cada controle criado, com o container e as filas dele.
+     * <p>
+     * Told about each budget created, with its container and queues.
+     */
+    public interface Listener {
+
+        void created(String container, List<String> queues, ByteBudget byteBudget);
+    }
+
+    private record Budget(String container, List<String> queues, ByteBudget byteBudget) {
+
+        void reportTo(Listener listener) {
+            listener.created(container, queues, byteBudget);
+        }
+    }
+}
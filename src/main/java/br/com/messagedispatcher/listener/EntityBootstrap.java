@@ -0,0 +1,334 @@
+package br.com.messagedispatcher.listener;
+
+import br.com.messagedispatcher.config.properties.EntityBootstrapProperties;
+import br.com.messagedispatcher.config.properties.EntityEventsProperties;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.BootstrapStatus;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
+import br.com.messagedispatcher.listener.EntityBootstrapCheckpoints.Checkpoint;
+import br.com.messagedispatcher.listener.MessageDispatcherEntityEventsListenerImpl.Action;
+import br.com.messagedispatcher.publisher.proxy.RabbitTemplateProxy;
+import br.com.messagedispatcher.publisher.proxy.SendOptions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publica as linhas existentes de uma entidade anotada com {@code @EntityEventsPublish} como eventos SNAPSHOT, para que
+ * um novo consumidor receba o estado atual. As linhas são lidas em lotes por paginação keyset sobre o id, em uma sessão
+ * stateless e somente leitura, então a memória usada não depende do tamanho da tabela. Cada lote é publicado em um
+ * canal e confirmado pelo broker antes de o checkpoint avançar; um bootstrap interrompido retoma após o último id
+ * confirmado, podendo repetir no máximo um lote.
+ * <p>
+ * Publishes the existing rows of an entity annotated with {@code @EntityEventsPublish} as SNAPSHOT events, so a new
+ * consumer receives the current state. Rows are read in batches by keyset pagination on the id, in a stateless
+ * read-only session, so the memory used does not depend on the table size. Each batch is published on one channel and
+ * confirmed by the broker before the checkpoint moves forward; an interrupted bootstrap resumes after the last
+ * confirmed id, repeating at most one batch.
+ * <p>
+ * A entidade precisa declarar uma projeção em {@code @EntityEventsPublish} ({@code properties} ou {@code mapper}): a
+ * sessão stateless não carrega associações lazy, então serializar a entidade inteira falharia ou dispararia consultas
+ * por linha. Os checkpoints exigem um diretório configurado, que sobreviva a reinícios.
+ * <p>
+ * The entity must declare a projection on {@code @EntityEventsPublish} ({@code properties} or {@code mapper}): the
+ * stateless session does not load lazy associations, so serializing the whole entity would fail or trigger queries per
+ * row. Checkpoints require a configured directory that survives restarts.
+ */
+public class EntityBootstrap {
+
+    private static final Logger log = LoggerFactory.getLogger(EntityBootstrap.class);
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final RabbitTemplateProxy templateProxy;
+    private final String exchange;
+    private final String routingKey;
+    private final int batchSize;
+    private final int rateLimit;
+    private final Duration confirmTimeout;
+    private final EntityBootstrapCheckpoints checkpoints;
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public EntityBootstrap(SessionFactoryImplementor sessionFactory, RabbitTemplateProxy templateProxy,
+                           EntityEventsProperties entityEventsProperties, EntityBootstrapProperties properties,
+                           ObjectMapper objectMapper) {
+        this.sessionFactory = sessionFactory;
+        this.templateProxy = templateProxy;
+        this.exchange = entityEventsProperties.getExchange();
+        this.routingKey = entityEventsProperties.getRoutingKey();
+        this.batchSize = Math.max(properties.getBatchSize(), 1);
+        this.rateLimit = Math.max(properties.getRateLimit(), 0);
+        this.confirmTimeout = properties.getConfirmTimeout();
+        this.checkpoints = properties.getCheckpointDirectory() == null
+                ? null
+                : new EntityBootstrapCheckpoints(properties.getCheckpointDirectory(), objectMapper);
+    }
+
+    /**
+     * Inicia o bootstrap da entidade em uma thread própria.
+     * <p>
+     * Starts the entity bootstrap on a dedicated thread.
+     *
+     * @param entity  nome JPA, nome simples ou nome completo da classe da entidade
+     *                / JPA name, simple name or fully qualified class name of the entity
+     * @param restart descarta o checkpoint e publica desde a primeira linha / discards the checkpoint and publishes
+     *                from the first row
+     */
+    public EntityBootstrapProgress start(String entity, boolean restart) {
+        var run = begin(entity);
+        var thread = new Thread(() -> execute(run, restart),
+                "message-dispatcher-bootstrap-" + run.persister.getMappedClass().getSimpleName());
+        thread.setDaemon(true);
+        run.thread = thread;
+        thread.start();
+        return run.progress();
+    }
+
+    /**
+     * Executa o bootstrap da entidade na thread corrente, até terminar, falhar ou ser interrompido.
+     * <p>
+     * Runs the entity bootstrap on the current thread, until it completes, fails or is stopped.
+     */
+    public EntityBootstrapProgress run(String entity, boolean restart) {
+        var run = begin(entity);
+        run.thread = Thread.currentThread();
+        execute(run, restart);
+        if (run.stopped) {
+            // Limpa a interrupção do stop, que não deve vazar para o chamador
+            Thread.interrupted();
+        }
+        return run.progress();
+    }
+
+    /**
+     * Interrompe o bootstrap após o lote corrente; o checkpoint é mantido.
+     * <p>
+     * Stops the bootstrap after the current batch; the checkpoint is kept.
+     */
+    public EntityBootstrapProgress stop(String entity) {
+        var run = runs.get(persister(entity).getEntityName());
+        if (run == null) {
+            throw new IllegalArgumentException("Nenhum bootstrap da entidade " + entity);
+        }
+        run.stopped = true;
+        var thread = run.thread;
+        if (thread != null && thread != Thread.currentThread()) {
+            thread.interrupt();
+        }
+        return run.progress();
+    }
+
+    public List<EntityBootstrapProgress> progress() {
+        return runs.values().stream().map(Run::progress).toList();
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    public int getRunningCount() {
+        return (int) runs.values().stream().filter(run -> run.status == BootstrapStatus.RUNNING).count();
+    }
+
+    private Run begin(String entity) {
+        if (checkpoints == null) {
+            throw new IllegalStateException("Bootstrap exige o diretório de checkpoints em "
+                    + "message.dispatcher.entity-events.bootstrap.checkpoint-directory");
+        }
+        var persister = persister(entity);
+        var descriptor = EntityEventDescriptor.of(persister.getMappedClass(), exchange, routingKey);
+        if (!descriptor.publishes()) {
+            throw new IllegalArgumentException("Entidade " + entity + " não publica eventos (@EntityEventsPublish)");
+        }
+        if (descriptor.projection() == null) {
+            throw new IllegalArgumentException("Bootstrap exige uma projeção (properties ou mapper em "
+                    + "@EntityEventsPublish), a entidade " + entity + " é publicada inteira");
+        }
+        if (persister.getIdentifierPropertyName() == null) {
+            throw new IllegalArgumentException("Bootstrap exige um id simples, a entidade " + entity
+                    + " tem id composto");
+        }
+        var run = new Run(persister, descriptor);
+        var current = runs.compute(persister.getEntityName(),
+                (name, existing) -> existing != null && existing.status == BootstrapStatus.RUNNING ? existing : run);
+        if (current != run) {
+            throw new IllegalStateException("Bootstrap da entidade " + entity + " já está em andamento");
+        }
+        return run;
+    }
+
+    private EntityPersister persister(String entity) {
+        var metamodel = sessionFactory.getMappingMetamodel();
+        var persister = metamodel.findEntityDescriptor(entity);
+        if (persister == null) {
+            var type = sessionFactory.getJpaMetamodel().getEntities().stream()
+                    .filter(entityType -> entityType.getName().equals(entity))
+                    .findFirst();
+            if (type.isPresent()) {
+                persister = metamodel.findEntityDescriptor(type.get().getJavaType());
+            }
+        }
+        if (persister == null) {
+            throw new IllegalArgumentException("Entidade " + entity + " não encontrada");
+        }
+        return persister;
+    }
+
+    private void execute(Run run, boolean restart) {
+        var persister = run.persister;
+        var entityName = persister.getEntityName();
+        try {
+            Object lastId = null;
+            if (restart) {
+                checkpoints.delete(entityName);
+            } else {
+                var checkpoint = checkpoints.read(entityName, persister.getIdentifierType().getReturnedClass());
+                if (checkpoint != null) {
+                    lastId = checkpoint.lastId();
+                    run.resume(checkpoint);
+                    log.info("Bootstrap da entidade {} retomado após o id {}", entityName, lastId);
+                }
+            }
+
+            var idName = persister.getIdentifierPropertyName();
+            var firstPage = "select e from " + entityName + " e order by e." + idName;
+            var nextPage = "select e from " + entityName + " e where e." + idName + " > :lastId order by e." + idName;
+            var routingKey = run.descriptor.routingKey(Action.SNAPSHOT);
+            try (var session = sessionFactory.openStatelessSession()) {
+                var sessionImplementor = (SharedSessionContractImplementor) session;
+                while (!run.stopped) {
+                    var query = session.createSelectionQuery(lastId == null ? firstPage : nextPage,
+                            persister.getMappedClass());
+                    if (lastId != null) {
+                        query.setParameter("lastId", lastId);
+                    }
+                    List<?> rows = query.setMaxResults(batchSize)
+                            .setFetchSize(batchSize)
+                            .setReadOnly(true)
+                            .getResultList();
+                    if (rows.isEmpty()) {
+                        break;
+                    }
+
+                    var bodies = rows.stream().map(row -> body(run, row, sessionImplementor)).toList();
+                    templateProxy.convertAndSendConfirmed(run.descriptor.exchange(), routingKey, bodies,
+                            HandlerType.EVENT, SendOptions.NONE, confirmTimeout);
+                    lastId = persister.getIdentifier(rows.getLast(), sessionImplementor);
+                    run.advance(rows.size(), lastId);
+                    published.add(rows.size());
+                    checkpoints.write(entityName, new Checkpoint(lastId, run.published));
+
+                    if (rows.size() < batchSize) {
+                        break;
+                    }
+                    throttle(run);
+                }
+            }
+
+            if (run.stopped) {
+                run.finish(BootstrapStatus.STOPPED, null);
+                log.info("Bootstrap da entidade {} interrompido após {} eventos", entityName, run.published);
+            } else {
+                checkpoints.delete(entityName);
+                run.finish(BootstrapStatus.COMPLETED, null);
+                log.info("Bootstrap da entidade {} concluído com {} eventos", entityName, run.published);
+            }
+        } catch (RuntimeException e) {
+            if (run.stopped) {
+                run.finish(BootstrapStatus.STOPPED, null);
+                return;
+            }
+            failed.increment();
+            run.finish(BootstrapStatus.FAILED, e.getMessage());
+            log.warn("Falha no bootstrap da entidade {} após {} eventos: {}", entityName, run.published,
+                    e.getMessage());
+        }
+    }
+
+    private Object body(Run run, Object row, SharedSessionContractImplementor session) {
+        var persister = run.persister;
+        return run.descriptor.projection()
+                .project(persister.getIdentifier(row, session), persister.getValues(row), persister, session);
+    }
+
+    /**
+     * Espera até que os eventos publicados nesta execução caibam no limite por segundo.
+     * <p>
+     * Waits until the events published in this run fit the per-second limit.
+     */
+    private void throttle(Run run) {
+        if (rateLimit == 0) {
+            return;
+        }
+        var due = run.startNanos + run.sent * 1_000_000_000L / rateLimit;
+        var wait = due - System.nanoTime();
+        if (wait > 0) {
+            try {
+                Thread.sleep(Duration.ofNanos(wait));
+            } catch (InterruptedException e) {
+                // O stop interrompe a espera; o laço termina pelo flag
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class Run {
+
+        private final EntityPersister persister;
+        private final EntityEventDescriptor descriptor;
+        private final Instant startedAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private volatile BootstrapStatus status = BootstrapStatus.RUNNING;
+        private volatile boolean stopped;
+        private volatile Thread thread;
+        private volatile long published;
+        private volatile long sent;
+        private volatile Object lastId;
+        private volatile Instant finishedAt;
+        private volatile String error;
+
+        private Run(EntityPersister persister, EntityEventDescriptor descriptor) {
+            this.persister = persister;
+            this.descriptor = descriptor;
+        }
+
+        private void resume(Checkpoint checkpoint) {
+            lastId = checkpoint.lastId();
+            published = checkpoint.published();
+        }
+
+        private void advance(int rows, Object id) {
+            lastId = id;
+            sent += rows;
+            published += rows;
+        }
+
+        private void finish(BootstrapStatus finalStatus, String failure) {
+            error = failure;
+            finishedAt = Instant.now();
+            status = finalStatus;
+            thread = null;
+        }
+
+        private EntityBootstrapProgress progress() {
+            var end = finishedAt == null ? Instant.now() : finishedAt;
+            var seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000d;
+            return new EntityBootstrapProgress(persister.getEntityName(), status, published, lastId, sent / seconds,
+                    startedAt, finishedAt, error);
+        }
+    }
+}
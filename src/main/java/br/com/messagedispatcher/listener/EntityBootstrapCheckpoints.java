@@ -0,0 +1,77 @@
+package br.com.messagedispatcher.listener;
+
+import br.com.messagedispatcher.exceptions.MessageDispatcherRuntimeException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Checkpoints do bootstrap, um arquivo JSON por entidade com o último id confirmado pelo broker e o total publicado.
+ * O arquivo é substituído atomicamente a cada lote e removido quando o bootstrap termina.
+ * <p>
+ * Bootstrap checkpoints, one JSON file per entity with the last id confirmed by the broker and the published total.
+ * The file is replaced atomically on every batch and deleted when the bootstrap completes.
+ */
+final class EntityBootstrapCheckpoints {
+
+    private static final String SUFFIX = ".json";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    EntityBootstrapCheckpoints(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return o checkpoint da entidade, ou {@code null} sem checkpoint / the entity checkpoint, or {@code null} if none
+     */
+    Checkpoint read(String entityName, Class<?> idType) {
+        var file = file(entityName);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            var stored = objectMapper.readValue(file.toFile(), StoredCheckpoint.class);
+            return new Checkpoint(objectMapper.treeToValue(stored.lastId(), idType), stored.published());
+        } catch (IOException e) {
+            throw new MessageDispatcherRuntimeException("Não foi possível ler o checkpoint " + file, e);
+        }
+    }
+
+    void write(String entityName, Checkpoint checkpoint) {
+        var file = file(entityName);
+        try {
+            Files.createDirectories(directory);
+            var temporary = directory.resolve(file.getFileName() + ".tmp");
+            objectMapper.writeValue(temporary.toFile(),
+                    new StoredCheckpoint(objectMapper.valueToTree(checkpoint.lastId()), checkpoint.published()));
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new MessageDispatcherRuntimeException("Não foi possível gravar o checkpoint " + file, e);
+        }
+    }
+
+    void delete(String entityName) {
+        try {
+            Files.deleteIfExists(file(entityName));
+        } catch (IOException e) {
+            throw new MessageDispatcherRuntimeException("Não foi possível remover o checkpoint de " + entityName, e);
+        }
+    }
+
+    private Path file(String entityName) {
+        return directory.resolve(entityName + SUFFIX);
+    }
+
+    record Checkpoint(Object lastId, long published) {
+    }
+
+    record StoredCheckpoint(JsonNode lastId, long published) {
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.messagedispatcher.listener;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Endpoint do actuator {@code entitybootstrap} para iniciar, acompanhar e interromper o bootstrap de entidades. A
+ * exposição segue as regras do actuator ({@code management.endpoints.web.exposure.include}).
+ * <p>
+ * Actuator endpoint {@code entitybootstrap} to start, follow and stop entity bootstraps. Exposure follows the actuator
+ * rules ({@code management.endpoints.web.exposure.include}).
+ */
+@Endpoint(id = "entitybootstrap")
+public class EntityBootstrapEndpoint {
+
+    private final EntityBootstrap bootstrap;
+
+    public EntityBootstrapEndpoint(EntityBootstrap bootstrap) {
+        this.bootstrap = bootstrap;
+    }
+
+    @ReadOperation
+    public List<EntityBootstrapProgress> progress() {
+        return bootstrap.progress();
+    }
+
+    @WriteOperation
+    public EntityBootstrapProgress start(@Selector String entity, @Nullable Boolean restart) {
+        try {
+            return bootstrap.start(entity, Boolean.TRUE.equals(restart));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+
+    @DeleteOperation
+    public EntityBootstrapProgress stop(@Selector String entity) {
+        try {
+            return bootstrap.stop(entity);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
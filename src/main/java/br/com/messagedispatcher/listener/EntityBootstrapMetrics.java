@@ -0,0 +1,27 @@
+package br.com.messagedispatcher.listener;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Expõe o andamento do bootstrap de entidades no Micrometer.
+ * <p>
+ * Exposes the entity bootstrap progress through Micrometer.
+ */
+public class EntityBootstrapMetrics {
+
+    public static final String METRIC_PREFIX = "message.dispatcher.entity-events.bootstrap";
+
+    public EntityBootstrapMetrics(EntityBootstrap bootstrap, MeterRegistry meterRegistry) {
+        Gauge.builder(METRIC_PREFIX + ".running", bootstrap, EntityBootstrap::getRunningCount)
+                .description("Bootstraps em andamento")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".published", bootstrap, EntityBootstrap::getPublishedCount)
+                .description("Eventos SNAPSHOT publicados e confirmados pelo broker")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".failed", bootstrap, EntityBootstrap::getFailedCount)
+                .description("Bootstraps interrompidos por erro")
+                .register(meterRegistry);
+    }
+}
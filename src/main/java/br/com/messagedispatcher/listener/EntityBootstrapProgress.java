@@ -0,0 +1,16 @@
+package br.com.messagedispatcher.listener;
+
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.BootstrapStatus;
+
+import java.time.Instant;
+
+/**
+ * Andamento do bootstrap de uma entidade: eventos publicados (incluindo os de execuções anteriores retomadas do
+ * checkpoint), último id confirmado e eventos por segundo na execução corrente.
+ * <p>
+ * Progress of an entity bootstrap: published events (including those of previous runs resumed from the checkpoint),
+ * last confirmed id and events per second in the current run.
+ */
+public record EntityBootstrapProgress(String entity, BootstrapStatus status, long published, Object lastId,
+                                      double eventsPerSecond, Instant startedAt, Instant finishedAt, String error) {
+}
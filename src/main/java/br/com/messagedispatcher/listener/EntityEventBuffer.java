@@ -0,0 +1,222 @@
+package br.com.messagedispatcher.listener;
+
+import br.com.messagedispatcher.model.EntityDelta;
+import br.com.messagedispatcher.publisher.AsyncEventPublisher;
+import br.com.messagedispatcher.publisher.MessagePublisher;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Eventos de entidade de uma transação, um por entidade (tipo e id), na ordem da primeira alteração e com o estado
+ * final. Os eventos são publicados em um único envio após o commit ou, quando o listener roda dentro da transação
+ * (outbox), antes do commit, logo após o último flush do Hibernate.
+ * <p>
+ * Entity events of a transaction, one per entity (type and id), in the order of the first change and with the final
+ * state. The events are published in a single send after commit or, when the listener runs inside the transaction
+ * (outbox), before commit, right after the last Hibernate flush.
+ */
+final class EntityEventBuffer implements TransactionSynchronization, BeforeTransactionCompletionProcess {
+
+    private static final Logger log = LoggerFactory.getLogger(EntityEventBuffer.class);
+
+    private final Object resourceKey;
+    private final MessagePublisher publisher;
+    private final boolean inTransaction;
+    private final EntityEventMetrics metrics;
+    private final Map<EntityKey, PendingEvent> entities = new LinkedHashMap<>();
+    private int changes;
+
+    private EntityEventBuffer(Object resourceKey, MessagePublisher publisher, boolean inTransaction,
+                              EntityEventMetrics metrics) {
+        this.resourceKey = resourceKey;
+        this.publisher = publisher;
+        this.inTransaction = inTransaction;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Buffer da transação corrente para o listener, criado e registrado na primeira alteração; {@code null} fora de
+     * uma transação com sincronização ativa.
+     * <p>
+     * Buffer of the current transaction for the listener, created and registered on the first change; {@code null}
+     * outside a transaction with active synchronization.
+     */
+    static EntityEventBuffer current(Object resourceKey, MessagePublisher publisher, boolean inTransaction,
+                                     EntityEventMetrics metrics) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        var buffer = (EntityEventBuffer) TransactionSynchronizationManager.getResource(resourceKey);
+        if (buffer == null) {
+            buffer = new EntityEventBuffer(resourceKey, publisher, inTransaction, metrics);
+            TransactionSynchronizationManager.bindResource(resourceKey, buffer);
+            TransactionSynchronizationManager.registerSynchronization(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Buffer já criado na transação corrente, sem criar um novo.
+     * <p>
+     * Buffer already created in the current transaction, without creating a new one.
+     */
+    static EntityEventBuffer bound(Object resourceKey) {
+        return (EntityEventBuffer) TransactionSynchronizationManager.getResource(resourceKey);
+    }
+
+    /**
+     * @return {@code true} quando a entidade já tem um evento com o corpo inteiro, e não um delta, na transação
+     * / {@code true} when the entity already has an event with the whole body, not a delta, in the transaction
+     */
+    boolean holdsWhole(String entityName, Object id) {
+        var event = id == null ? null : entities.get(new EntityKey(entityName, id));
+        return event != null && !(event.entity() instanceof EntityDelta);
+    }
+
+    /**
+     * @return {@code true} na primeira alteração da transação, quando o chamador registra o buffer na sessão
+     * / {@code true} on the first change of the transaction, when the caller registers the buffer in the session
+     */
+    boolean add(String entityName, Object id, Object entity, String exchange, String routingKey, Source source) {
+        // Sem id não há como identificar a entidade, então cada alteração vira um evento
+        var key = id == null ? new EntityKey(entityName, new Object()) : new EntityKey(entityName, id);
+        entities.merge(key, new PendingEvent(key, entity, exchange, routingKey, source), PendingEvent::merge);
+        return changes++ == 0;
+    }
+
+    @Override
+    public void doBeforeTransactionCompletion(SessionImplementor session) {
+        if (inTransaction) {
+            publish();
+        }
+    }
+
+    @Override
+    public void afterCommit() {
+        if (!inTransaction) {
+            publish();
+        }
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+        TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+    }
+
+    private void publish() {
+        if (entities.isEmpty()) {
+            return;
+        }
+        // Um envio por destino, na ordem em que cada destino apareceu
+        var routes = new LinkedHashMap<Route, List<PendingEvent>>();
+        entities.values().forEach(event -> routes.computeIfAbsent(new Route(event.exchange(), event.routingKey()),
+                route -> new ArrayList<>()).add(event));
+        var events = entities.size();
+        entities.clear();
+        routes.forEach(this::send);
+        if (log.isDebugEnabled()) {
+            log.debug("{} eventos de entidade publicados de {} alterações na transação", events, changes);
+        }
+    }
+
+    private void send(Route route, List<PendingEvent> events) {
+        var bodies = events.stream().map(PendingEvent::entity).toList();
+        if (publisher instanceof AsyncEventPublisher async) {
+            // Cada entidade segue pela mesma thread de publicação, preservando a ordem entre transações; o resultado
+            // chega pela thread que publicou
+            AsyncEventPublisher.SendCallback outcome = metrics == EntityEventMetrics.NONE
+                    ? AsyncEventPublisher.SendCallback.NONE
+                    : (positions, success, elapsedNanos) ->
+                    record(positions.stream().map(events::get).toList(), elapsedNanos, success);
+            async.sendEvents(route.exchange(), route.routingKey(), bodies,
+                    events.stream().map(PendingEvent::key).toList(), outcome);
+            return;
+        }
+        var start = System.nanoTime();
+        try {
+            publisher.sendEvents(route.exchange(), route.routingKey(), bodies);
+        } catch (RuntimeException e) {
+            record(events, System.nanoTime() - start, false);
+            throw e;
+        }
+        record(events, System.nanoTime() - start, true);
+    }
+
+    /**
+     * Informa o envio às métricas uma vez por entidade e ação presentes nele.
+     * <p>
+     * Reports the send to the metrics once per entity and action present in it.
+     */
+    private void record(List<PendingEvent> events, long elapsedNanos, boolean success) {
+        if (metrics == EntityEventMetrics.NONE) {
+            return;
+        }
+        var counts = new LinkedHashMap<Source, Integer>();
+        events.forEach(event -> counts.merge(event.source(), 1, Integer::sum));
+        counts.forEach((source, count) -> {
+            if (success) {
+                metrics.published(source.entity(), source.action(), count, elapsedNanos);
+            } else {
+                metrics.publishFailed(source.entity(), source.action(), count, elapsedNanos);
+            }
+        });
+    }
+
+    /**
+     * Identidade da entidade, também usada como chave de ordenação da publicação assíncrona.
+     * <p>
+     * Entity identity, also used as the ordering key of asynchronous publishing.
+     */
+    record EntityKey(String entityName, Object id) {
+    }
+
+    /**
+     * Entidade e ação que originaram o evento, para as métricas.
+     * <p>
+     * Entity and action that originated the event, for the metrics.
+     */
+    record Source(String entity, String action) {
+    }
+
+    private record PendingEvent(EntityKey key, Object entity, String exchange, String routingKey, Source source) {
+
+        /**
+         * Deltas da mesma entidade somam as alterações, mantendo o primeiro valor anterior de cada propriedade. A
+         * entidade publicada inteira já tem o estado final. O evento mantém o destino da primeira alteração, então uma
+         * entidade criada e alterada na transação segue como criada.
+         * <p>
+         * Deltas of the same entity add up their changes, keeping the first previous value of each property. An entity
+         * published whole already has the final state. The event keeps the destination of the first change, so an
+         * entity created and changed in the transaction goes out as created.
+         */
+        PendingEvent merge(PendingEvent next) {
+            if (!(next.entity() instanceof EntityDelta delta)) {
+                return new PendingEvent(key, next.entity(), exchange, routingKey, source);
+            }
+            if (!(entity instanceof EntityDelta current)) {
+                return this;
+            }
+            var changes = new LinkedHashMap<>(current.changes());
+            changes.putAll(delta.changes());
+            Map<String, Object> previous = null;
+            if (current.previous() != null && delta.previous() != null) {
+                previous = new LinkedHashMap<>(current.previous());
+                delta.previous().forEach(previous::putIfAbsent);
+            }
+            return new PendingEvent(key, new EntityDelta(delta.entity(), delta.id(), delta.version(), changes, previous),
+                    exchange, routingKey, source);
+        }
+    }
+
+    private record Route(String exchange, String routingKey) {
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.messagedispatcher.listener;
+
+import br.com.messagedispatcher.annotation.EntityEventsPublish;
+import br.com.messagedispatcher.listener.MessageDispatcherEntityEventsListenerImpl.Action;
+import jakarta.persistence.Entity;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * O que publicar para uma classe de entidade, resolvido uma vez a partir de {@link EntityEventsPublish}. Classes sem a
+ * anotação, direta ou herdada, recebem {@link #NONE}. Os placeholders {@code {entity}} e {@code {action}} da routing
+ * key já vêm substituídos para cada ação.
+ * <p>
+ * What to publish for an entity class, resolved once from {@link EntityEventsPublish}. Classes without the annotation,
+ * direct or inherited, get {@link #NONE}. The {@code {entity}} and {@code {action}} routing key placeholders are
+ * already replaced for each action.
+ *
+ * @param entity nome JPA da entidade, usado na routing key e nas métricas / JPA entity name, used in the routing key
+ *               and in the metrics
+ */
+record EntityEventDescriptor(String entity, boolean publishCreate, boolean publishUpdate, String exchange,
+                             String createRoutingKey, String updateRoutingKey, String snapshotRoutingKey,
+                             boolean delta, boolean previousValues, Set<String> ignoredProperties,
+                             EntityProjection projection) {
+
+    static final EntityEventDescriptor NONE = new EntityEventDescriptor(null, false, false, null, null, null, null,
+            false, false, Set.of(), null);
+
+    private static final String ENTITY_PLACEHOLDER = "{entity}";
+    private static final String ACTION_PLACEHOLDER = "{action}";
+
+    static EntityEventDescriptor of(Class<?> type, String defaultExchange, String defaultRoutingKey) {
+        var annotation = type.getAnnotation(EntityEventsPublish.class);
+        if (annotation == null || !(annotation.publishCreate() || annotation.publishUpdate())) {
+            return NONE;
+        }
+        var entity = entityName(type);
+        var routingKey = (annotation.routingKey().isEmpty() ? defaultRoutingKey : annotation.routingKey())
+                .replace(ENTITY_PLACEHOLDER, entity);
+        return new EntityEventDescriptor(entity,
+                annotation.publishCreate(),
+                annotation.publishUpdate(),
+                annotation.exchange().isEmpty() ? defaultExchange : annotation.exchange(),
+                routingKey.replace(ACTION_PLACEHOLDER, Action.CREATED.routingName()),
+                routingKey.replace(ACTION_PLACEHOLDER, Action.UPDATED.routingName()),
+                routingKey.replace(ACTION_PLACEHOLDER, Action.SNAPSHOT.routingName()),
+                annotation.delta(),
+                annotation.delta() && annotation.includePreviousValues(),
+                Set.copyOf(Arrays.asList(annotation.ignoredProperties())),
+                EntityProjection.of(annotation.properties(), annotation.mapper()));
+    }
+
+    /**
+     * Nome da entidade no JPA, o mesmo do {@code @Entity(name = ...)} ou o nome simples da classe.
+     * <p>
+     * JPA entity name, the one of {@code @Entity(name = ...)} or the simple class name.
+     */
+    private static String entityName(Class<?> type) {
+        var entity = type.getAnnotation(Entity.class);
+        return entity == null || entity.name().isEmpty() ? type.getSimpleName() : entity.name();
+    }
+
+    String routingKey(Action action) {
+        return switch (action) {
+            case CREATED -> createRoutingKey;
+            case UPDATED -> updateRoutingKey;
+            case SNAPSHOT -> snapshotRoutingKey;
+        };
+    }
+
+    boolean publishes() {
+        return publishCreate || publishUpdate;
+    }
+
+    /**
+     * As atualizações dependem das propriedades alteradas, para montar o delta ou ignorar propriedades.
+     * <p>
+     * Updates depend on the changed properties, to build the delta or ignore properties.
+     */
+    boolean tracksChanges() {
+        return delta || !ignoredProperties.isEmpty();
+    }
+}
@@ -0,0 +1,21 @@
+package br.com.messagedispatcher.listener;
+
+import java.util.Map;
+
+/**
+ * Converte o estado já carregado de uma entidade no corpo do evento publicado, declarado em
+ * {@code @EntityEventsPublish(mapper = ...)}. O mapa traz o id e as propriedades do estado do evento do Hibernate, com
+ * associações pelo id, coleções só quando já inicializadas e sem atributos ainda não carregados, então o mapper nunca
+ * dispara lazy loading. Implementações precisam de um construtor sem argumentos e são criadas uma vez por classe de
+ * entidade.
+ * <p>
+ * Converts the already-loaded state of an entity into the body of the published event, declared in
+ * {@code @EntityEventsPublish(mapper = ...)}. The map holds the id and the properties of the Hibernate event state,
+ * with associations by id, collections only when already initialized and without attributes not loaded yet, so the
+ * mapper never triggers lazy loading. Implementations need a no-arg constructor and are created once per entity class.
+ */
+@FunctionalInterface
+public interface EntityEventMapper {
+
+    Object map(Map<String, Object> state);
+}
@@ -0,0 +1,44 @@
+package br.com.messagedispatcher.listener;
+
+/**
+ * Recebe a publicação dos eventos de entidade para métricas, por entidade (nome JPA) e ação ({@code created} ou
+ * {@code updated}). Um envio agrupado com várias entidades é informado uma vez por entidade e ação, com o tempo do
+ * envio inteiro. Na publicação assíncrona o resultado é informado pela thread de publicação, com o tempo desde a
+ * entrega à fila até o fim do envio. A implementação padrão não registra nada.
+ * <p>
+ * Receives the entity events publishing for metrics, per entity (JPA name) and action ({@code created} or
+ * {@code updated}). A coalesced send with several entities is reported once per entity and action, with the time of
+ * the whole send. With asynchronous publishing the outcome is reported by the publisher thread, with the time from the
+ * hand-off to the queue to the end of the send. The default implementation records nothing.
+ */
+public interface EntityEventMetrics {
+
+    EntityEventMetrics NONE = new EntityEventMetrics() {
+    };
+
+    /**
+     * Eventos publicados com sucesso em um envio que levou {@code elapsedNanos}.
+     * <p>
+     * Events published successfully in a send that took {@code elapsedNanos}.
+     */
+    default void published(String entity, String action, int events, long elapsedNanos) {
+    }
+
+    /**
+     * Eventos cuja publicação falhou, ou descartados pela fila assíncrona. Após o commit são eventos perdidos; com o
+     * outbox a transação é desfeita.
+     * <p>
+     * Events whose publishing failed, or discarded by the asynchronous queue. After commit they are lost events; with
+     * the outbox the transaction rolls back.
+     */
+    default void publishFailed(String entity, String action, int events, long elapsedNanos) {
+    }
+
+    /**
+     * Alteração que não gerou evento porque o commit da transação falhou.
+     * <p>
+     * Change that produced no event because the transaction commit failed.
+     */
+    default void commitFailed(String entity, String action) {
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.messagedispatcher.listener;
+
+import br.com.messagedispatcher.exceptions.MessageDispatcherRuntimeException;
+import org.hibernate.Hibernate;
+import org.hibernate.bytecode.enhance.spi.LazyPropertyInitializer;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.Type;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Corpo dos eventos de uma classe de entidade montado a partir do array de estado do evento do Hibernate, sem tocar em
+ * associações ou coleções ainda não carregadas. Os índices das propriedades são resolvidos no primeiro evento.
+ * <p>
+ * Event body of an entity class built from the Hibernate event state array, without touching associations or
+ * collections not loaded yet. The property indexes are resolved on the first event.
+ */
+final class EntityProjection {
+
+    private final String[] properties;
+    private final EntityEventMapper mapper;
+    private volatile int[] indexes;
+
+    private EntityProjection(String[] properties, EntityEventMapper mapper) {
+        this.properties = properties;
+        this.mapper = mapper;
+    }
+
+    /**
+     * @return a projeção declarada, ou {@code null} quando a entidade é publicada inteira
+     * / the declared projection, or {@code null} when the entity is published whole
+     */
+    static EntityProjection of(String[] properties, Class<? extends EntityEventMapper> mapperType) {
+        if (properties.length == 0 && mapperType == EntityEventMapper.class) {
+            return null;
+        }
+        EntityEventMapper mapper = null;
+        if (mapperType != EntityEventMapper.class) {
+            try {
+                mapper = mapperType.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new MessageDispatcherRuntimeException("Não foi possível criar o mapper de eventos "
+                        + mapperType.getName(), e);
+            }
+        }
+        return new EntityProjection(properties.clone(), mapper);
+    }
+
+    Object project(Object id, Object[] state, EntityPersister persister, SharedSessionContractImplementor session) {
+        var names = persister.getPropertyNames();
+        var types = persister.getPropertyTypes();
+        var idName = persister.getIdentifierPropertyName();
+        var values = new LinkedHashMap<String, Object>();
+        values.put(idName == null ? "id" : idName, id);
+        for (var i : indexes(persister)) {
+            var value = state[i];
+            if (value == LazyPropertyInitializer.UNFETCHED_PROPERTY
+                    || types[i].isCollectionType() && !Hibernate.isInitialized(value)) {
+                continue;
+            }
+            values.put(names[i], value(types[i], value, session));
+        }
+        return mapper == null ? values : mapper.map(values);
+    }
+
+    private int[] indexes(EntityPersister persister) {
+        var resolved = indexes;
+        if (resolved == null) {
+            var names = Arrays.asList(persister.getPropertyNames());
+            resolved = properties.length == 0
+                    ? IntStream.range(0, names.size()).toArray()
+                    : Arrays.stream(properties).mapToInt(property -> {
+                        var index = names.indexOf(property);
+                        if (index < 0) {
+                            throw new MessageDispatcherRuntimeException("Propriedade " + property
+                                    + " não encontrada na entidade " + persister.getEntityName());
+                        }
+                        return index;
+                    }).toArray();
+            indexes = resolved;
+        }
+        return resolved;
+    }
+
+    /**
+     * Associações vão pelo id, sem carregar a entidade associada; coleções inicializadas viram listas.
+     * <p>
+     * Associations go by id, without loading the associated entity; initialized collections become lists.
+     */
+    static Object value(Type type, Object value, SharedSessionContractImplementor session) {
+        if (value == null) {
+            return null;
+        }
+        if (type.isEntityType()) {
+            return identifier(value, session);
+        }
+        if (type.isCollectionType()) {
+            var elements = value instanceof Map<?, ?> map ? map.values() : (Collection<?>) value;
+            return elements.stream().map(element -> element(element, session)).toList();
+        }
+        return value;
+    }
+
+    /**
+     * Id da entidade associada pelo proxy, pela sessão ou, fora do contexto de persistência (sessão stateless), pelo
+     * próprio atributo de id.
+     * <p>
+     * Id of the associated entity from the proxy, from the session or, outside the persistence context (stateless
+     * session), from the id attribute itself.
+     */
+    private static Object identifier(Object entity, SharedSessionContractImplementor session) {
+        var lazyInitializer = HibernateProxy.extractLazyInitializer(entity);
+        if (lazyInitializer != null) {
+            return lazyInitializer.getInternalIdentifier();
+        }
+        var id = session.getContextEntityIdentifier(entity);
+        return id != null ? id : session.getEntityPersister(null, entity).getIdentifier(entity, session);
+    }
+
+    private static Object element(Object element, SharedSessionContractImplementor session) {
+        if (element == null) {
+            return null;
+        }
+        // Entidades gerenciadas e proxies vão pelo id; os demais elementos são valores
+        var id = session.getContextEntityIdentifier(element);
+        return id == null ? element : id;
+    }
+}
@@ -0,0 +1,543 @@
+package br.com.messagedispatcher.listener;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.BlockedListener;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Consumer;
+import com.rabbitmq.client.Envelope;
+import com.rabbitmq.client.ShutdownSignalException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionListener;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decora a {@link ConnectionFactory} dos containers do listener padrão para acompanhar, por canal, os consumidores e as
+ * entregas sem ack, e avisar os {@link ChannelListener}s do prefetch aplicado e do fechamento de cada canal. Com
+ * controle de fluxo há uma instância por container, com o {@link ByteBudget} dele: os bytes de cada entrega são
+ * reservados assim que ela chega do broker, antes de qualquer buffer do container ou do work-sharing, e liberados no
+ * ack, nack ou reject; no fechamento do canal o broker devolve as entregas restantes à fila e os bytes também são
+ * liberados.
+ * <p>
+ * Quando o controle pausa, os consumidores são cancelados e, na retomada, registrados novamente com a mesma consumer
+ * tag, nos mesmos canais. Os canais continuam abertos durante a pausa: as mensagens já entregues são processadas e
+ * confirmadas normalmente, e o container não percebe o cancelamento.
+ * <p>
+ * Decorates the {@link ConnectionFactory} of the default listener containers to track, per channel, the consumers and
+ * the unacked deliveries, and to tell the {@link ChannelListener}s the prefetch applied and the closing of each channel.
+ * With flow control there is one instance per container, with its own {@link ByteBudget}: the bytes of each delivery
+ * are reserved as soon as it arrives from the broker, ahead of any container or work-sharing buffer, and released on
+ * ack, nack or reject; when the channel closes the broker returns the remaining deliveries to the queue and their bytes
+ * are released too.
+ * <p>
+ * When the budget pauses, the consumers are cancelled and, on resume, registered again with the same consumer tag, on
+ * the same channels. Channels stay open during the pause: messages already delivered are processed and acknowledged as
+ * usual, and the container does not notice the cancellation.
+ */
+public class ListenerChannels implements ByteBudget.Listener {
+
+    private static final Logger log = LoggerFactory.getLogger(ListenerChannels.class);
+
+    private final ByteBudget byteBudget;
+    private final List<ChannelListener> channelListeners;
+    private final Set<ChannelHandler> channels = ConcurrentHashMap.newKeySet();
+
+    public ListenerChannels(ByteBudget byteBudget) {
+        this(byteBudget, List.of());
+    }
+
+    /**
+     * @param byteBudget       controle de fluxo por bytes, ou {@code null} sem controle de fluxo
+     *                         / byte-based flow control, or {@code null} without flow control
+     * @param channelListeners avisados do prefetch e do fechamento dos canais / told about the prefetch and the closing
+     *                         of the channels
+     */
+    public ListenerChannels(ByteBudget byteBudget, List<ChannelListener> channelListeners) {
+        this.byteBudget = byteBudget;
+        this.channelListeners = List.copyOf(channelListeners);
+        if (byteBudget != null) {
+            byteBudget.addListener(this);
+        }
+    }
+
+    /**
+     * Retorna a fábrica a ser usada pelos containers, cujos canais passam por este controle.
+     * <p>
+     * Returns the factory to be used by the containers, whose channels go through this control.
+     */
+    public ConnectionFactory decorate(ConnectionFactory connectionFactory) {
+        return new DecoratedConnectionFactory(connectionFactory);
+    }
+
+    @Override
+    public void paused() {
+        channels.forEach(ChannelHandler::suspend);
+    }
+
+    @Override
+    public void resumed() {
+        channels.forEach(ChannelHandler::resume);
+    }
+
+    /**
+     * Quantidade de consumidores cancelados pelo controle de fluxo no momento.
+     * <p>
+     * Number of consumers currently cancelled by flow control.
+     */
+    public int getSuspendedConsumers() {
+        return channels.stream().mapToInt(ChannelHandler::suspendedConsumers).sum();
+    }
+
+    private final class DecoratedConnectionFactory implements ConnectionFactory {
+
+        private final ConnectionFactory delegate;
+
+        private DecoratedConnectionFactory(ConnectionFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Connection createConnection() throws AmqpException {
+            return new DecoratedConnection(delegate.createConnection());
+        }
+
+        @Override
+        public String getHost() {
+            return delegate.getHost();
+        }
+
+        @Override
+        public int getPort() {
+            return delegate.getPort();
+        }
+
+        @Override
+        public String getVirtualHost() {
+            return delegate.getVirtualHost();
+        }
+
+        @Override
+        public String getUsername() {
+            return delegate.getUsername();
+        }
+
+        @Override
+        public void addConnectionListener(ConnectionListener listener) {
+            delegate.addConnectionListener(listener);
+        }
+
+        @Override
+        public boolean removeConnectionListener(ConnectionListener listener) {
+            return delegate.removeConnectionListener(listener);
+        }
+
+        @Override
+        public void clearConnectionListeners() {
+            delegate.clearConnectionListeners();
+        }
+
+        @Override
+        public ConnectionFactory getPublisherConnectionFactory() {
+            return delegate.getPublisherConnectionFactory();
+        }
+
+        @Override
+        public boolean isSimplePublisherConfirms() {
+            return delegate.isSimplePublisherConfirms();
+        }
+
+        @Override
+        public boolean isPublisherConfirms() {
+            return delegate.isPublisherConfirms();
+        }
+
+        @Override
+        public boolean isPublisherReturns() {
+            return delegate.isPublisherReturns();
+        }
+
+        @Override
+        public void resetConnection() {
+            delegate.resetConnection();
+        }
+
+        @Override
+        public String toString() {
+            return "ListenerChannels(" + delegate + ")";
+        }
+    }
+
+    private final class DecoratedConnection implements Connection {
+
+        private final Connection delegate;
+
+        private DecoratedConnection(Connection delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Channel createChannel(boolean transactional) throws AmqpException {
+            var target = delegate.createChannel(transactional);
+            var handler = new ChannelHandler(target);
+            handler.proxy = (Channel) Proxy.newProxyInstance(ListenerChannels.class.getClassLoader(),
+                    ClassUtils.getAllInterfaces(target), handler);
+            return handler.proxy;
+        }
+
+        @Override
+        public void close() throws AmqpException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isOpen() {
+            return delegate.isOpen();
+        }
+
+        @Override
+        public int getLocalPort() {
+            return delegate.getLocalPort();
+        }
+
+        @Override
+        public void addBlockedListener(BlockedListener listener) {
+            delegate.addBlockedListener(listener);
+        }
+
+        @Override
+        public boolean removeBlockedListener(BlockedListener listener) {
+            return delegate.removeBlockedListener(listener);
+        }
+
+        @Override
+        public com.rabbitmq.client.Connection getDelegate() {
+            return delegate.getDelegate();
+        }
+
+        @Override
+        public void closeThreadChannel() {
+            delegate.closeThreadChannel();
+        }
+    }
+
+    /**
+     * Intercepta, no canal entregue ao container, o prefetch, o registro e o cancelamento de consumidores, as
+     * confirmações e o fechamento; as demais chamadas seguem direto para o canal original.
+     * <p>
+     * Intercepts, on the channel handed to the container, the prefetch, consumer registration and cancellation,
+     * acknowledgements and closing; every other call goes straight to the original channel.
+     */
+    private final class ChannelHandler implements InvocationHandler {
+
+        private final Channel target;
+        private Channel proxy;
+        private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+        private final ConcurrentSkipListMap<Long, Integer> unacked = new ConcurrentSkipListMap<>();
+        private final AtomicBoolean registered = new AtomicBoolean();
+
+        private ChannelHandler(Channel target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "basicQos":
+                    var qos = invokeTarget(method, args);
+                    var prefetchCount = (int) args[args.length == 3 ? 1 : 0];
+                    channelListeners.forEach(listener -> listener.prefetchChanged(this.proxy, prefetchCount));
+                    return qos;
+                case "basicConsume":
+                    if (args.length == 7 && args[6] instanceof Consumer callback) {
+                        return consume((String) args[0], (boolean) args[1], (String) args[2], (boolean) args[3],
+                                (boolean) args[4], cast(args[5]), callback);
+                    }
+                    break;
+                case "basicCancel":
+                    cancel((String) args[0]);
+                    return null;
+                case "basicAck", "basicNack":
+                    var acked = invokeTarget(method, args);
+                    completed((long) args[0], (boolean) args[1]);
+                    return acked;
+                case "basicReject":
+                    var rejected = invokeTarget(method, args);
+                    completed((long) args[0], false);
+                    return rejected;
+                case "close", "abort":
+                    // Com o canal ainda aberto, para que os listeners enviem o que estiver pendente
+                    if (target.isOpen()) {
+                        channelListeners.forEach(listener -> listener.closing(this.proxy));
+                    }
+                    closed();
+                    break;
+                default:
+                    break;
+            }
+            return invokeTarget(method, args);
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private String consume(String queue, boolean autoAck, String consumerTag, boolean noLocal, boolean exclusive,
+                               Map<String, Object> arguments, Consumer callback) throws IOException {
+            var consumer = new CountingConsumer(callback, autoAck);
+            var tag = target.basicConsume(queue, autoAck, consumerTag, noLocal, exclusive, arguments, consumer);
+            var subscription = new Subscription(queue, autoAck, tag, noLocal, exclusive, arguments, consumer);
+            subscriptions.put(tag, subscription);
+
+            if (registered.compareAndSet(false, true)) {
+                // Queda de conexão fecha o canal sem passar pelo proxy
+                target.addShutdownListener(cause -> closed());
+                channels.add(this);
+            }
+            // O estado é lido após o registro: uma retomada concorrente vê esta inscrição ou já desfez a pausa
+            if (byteBudget != null && byteBudget.isPaused()) {
+                subscription.suspend();
+            }
+            return tag;
+        }
+
+        private void cancel(String consumerTag) throws IOException {
+            var subscription = subscriptions.remove(consumerTag);
+            if (subscription == null || !subscription.cancelledByContainer()) {
+                target.basicCancel(consumerTag);
+            }
+        }
+
+        private void completed(long deliveryTag, boolean multiple) {
+            long bytes = 0;
+            if (multiple) {
+                var confirmed = deliveryTag == 0 ? unacked : unacked.headMap(deliveryTag, true);
+                for (var tag : confirmed.keySet()) {
+                    var size = unacked.remove(tag);
+                    bytes += size == null ? 0 : size;
+                }
+            } else {
+                var size = unacked.remove(deliveryTag);
+                bytes = size == null ? 0 : size;
+            }
+            if (bytes > 0) {
+                byteBudget.release(bytes);
+            }
+        }
+
+        private void closed() {
+            channels.remove(this);
+            subscriptions.clear();
+            completed(0, true);
+        }
+
+        private void suspend() {
+            subscriptions.values().forEach(Subscription::suspend);
+        }
+
+        private void resume() {
+            subscriptions.values().forEach(Subscription::resume);
+        }
+
+        private int suspendedConsumers() {
+            return (int) subscriptions.values().stream().filter(subscription -> subscription.suspended).count();
+        }
+
+        /**
+         * Consumidor registrado pelo container, com os argumentos para registrá-lo de novo na retomada.
+         * <p>
+         * Consumer registered by the container, with the arguments to register it again on resume.
+         */
+        private final class Subscription {
+
+            private final String queue;
+            private final boolean autoAck;
+            private final String consumerTag;
+            private final boolean noLocal;
+            private final boolean exclusive;
+            private final Map<String, Object> arguments;
+            private final CountingConsumer consumer;
+            private volatile boolean suspended;
+
+            private Subscription(String queue, boolean autoAck, String consumerTag, boolean noLocal,
+                                 boolean exclusive, Map<String, Object> arguments, CountingConsumer consumer) {
+                this.queue = queue;
+                this.autoAck = autoAck;
+                this.consumerTag = consumerTag;
+                this.noLocal = noLocal;
+                this.exclusive = exclusive;
+                this.arguments = arguments;
+                this.consumer = consumer;
+            }
+
+            synchronized void suspend() {
+                if (suspended || !target.isOpen()) {
+                    return;
+                }
+                consumer.ownCancels.incrementAndGet();
+                try {
+                    target.basicCancel(consumerTag);
+                    suspended = true;
+                    log.debug("Consumidor {} da fila {} cancelado pelo controle de fluxo", consumerTag, queue);
+                } catch (IOException | RuntimeException e) {
+                    consumer.ownCancels.decrementAndGet();
+                    log.debug("Falha ao cancelar o consumidor {} da fila {}: {}", consumerTag, queue, e.getMessage());
+                }
+            }
+
+            synchronized void resume() {
+                if (!suspended || !target.isOpen()) {
+                    return;
+                }
+                consumer.ownConsumes.incrementAndGet();
+                try {
+                    target.basicConsume(queue, autoAck, consumerTag, noLocal, exclusive, arguments, consumer);
+                    suspended = false;
+                    log.debug("Consumidor {} da fila {} retomado pelo controle de fluxo", consumerTag, queue);
+                } catch (IOException | RuntimeException e) {
+                    consumer.ownConsumes.decrementAndGet();
+                    log.warn("Falha ao retomar o consumidor {} da fila {}: {}", consumerTag, queue, e.getMessage());
+                }
+            }
+
+            /**
+             * Cancelamento pedido pelo container. Se o consumidor já está cancelado pelo controle de fluxo, o broker
+             * não o conhece mais: o cancel-ok é apenas repassado ao container.
+             * <p>
+             * Cancellation requested by the container. If the consumer is already cancelled by flow control, the
+             * broker no longer knows it: the cancel-ok is just relayed to the container.
+             */
+            synchronized boolean cancelledByContainer() {
+                if (!suspended) {
+                    return false;
+                }
+                suspended = false;
+                consumer.delegate.handleCancelOk(consumerTag);
+                return true;
+            }
+        }
+
+        /**
+         * Reserva os bytes de cada entrega antes de repassá-la ao container e oculta dele os cancelamentos e registros
+         * feitos pelo controle de fluxo.
+         * <p>
+         * Reserves the bytes of each delivery before handing it to the container and hides from it the cancellations
+         * and registrations made by flow control.
+         */
+        private final class CountingConsumer implements Consumer {
+
+            private final Consumer delegate;
+            private final boolean autoAck;
+            private final AtomicInteger ownCancels = new AtomicInteger();
+            private final AtomicInteger ownConsumes = new AtomicInteger();
+
+            private CountingConsumer(Consumer delegate, boolean autoAck) {
+                this.delegate = delegate;
+                this.autoAck = autoAck;
+            }
+
+            @Override
+            public void handleDelivery(String consumerTag, Envelope envelope, AMQP.BasicProperties properties,
+                                       byte[] body) throws IOException {
+                if (!autoAck && byteBudget != null) {
+                    unacked.put(envelope.getDeliveryTag(), body.length);
+                    byteBudget.reserve(body.length);
+                }
+                delegate.handleDelivery(consumerTag, envelope, properties, body);
+            }
+
+            @Override
+            public void handleConsumeOk(String consumerTag) {
+                if (!consumed(ownConsumes)) {
+                    delegate.handleConsumeOk(consumerTag);
+                }
+            }
+
+            @Override
+            public void handleCancelOk(String consumerTag) {
+                if (!consumed(ownCancels)) {
+                    delegate.handleCancelOk(consumerTag);
+                }
+            }
+
+            @Override
+            public void handleCancel(String consumerTag) throws IOException {
+                subscriptions.remove(consumerTag);
+                delegate.handleCancel(consumerTag);
+            }
+
+            @Override
+            public void handleShutdownSignal(String consumerTag, ShutdownSignalException signal) {
+                delegate.handleShutdownSignal(consumerTag, signal);
+            }
+
+            @Override
+            public void handleRecoverOk(String consumerTag) {
+                delegate.handleRecoverOk(consumerTag);
+            }
+        }
+    }
+
+    /**
+     * Recebe, para cada canal dos containers, o prefetch aplicado e o aviso de fechamento. O canal informado é o mesmo
+     * entregue ao listener do container.
+     * <p>
+     * Receives, for each container channel, the prefetch applied and the closing notice. The channel given is the same
+     * one handed to the container's listener.
+     */
+    public interface ChannelListener {
+
+        /**
+         * Prefetch ({@code basic.qos}) aplicado ao canal, a cada novo consumidor ou mudança de prefetch.
+         * <p>
+         * Prefetch ({@code basic.qos}) applied to the channel, on every new consumer or prefetch change.
+         */
+        default void prefetchChanged(Channel channel, int prefetchCount) {
+        }
+
+        /**
+         * O container está fechando o canal, que ainda está aberto: o consumidor parou.
+         * <p>
+         * The container is closing the channel, which is still open: the consumer stopped.
+         */
+        default void closing(Channel channel) {
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> cast(Object arguments) {
+        return (Map<String, Object>) arguments;
+    }
+
+    /**
+     * Consome uma das notificações geradas pelo próprio controle, se houver alguma pendente.
+     * <p>
+     * Consumes one of the notifications caused by the control itself, if any is pending.
+     */
+    private static boolean consumed(AtomicInteger pending) {
+        return pending.getAndUpdate(count -> Math.max(0, count - 1)) > 0;
+    }
+}
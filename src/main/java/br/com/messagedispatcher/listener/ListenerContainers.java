@@ -0,0 +1,71 @@
+package br.com.messagedispatcher.listener;
+
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Operações sobre containers de listener já em execução, usadas pelos ajustes em tempo de execução.
+ * <p>
+ * Operations on listener containers that are already running, used by runtime adjustments.
+ */
+public final class ListenerContainers {
+
+    private ListenerContainers() {
+    }
+
+    /**
+     * Retorna os containers que consomem a fila informada.
+     * <p>
+     * Returns the containers consuming the given queue.
+     */
+    public static List<AbstractMessageListenerContainer> consuming(Iterable<MessageListenerContainer> containers,
+                                                                   String queueName) {
+        var consuming = new ArrayList<AbstractMessageListenerContainer>();
+        for (var container : containers) {
+            if (container instanceof AbstractMessageListenerContainer listenerContainer
+                    && Arrays.asList(listenerContainer.getQueueNames()).contains(queueName)) {
+                consuming.add(listenerContainer);
+            }
+        }
+        return consuming;
+    }
+
+    /**
+     * Altera a faixa de consumidores do container. No container direct, que tem quantidade fixa, vale o máximo.
+     * <p>
+     * Changes the container consumer range. On the direct container, which has a fixed count, the maximum applies.
+     */
+    public static void setConsumers(AbstractMessageListenerContainer container, int minConsumers, int maxConsumers) {
+        if (container instanceof SimpleMessageListenerContainer simple) {
+            // O container exige mínimo <= máximo a cada chamada; liberar o máximo antes torna a ordem indiferente
+            simple.setMaxConcurrentConsumers(Integer.MAX_VALUE);
+            simple.setConcurrentConsumers(minConsumers);
+            simple.setMaxConcurrentConsumers(maxConsumers);
+        } else if (container instanceof DirectMessageListenerContainer direct) {
+            direct.setConsumersPerQueue(maxConsumers);
+        }
+    }
+
+    /**
+     * Reinicia os containers em execução, para que os novos consumidores usem o prefetch atual: o broker fixa o
+     * prefetch de um consumidor quando ele é criado. As mensagens em andamento terminam e as não confirmadas voltam
+     * para a fila.
+     * <p>
+     * Restarts the running containers so the new consumers use the current prefetch: the broker fixes a consumer's
+     * prefetch when it is created. In-flight messages finish and unacknowledged ones go back to the queue.
+     */
+    public static void restart(List<AbstractMessageListenerContainer> containers) {
+        for (var container : containers) {
+            if (container.isRunning()) {
+                container.stop();
+                container.start();
+            }
+        }
+    }
+}
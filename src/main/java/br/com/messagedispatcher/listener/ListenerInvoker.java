@@ -0,0 +1,42 @@
+package br.com.messagedispatcher.listener;
+
+import com.rabbitmq.client.Channel;
+import org.aopalliance.aop.Advice;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+import org.springframework.aop.framework.ProxyFactory;
+
+/**
+ * Execução do listener original pelos listeners que confirmam as mensagens por conta própria. Os argumentos seguem a
+ * ordem esperada pelos advices de retentativa do Spring AMQP, que leem a mensagem na segunda posição.
+ * <p>
+ * Execution of the original listener by the listeners that acknowledge messages themselves. Arguments follow the order
+ * expected by the Spring AMQP retry advices, which read the message from the second position.
+ */
+interface ListenerInvoker {
+
+    void invoke(Channel channel, Message message) throws Exception;
+
+    /**
+     * Cria o invoker do listener com a cadeia de advices (retentativas) em volta de cada execução.
+     * <p>
+     * Creates the listener invoker with the advice chain (retries) around every execution.
+     */
+    static ListenerInvoker advised(MessageListener listener, Advice... adviceChain) {
+        ListenerInvoker invoker = listener instanceof ChannelAwareMessageListener channelAware
+                ? (channel, message) -> channelAware.onMessage(message, channel)
+                : (channel, message) -> listener.onMessage(message);
+
+        if (adviceChain.length == 0) {
+            return invoker;
+        }
+
+        var proxyFactory = new ProxyFactory(invoker);
+        proxyFactory.addInterface(ListenerInvoker.class);
+        for (var advice : adviceChain) {
+            proxyFactory.addAdvice(advice);
+        }
+        return (ListenerInvoker) proxyFactory.getProxy(ListenerInvoker.class.getClassLoader());
+    }
+}
@@ -3,5 +3,15 @@ package br.com.messagedispatcher.listener;
 import org.hibernate.event.spi.PostCommitInsertEventListener;
 import org.hibernate.event.spi.PostCommitUpdateEventListener;
 
+import java.util.Collection;
+
 public interface MessageDispatcherEntityEventsListener extends PostCommitInsertEventListener, PostCommitUpdateEventListener {
+
+    /**
+     * Valida as classes de entidade mapeadas, na inicialização do Hibernate, antes de qualquer evento.
+     * <p>
+     * Validates the mapped entity classes, on Hibernate startup, before any event.
+     */
+    default void validate(Collection<Class<?>> entityTypes) {
+    }
 }
@@ -1,75 +1,294 @@
 package br.com.messagedispatcher.listener;
 
-import br.com.messagedispatcher.annotation.EntityEventsPublish;
 import br.com.messagedispatcher.config.properties.EntityEventsProperties;
+import br.com.messagedispatcher.exceptions.MessageDispatcherBeanResolutionException;
+import br.com.messagedispatcher.model.EntityDelta;
+import br.com.messagedispatcher.publisher.AsyncEventPublisher;
 import br.com.messagedispatcher.publisher.MessagePublisher;
+import org.hibernate.event.spi.EventSource;
 import org.hibernate.event.spi.PostInsertEvent;
 import org.hibernate.event.spi.PostUpdateEvent;
 import org.hibernate.persister.entity.EntityPersister;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
 public class MessageDispatcherEntityEventsListenerImpl implements MessageDispatcherEntityEventsListener {
 
     private static final Logger log = LoggerFactory.getLogger(MessageDispatcherEntityEventsListenerImpl.class);
     private final MessagePublisher publisher;
+    private final AsyncEventPublisher asyncPublisher;
     private final String exchange;
     private final String routingKey;
+    private final boolean coalesce;
+    private final boolean inTransaction;
+    private final EntityEventMetrics metrics;
+    private final ClassValue<EntityEventDescriptor> descriptors = new ClassValue<>() {
+        @Override
+        protected EntityEventDescriptor computeValue(Class<?> type) {
+            return EntityEventDescriptor.of(type, exchange, routingKey);
+        }
+    };
 
     public MessageDispatcherEntityEventsListenerImpl(MessagePublisher publisher, EntityEventsProperties entityEventsProperties) {
+        this(publisher, entityEventsProperties, false);
+    }
+
+    /**
+     * @param inTransaction o listener é registrado nos eventos disparados dentro da transação (outbox), então os
+     *                      eventos agrupados são publicados antes do commit
+     *                      / the listener is registered on the events fired inside the transaction (outbox), so the
+     *                      coalesced events are published before commit
+     */
+    public MessageDispatcherEntityEventsListenerImpl(MessagePublisher publisher, EntityEventsProperties entityEventsProperties,
+                                                     boolean inTransaction) {
+        this(publisher, entityEventsProperties, inTransaction, EntityEventMetrics.NONE);
+    }
+
+    /**
+     * @param metrics recebe os eventos publicados, as falhas de publicação e os commits que falharam, por entidade
+     *                / receives the published events, the publishing failures and the failed commits, per entity
+     */
+    public MessageDispatcherEntityEventsListenerImpl(MessagePublisher publisher, EntityEventsProperties entityEventsProperties,
+                                                     boolean inTransaction, EntityEventMetrics metrics) {
         this.publisher = publisher;
+        this.asyncPublisher = publisher instanceof AsyncEventPublisher async ? async : null;
         this.exchange = entityEventsProperties.getExchange();
         this.routingKey = entityEventsProperties.getRoutingKey();
+        this.coalesce = entityEventsProperties.isCoalesce();
+        this.inTransaction = inTransaction;
+        this.metrics = metrics;
         log.debug("Entity Listener initialized. Entity events will be published to Exchange: {}, RoutingKey: {}", exchange, routingKey);
     }
 
+    /**
+     * Na publicação assíncrona o corpo é serializado fora da thread do commit, quando a entidade gerenciada já pode
+     * ter mudado ou ter lazy loading sem sessão; por isso toda entidade publicada precisa de uma projeção, montada na
+     * thread do commit a partir do estado do evento.
+     * <p>
+     * With asynchronous publishing the body is serialized off the commit thread, when the managed entity may already
+     * have changed or lazy load without a session; so every published entity needs a projection, built on the commit
+     * thread from the event state.
+     */
+    @Override
+    public void validate(Collection<Class<?>> entityTypes) {
+        if (asyncPublisher == null) {
+            return;
+        }
+        var unprojected = entityTypes.stream()
+                .map(descriptors::get)
+                .filter(descriptor -> descriptor.publishes() && descriptor.projection() == null)
+                .map(EntityEventDescriptor::entity)
+                .sorted()
+                .toList();
+        if (!unprojected.isEmpty()) {
+            throw new MessageDispatcherBeanResolutionException("Com message.dispatcher.entity-events.async.enabled=true "
+                    + "as entidades publicadas precisam declarar properties ou mapper em @EntityEventsPublish: "
+                    + String.join(", ", unprojected));
+        }
+    }
+
     @Override
     public void onPostInsertCommitFailed(PostInsertEvent event) {
         log.debug("Commit fail on insert for: {}", event.getEntity());
+        commitFailed(event.getEntity(), Action.CREATED);
     }
 
     @Override
     public void onPostUpdateCommitFailed(PostUpdateEvent event) {
         log.debug("Commit fail on update for: {}", event.getEntity());
+        commitFailed(event.getEntity(), Action.UPDATED);
+    }
+
+    private void commitFailed(Object entity, Action action) {
+        if (metrics == EntityEventMetrics.NONE) {
+            return;
+        }
+        var descriptor = descriptors.get(entity.getClass());
+        if (action == Action.CREATED ? descriptor.publishCreate() : descriptor.publishUpdate()) {
+            metrics.commitFailed(descriptor.entity(), action.routingName());
+        }
     }
 
     @Override
     public void onPostInsert(PostInsertEvent event) {
-        if (shouldPublish(event.getEntity()) && isCreated(event))
-            publish(event.getEntity(), Action.CREATED);
+        var descriptor = descriptors.get(event.getEntity().getClass());
+        if (descriptor.publishCreate()) {
+            var body = body(event.getEntity(), event.getId(), event.getState(), descriptor, event.getPersister(),
+                    event.getSession());
+            publish(body, descriptor, Action.CREATED, event.getSession(), event.getPersister(), event.getId());
+        }
     }
 
     @Override
     public void onPostUpdate(PostUpdateEvent event) {
-        if (shouldPublish(event.getEntity()) && isUpdated(event))
-            publish(event.getEntity(), Action.UPDATED);
+        var descriptor = descriptors.get(event.getEntity().getClass());
+        if (!descriptor.publishUpdate())
+            return;
+        var changed = descriptor.tracksChanges() ? changedProperties(event, descriptor) : null;
+        if (changed != null && changed.length == 0) {
+            if (log.isDebugEnabled()) {
+                log.debug("Event Skipped Entity: {} only ignored properties changed", event.getEntity().getClass().getSimpleName());
+            }
+            return;
+        }
+        // Entidade criada na mesma transação segue inteira, pois o delta não teria o estado da criação
+        var body = descriptor.delta() && !createdInTransaction(event)
+                ? delta(event, changed, descriptor)
+                : body(event.getEntity(), event.getId(), event.getState(), descriptor, event.getPersister(),
+                event.getSession());
+        publish(body, descriptor, Action.UPDATED, event.getSession(), event.getPersister(), event.getId());
+    }
+
+    /**
+     * A entidade, ou a projeção declarada lida do estado do evento sem disparar lazy loading.
+     * <p>
+     * The entity, or the declared projection read from the event state without triggering lazy loading.
+     */
+    private Object body(Object entity, Object id, Object[] state, EntityEventDescriptor descriptor,
+                        EntityPersister persister, EventSource session) {
+        var projection = descriptor.projection();
+        return projection == null ? entity : projection.project(id, state, persister, session);
+    }
+
+    private boolean createdInTransaction(PostUpdateEvent event) {
+        var buffer = coalesce ? EntityEventBuffer.bound(this) : null;
+        return buffer != null && buffer.holdsWhole(event.getPersister().getEntityName(), event.getId());
+    }
+
+    /**
+     * Índices das propriedades alteradas, sem as ignoradas e a versão; {@code null} quando o Hibernate não tem o
+     * estado anterior para comparar.
+     * <p>
+     * Indexes of the changed properties, without the ignored ones and the version; {@code null} when Hibernate has no
+     * previous state to compare.
+     */
+    private int[] changedProperties(PostUpdateEvent event, EntityEventDescriptor descriptor) {
+        var persister = event.getPersister();
+        var dirty = event.getDirtyProperties();
+        if (dirty == null && event.getOldState() != null) {
+            dirty = persister.findDirty(event.getState(), event.getOldState(), event.getEntity(), event.getSession());
+            if (dirty == null) {
+                return new int[0];
+            }
+        }
+        if (dirty == null) {
+            return null;
+        }
+        var names = persister.getPropertyNames();
+        var version = persister.isVersioned() ? persister.getVersionProperty() : -1;
+        return Arrays.stream(dirty)
+                .filter(i -> i != version && !descriptor.ignoredProperties().contains(names[i]))
+                .toArray();
     }
 
+    private EntityDelta delta(PostUpdateEvent event, int[] changed, EntityEventDescriptor descriptor) {
+        var persister = event.getPersister();
+        var names = persister.getPropertyNames();
+        var types = persister.getPropertyTypes();
+        var state = event.getState();
+        var oldState = event.getOldState();
+        var version = persister.isVersioned() ? persister.getVersionProperty() : -1;
+        if (changed == null) {
+            // Sem o estado anterior todas as propriedades vão no delta
+            changed = IntStream.range(0, names.length)
+                    .filter(i -> i != version && !descriptor.ignoredProperties().contains(names[i]))
+                    .toArray();
+        }
+        var changes = new LinkedHashMap<String, Object>();
+        var previous = descriptor.previousValues() && oldState != null ? new LinkedHashMap<String, Object>() : null;
+        for (var i : changed) {
+            if (types[i].isCollectionType()) {
+                continue;
+            }
+            changes.put(names[i], EntityProjection.value(types[i], state[i], event.getSession()));
+            if (previous != null) {
+                previous.put(names[i], EntityProjection.value(types[i], oldState[i], event.getSession()));
+            }
+        }
+        return new EntityDelta(persister.getEntityName(), event.getId(), version < 0 ? null : state[version], changes,
+                previous);
+    }
+
+    /**
+     * Entidades que nunca são publicadas não precisam do processamento pós-commit do Hibernate.
+     * <p>
+     * Entities that are never published do not need Hibernate post-commit processing.
+     */
     @Override
     public boolean requiresPostCommitHandling(EntityPersister persister) {
-        return true;
+        var mappedClass = persister.getMappedClass();
+        return mappedClass == null || descriptors.get(mappedClass).publishes();
     }
 
-    private void publish(Object entity, Action action) {
-        publisher.sendEvent(exchange, routingKey, entity);
+    /**
+     * Com uma transação ativa, agrupa o evento no buffer da transação; senão publica na hora.
+     * <p>
+     * With an active transaction, coalesces the event into the transaction buffer; otherwise publishes right away.
+     */
+    private void publish(Object body, EntityEventDescriptor descriptor, Action action, EventSource session,
+                         EntityPersister persister, Object id) {
+        var buffer = coalesce
+                ? EntityEventBuffer.current(this, publisher, inTransaction, metrics)
+                : null;
+        if (buffer == null) {
+            publish(body, descriptor, action,
+                    asyncPublisher == null ? null : new EntityEventBuffer.EntityKey(persister.getEntityName(), id));
+            return;
+        }
+        if (buffer.add(persister.getEntityName(), id, body, descriptor.exchange(), descriptor.routingKey(action),
+                new EntityEventBuffer.Source(descriptor.entity(), action.routingName())) && inTransaction) {
+            session.getActionQueue().registerProcess(buffer);
+        }
         if (log.isDebugEnabled()) {
-            log.debug("Event Published Entity: {} {} ", entity.getClass().getSimpleName(), action);
+            log.debug("Event Buffered Entity: {} {} ", persister.getEntityName(), action);
         }
     }
 
-    private boolean shouldPublish(Object entity) {
-        return entity.getClass().isAnnotationPresent(EntityEventsPublish.class);
-    }
-
-    private static boolean isUpdated(PostUpdateEvent event) {
-        return event.getEntity().getClass().getAnnotation(EntityEventsPublish.class).publishUpdate();
+    private void publish(Object body, EntityEventDescriptor descriptor, Action action,
+                         EntityEventBuffer.EntityKey key) {
+        if (asyncPublisher != null) {
+            // O resultado chega pela thread de publicação, com o tempo desde a entrega à fila
+            asyncPublisher.sendEvent(descriptor.exchange(), descriptor.routingKey(action), body, key,
+                    outcome(descriptor, action));
+            return;
+        }
+        var start = System.nanoTime();
+        try {
+            publisher.sendEvent(descriptor.exchange(), descriptor.routingKey(action), body);
+        } catch (RuntimeException e) {
+            metrics.publishFailed(descriptor.entity(), action.routingName(), 1, System.nanoTime() - start);
+            throw e;
+        }
+        metrics.published(descriptor.entity(), action.routingName(), 1, System.nanoTime() - start);
+        if (log.isDebugEnabled()) {
+            log.debug("Event Published Entity: {} {} ", body.getClass().getSimpleName(), action);
+        }
     }
 
-    private static boolean isCreated(PostInsertEvent event) {
-        return event.getEntity().getClass().getAnnotation(EntityEventsPublish.class).publishCreate();
+    private AsyncEventPublisher.SendCallback outcome(EntityEventDescriptor descriptor, Action action) {
+        if (metrics == EntityEventMetrics.NONE) {
+            return AsyncEventPublisher.SendCallback.NONE;
+        }
+        return (positions, success, elapsedNanos) -> {
+            if (success) {
+                metrics.published(descriptor.entity(), action.routingName(), 1, elapsedNanos);
+            } else {
+                metrics.publishFailed(descriptor.entity(), action.routingName(), 1, elapsedNanos);
+            }
+        };
     }
 
     enum Action {
-        CREATED, UPDATED
+        CREATED, UPDATED, SNAPSHOT;
+
+        String routingName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
     }
 }
@@ -0,0 +1,80 @@
+package br.com.messagedispatcher.listener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas dos eventos de entidade no Micrometer, com as tags {@code entity} e {@code action}. Os medidores são criados
+ * no primeiro evento de cada entidade e ação e reaproveitados, para que nenhum builder seja alocado por evento.
+ * <p>
+ * Entity events metrics through Micrometer, tagged with {@code entity} and {@code action}. Meters are created on the
+ * first event of each entity and action and reused, so that no builder is allocated per event.
+ */
+public class MicrometerEntityEventMetrics implements EntityEventMetrics {
+
+    public static final String METRIC_PREFIX = "message.dispatcher.entity-events";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<MeterKey, Meters> meters = new ConcurrentHashMap<>();
+
+    public MicrometerEntityEventMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void published(String entity, String action, int events, long elapsedNanos) {
+        var entityMeters = meters(entity, action);
+        entityMeters.published().increment(events);
+        entityMeters.publishSuccess().record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void publishFailed(String entity, String action, int events, long elapsedNanos) {
+        var entityMeters = meters(entity, action);
+        entityMeters.publishFailed().increment(events);
+        entityMeters.publishError().record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void commitFailed(String entity, String action) {
+        meters(entity, action).commitFailed().increment();
+    }
+
+    private Meters meters(String entity, String action) {
+        return meters.computeIfAbsent(new MeterKey(entity, action), key -> new Meters(
+                counter(".published", "Eventos de entidade publicados", key),
+                counter(".publish-failed", "Eventos de entidade cuja publicação falhou", key),
+                counter(".commit-failed", "Alterações sem evento porque o commit falhou", key),
+                timer("success", key),
+                timer("error", key)));
+    }
+
+    private Counter counter(String suffix, String description, MeterKey key) {
+        return Counter.builder(METRIC_PREFIX + suffix)
+                .description(description)
+                .tag("entity", key.entity())
+                .tag("action", key.action())
+                .register(meterRegistry);
+    }
+
+    private Timer timer(String outcome, MeterKey key) {
+        return Timer.builder(METRIC_PREFIX + ".publish")
+                .description("Tempo de publicação dos eventos de entidade")
+                .tag("entity", key.entity())
+                .tag("action", key.action())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record MeterKey(String entity, String action) {
+    }
+
+    private record Meters(Counter published, Counter publishFailed, Counter commitFailed, Timer publishSuccess,
+                          Timer publishError) {
+    }
+}
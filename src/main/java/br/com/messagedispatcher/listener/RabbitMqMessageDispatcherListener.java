@@ -19,6 +19,7 @@ package br.com.messagedispatcher.listener;
 
 import br.com.messagedispatcher.MessageDispatcherListener;
 import br.com.messagedispatcher.exceptions.MessageDispatcherLoggerException;
+import br.com.messagedispatcher.interceptor.DispatchInterceptorChain;
 import br.com.messagedispatcher.model.MessageDispatcherRemoteInvocationResult;
 import br.com.messagedispatcher.router.MessageRouter;
 import br.com.messagedispatcher.util.MessageDispatcherUtils;
@@ -57,16 +58,21 @@ public class RabbitMqMessageDispatcherListener implements MessageDispatcherListe
 
     private final ObjectMapper objectMapper;
 
+    private final DispatchInterceptorChain interceptorChain;
+
     private static final String returnExceptions = "false";
 
-    public RabbitMqMessageDispatcherListener(MessageRouter messageRouter, ObjectMapper objectMapper) {
+    public RabbitMqMessageDispatcherListener(MessageRouter messageRouter, ObjectMapper objectMapper,
+                                             DispatchInterceptorChain interceptorChain) {
         this.messageRouter = messageRouter;
         this.objectMapper = objectMapper;
-        log.debug("RabbitMqMessageDispatcherListener inicializado com o MessageRouter: {} ", messageRouter.getClass().getSimpleName());
+        this.interceptorChain = interceptorChain;
+        log.debug("RabbitMqMessageDispatcherListener inicializado com o MessageRouter: {} e {} interceptors",
+                messageRouter.getClass().getSimpleName(), interceptorChain.size());
     }
 
     @RabbitListener(queues = "#{@messageDispatcherProperties.queueName}",
-            concurrency = "#{@messageDispatcherProperties.concurrency}",
+            concurrency = "#{@messageDispatcherProperties.listenerConcurrency()}",
             returnExceptions = returnExceptions, errorHandler = "messageDispatcherErrorHandler")
     @Override
     public MessageDispatcherRemoteInvocationResult onMessage(Message message) {
@@ -75,7 +81,7 @@ public class RabbitMqMessageDispatcherListener implements MessageDispatcherListe
             log(message);
         }
 
-        var resultProcess = messageRouter.routeMessage(message);
+        var resultProcess = interceptorChain.dispatch(message, messageRouter);
 
         if (resultProcess == null) {
             return null;
@@ -0,0 +1,106 @@
+package br.com.messagedispatcher.listener;
+
+import org.aopalliance.aop.Advice;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Desacopla o recebimento do processamento: as entregas de todos os consumidores entram em uma única fila de trabalho,
+ * consumida por um grupo fixo de workers. Assim um handler lento prende apenas o worker que o executa, e as mensagens
+ * já recebidas pelo mesmo consumidor seguem para os workers livres em vez de aguardarem atrás dele.
+ * <p>
+ * Os containers devem usar {@link org.springframework.amqp.core.AcknowledgeMode#MANUAL}: o ack (ou reject) é enviado
+ * pelo worker, no canal por onde a mensagem chegou, após o processamento. A cadeia de advices (retentativas) é aplicada
+ * em volta da execução no worker. A fila de trabalho não precisa de limite, pois o total de entregas sem ack já é
+ * limitado pelo prefetch de cada consumidor.
+ * <p>
+ * Decouples receiving from processing: the deliveries of every consumer go into a single work queue, drained by a
+ * fixed group of workers. A slow handler therefore holds only the worker running it, and messages already received by
+ * the same consumer move on to free workers instead of waiting behind it.
+ * <p>
+ * Containers must use {@link org.springframework.amqp.core.AcknowledgeMode#MANUAL}: the ack (or reject) is sent by
+ * the worker, on the channel the message arrived on, after processing. The advice chain (retries) is applied around
+ * the execution on the worker. The work queue needs no bound, since the unacked deliveries are already limited by the
+ * prefetch of each consumer.
+ */
+public class WorkSharingDispatcher implements ApplicationListener<ContextClosedEvent>, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkSharingDispatcher.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Duration shutdownTimeout;
+    private final Advice[] adviceChain;
+
+    public WorkSharingDispatcher(int workers, Duration shutdownTimeout, Advice... adviceChain) {
+        var threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable, "message-dispatcher-worker-" + threadCount.incrementAndGet()));
+        this.shutdownTimeout = shutdownTimeout;
+        this.adviceChain = adviceChain;
+        log.debug("WorkSharingDispatcher inicializado com {} workers", workers);
+    }
+
+    /**
+     * Envolve o listener criado para o container, que passa a apenas enfileirar as entregas.
+     * <p>
+     * Wraps the listener created for the container, which then only enqueues the deliveries.
+     */
+    public ChannelAwareMessageListener wrap(MessageListener listener) {
+        return new WorkSharingMessageListener(ListenerInvoker.advised(listener, adviceChain), executor);
+    }
+
+    /**
+     * Quantidade de mensagens recebidas aguardando um worker livre.
+     * <p>
+     * Number of received messages waiting for a free worker.
+     */
+    public int getQueuedMessages() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Quantidade de workers processando mensagens no momento.
+     * <p>
+     * Number of workers currently processing messages.
+     */
+    public int getActiveWorkers() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * O evento é publicado antes de os containers pararem, com os canais ainda abertos: as mensagens em andamento
+     * terminam e recebem ack. Entregas que chegam depois disso ficam sem ack e são reentregues pelo broker quando o
+     * canal for fechado.
+     * <p>
+     * The event is published before the containers stop, with the channels still open: in-flight messages finish and
+     * get acked. Deliveries arriving after that stay unacked and are redelivered by the broker once the channel closes.
+     */
+    @Override
+    public void onApplicationEvent(ContextClosedEvent event) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("{} mensagens não concluídas em {}; serão reentregues pelo broker",
+                        executor.getActiveCount() + executor.getQueue().size(), shutdownTimeout);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
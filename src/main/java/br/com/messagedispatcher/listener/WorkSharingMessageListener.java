@@ -0,0 +1,76 @@
+package br.com.messagedispatcher.listener;
+
+import com.rabbitmq.client.Channel;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Listener instalado nos containers pelo {@link WorkSharingDispatcher}. A thread do consumidor apenas enfileira a
+ * entrega; o worker executa o listener original e confirma a mensagem no canal de origem.
+ * <p>
+ * Listener installed on the containers by the {@link WorkSharingDispatcher}. The consumer thread only enqueues the
+ * delivery; the worker runs the original listener and acknowledges the message on the originating channel.
+ */
+final class WorkSharingMessageListener implements ChannelAwareMessageListener {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkSharingMessageListener.class);
+
+    private final ListenerInvoker invoker;
+    private final Executor executor;
+
+    WorkSharingMessageListener(ListenerInvoker invoker, Executor executor) {
+        this.invoker = invoker;
+        this.executor = executor;
+    }
+
+    @Override
+    public void onMessage(Message message, Channel channel) {
+        try {
+            executor.execute(() -> process(message, channel));
+        } catch (RejectedExecutionException e) {
+            // Desligamento em andamento: sem ack, a mensagem volta para a fila quando o canal for fechado
+            log.debug("Workers encerrados, a mensagem {} será reentregue pelo broker",
+                    message.getMessageProperties().getDeliveryTag());
+        }
+    }
+
+    private void process(Message message, Channel channel) {
+        var deliveryTag = message.getMessageProperties().getDeliveryTag();
+
+        try {
+            invoker.invoke(channel, message);
+        } catch (Exception e) {
+            var requeue = ExceptionUtils.indexOfType(e, ImmediateRequeueAmqpException.class) >= 0;
+            log.warn("Falha ao processar a mensagem {}, rejeitada {} reenfileiramento: {}", deliveryTag,
+                    requeue ? "com" : "sem", ExceptionUtils.getRootCauseMessage(e));
+            reject(channel, deliveryTag, requeue);
+            return;
+        }
+
+        ack(channel, deliveryTag);
+    }
+
+    private static void ack(Channel channel, long deliveryTag) {
+        try {
+            channel.basicAck(deliveryTag, false);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Falha ao confirmar a mensagem {}, ela será reentregue pelo broker: {}", deliveryTag, e.getMessage());
+        }
+    }
+
+    private static void reject(Channel channel, long deliveryTag, boolean requeue) {
+        try {
+            channel.basicReject(deliveryTag, requeue);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Falha ao rejeitar a mensagem {}, ela será reentregue pelo broker: {}", deliveryTag, e.getMessage());
+        }
+    }
+}
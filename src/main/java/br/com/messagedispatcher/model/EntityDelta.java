@@ -0,0 +1,19 @@
+package br.com.messagedispatcher.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Evento de atualização publicado no modo delta de {@code @EntityEventsPublish}: o nome da entidade, o id, a versão e
+ * somente as propriedades alteradas com o novo valor. Associações seguem pelo id; coleções não entram no delta. Os
+ * valores anteriores vêm em {@code previous} quando {@code includePreviousValues} está ativo.
+ * <p>
+ * Update event published in the delta mode of {@code @EntityEventsPublish}: the entity name, the id, the version and
+ * only the changed properties with their new value. Associations are sent by id; collections are left out of the
+ * delta. Previous values come in {@code previous} when {@code includePreviousValues} is enabled.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EntityDelta(String entity, Object id, Object version, Map<String, Object> changes,
+                          Map<String, Object> previous) {
+}
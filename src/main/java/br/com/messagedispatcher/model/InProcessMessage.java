@@ -0,0 +1,26 @@
+package br.com.messagedispatcher.model;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+/**
+ * Mensagem despachada em processo sem serialização: o payload original segue junto aos headers e o corpo fica vazio.
+ * <p>
+ * Message dispatched in-process without serialization: the original payload travels along with the headers and the
+ * body is empty.
+ */
+public class InProcessMessage extends Message {
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final transient Object payload;
+
+    public InProcessMessage(Object payload, MessageProperties messageProperties) {
+        super(EMPTY_BODY, messageProperties);
+        this.payload = payload;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+}
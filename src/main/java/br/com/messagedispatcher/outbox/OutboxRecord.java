@@ -0,0 +1,15 @@
+package br.com.messagedispatcher.outbox;
+
+import java.util.Map;
+
+/**
+ * Mensagem gravada no outbox, já convertida e com os headers aplicados no momento da publicação.
+ * <p>
+ * Message stored in the outbox, already converted and with the headers applied at publishing time.
+ *
+ * @param keyHash hash não negativo da chave de ordenação, que define o relay do registro / non-negative hash of the
+ *                ordering key, which selects the record relay
+ */
+public record OutboxRecord(String id, String exchange, String routingKey, Map<String, Object> headers,
+                           String contentType, Integer priority, String body, int keyHash) {
+}
@@ -0,0 +1,266 @@
+package br.com.messagedispatcher.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publica no broker os registros do outbox. Cada relay atende uma faixa das chaves ({@code key_hash mod relays}) e,
+ * em uma transação, reserva um lote com {@code SKIP LOCKED}, publica as mensagens em ordem em um mesmo canal, aguarda
+ * as confirmações do broker e remove (ou marca como publicados) apenas os registros confirmados até o primeiro não
+ * confirmado. Esse e os seguintes continuam pendentes e são publicados de novo no próximo lote, na mesma ordem, mesmo
+ * que alguns já tenham sido confirmados; a entrega é ao menos uma vez: o {@code messageId} da mensagem é o id do
+ * registro, para deduplicação no consumidor.
+ * <p>
+ * Publishes the outbox records to the broker. Each relay serves a range of keys ({@code key_hash mod relays}) and, in
+ * a transaction, claims a batch with {@code SKIP LOCKED}, publishes the messages in order on a single channel, waits
+ * for the broker confirms and deletes (or marks as published) only the records confirmed up to the first unconfirmed
+ * one. That one and the following stay pending and are published again on the next batch, in the same order, even if
+ * some were already confirmed; delivery is at least once: the message {@code messageId} is the record id, for
+ * deduplication on the consumer.
+ */
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxStore store;
+    private final RabbitTemplate rabbitTemplate;
+    private final TransactionOperations transactions;
+    private final int relays;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Duration confirmTimeout;
+    private final Duration retention;
+    private final Duration cleanupInterval;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private ExecutorService executor;
+    private ScheduledExecutorService cleanup;
+    private volatile boolean running;
+
+    public OutboxRelay(OutboxStore store, RabbitTemplate rabbitTemplate, TransactionOperations transactions,
+                       int relays, int batchSize, Duration pollInterval, Duration confirmTimeout, Duration retention,
+                       Duration cleanupInterval) {
+        this.store = store;
+        this.rabbitTemplate = rabbitTemplate;
+        this.transactions = transactions;
+        this.relays = Math.max(relays, 1);
+        this.batchSize = Math.max(batchSize, 1);
+        this.pollInterval = pollInterval;
+        this.confirmTimeout = confirmTimeout;
+        this.retention = retention;
+        this.cleanupInterval = cleanupInterval;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        var threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(relays, runnable -> {
+            var thread = new Thread(runnable, "message-dispatcher-outbox-relay-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (var slot = 0; slot < relays; slot++) {
+            var relaySlot = slot;
+            executor.execute(() -> relayLoop(relaySlot));
+        }
+
+        if (!retention.isZero()) {
+            cleanup = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                var thread = new Thread(runnable, "message-dispatcher-outbox-cleanup");
+                thread.setDaemon(true);
+                return thread;
+            });
+            cleanup.scheduleWithFixedDelay(this::cleanupSafely, cleanupInterval.toMillis(), cleanupInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+        log.info("Outbox iniciado com {} relays, lotes de {} e retenção de {}", relays, batchSize, retention);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (cleanup != null) {
+            cleanup.shutdownNow();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            try {
+                // O lote em andamento termina ao receber as confirmações ou ao esgotar o confirmTimeout
+                if (!executor.awaitTermination(confirmTimeout.toMillis() + 1000, TimeUnit.MILLISECONDS)) {
+                    log.warn("Relays do outbox não terminaram em {}", confirmTimeout);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void relayLoop(int slot) {
+        while (running) {
+            var claimed = 0;
+            try {
+                claimed = relayBatch(slot);
+            } catch (RuntimeException e) {
+                log.warn("Falha no relay {} do outbox: {}", slot, e.getMessage());
+            }
+            if (claimed < batchSize && !sleep()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Publica um lote da faixa informada.
+     * <p>
+     * Publishes one batch of the given range.
+     *
+     * @return registros reservados / claimed records
+     */
+    int relayBatch(int slot) {
+        var claimed = transactions.execute(status -> {
+            var records = store.claim(slot, relays, batchSize);
+            if (records.isEmpty()) {
+                return 0;
+            }
+
+            var confirmed = confirmed(records, publish(records));
+            if (!confirmed.isEmpty()) {
+                if (retention.isZero()) {
+                    store.delete(confirmed);
+                } else {
+                    store.markSent(confirmed, Instant.now());
+                }
+            }
+            published.add(confirmed.size());
+            failed.add(records.size() - confirmed.size());
+            return records.size();
+        });
+        return claimed == null ? 0 : claimed;
+    }
+
+    private List<CorrelationData> publish(List<OutboxRecord> records) {
+        var correlations = new ArrayList<CorrelationData>(records.size());
+        try {
+            // Um único canal mantém a ordem do lote no broker
+            rabbitTemplate.invoke(operations -> {
+                for (var record : records) {
+                    var correlationData = new CorrelationData(record.id());
+                    operations.send(record.exchange(), record.routingKey(), toMessage(record), correlationData);
+                    correlations.add(correlationData);
+                }
+                return null;
+            });
+        } catch (AmqpException e) {
+            log.warn("Falha ao publicar lote do outbox, {} de {} mensagens enviadas: {}", correlations.size(),
+                    records.size(), e.getMessage());
+        }
+        return correlations;
+    }
+
+    /**
+     * Ids confirmados em sequência desde o início do lote. Um registro não confirmado encerra a sequência, para que um
+     * registro seguinte da mesma chave não seja removido e passe à frente dele no próximo lote.
+     * <p>
+     * Ids confirmed in a row from the start of the batch. An unconfirmed record ends the run, so that a later record of
+     * the same key is not deleted and does not overtake it on the next batch.
+     */
+    private List<String> confirmed(List<OutboxRecord> records, List<CorrelationData> correlations) {
+        var confirmed = new ArrayList<String>(correlations.size());
+        var deadline = System.nanoTime() + confirmTimeout.toNanos();
+        for (var i = 0; i < correlations.size(); i++) {
+            var correlationData = correlations.get(i);
+            try {
+                var confirm = correlationData.getFuture()
+                        .get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                if (!confirm.isAck()) {
+                    log.warn("Mensagem {} do outbox recusada pelo broker: {}", correlationData.getId(),
+                            confirm.getReason());
+                    break;
+                }
+                if (correlationData.getReturned() != null) {
+                    log.warn("Mensagem {} do outbox sem fila de destino na exchange {} com routing key {}",
+                            correlationData.getId(), records.get(i).exchange(), records.get(i).routingKey());
+                }
+                confirmed.add(correlationData.getId());
+            } catch (TimeoutException e) {
+                log.warn("Confirmação da mensagem {} do outbox não recebida em {}", correlationData.getId(),
+                        confirmTimeout);
+                break;
+            } catch (ExecutionException e) {
+                log.warn("Falha na confirmação da mensagem {} do outbox: {}", correlationData.getId(), e.getMessage());
+                break;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return confirmed;
+    }
+
+    private static Message toMessage(OutboxRecord record) {
+        var messageProperties = new MessageProperties();
+        record.headers().forEach(messageProperties::setHeader);
+        messageProperties.setContentType(record.contentType());
+        messageProperties.setContentEncoding(StandardCharsets.UTF_8.name());
+        messageProperties.setPriority(record.priority());
+        messageProperties.setMessageId(record.id());
+        return new Message(record.body().getBytes(StandardCharsets.UTF_8), messageProperties);
+    }
+
+    private void cleanupSafely() {
+        try {
+            var deleted = store.deleteSentBefore(Instant.now().minus(retention));
+            if (deleted > 0) {
+                log.debug("{} registros publicados removidos do outbox", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha na limpeza do outbox: {}", e.getMessage());
+        }
+    }
+
+    private boolean sleep() {
+        try {
+            Thread.sleep(pollInterval);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+}
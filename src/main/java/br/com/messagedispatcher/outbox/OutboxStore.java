@@ -0,0 +1,177 @@
+package br.com.messagedispatcher.outbox;
+
+import br.com.messagedispatcher.exceptions.MessageDispatcherBeanResolutionException;
+import br.com.messagedispatcher.exceptions.MessagePublisherException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Acesso à tabela do outbox. As gravações usam a conexão da transação corrente, quando houver, então o registro só
+ * fica visível se a transação de negócio for confirmada.
+ * <p>
+ * A consulta dos relays usa {@code FOR UPDATE SKIP LOCKED}, suportado por PostgreSQL, MySQL 8 e H2: relays
+ * concorrentes não aguardam nem leem os registros já reservados por outro. A ordem de publicação é a da coluna
+ * {@code seq}, gerada pelo banco a cada gravação: o id é aleatório e o {@code created_at} pode empatar (o MySQL guarda
+ * segundos).
+ * <p>
+ * Outbox table access. Writes use the connection of the current transaction, when there is one, so the record only
+ * becomes visible if the business transaction commits.
+ * <p>
+ * The relay query uses {@code FOR UPDATE SKIP LOCKED}, supported by PostgreSQL, MySQL 8 and H2: concurrent
+ * relays neither wait for nor read the records already claimed by another one. The publishing order is the one of the
+ * {@code seq} column, generated by the database on every write: the id is random and {@code created_at} may tie
+ * (MySQL keeps seconds).
+ */
+public class OutboxStore {
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_.]*");
+    private static final TypeReference<Map<String, Object>> HEADERS_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final String tableName;
+    private final String insertSql;
+    private final String claimSql;
+
+    public OutboxStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, String tableName) {
+        if (tableName == null || !TABLE_NAME.matcher(tableName).matches()) {
+            throw new MessageDispatcherBeanResolutionException("Nome de tabela do outbox inválido: " + tableName);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.tableName = tableName;
+        this.insertSql = "INSERT INTO " + tableName + " (id, exchange, routing_key, headers, content_type, priority, "
+                + "body, key_hash, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        this.claimSql = "SELECT id, exchange, routing_key, headers, content_type, priority, body, key_hash FROM "
+                + tableName + " WHERE sent_at IS NULL AND MOD(key_hash, ?) = ? ORDER BY seq LIMIT ? "
+                + "FOR UPDATE SKIP LOCKED";
+    }
+
+    /**
+     * Cria a tabela, se não existir. Os tipos usados são aceitos por PostgreSQL, MySQL e H2; em outros bancos crie a
+     * tabela pela migração da aplicação. A sequência usa {@code AUTO_INCREMENT} no MySQL e no MariaDB e uma coluna
+     * identity nos demais.
+     * <p>
+     * Creates the table, if missing. The types used are accepted by PostgreSQL, MySQL and H2; on other databases
+     * create the table through the application migrations. The sequence uses {@code AUTO_INCREMENT} on MySQL and
+     * MariaDB and an identity column on the others.
+     */
+    public void initializeSchema() {
+        var product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        var sequence = product != null && (product.startsWith("MySQL") || product.startsWith("MariaDB"))
+                ? "seq BIGINT NOT NULL AUTO_INCREMENT UNIQUE, "
+                : "seq BIGINT GENERATED BY DEFAULT AS IDENTITY UNIQUE, ";
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + tableName + " ("
+                + "id VARCHAR(36) PRIMARY KEY, "
+                + sequence
+                + "exchange VARCHAR(255) NOT NULL, "
+                + "routing_key VARCHAR(255) NOT NULL, "
+                + "headers TEXT, "
+                + "content_type VARCHAR(100), "
+                + "priority INTEGER, "
+                + "body TEXT NOT NULL, "
+                + "key_hash INTEGER NOT NULL, "
+                + "created_at TIMESTAMP NOT NULL, "
+                + "sent_at TIMESTAMP)");
+    }
+
+    public void insert(OutboxRecord record) {
+        jdbcTemplate.update(insertSql, statement -> {
+            statement.setString(1, record.id());
+            statement.setString(2, record.exchange());
+            statement.setString(3, record.routingKey());
+            statement.setString(4, writeHeaders(record.headers()));
+            statement.setString(5, record.contentType());
+            if (record.priority() == null) {
+                statement.setNull(6, Types.INTEGER);
+            } else {
+                statement.setInt(6, record.priority());
+            }
+            statement.setString(7, record.body());
+            statement.setInt(8, record.keyHash());
+            statement.setTimestamp(9, Timestamp.from(Instant.now()));
+        });
+    }
+
+    /**
+     * Reserva, até o fim da transação corrente, os registros pendentes mais antigos da faixa de chaves do relay.
+     * <p>
+     * Claims, until the end of the current transaction, the oldest pending records of the relay key range.
+     *
+     * @param slot  faixa do relay / relay range
+     * @param slots quantidade de faixas / number of ranges
+     * @param limit tamanho do lote / batch size
+     */
+    public List<OutboxRecord> claim(int slot, int slots, int limit) {
+        return jdbcTemplate.query(claimSql, (resultSet, row) -> new OutboxRecord(
+                resultSet.getString("id"),
+                resultSet.getString("exchange"),
+                resultSet.getString("routing_key"),
+                readHeaders(resultSet.getString("headers")),
+                resultSet.getString("content_type"),
+                resultSet.getObject("priority", Integer.class),
+                resultSet.getString("body"),
+                resultSet.getInt("key_hash")), slots, slot, limit);
+    }
+
+    public void delete(Collection<String> ids) {
+        jdbcTemplate.batchUpdate("DELETE FROM " + tableName + " WHERE id = ?",
+                ids.stream().map(id -> new Object[]{id}).toList());
+    }
+
+    public void markSent(Collection<String> ids, Instant sentAt) {
+        var timestamp = Timestamp.from(sentAt);
+        jdbcTemplate.batchUpdate("UPDATE " + tableName + " SET sent_at = ? WHERE id = ?",
+                ids.stream().map(id -> new Object[]{timestamp, id}).toList());
+    }
+
+    /**
+     * Remove os registros publicados antes do instante informado.
+     * <p>
+     * Deletes the records published before the given instant.
+     *
+     * @return registros removidos / deleted records
+     */
+    public int deleteSentBefore(Instant instant) {
+        return jdbcTemplate.update("DELETE FROM " + tableName + " WHERE sent_at IS NOT NULL AND sent_at < ?",
+                Timestamp.from(instant));
+    }
+
+    public int countPending() {
+        var count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tableName + " WHERE sent_at IS NULL",
+                Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private String writeHeaders(Map<String, Object> headers) {
+        try {
+            return objectMapper.writeValueAsString(headers);
+        } catch (JsonProcessingException e) {
+            throw new MessagePublisherException("Erro ao gravar os headers no outbox", e);
+        }
+    }
+
+    private Map<String, Object> readHeaders(String headers) {
+        if (headers == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(headers, HEADERS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new MessagePublisherException("Erro ao ler os headers do outbox", e);
+        }
+    }
+}
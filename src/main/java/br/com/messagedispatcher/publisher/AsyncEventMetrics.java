@@ -0,0 +1,36 @@
+package br.com.messagedispatcher.publisher;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Expõe a fila da publicação assíncrona de eventos no Micrometer.
+ * <p>
+ * Exposes the asynchronous event publishing queue through Micrometer.
+ */
+public class AsyncEventMetrics {
+
+    public static final String METRIC_PREFIX = "message.dispatcher.entity-events.async";
+
+    public AsyncEventMetrics(AsyncEventPublisher publisher, MeterRegistry meterRegistry) {
+        Gauge.builder(METRIC_PREFIX + ".depth", publisher, AsyncEventPublisher::getDepth)
+                .description("Envios aguardando publicação na fila")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".capacity", publisher, AsyncEventPublisher::getCapacity)
+                .description("Capacidade da fila")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".published", publisher, AsyncEventPublisher::getPublishedCount)
+                .description("Eventos publicados pelas threads da fila")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".dropped", publisher, AsyncEventPublisher::getDroppedCount)
+                .description("Eventos descartados com a fila cheia ou no encerramento")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".spilled", publisher, AsyncEventPublisher::getSpilledCount)
+                .description("Eventos gravados em disco com a fila cheia")
+                .register(meterRegistry);
+        FunctionCounter.builder(METRIC_PREFIX + ".failed", publisher, AsyncEventPublisher::getFailedCount)
+                .description("Eventos cuja publicação falhou")
+                .register(meterRegistry);
+    }
+}
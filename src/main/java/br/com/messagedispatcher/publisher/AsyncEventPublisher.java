@@ -0,0 +1,535 @@
+package br.com.messagedispatcher.publisher;
+
+import br.com.messagedispatcher.config.properties.AsyncEntityEventsProperties;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.OverflowPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publicador que entrega os eventos a filas limitadas e sem locks, uma por thread de publicação, para que a thread do
+ * commit não espere a serialização nem o envio ao broker. Cada evento vai para a fila da thread responsável pela sua
+ * chave de ordenação (a entidade, ou a routing key quando não há chave), então os eventos de uma mesma chave são
+ * publicados na ordem em que chegaram. Com as filas cheias aplica a {@link OverflowPolicy} configurada; com SPILL, os
+ * eventos gravados em disco pertencem à thread da chave, que os publica antes dos seguintes. Os demais tipos de
+ * mensagem são publicados na hora pelo publicador decorado, assim como os publicadores de {@link #withPriority(int)} e
+ * {@link #withPartitionKey(String)}.
+ * <p>
+ * No encerramento, deixa de aceitar eventos na fila, publica os pendentes até o {@code shutdownTimeout} e grava em
+ * disco o que sobrar, com a política SPILL. Eventos recebidos após o encerramento são publicados na própria thread.
+ * <p>
+ * Publisher that hands events to bounded, lock-free queues, one per publisher thread, so the commit thread waits for
+ * neither serialization nor the broker send. Each event goes to the queue of the thread that owns its ordering key (the
+ * entity, or the routing key when there is no key), so the events of the same key are published in the order they
+ * arrived. When the queues are full it applies the configured {@link OverflowPolicy}; with SPILL, the events written to
+ * disk belong to the thread of their key, which publishes them before the next ones. Other message types are published right away by the decorated publisher, as are the publishers of
+ * {@link #withPriority(int)} and {@link #withPartitionKey(String)}.
+ * <p>
+ * On shutdown, it stops queueing events, publishes the pending ones up to the {@code shutdownTimeout} and writes what
+ * is left to disk, with the SPILL policy. Events received after shutdown are published on the calling thread.
+ * <p>
+ * Quem precisa do resultado do envio informa um {@link SendCallback}, chamado pela thread que publicou ou descartou os
+ * eventos.
+ * <p>
+ * Callers that need the outcome of the send pass a {@link SendCallback}, called by the thread that published or
+ * discarded the events.
+ */
+public class AsyncEventPublisher implements MessagePublisher, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncEventPublisher.class);
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long BLOCK_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long SPILL_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final List<Integer> SINGLE = List.of(0);
+
+    private final MessagePublisher delegate;
+    private final String defaultExchange;
+    private final String defaultRoutingKey;
+    private final int capacity;
+    private final int publishers;
+    private final OverflowPolicy overflowPolicy;
+    private final Duration shutdownTimeout;
+    private final List<EventSpill> spills;
+    private final List<Queue<EventBatch>> queues;
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicInteger idle = new AtomicInteger();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private Thread[] workers = new Thread[0];
+    private volatile boolean running;
+
+    public AsyncEventPublisher(MessagePublisher delegate, MessageDispatcherProperties properties,
+                               AsyncEntityEventsProperties asyncProperties, ObjectMapper objectMapper) {
+        this.delegate = delegate;
+        this.defaultExchange = properties.getExchangeName();
+        this.defaultRoutingKey = properties.getRoutingKey();
+        this.capacity = Math.max(asyncProperties.getQueueCapacity(), 1);
+        this.publishers = Math.max(asyncProperties.getPublishers(), 1);
+        this.queues = new ArrayList<>(publishers);
+        for (var i = 0; i < publishers; i++) {
+            queues.add(new ConcurrentLinkedQueue<>());
+        }
+        this.overflowPolicy = asyncProperties.getOverflowPolicy();
+        this.shutdownTimeout = asyncProperties.getShutdownTimeout();
+        this.spills = new ArrayList<>(publishers);
+        if (overflowPolicy == OverflowPolicy.SPILL) {
+            for (var i = 0; i < publishers; i++) {
+                spills.add(new EventSpill(asyncProperties.getSpillDirectory(), i, publishers, objectMapper));
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        workers = new Thread[publishers];
+        for (var i = 0; i < publishers; i++) {
+            var index = i;
+            workers[i] = new Thread(() -> work(index), "message-dispatcher-async-events-" + i);
+            workers[i].setDaemon(true);
+        }
+        running = true;
+        for (var worker : workers) {
+            worker.start();
+        }
+        log.info("Publicação assíncrona de eventos iniciada com {} threads, fila de {} e política {}", publishers,
+                capacity, overflowPolicy);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        var deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        for (var worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        for (var worker : workers) {
+            try {
+                worker.join(Math.max(TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()), 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        var remaining = 0;
+        for (var i = 0; i < publishers; i++) {
+            var queue = queues.get(i);
+            for (var batch = queue.poll(); batch != null; batch = queue.poll()) {
+                depth.decrementAndGet();
+                if (!spills.isEmpty()) {
+                    // Os eventos da fila são mais antigos que os já gravados pela mesma thread
+                    spills.get(i).writeFirst(batch.exchange(), batch.routingKey(), batch.bodies());
+                    spilled.add(batch.bodies().size());
+                } else {
+                    remaining += batch.bodies().size();
+                    batch.completed(false);
+                }
+            }
+        }
+        if (remaining > 0) {
+            dropped.add(remaining);
+            log.warn("{} eventos não publicados em {} no encerramento foram descartados", remaining, shutdownTimeout);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void sendEvent(final Object body) {
+        sendEvent(defaultExchange, defaultRoutingKey, body);
+    }
+
+    @Override
+    public void sendEvent(final String routingKey, final Object body) {
+        sendEvent(defaultExchange, routingKey, body);
+    }
+
+    @Override
+    public void sendEvent(final String exchange, final String routingKey, final Object body) {
+        sendEvent(exchange, routingKey, body, routingKey);
+    }
+
+    /**
+     * Publica o evento pela thread responsável pela chave, depois dos eventos da mesma chave já entregues.
+     * <p>
+     * Publishes the event through the thread that owns the key, after the events of the same key already handed over.
+     *
+     * @param orderingKey chave de ordenação, em geral a entidade (tipo e id) / ordering key, usually the entity (type
+     *                    and id)
+     */
+    public void sendEvent(final String exchange, final String routingKey, final Object body, final Object orderingKey) {
+        sendEvent(exchange, routingKey, body, orderingKey, SendCallback.NONE);
+    }
+
+    /**
+     * Como {@link #sendEvent(String, String, Object, Object)}, informando o resultado do envio ao {@code callback}.
+     * <p>
+     * Like {@link #sendEvent(String, String, Object, Object)}, reporting the outcome of the send to the
+     * {@code callback}.
+     */
+    public void sendEvent(final String exchange, final String routingKey, final Object body, final Object orderingKey,
+                          final SendCallback callback) {
+        submit(new EventBatch(exchange, routingKey, List.of(body), SINGLE, callback, System.nanoTime()),
+                worker(orderingKey));
+    }
+
+    @Override
+    public void sendEvents(final String exchange, final String routingKey, final Collection<?> bodies) {
+        if (!bodies.isEmpty()) {
+            submit(new EventBatch(exchange, routingKey, List.copyOf(bodies), List.of(), SendCallback.NONE,
+                    System.nanoTime()), worker(routingKey));
+        }
+    }
+
+    /**
+     * Publica os eventos pelas threads responsáveis pelas suas chaves, em um envio por thread e mantendo a ordem da
+     * lista em cada envio.
+     * <p>
+     * Publishes the events through the threads that own their keys, in one send per thread and keeping the list order
+     * in each send.
+     *
+     * @param orderingKeys chave de ordenação de cada evento, na mesma posição do corpo / ordering key of each event, at
+     *                     the same position as the body
+     */
+    public void sendEvents(final String exchange, final String routingKey, final List<?> bodies,
+                           final List<?> orderingKeys) {
+        sendEvents(exchange, routingKey, bodies, orderingKeys, SendCallback.NONE);
+    }
+
+    /**
+     * Como {@link #sendEvents(String, String, List, List)}, informando o resultado de cada envio ao {@code callback}.
+     * <p>
+     * Like {@link #sendEvents(String, String, List, List)}, reporting the outcome of each send to the
+     * {@code callback}.
+     */
+    public void sendEvents(final String exchange, final String routingKey, final List<?> bodies,
+                           final List<?> orderingKeys, final SendCallback callback) {
+        if (bodies.isEmpty()) {
+            return;
+        }
+        var submitted = System.nanoTime();
+        var partitions = new LinkedHashMap<Integer, List<Integer>>();
+        for (var i = 0; i < bodies.size(); i++) {
+            partitions.computeIfAbsent(publishers == 1 ? 0 : worker(orderingKeys.get(i)), worker -> new ArrayList<>())
+                    .add(i);
+        }
+        partitions.forEach((worker, positions) -> submit(new EventBatch(exchange, routingKey,
+                positions.stream().map(bodies::get).toList(), positions, callback, submitted), worker));
+    }
+
+    private int worker(Object orderingKey) {
+        return orderingKey == null ? 0 : Math.floorMod(orderingKey.hashCode(), publishers);
+    }
+
+    private void submit(EventBatch batch, int worker) {
+        while (running) {
+            if (spillBehind(batch, worker)) {
+                return;
+            }
+            if (reserve()) {
+                var queue = queues.get(worker);
+                queue.offer(batch);
+                // O encerramento pode ter esvaziado as filas entre a verificação e a inserção
+                if (!running && queue.remove(batch)) {
+                    depth.decrementAndGet();
+                    break;
+                }
+                if (idle.get() > 0) {
+                    LockSupport.unpark(workers[worker]);
+                }
+                return;
+            }
+            switch (overflowPolicy) {
+                case BLOCK -> LockSupport.parkNanos(BLOCK_WAIT_NANOS);
+                case DROP_OLDEST -> dropOldest(worker);
+                case SPILL -> {
+                    try {
+                        spill(batch, worker);
+                    } catch (RuntimeException e) {
+                        batch.completed(false);
+                        throw e;
+                    }
+                    return;
+                }
+            }
+        }
+        if (!spillBehind(batch, worker)) {
+            publish(batch);
+        }
+    }
+
+    /**
+     * Grava o evento em disco se a thread ainda tiver eventos gravados, para que ele não passe à frente deles.
+     * <p>
+     * Writes the event to disk if the thread still has events there, so it does not overtake them.
+     */
+    private boolean spillBehind(EventBatch batch, int worker) {
+        if (spills.isEmpty() || !spills.get(worker).isActive()) {
+            return false;
+        }
+        try {
+            if (!spills.get(worker).writeIfActive(batch.exchange(), batch.routingKey(), batch.bodies())) {
+                return false;
+            }
+        } catch (RuntimeException e) {
+            batch.completed(false);
+            throw e;
+        }
+        spilled.add(batch.bodies().size());
+        return true;
+    }
+
+    private boolean reserve() {
+        while (true) {
+            var current = depth.get();
+            if (current >= capacity) {
+                return false;
+            }
+            if (depth.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Descarta o evento mais antigo da fila da thread, ou das demais quando ela está vazia.
+     * <p>
+     * Discards the oldest event of the thread's queue, or of the others when it is empty.
+     */
+    private void dropOldest(int worker) {
+        EventBatch oldest = null;
+        for (var i = 0; i < publishers && oldest == null; i++) {
+            oldest = queues.get((worker + i) % publishers).poll();
+        }
+        if (oldest == null) {
+            // Outra thread reservou a vaga e ainda não inseriu
+            Thread.onSpinWait();
+            return;
+        }
+        depth.decrementAndGet();
+        dropped.add(oldest.bodies().size());
+        oldest.completed(false);
+        log.warn("Fila de eventos cheia, {} eventos descartados para a exchange {}", oldest.bodies().size(),
+                oldest.exchange());
+    }
+
+    private void spill(EventBatch batch, int worker) {
+        spills.get(worker).write(batch.exchange(), batch.routingKey(), batch.bodies());
+        spilled.add(batch.bodies().size());
+    }
+
+    private void work(int worker) {
+        var queue = queues.get(worker);
+        var spill = spills.isEmpty() ? null : spills.get(worker);
+        while (true) {
+            var batch = queue.poll();
+            if (batch != null) {
+                depth.decrementAndGet();
+                publishSafely(batch);
+                continue;
+            }
+            if (!running) {
+                return;
+            }
+            // Com a fila vazia, os eventos gravados são os mais antigos que restam da thread
+            if (spill != null && spill.isActive()) {
+                replaySpill(spill);
+                continue;
+            }
+            idle.incrementAndGet();
+            if (queue.isEmpty() && running) {
+                LockSupport.parkNanos(IDLE_WAIT_NANOS);
+            }
+            idle.decrementAndGet();
+        }
+    }
+
+    private void replaySpill(EventSpill spill) {
+        var replayed = new LongAdder();
+        var complete = spill.replay((event, body) -> {
+            delegate.sendEvent(event.exchange(), event.routingKey(), body);
+            published.increment();
+            replayed.increment();
+        });
+        if (replayed.sum() > 0) {
+            log.info("{} eventos gravados em disco foram publicados", replayed.sum());
+        }
+        if (!complete) {
+            LockSupport.parkNanos(SPILL_RETRY_NANOS);
+        }
+    }
+
+    private void publishSafely(EventBatch batch) {
+        try {
+            publish(batch);
+        } catch (RuntimeException e) {
+            failed.add(batch.bodies().size());
+            log.warn("Falha ao publicar {} eventos para a exchange {}: {}", batch.bodies().size(), batch.exchange(),
+                    e.getMessage());
+        }
+    }
+
+    private void publish(EventBatch batch) {
+        try {
+            if (batch.bodies().size() == 1) {
+                delegate.sendEvent(batch.exchange(), batch.routingKey(), batch.bodies().getFirst());
+            } else {
+                delegate.sendEvents(batch.exchange(), batch.routingKey(), batch.bodies());
+            }
+        } catch (RuntimeException e) {
+            batch.completed(false);
+            throw e;
+        }
+        published.add(batch.bodies().size());
+        batch.completed(true);
+    }
+
+    @Override
+    public void sendCommand(Object body) {
+        delegate.sendCommand(body);
+    }
+
+    @Override
+    public void sendCommand(String routingKey, Object body) {
+        delegate.sendCommand(routingKey, body);
+    }
+
+    @Override
+    public void sendCommand(String exchange, String routingKey, Object body) {
+        delegate.sendCommand(exchange, routingKey, body);
+    }
+
+    @Override
+    public <T> T doCommand(final Object body, final @NonNull Class<T> responseClass) {
+        return delegate.doCommand(body, responseClass);
+    }
+
+    @Override
+    public <T> T doCommand(final String routingKey, final Object body, final @NonNull Class<T> responseClass) {
+        return delegate.doCommand(routingKey, body, responseClass);
+    }
+
+    @Override
+    public <T> T doCommand(final String exchange, final String routingKey, final Object body,
+                           final @NonNull Class<T> responseClass) {
+        return delegate.doCommand(exchange, routingKey, body, responseClass);
+    }
+
+    @Override
+    public <T> T doQuery(final Object body, final @NonNull Class<T> responseClass) {
+        return delegate.doQuery(body, responseClass);
+    }
+
+    @Override
+    public <T> T doQuery(final String routingKey, final Object body, final @NonNull Class<T> responseClass) {
+        return delegate.doQuery(routingKey, body, responseClass);
+    }
+
+    @Override
+    public <T> T doQuery(final String exchange, final String routingKey, final Object body,
+                         final @NonNull Class<T> responseClass) {
+        return delegate.doQuery(exchange, routingKey, body, responseClass);
+    }
+
+    @Override
+    public void sendNotification(final Object body) {
+        delegate.sendNotification(body);
+    }
+
+    @Override
+    public void sendNotification(final String routingKey, final Object body) {
+        delegate.sendNotification(routingKey, body);
+    }
+
+    @Override
+    public MessagePublisher withPriority(final int priority) {
+        return delegate.withPriority(priority);
+    }
+
+    @Override
+    public MessagePublisher withPartitionKey(final String partitionKey) {
+        return delegate.withPartitionKey(partitionKey);
+    }
+
+    public int getDepth() {
+        return depth.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getSpilledCount() {
+        return spilled.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Resultado de um envio assíncrono, chamado na thread que publicou os eventos ou os descartou (fila cheia com
+     * DROP_OLDEST ou encerramento). Eventos gravados em disco com SPILL só são informados se a gravação falhar.
+     * <p>
+     * Outcome of an asynchronous send, called on the thread that published the events or discarded them (full queue
+     * with DROP_OLDEST or shutdown). Events written to disk with SPILL are only reported if the write fails.
+     */
+    @FunctionalInterface
+    public interface SendCallback {
+
+        SendCallback NONE = (positions, success, elapsedNanos) -> {
+        };
+
+        /**
+         * @param positions    posições, na lista entregue, dos eventos deste envio / positions, in the list handed
+         *                     over, of the events of this send
+         * @param elapsedNanos tempo desde a entrega à fila até o fim do envio / time from the hand-off to the queue to
+         *                     the end of the send
+         */
+        void completed(List<Integer> positions, boolean success, long elapsedNanos);
+    }
+
+    private record EventBatch(String exchange, String routingKey, List<?> bodies, List<Integer> positions,
+                              SendCallback callback, long submittedNanos) {
+
+        void completed(boolean success) {
+            if (callback == SendCallback.NONE) {
+                return;
+            }
+            try {
+                callback.completed(positions, success, System.nanoTime() - submittedNanos);
+            } catch (RuntimeException e) {
+                log.warn("Falha ao informar o resultado do envio de {} eventos: {}", bodies.size(), e.getMessage());
+            }
+        }
+    }
+}
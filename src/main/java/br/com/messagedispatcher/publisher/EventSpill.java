@@ -0,0 +1,214 @@
+package br.com.messagedispatcher.publisher;
+
+import br.com.messagedispatcher.exceptions.MessagePublisherException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Eventos de uma thread de publicação gravados em disco quando a fila assíncrona está cheia, um por linha em JSON com o
+ * tipo do corpo. Enquanto houver eventos gravados, os seguintes da mesma thread também são gravados, para que sejam
+ * publicados depois deles. Os arquivos são lidos na ordem em que foram criados e removidos após a publicação; arquivos
+ * de uma execução anterior são publicados na inicialização.
+ * <p>
+ * Events of one publisher thread written to disk when the asynchronous queue is full, one per JSON line with the body
+ * type. While there are events on disk, the next ones of the same thread are written too, so they are published after
+ * them. Files are read in creation order and deleted after publishing; files of a previous run are published on
+ * startup.
+ */
+final class EventSpill {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSpill.class);
+    private static final String PREFIX = "spill-";
+    private static final String SUFFIX = ".jsonl";
+
+    private final Path directory;
+    private final int worker;
+    private final int workers;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong sequence = new AtomicLong();
+    private BufferedWriter writer;
+    private volatile boolean active;
+
+    /**
+     * @param worker  thread dona dos arquivos gravados / thread that owns the written files
+     * @param workers total de threads, para repartir os arquivos de uma execução anterior / thread count, to split the
+     *                files of a previous run
+     */
+    EventSpill(Path directory, int worker, int workers, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.worker = worker;
+        this.workers = workers;
+        this.objectMapper = objectMapper;
+        try {
+            Files.createDirectories(directory);
+            active = !files().isEmpty();
+        } catch (IOException e) {
+            throw new MessagePublisherException("Não foi possível criar o diretório de eventos " + directory, e);
+        }
+    }
+
+    /**
+     * Se há eventos gravados e ainda não publicados.
+     * <p>
+     * Whether there are events written and not yet published.
+     */
+    boolean isActive() {
+        return active;
+    }
+
+    synchronized void write(String exchange, String routingKey, List<?> bodies) {
+        try {
+            if (writer == null) {
+                writer = open(String.format("%013d", System.currentTimeMillis()));
+            }
+            append(writer, exchange, routingKey, bodies);
+            active = true;
+        } catch (IOException e) {
+            throw new MessagePublisherException("Não foi possível gravar eventos em " + directory, e);
+        }
+    }
+
+    /**
+     * Grava os eventos em um arquivo lido antes dos já existentes. Usado no encerramento para os eventos que ainda
+     * estavam na fila, mais antigos que os gravados.
+     * <p>
+     * Writes the events to a file read before the existing ones. Used on shutdown for the events still in the queue,
+     * older than those on disk.
+     */
+    synchronized void writeFirst(String exchange, String routingKey, List<?> bodies) {
+        try (var first = open(String.format("%013d-%013d", 0, System.currentTimeMillis()))) {
+            append(first, exchange, routingKey, bodies);
+            active = true;
+        } catch (IOException e) {
+            throw new MessagePublisherException("Não foi possível gravar eventos em " + directory, e);
+        }
+    }
+
+    private BufferedWriter open(String order) throws IOException {
+        var file = directory.resolve(String.format("%s%d-%s-%010d%s", PREFIX, worker, order,
+                sequence.incrementAndGet(), SUFFIX));
+        return Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE_NEW);
+    }
+
+    private void append(BufferedWriter writer, String exchange, String routingKey, List<?> bodies) throws IOException {
+        for (var body : bodies) {
+            var event = new SpilledEvent(exchange, routingKey, body.getClass().getName(),
+                    objectMapper.valueToTree(body));
+            writer.write(objectMapper.writeValueAsString(event));
+            writer.newLine();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Grava os eventos apenas se já houver eventos gravados, para que não passem à frente deles.
+     * <p>
+     * Writes the events only if there are events on disk already, so they do not overtake them.
+     *
+     * @return se os eventos foram gravados / whether the events were written
+     */
+    synchronized boolean writeIfActive(String exchange, String routingKey, List<?> bodies) {
+        if (!active) {
+            return false;
+        }
+        write(exchange, routingKey, bodies);
+        return true;
+    }
+
+    /**
+     * Fecha o arquivo corrente e publica os arquivos existentes. Gravações durante a leitura vão para um novo arquivo,
+     * publicado na próxima chamada.
+     * <p>
+     * Closes the current file and publishes the existing files. Writes during the replay go to a new file, published
+     * on the next call.
+     *
+     * @return se todos os arquivos lidos foram publicados / whether every file read was published
+     */
+    boolean replay(BiConsumer<SpilledEvent, Object> publisher) {
+        List<Path> files;
+        synchronized (this) {
+            try {
+                if (writer != null) {
+                    writer.close();
+                    writer = null;
+                }
+                files = files();
+            } catch (IOException e) {
+                log.warn("Não foi possível listar os eventos em {}: {}", directory, e.getMessage());
+                return false;
+            }
+            if (files.isEmpty()) {
+                // Sob o mesmo lock das gravações: a próxima gravação já vai para a fila
+                active = false;
+                return true;
+            }
+        }
+
+        for (var file : files) {
+            try (var lines = Files.lines(file, StandardCharsets.UTF_8)) {
+                var iterator = lines.iterator();
+                while (iterator.hasNext()) {
+                    var line = iterator.next();
+                    if (!line.isBlank()) {
+                        var event = objectMapper.readValue(line, SpilledEvent.class);
+                        publisher.accept(event, body(event));
+                    }
+                }
+                Files.delete(file);
+            } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                // O arquivo fica no diretório e é lido de novo na próxima vez, então eventos já lidos se repetem
+                log.warn("Falha ao publicar os eventos de {}: {}", file, e.getMessage());
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object body(SpilledEvent event) throws ClassNotFoundException, IOException {
+        var type = Class.forName(event.type(), false, Thread.currentThread().getContextClassLoader());
+        return objectMapper.treeToValue(event.body(), type);
+    }
+
+    private List<Path> files() throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.filter(this::owns).sorted().toList();
+        }
+    }
+
+    /**
+     * Os arquivos começam pela thread que os gravou; os de uma execução com outra quantidade de threads são
+     * repartidos pelo mesmo número.
+     * <p>
+     * File names start with the thread that wrote them; those of a run with another thread count are split by that
+     * same number.
+     */
+    private boolean owns(Path file) {
+        var name = file.getFileName().toString();
+        if (!name.startsWith(PREFIX) || !name.endsWith(SUFFIX)) {
+            return false;
+        }
+        var end = name.indexOf('-', PREFIX.length());
+        try {
+            var writer = Long.parseLong(name.substring(PREFIX.length(), end < 0 ? name.length() : end));
+            return Math.floorMod(writer, workers) == worker;
+        } catch (NumberFormatException e) {
+            return worker == 0;
+        }
+    }
+
+    record SpilledEvent(String exchange, String routingKey, String type, JsonNode body) {
+    }
+}
@@ -2,6 +2,8 @@ package br.com.messagedispatcher.publisher;
 
 import org.springframework.lang.NonNull;
 
+import java.util.Collection;
+
 @SuppressWarnings("unused")
 public interface MessagePublisher {
     /**
@@ -40,6 +42,19 @@ public interface MessagePublisher {
      */
     void sendEvent(final String exchange, final String routingKey, final Object body);
 
+    /**
+     * Publica os eventos em ordem, em um único envio ao broker.
+     * Atua como um fire and forget, não esperando por respostas.
+     * <p>
+     * Publishes the events in order, in a single send to the broker.
+     * Acts as a fire and forget, not waiting for responses.
+     *
+     * @param exchange   - nome da exchange
+     * @param routingKey - chave de roteamento
+     * @param bodies     - corpos das mensagens
+     */
+    void sendEvents(final String exchange, final String routingKey, final Collection<?> bodies);
+
     /**
      * Publica uma mensagem do tipo command sem aguardar resposta.
      * Atua com um fire and forget.
@@ -169,4 +184,34 @@ public interface MessagePublisher {
      * @param body       - corpo da mensagem
      */
     void sendNotification(final String routingKey, final Object body);
+
+    /**
+     * Retorna um publicador que envia as mensagens com a prioridade informada, sobrepondo a do payload e a do tipo de
+     * handler. A prioridade só tem efeito em filas declaradas com {@code message.dispatcher.max-priority}.
+     * <p>
+     * Returns a publisher that sends messages with the given priority, overriding the payload and handler type ones.
+     * The priority only takes effect on queues declared with {@code message.dispatcher.max-priority}.
+     * <p>
+     * Exemplo: {@code publisher.withPriority(9).doCommand(new CancelOrder(id), OrderResult.class)}
+     *
+     * @param priority - prioridade, de 0 a 255
+     * @return - publicador com a prioridade
+     */
+    MessagePublisher withPriority(final int priority);
+
+    /**
+     * Retorna um publicador que envia as mensagens com a chave de partição informada, sobrepondo a
+     * {@link br.com.messagedispatcher.annotation.PartitionKey} do payload. A chave só tem efeito na exchange padrão do
+     * tipo consistent-hash, onde substitui a routing key ou vai no header de {@code hash-header}.
+     * <p>
+     * Returns a publisher that sends messages with the given partition key, overriding the payload
+     * {@link br.com.messagedispatcher.annotation.PartitionKey}. The key only takes effect on the default consistent-hash
+     * exchange, where it replaces the routing key or goes in the {@code hash-header} header.
+     * <p>
+     * Exemplo: {@code publisher.withPartitionKey(customerId).sendEvent(new CustomerMerged(customerId, otherId))}
+     *
+     * @param partitionKey - chave de partição
+     * @return - publicador com a chave de partição
+     */
+    MessagePublisher withPartitionKey(final String partitionKey);
 }
@@ -1,25 +1,39 @@
 package br.com.messagedispatcher.publisher;
 
 import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.publisher.proxy.SendOptions;
 import br.com.messagedispatcher.publisher.proxy.TemplateProxy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+
 import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
 import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.*;
 
 @Component
 public final class RabbitMessagePublisher implements MessagePublisher {
 
+    private static final int MAX_PRIORITY = 255;
+
     private final TemplateProxy templateProxy;
     private final String DEFAULT_EXCHANGE;
     private final String DEFAULT_ROUTING_KEY;
+    private final SendOptions options;
 
 
+    @Autowired
     public RabbitMessagePublisher(TemplateProxy templateProxy, MessageDispatcherProperties properties) {
+        this(templateProxy, properties.getExchangeName(), properties.getRoutingKey(), null);
+    }
+
+    private RabbitMessagePublisher(TemplateProxy templateProxy, String defaultExchange, String defaultRoutingKey,
+                                   SendOptions options) {
         this.templateProxy = templateProxy;
-        this.DEFAULT_EXCHANGE = properties.getExchangeName();
-        this.DEFAULT_ROUTING_KEY = properties.getRoutingKey();
+        this.DEFAULT_EXCHANGE = defaultExchange;
+        this.DEFAULT_ROUTING_KEY = defaultRoutingKey;
+        this.options = options;
     }
 
     @Override
@@ -37,6 +51,13 @@ public final class RabbitMessagePublisher implements MessagePublisher {
         this.convertAndSend(exchange, routingKey, body, EVENT);
     }
 
+    @Override
+    public void sendEvents(final String exchange, final String routingKey, final Collection<?> bodies) {
+        if (!bodies.isEmpty()) {
+            templateProxy.convertAndSendAll(exchange, routingKey, bodies, EVENT, options());
+        }
+    }
+
     @Override
     public void sendCommand(Object body) {
         this.sendCommand(DEFAULT_EXCHANGE, DEFAULT_ROUTING_KEY);
@@ -92,11 +113,40 @@ public final class RabbitMessagePublisher implements MessagePublisher {
         this.convertAndSend(DEFAULT_EXCHANGE, routingKey, body, NOTIFICATION);
     }
 
+    @Override
+    public MessagePublisher withPriority(final int priority) {
+        if (priority < 0 || priority > MAX_PRIORITY) {
+            throw new IllegalArgumentException("A prioridade deve estar entre 0 e " + MAX_PRIORITY + ": " + priority);
+        }
+        return new RabbitMessagePublisher(templateProxy, DEFAULT_EXCHANGE, DEFAULT_ROUTING_KEY,
+                options().withPriority(priority));
+    }
+
+    @Override
+    public MessagePublisher withPartitionKey(final String partitionKey) {
+        if (partitionKey == null || partitionKey.isBlank()) {
+            throw new IllegalArgumentException("A chave de partição não pode ser vazia");
+        }
+        return new RabbitMessagePublisher(templateProxy, DEFAULT_EXCHANGE, DEFAULT_ROUTING_KEY,
+                options().withPartitionKey(partitionKey));
+    }
+
+    private SendOptions options() {
+        return options == null ? SendOptions.NONE : options;
+    }
+
     private void convertAndSend(String exchangeName, String routingKey, Object body, HandlerType handlerType) {
-        templateProxy.convertAndSend(exchangeName, routingKey, body, handlerType);
+        if (options == null) {
+            templateProxy.convertAndSend(exchangeName, routingKey, body, handlerType);
+        } else {
+            templateProxy.convertAndSend(exchangeName, routingKey, body, handlerType, options);
+        }
     }
 
     private <T> T convertSendAndReceive(String exchangeName, String routingKey, Object body, Class<T> responseClass, HandlerType handlerType) {
-        return templateProxy.convertSendAndReceive(exchangeName, routingKey, body, responseClass, handlerType);
+        if (options == null) {
+            return templateProxy.convertSendAndReceive(exchangeName, routingKey, body, responseClass, handlerType);
+        }
+        return templateProxy.convertSendAndReceive(exchangeName, routingKey, body, responseClass, handlerType, options);
     }
 }
@@ -0,0 +1,265 @@
+package br.com.messagedispatcher.publisher.proxy;
+
+import br.com.messagedispatcher.config.properties.InProcessTransportProperties;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.exceptions.MessageDispatcherNoRemoteResponseException;
+import br.com.messagedispatcher.exceptions.MessageDispatcherRemoteResultException;
+import br.com.messagedispatcher.exceptions.MessagePublisherException;
+import br.com.messagedispatcher.interceptor.DispatchInterceptorChain;
+import br.com.messagedispatcher.lane.HandlerLanes;
+import br.com.messagedispatcher.model.InProcessMessage;
+import br.com.messagedispatcher.model.MessageDispatcherRemoteInvocationResult;
+import br.com.messagedispatcher.router.MessageRouter;
+import br.com.messagedispatcher.router.impl.AnnotatedMessageRouter;
+import br.com.messagedispatcher.util.context.MessageDispatcherContextHolder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static br.com.messagedispatcher.config.properties.InProcessTransportProperties.Mode;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
+import static org.apache.commons.lang3.exception.ExceptionUtils.getRootCause;
+
+/**
+ * {@link TemplateProxy} que despacha no próprio processo as mensagens endereçadas ao serviço, sem passar pelo broker.
+ * A mensagem recebe os mesmos headers da publicação via broker e percorre a {@link DispatchInterceptorChain} e o
+ * {@link MessageRouter}, de modo que o {@link MessageDispatcherContextHolder}, os interceptors e o envelope de
+ * resposta/exceção se comportam como no consumo remoto. As demais rotas são delegadas ao proxy do broker.
+ * <p>
+ * {@link TemplateProxy} that dispatches messages addressed to the service within the process, bypassing the broker.
+ * The message gets the same headers as a broker publication and goes through the {@link DispatchInterceptorChain} and
+ * the {@link MessageRouter}, so the {@link MessageDispatcherContextHolder}, interceptors and reply/exception envelope
+ * behave as in remote consumption. Other routes are delegated to the broker proxy.
+ * <p>
+ * Diferenças em relação ao broker: o handler executa na thread do publicador e não há retentativas. A transação do
+ * publicador é suspensa durante o handler, a menos que {@code join-transaction} esteja habilitado. No modo
+ * {@link Mode#LOCAL}, mensagens com lane ou com chave de partição seguem pelo broker, que é quem garante o isolamento
+ * e a ordem delas, e uma mensagem sem resposta que falhe em processo antes de chegar ao handler, inclusive por não
+ * haver handler, é reenviada ao broker, preservando retentativas e DLQ. A falha do handler de uma mensagem sem
+ * resposta é registrada no log, como no listener, sem chegar ao publicador nem reprocessar a mensagem.
+ * <p>
+ * Differences from the broker: the handler runs on the publisher thread and there are no retries. The publisher's
+ * transaction is suspended while the handler runs, unless {@code join-transaction} is enabled. In {@link Mode#LOCAL}
+ * mode, messages with a lane or a partition key go through the broker, which is what guarantees their isolation and
+ * ordering, and a message without reply that fails in-process before reaching the handler, including when there is no
+ * handler, is resent to the broker, preserving retries and DLQ. The handler failure of a message without reply is
+ * logged, as in the listener, without reaching the publisher or processing the message again.
+ */
+public class InProcessTemplateProxy implements TemplateProxy {
+
+    private static final Logger log = LoggerFactory.getLogger(InProcessTemplateProxy.class);
+
+    private final TemplateProxy delegate;
+    private final MessageRouter messageRouter;
+    private final DispatchInterceptorChain interceptorChain;
+    private final MessageConverter messageConverter;
+    private final ObjectMapper objectMapper;
+    private final MessageDispatcherProperties properties;
+    private final HandlerLanes lanes;
+    private final PartitionKeys partitionKeys;
+    private final Mode mode;
+    private final boolean serialize;
+    private final TransactionTemplate suspendTransaction;
+
+    /**
+     * @param delegate proxy usado nas rotas que não são despachadas em processo; pode ser null no modo
+     *                 {@link Mode#ALL} / proxy used for routes not dispatched in-process; may be null in
+     *                 {@link Mode#ALL} mode
+     */
+    public InProcessTemplateProxy(TemplateProxy delegate, MessageRouter messageRouter,
+                                  DispatchInterceptorChain interceptorChain, MessageConverter messageConverter,
+                                  ObjectMapper objectMapper, MessageDispatcherProperties properties,
+                                  HandlerLanes lanes, InProcessTransportProperties inProcessProperties) {
+        this(delegate, messageRouter, interceptorChain, messageConverter, objectMapper, properties, lanes,
+                inProcessProperties, null);
+    }
+
+    /**
+     * @param transactionManager usado para suspender a transação do publicador durante o handler; sem ele o handler
+     *                           executa na transação do publicador / used to suspend the publisher's transaction while
+     *                           the handler runs; without it the handler runs in the publisher's transaction
+     */
+    public InProcessTemplateProxy(TemplateProxy delegate, MessageRouter messageRouter,
+                                  DispatchInterceptorChain interceptorChain, MessageConverter messageConverter,
+                                  ObjectMapper objectMapper, MessageDispatcherProperties properties,
+                                  HandlerLanes lanes, InProcessTransportProperties inProcessProperties,
+                                  PlatformTransactionManager transactionManager) {
+        if (delegate == null && inProcessProperties.getMode() != Mode.ALL) {
+            throw new IllegalArgumentException("Um TemplateProxy de broker é obrigatório fora do modo ALL");
+        }
+
+        this.delegate = delegate;
+        this.messageRouter = messageRouter;
+        this.interceptorChain = interceptorChain;
+        this.messageConverter = messageConverter;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.lanes = lanes;
+        this.partitionKeys = new PartitionKeys(properties);
+        this.mode = inProcessProperties.getMode();
+        this.serialize = inProcessProperties.isSerialize() || !(messageRouter instanceof AnnotatedMessageRouter);
+        if (transactionManager != null && !inProcessProperties.isJoinTransaction()) {
+            this.suspendTransaction = new TransactionTemplate(transactionManager);
+            this.suspendTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        } else {
+            this.suspendTransaction = null;
+        }
+
+        if (!inProcessProperties.isSerialize() && serialize) {
+            log.warn("{} não suporta payloads sem serialização; o transporte em processo vai serializar as mensagens",
+                    messageRouter.getClass().getSimpleName());
+        }
+
+        log.info("Transporte em processo habilitado no modo {} {} serialização", mode, serialize ? "com" : "sem");
+    }
+
+    @Override
+    public <T> T convertSendAndReceive(final String exchange, final String routingKey, final Object body,
+                                       final Class<T> responseClass, final HandlerType handlerType) {
+        if (!isInProcess(exchange, routingKey, body, handlerType, SendOptions.NONE)) {
+            return delegate.convertSendAndReceive(exchange, routingKey, body, responseClass, handlerType);
+        }
+
+        final Object result;
+        try {
+            result = dispatch(exchange, routingKey, body, handlerType, messageRouter);
+        } catch (RuntimeException e) {
+            throw new MessageDispatcherRemoteResultException(MessageDispatcherRemoteInvocationResult.of(rootCause(e)));
+        }
+
+        if (result == null) {
+            throw new MessageDispatcherNoRemoteResponseException(HttpStatus.FAILED_DEPENDENCY, routingKey);
+        }
+
+        return convertResult(result, responseClass);
+    }
+
+    @Override
+    public void convertAndSend(final String exchange, final String routingKey, final Object body,
+                               final HandlerType handlerType) {
+        send(exchange, routingKey, body, handlerType, null);
+    }
+
+    /**
+     * Em processo as opções não se aplicam; nas rotas delegadas ao broker, incluindo as com chave de partição, elas são
+     * repassadas.
+     * <p>
+     * In-process the options do not apply; on routes delegated to the broker, including those with a partition key,
+     * they are passed on.
+     */
+    @Override
+    public <T> T convertSendAndReceive(final String exchange, final String routingKey, final Object body,
+                                       final Class<T> responseClass, final HandlerType handlerType,
+                                       final SendOptions options) {
+        if (!isInProcess(exchange, routingKey, body, handlerType, options)) {
+            return delegate.convertSendAndReceive(exchange, routingKey, body, responseClass, handlerType, options);
+        }
+        return convertSendAndReceive(exchange, routingKey, body, responseClass, handlerType);
+    }
+
+    @Override
+    public void convertAndSend(final String exchange, final String routingKey, final Object body,
+                               final HandlerType handlerType, final SendOptions options) {
+        send(exchange, routingKey, body, handlerType, options);
+    }
+
+    private void send(String exchange, String routingKey, Object body, HandlerType handlerType, SendOptions options) {
+        if (!isInProcess(exchange, routingKey, body, handlerType, options == null ? SendOptions.NONE : options)) {
+            sendToBroker(exchange, routingKey, body, handlerType, options);
+            return;
+        }
+
+        var handled = new AtomicBoolean();
+        try {
+            dispatch(exchange, routingKey, body, handlerType,
+                    message -> messageRouter.routeMessage(message, () -> handled.set(true)));
+        } catch (RuntimeException e) {
+            if (handled.get()) {
+                // Como no listener: a falha do handler é registrada e a mensagem não é processada de novo
+                log.error("Erro processando mensagem do tipo: {}", handlerType, e);
+                return;
+            }
+            if (mode == Mode.ALL) {
+                throw e;
+            }
+            log.warn("Falha ao despachar mensagem {} em processo antes do handler, reenviando via broker: {}",
+                    handlerType, rootCause(e).getMessage());
+            sendToBroker(exchange, routingKey, body, handlerType, options);
+        }
+    }
+
+    private void sendToBroker(String exchange, String routingKey, Object body, HandlerType handlerType,
+                              SendOptions options) {
+        if (options == null) {
+            delegate.convertAndSend(exchange, routingKey, body, handlerType);
+        } else {
+            delegate.convertAndSend(exchange, routingKey, body, handlerType, options);
+        }
+    }
+
+    private boolean isInProcess(String exchange, String routingKey, Object body, HandlerType handlerType,
+                                SendOptions options) {
+        return mode == Mode.ALL
+                || (properties.isDefaultListenerEnabled()
+                && Objects.equals(routingKey, properties.getRoutingKey())
+                && Objects.equals(exchange, properties.getExchangeName())
+                && lanes.routingKey(exchange, routingKey, handlerType, body).equals(routingKey)
+                && !partitionKeys.hasKey(exchange, body, options));
+    }
+
+    private Object dispatch(String exchange, String routingKey, Object body, HandlerType handlerType,
+                            MessageRouter router) {
+        var messageProperties = new MessageProperties();
+        messageProperties.setReceivedExchange(exchange);
+        messageProperties.setReceivedRoutingKey(routingKey);
+
+        final Message message = serialize
+                ? messageConverter.toMessage(body, messageProperties)
+                : new InProcessMessage(body, messageProperties);
+
+        MessageHeadersUtil.applyHeaders(body, message.getMessageProperties(), handlerType, properties.getMappedHeaders());
+
+        // O publicador pode estar dentro de um handler: o contexto dele é restaurado após o despacho
+        var callerHeaders = MessageDispatcherContextHolder.getHeaders();
+        try {
+            if (suspendTransaction == null || !TransactionSynchronizationManager.isActualTransactionActive()) {
+                return interceptorChain.dispatch(message, router);
+            }
+            // Como no broker, o handler não participa da transação do publicador
+            return suspendTransaction.execute(status -> interceptorChain.dispatch(message, router));
+        } finally {
+            if (callerHeaders != null) {
+                MessageDispatcherContextHolder.setHeaders(callerHeaders);
+            }
+        }
+    }
+
+    private <T> T convertResult(Object result, Class<T> responseClass) {
+        if (!serialize) {
+            return responseClass.isInstance(result) ? responseClass.cast(result) : objectMapper.convertValue(result, responseClass);
+        }
+
+        try {
+            return objectMapper.readValue(objectMapper.writeValueAsBytes(result), responseClass);
+        } catch (IOException e) {
+            throw new MessagePublisherException("Erro ao converter a resposta processada em processo.", e);
+        }
+    }
+
+    private static Throwable rootCause(Throwable exception) {
+        var rootCause = getRootCause(exception);
+        return rootCause != null ? rootCause : exception;
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.messagedispatcher.publisher.proxy;
+
+import br.com.messagedispatcher.util.MessageDispatcherUtils;
+import br.com.messagedispatcher.util.httpservlet.RequestContextUtil;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.time.OffsetDateTime;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.BODY_TYPE;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.HANDLER_TYPE;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.MESSAGE_SOURCE;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.MESSAGE_TIMESTAMP;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.PUBLISHED_AT;
+import static java.util.Objects.nonNull;
+
+/**
+ * Headers do dispatcher aplicados a toda mensagem publicada, seja via broker ou em processo.
+ * <p>
+ * Dispatcher headers applied to every published message, either through the broker or in-process.
+ */
+final class MessageHeadersUtil {
+
+    private MessageHeadersUtil() {
+    }
+
+    static void applyHeaders(final Object body, final MessageProperties messageProperties, final HandlerType handlerType,
+                             final String[] mappedHeaders) {
+        var now = OffsetDateTime.now();
+        messageProperties.setHeader(MESSAGE_TIMESTAMP.getHeaderName(), now);
+        messageProperties.setHeader(PUBLISHED_AT.getHeaderName(), now.toInstant().toEpochMilli());
+        messageProperties.setHeader(BODY_TYPE.getHeaderName(), body.getClass().getSimpleName());
+        messageProperties.setHeader(HANDLER_TYPE.getHeaderName(), handlerType);
+        messageProperties.setHeader(MESSAGE_SOURCE.getHeaderName(), MessageDispatcherUtils.getAppName());
+
+        if (nonNull(mappedHeaders)) {
+            var request = RequestContextUtil.getCurrentRequest();
+            if (nonNull(request)) {
+                for (var mappedHeader : mappedHeaders) {
+                    var headerValue = request.getHeader(mappedHeader);
+                    if (nonNull(headerValue)) {
+                        messageProperties.setHeader(mappedHeader, headerValue);
+                    }
+                }
+            }
+        }
+    }
+}
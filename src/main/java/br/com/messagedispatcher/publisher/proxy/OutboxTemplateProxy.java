@@ -0,0 +1,100 @@
+package br.com.messagedispatcher.publisher.proxy;
+
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.exceptions.MessagePublisherException;
+import br.com.messagedispatcher.outbox.OutboxStore;
+import br.com.messagedispatcher.outbox.OutboxRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
+
+/**
+ * Proxy que grava as mensagens no outbox, na transação corrente, em vez de publicá-las. A conversão e os headers são
+ * os mesmos do {@link RabbitTemplateProxy}, aplicados no momento da gravação, então headers mapeados da requisição são
+ * preservados. A routing key da lane não é aplicada: as mensagens seguem para a fila padrão do destino.
+ * <p>
+ * Comandos e queries aguardam uma resposta e não podem passar pelo outbox.
+ * <p>
+ * Proxy that writes messages to the outbox, in the current transaction, instead of publishing them. Conversion and
+ * headers are the same as in {@link RabbitTemplateProxy}, applied at write time, so headers mapped from the request are
+ * kept. The lane routing key is not applied: messages go to the target's default queue.
+ * <p>
+ * Commands and queries wait for a reply and cannot go through the outbox.
+ */
+public class OutboxTemplateProxy implements TemplateProxy {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxTemplateProxy.class);
+
+    private final RabbitTemplateProxy rabbitTemplateProxy;
+    private final MessageConverter messageConverter;
+    private final OutboxStore store;
+    private final PartitionKeys partitionKeys;
+
+    public OutboxTemplateProxy(RabbitTemplateProxy rabbitTemplateProxy, MessageConverter messageConverter,
+                               OutboxStore store, MessageDispatcherProperties properties) {
+        this.rabbitTemplateProxy = rabbitTemplateProxy;
+        this.messageConverter = messageConverter;
+        this.store = store;
+        this.partitionKeys = new PartitionKeys(properties);
+    }
+
+    @Override
+    public <T> T convertSendAndReceive(String exchange, String routingKey, Object body, Class<T> responseClass,
+                                       HandlerType handlerType) {
+        throw new MessagePublisherException("Mensagens " + handlerType + " aguardam resposta e não podem ser "
+                + "publicadas pelo outbox", null);
+    }
+
+    @Override
+    public void convertAndSend(String exchange, String routingKey, Object body, HandlerType handlerType) {
+        convertAndSend(exchange, routingKey, body, handlerType, SendOptions.NONE);
+    }
+
+    @Override
+    public void convertAndSend(String exchange, String routingKey, Object body, HandlerType handlerType,
+                               SendOptions options) {
+        var partitionedRoutingKey = partitionKeys.routingKey(exchange, routingKey, body, options);
+        var message = messageConverter.toMessage(body, new MessageProperties());
+        rabbitTemplateProxy.setMessageHeaders(body, message, handlerType, options, exchange, partitionedRoutingKey);
+
+        var messageProperties = message.getMessageProperties();
+        var key = PartitionKeys.keyOf(body, options);
+        var record = new OutboxRecord(UUID.randomUUID().toString(),
+                exchange,
+                partitionedRoutingKey,
+                headers(messageProperties),
+                messageProperties.getContentType(),
+                messageProperties.getPriority(),
+                new String(message.getBody(), StandardCharsets.UTF_8),
+                (key != null ? key : routingKey).hashCode() & Integer.MAX_VALUE);
+        store.insert(record);
+
+        if (log.isDebugEnabled()) {
+            log.debug("Mensagem {} gravada no outbox {} para a exchange {} e routing key {}",
+                    body.getClass().getSimpleName(), record.id(), exchange, partitionedRoutingKey);
+        }
+    }
+
+    /**
+     * Headers como são enviados ao broker: tipos que o AMQP não representa seguem como texto.
+     * <p>
+     * Headers as sent to the broker: types AMQP cannot represent are sent as text.
+     */
+    private static Map<String, Object> headers(MessageProperties messageProperties) {
+        var headers = new LinkedHashMap<String, Object>();
+        messageProperties.getHeaders().forEach((name, value) -> {
+            if (value != null && !"__TypeId__".equals(name)) {
+                headers.put(name, value instanceof Number || value instanceof Boolean ? value : value.toString());
+            }
+        });
+        return headers;
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.messagedispatcher.publisher.proxy;
+
+import br.com.messagedispatcher.annotation.PartitionKey;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.Exchange;
+import br.com.messagedispatcher.exceptions.MessagePublisherException;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Aplica a chave de partição nas publicações para a exchange consistent-hash padrão: no header configurado em
+ * {@code hash-header} ou, sem ele, no lugar da routing key, que é o que a exchange usa no hash.
+ * <p>
+ * A chave vem da publicação ({@link SendOptions#partitionKey()}) ou do membro anotado com {@link PartitionKey}. O
+ * membro é procurado uma vez por classe e lido por um {@link MethodHandle} guardado em um {@link ClassValue}, sem
+ * reflexão por mensagem.
+ * <p>
+ * Applies the partition key to publications to the default consistent-hash exchange: on the header configured in
+ * {@code hash-header} or, without it, in place of the routing key, which is what the exchange hashes.
+ * <p>
+ * The key comes from the publication ({@link SendOptions#partitionKey()}) or from the member annotated with
+ * {@link PartitionKey}. The member is looked up once per class and read through a {@link MethodHandle} kept in a
+ * {@link ClassValue}, with no per-message reflection.
+ */
+final class PartitionKeys {
+
+    static final String HASH_HEADER = "hash-header";
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<MethodHandle> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            return accessorOf(type);
+        }
+    };
+
+    private final boolean enabled;
+    private final String exchangeName;
+    private final String hashHeader;
+
+    PartitionKeys(MessageDispatcherProperties properties) {
+        var arguments = properties.getExchangeConsistentHashArguments();
+        this.enabled = properties.getExchangeType() == Exchange.CONSISTENT_HASH;
+        this.exchangeName = properties.getExchangeName();
+        this.hashHeader = arguments == null || arguments.get(HASH_HEADER) == null
+                ? null
+                : arguments.get(HASH_HEADER).toString();
+    }
+
+    /**
+     * Routing key da publicação: a chave de partição quando a exchange faz o hash da routing key, senão a informada.
+     * <p>
+     * Publishing routing key: the partition key when the exchange hashes the routing key, otherwise the given one.
+     */
+    String routingKey(String exchange, String routingKey, Object body, SendOptions options) {
+        if (hashHeader != null || !appliesTo(exchange)) {
+            return routingKey;
+        }
+        var key = keyOf(body, options);
+        return key == null ? routingKey : key;
+    }
+
+    /**
+     * Grava a chave de partição no header de hash, quando configurado.
+     * <p>
+     * Writes the partition key to the hash header, when configured.
+     */
+    void applyHeader(String exchange, Object body, SendOptions options, MessageProperties messageProperties) {
+        if (hashHeader == null || !appliesTo(exchange)) {
+            return;
+        }
+        var key = keyOf(body, options);
+        if (key != null) {
+            messageProperties.setHeader(hashHeader, key);
+        }
+    }
+
+    /**
+     * Indica se a publicação tem chave de partição, ou seja, se o destino depende do hash da chave.
+     * <p>
+     * Tells whether the publication has a partition key, that is, whether the target depends on the key's hash.
+     */
+    boolean hasKey(String exchange, Object body, SendOptions options) {
+        return appliesTo(exchange) && keyOf(body, options) != null;
+    }
+
+    private boolean appliesTo(String exchange) {
+        return enabled && exchangeName.equals(exchange);
+    }
+
+    static String keyOf(Object body, SendOptions options) {
+        if (options.partitionKey() != null) {
+            return options.partitionKey();
+        }
+        var accessor = ACCESSORS.get(body.getClass());
+        if (accessor == null) {
+            return null;
+        }
+        try {
+            var value = (Object) accessor.invokeExact(body);
+            return value == null ? null : String.valueOf(value);
+        } catch (Throwable e) {
+            throw new MessagePublisherException("Erro ao ler a @PartitionKey de " + body.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static MethodHandle accessorOf(Class<?> type) {
+        Field annotated = null;
+        for (var current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (var field : current.getDeclaredFields()) {
+                if (field.isAnnotationPresent(PartitionKey.class) && !Modifier.isStatic(field.getModifiers())) {
+                    if (annotated != null) {
+                        throw new MessagePublisherException("Apenas um membro de " + type.getSimpleName()
+                                + " pode ter @PartitionKey: " + annotated.getName() + " e " + field.getName(), null);
+                    }
+                    annotated = field;
+                }
+            }
+        }
+        if (annotated == null) {
+            return null;
+        }
+        try {
+            var lookup = MethodHandles.privateLookupIn(annotated.getDeclaringClass(), MethodHandles.lookup());
+            return lookup.unreflectGetter(annotated).asType(GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new MessagePublisherException("Sem acesso à @PartitionKey " + annotated.getName() + " de "
+                    + type.getSimpleName() + "; abra o pacote para o message-dispatcher", e);
+        }
+    }
+}
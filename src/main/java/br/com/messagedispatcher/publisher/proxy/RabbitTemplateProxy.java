@@ -1,31 +1,40 @@
 package br.com.messagedispatcher.publisher.proxy;
 
+import br.com.messagedispatcher.annotation.MessagePriority;
 import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
 import br.com.messagedispatcher.exceptions.MessageDispatcherNoRemoteResponseException;
 import br.com.messagedispatcher.exceptions.MessageDispatcherRemoteResultException;
 import br.com.messagedispatcher.exceptions.MessagePublisherException;
 import br.com.messagedispatcher.exceptions.MessagePublisherTimeOutException;
+import br.com.messagedispatcher.lane.HandlerLanes;
 import br.com.messagedispatcher.model.MessageDispatcherRemoteInvocationResult;
-import br.com.messagedispatcher.util.MessageDispatcherUtils;
-import br.com.messagedispatcher.util.httpservlet.RequestContextUtil;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.AmqpRemoteException;
+import org.springframework.amqp.core.AmqpMessageReturnedException;
 import org.springframework.amqp.core.AmqpReplyTimeoutException;
 import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
-import java.time.OffsetDateTime;
-import java.util.Arrays;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
-import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.*;
-import static java.util.Objects.nonNull;
 
 /**
  * Classe de proxy para o {@link RabbitTemplate} com métodos prontos
@@ -37,6 +46,20 @@ import static java.util.Objects.nonNull;
  * for sending messages. The headers defined in the property
  * message.dispatcher.mapped.headers are automatically injected into the headers
  * of the message being published.
+ * <p>
+ * Mensagens com lane são publicadas com a routing key da lane. Se o broker devolver a mensagem por não haver fila
+ * ligada a essa routing key (o destino não tem a lane), ela é reenviada com a routing key original, em uma thread do
+ * próprio proxy, e a confirmação do reenvio é verificada, com as falhas registradas em log.
+ * <p>
+ * Messages with a lane are published with the lane routing key. If the broker returns the message because no queue is
+ * bound to that routing key (the target has no such lane), it is resent with the original routing key, on a thread of
+ * the proxy itself, and the resend's confirm is checked and any failure is logged.
+ * <p>
+ * Na exchange consistent-hash padrão, a chave de partição ({@link PartitionKeys}) substitui a routing key ou vai no
+ * header de hash.
+ * <p>
+ * On the default consistent-hash exchange, the partition key ({@link PartitionKeys}) replaces the routing key or goes
+ * in the hash header.
  *
  * @author Cleber Souza
  * @version 1.0
@@ -44,35 +67,73 @@ import static java.util.Objects.nonNull;
  */
 @SuppressWarnings("unused")
 @Component
-public class RabbitTemplateProxy implements TemplateProxy {
+public class RabbitTemplateProxy implements TemplateProxy, DisposableBean {
 
     private static final Logger log = LoggerFactory.getLogger(RabbitTemplateProxy.class);
 
     private final RabbitTemplate rabbitTemplate;
     private final ObjectMapper objectMapper;
     private final MessageDispatcherProperties properties;
+    private final HandlerLanes lanes;
+    private final PartitionKeys partitionKeys;
+    private final ExecutorService resendExecutor;
 
 
-    public RabbitTemplateProxy(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper, MessageDispatcherProperties properties) {
+    public RabbitTemplateProxy(RabbitTemplate rabbitTemplate, ObjectMapper objectMapper, MessageDispatcherProperties properties,
+                               HandlerLanes lanes) {
         this.rabbitTemplate = rabbitTemplate;
         this.objectMapper = objectMapper;
         this.properties = properties;
+        this.lanes = lanes;
+        this.partitionKeys = new PartitionKeys(properties);
+        this.resendExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "message-dispatcher-lane-resend");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
     public <T> T convertSendAndReceive(final String exchange, final String routingKey, final Object body, final Class<T> responseClass,
                                        HandlerType handlerType) {
-        return this.sendAndReceive(exchange, routingKey, body, responseClass, handlerType);
+        return this.sendAndReceive(exchange, routingKey, body, responseClass, handlerType, SendOptions.NONE);
     }
 
     @Override
     public void convertAndSend(final String exchange, final String routingKey, final Object body, HandlerType handlerType) {
-        this.send(exchange, routingKey, body, handlerType);
+        this.send(exchange, routingKey, body, handlerType, SendOptions.NONE);
+    }
+
+    @Override
+    public <T> T convertSendAndReceive(final String exchange, final String routingKey, final Object body, final Class<T> responseClass,
+                                       HandlerType handlerType, SendOptions options) {
+        return this.sendAndReceive(exchange, routingKey, body, responseClass, handlerType, options);
+    }
+
+    @Override
+    public void convertAndSend(final String exchange, final String routingKey, final Object body, HandlerType handlerType,
+                               SendOptions options) {
+        this.send(exchange, routingKey, body, handlerType, options);
     }
 
 
-    private <T> T sendAndReceive(final String exchange, final String routingKey, final Object body, final Class<T> responseClass,
-                                 HandlerType handlerType) {
+    private <T> T sendAndReceive(final String exchange, final String baseRoutingKey, final Object body, final Class<T> responseClass,
+                                 HandlerType handlerType, SendOptions options) {
+        var routingKey = partitionKeys.routingKey(exchange, baseRoutingKey, body, options);
+        var laneRoutingKey = lanes.routingKey(exchange, routingKey, handlerType, body);
+        if (laneRoutingKey.equals(routingKey)) {
+            return doSendAndReceive(exchange, routingKey, body, responseClass, handlerType, options);
+        }
+        try {
+            return doSendAndReceive(exchange, laneRoutingKey, body, responseClass, handlerType, options);
+        } catch (AmqpMessageReturnedException e) {
+            log.debug("Mensagem devolvida pela routing key {}, reenviando pela routing key {}", laneRoutingKey, routingKey);
+            return doSendAndReceive(exchange, routingKey, body, responseClass, handlerType, options);
+        }
+    }
+
+    private <T> T doSendAndReceive(final String exchange, final String routingKey, final Object body, final Class<T> responseClass,
+                                   HandlerType handlerType, SendOptions options) {
         try {
 
             var response = Optional.ofNullable(
@@ -80,7 +141,7 @@ public class RabbitTemplateProxy implements TemplateProxy {
                             routingKey,
                             body,
                             message ->
-                                    setMessageHeaders(body, message, handlerType, exchange, routingKey)));
+                                    setMessageHeaders(body, message, handlerType, options, exchange, routingKey)));
 
             var remoteInvocationResult = objectMapper
                     .convertValue(response.orElseThrow(() ->
@@ -102,30 +163,131 @@ public class RabbitTemplateProxy implements TemplateProxy {
         }
     }
 
-    private void send(final String exchange, final String routingKey, final Object body, HandlerType handlerType) {
+    @Override
+    public void convertAndSendAll(final String exchange, final String routingKey, final Collection<?> bodies,
+                                  HandlerType handlerType, SendOptions options) {
+        // O canal fica preso à thread durante o invoke, então o lote não volta ao cache a cada mensagem
+        rabbitTemplate.invoke(operations -> {
+            bodies.forEach(body -> this.send(exchange, routingKey, body, handlerType, options));
+            return null;
+        });
+    }
+
+    /**
+     * Publica o lote em ordem em um único canal e aguarda as confirmações do broker de todas as mensagens. Cada mensagem
+     * recebe a chave de partição e a prioridade como em {@link #convertAndSend(String, String, Object, HandlerType,
+     * SendOptions)}; as routing keys de lane não são aplicadas, pois uma devolução não seria reenviada.
+     * <p>
+     * Publishes the batch in order on a single channel and waits for the broker confirms of every message. Each message
+     * gets the partition key and the priority as in {@link #convertAndSend(String, String, Object, HandlerType,
+     * SendOptions)}; lane routing keys are not applied, since a returned message would not be resent.
+     *
+     * @throws MessagePublisherException se alguma mensagem for recusada ou não confirmada no tempo
+     *                                   / if any message is nacked or not confirmed in time
+     */
+    public void convertAndSendConfirmed(final String exchange, final String baseRoutingKey, final List<?> bodies,
+                                        HandlerType handlerType, SendOptions options, Duration confirmTimeout) {
+        var correlations = new ArrayList<CorrelationData>(bodies.size());
+        rabbitTemplate.invoke(operations -> {
+            for (var body : bodies) {
+                var routingKey = partitionKeys.routingKey(exchange, baseRoutingKey, body, options);
+                var correlationData = new CorrelationData();
+                rabbitTemplate.convertAndSend(exchange,
+                        routingKey,
+                        body,
+                        message ->
+                                setMessageHeaders(body, message, handlerType, options, exchange, routingKey),
+                        correlationData);
+                correlations.add(correlationData);
+            }
+            return null;
+        });
+
+        var deadline = System.nanoTime() + confirmTimeout.toNanos();
+        for (var correlationData : correlations) {
+            try {
+                var confirm = correlationData.getFuture()
+                        .get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                if (!confirm.isAck()) {
+                    throw new MessagePublisherException("Mensagem recusada pelo broker: " + confirm.getReason(), null);
+                }
+            } catch (TimeoutException e) {
+                throw new MessagePublisherException("Confirmações do lote não recebidas em " + confirmTimeout, e);
+            } catch (ExecutionException e) {
+                throw new MessagePublisherException("Falha na confirmação do lote.", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MessagePublisherException("Interrompido aguardando as confirmações do lote.", e);
+            }
+        }
+    }
+
+    private void send(final String exchange, final String baseRoutingKey, final Object body, HandlerType handlerType,
+                      SendOptions options) {
+        var routingKey = partitionKeys.routingKey(exchange, baseRoutingKey, body, options);
+        var laneRoutingKey = lanes.routingKey(exchange, routingKey, handlerType, body);
+        if (laneRoutingKey.equals(routingKey)) {
+            rabbitTemplate.convertAndSend(exchange,
+                    routingKey,
+                    body,
+                    message ->
+                            setMessageHeaders(body, message, handlerType, options, exchange, routingKey));
+            return;
+        }
+
+        var correlationData = new CorrelationData();
         rabbitTemplate.convertAndSend(exchange,
-                routingKey,
+                laneRoutingKey,
                 body,
                 message ->
-                        setMessageHeaders(body, message, handlerType, exchange, routingKey));
+                        setMessageHeaders(body, message, handlerType, options, exchange, laneRoutingKey),
+                correlationData);
+        // A devolução chega antes da confirmação; o reenvio sai da thread da conexão, onde o template não deve ser usado
+        correlationData.getFuture().whenCompleteAsync((confirm, error) -> {
+            var returned = correlationData.getReturned();
+            if (returned != null) {
+                resend(exchange, laneRoutingKey, routingKey, returned.getMessage());
+            } else if (error != null) {
+                log.error("Falha na confirmação da mensagem publicada pela routing key {}", laneRoutingKey, error);
+            } else if (!confirm.isAck()) {
+                log.error("Mensagem recusada pelo broker na routing key {}: {}", laneRoutingKey, confirm.getReason());
+            }
+        }, resendExecutor);
     }
 
-    private Message setMessageHeaders(final Object body, final Message message, final HandlerType handlerType,
-                                      final String exchange, final String routingKey) {
-
-        var messageProperties = message.getMessageProperties();
-        messageProperties.setHeader(MESSAGE_TIMESTAMP.getHeaderName(), OffsetDateTime.now());
-        messageProperties.setHeader(BODY_TYPE.getHeaderName(), body.getClass().getSimpleName());
-        messageProperties.setHeader(HANDLER_TYPE.getHeaderName(), handlerType);
-        messageProperties.setHeader(MESSAGE_SOURCE.getHeaderName(), MessageDispatcherUtils.getAppName());
-
-        if (nonNull(properties.getMappedHeaders())) {
-            Arrays.stream(properties.getMappedHeaders())
-                    .forEach(mappedHeader ->
-                            RequestContextUtil.getHeader(mappedHeader)
-                                    .ifPresent(headerValue ->
-                                            messageProperties.setHeader(mappedHeader, headerValue)));
+    private void resend(final String exchange, final String laneRoutingKey, final String routingKey, final Message message) {
+        log.debug("Mensagem devolvida pela routing key {}, reenviando pela routing key {}", laneRoutingKey, routingKey);
+        var correlationData = new CorrelationData();
+        try {
+            rabbitTemplate.send(exchange, routingKey, message, correlationData);
+        } catch (AmqpException e) {
+            log.error("Falha ao reenviar pela routing key {} a mensagem devolvida pela routing key {}", routingKey,
+                    laneRoutingKey, e);
+            return;
         }
+        correlationData.getFuture().whenComplete((confirm, error) -> {
+            if (error != null) {
+                log.error("Falha na confirmação do reenvio pela routing key {}", routingKey, error);
+            } else if (correlationData.getReturned() != null) {
+                log.error("Mensagem devolvida também pela routing key {}: {}", routingKey,
+                        correlationData.getReturned().getReplyText());
+            } else if (!confirm.isAck()) {
+                log.error("Reenvio recusado pelo broker na routing key {}: {}", routingKey, confirm.getReason());
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        resendExecutor.shutdown();
+    }
+
+    Message setMessageHeaders(final Object body, final Message message, final HandlerType handlerType,
+                              final SendOptions options, final String exchange, final String routingKey) {
+
+        MessageHeadersUtil.applyHeaders(body, message.getMessageProperties(), handlerType, properties.getMappedHeaders());
+        message.getMessageProperties().setPriority(priorityOf(body, handlerType, options.priority()));
+        partitionKeys.applyHeader(exchange, body, options, message.getMessageProperties());
 
         if (log.isDebugEnabled()) {
             logMessageToSend(body, message, exchange, routingKey);
@@ -134,6 +296,28 @@ public class RabbitTemplateProxy implements TemplateProxy {
         return message;
     }
 
+    /**
+     * Prioridade da chamada, senão a do payload ({@link MessagePriority}), senão a do tipo de handler; {@code null}
+     * publica sem prioridade.
+     * <p>
+     * Priority of the call, otherwise that of the payload ({@link MessagePriority}), otherwise that of the handler type;
+     * {@code null} publishes without priority.
+     */
+    private Integer priorityOf(final Object body, final HandlerType handlerType, final Integer priority) {
+        if (priority != null) {
+            return priority;
+        }
+        var annotation = body.getClass().getAnnotation(MessagePriority.class);
+        if (annotation != null) {
+            if (annotation.value() < 0 || annotation.value() > 255) {
+                throw new IllegalArgumentException("@MessagePriority de " + body.getClass().getSimpleName()
+                        + " deve estar entre 0 e 255: " + annotation.value());
+            }
+            return annotation.value();
+        }
+        return properties.getDefaultPriorities().get(handlerType);
+    }
+
     private void logMessageToSend(Object body, Message message, String exchange, String routingKey) {
         try {
             log.debug("""
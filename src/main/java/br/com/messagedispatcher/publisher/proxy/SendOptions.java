@@ -0,0 +1,23 @@
+package br.com.messagedispatcher.publisher.proxy;
+
+/**
+ * Opções de uma publicação que sobrepõem as do payload e da configuração; campos nulos não sobrepõem nada.
+ * <p>
+ * Options of a single publication that override those of the payload and the configuration; null fields override
+ * nothing.
+ *
+ * @param priority     prioridade da mensagem, de 0 a 255 / message priority, from 0 to 255
+ * @param partitionKey chave de hash na exchange consistent-hash / hash key on the consistent-hash exchange
+ */
+public record SendOptions(Integer priority, String partitionKey) {
+
+    public static final SendOptions NONE = new SendOptions(null, null);
+
+    public SendOptions withPriority(int priority) {
+        return new SendOptions(priority, partitionKey);
+    }
+
+    public SendOptions withPartitionKey(String partitionKey) {
+        return new SendOptions(priority, partitionKey);
+    }
+}
@@ -1,5 +1,7 @@
 package br.com.messagedispatcher.publisher.proxy;
 
+import java.util.Collection;
+
 import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
 
 public interface TemplateProxy {
@@ -30,4 +32,47 @@ public interface TemplateProxy {
      * @param body       - corpo da mensagem
      */
     void convertAndSend(String exchange, String routingKey, Object body, HandlerType handlerType);
+
+    /**
+     * Como {@link #convertSendAndReceive(String, String, Object, Class, HandlerType)}, com as opções informadas.
+     * Proxies que não suportam uma opção a ignoram.
+     * <p>
+     * Like {@link #convertSendAndReceive(String, String, Object, Class, HandlerType)}, with the given options. Proxies
+     * that do not support an option ignore it.
+     *
+     * @param options - prioridade e chave de partição da publicação
+     */
+    default <T> T convertSendAndReceive(String exchange, String routingKey, Object body, Class<T> responseClass,
+                                        HandlerType handlerType, SendOptions options) {
+        return convertSendAndReceive(exchange, routingKey, body, responseClass, handlerType);
+    }
+
+    /**
+     * Como {@link #convertAndSend(String, String, Object, HandlerType)}, com as opções informadas. Proxies que não
+     * suportam uma opção a ignoram.
+     * <p>
+     * Like {@link #convertAndSend(String, String, Object, HandlerType)}, with the given options. Proxies that do not
+     * support an option ignore it.
+     *
+     * @param options - prioridade e chave de partição da publicação
+     */
+    default void convertAndSend(String exchange, String routingKey, Object body, HandlerType handlerType,
+                                SendOptions options) {
+        convertAndSend(exchange, routingKey, body, handlerType);
+    }
+
+    /**
+     * Publica as mensagens em ordem, sem esperar por respostas. Proxies que publicam no broker usam um único canal
+     * para o lote.
+     * <p>
+     * Publishes the messages in order, without waiting for responses. Proxies that publish to the broker use a single
+     * channel for the batch.
+     *
+     * @param bodies  - corpos das mensagens
+     * @param options - prioridade e chave de partição da publicação
+     */
+    default void convertAndSendAll(String exchange, String routingKey, Collection<?> bodies, HandlerType handlerType,
+                                   SendOptions options) {
+        bodies.forEach(body -> convertAndSend(exchange, routingKey, body, handlerType, options));
+    }
 }
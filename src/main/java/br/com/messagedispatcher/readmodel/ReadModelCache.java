@@ -0,0 +1,537 @@
+package br.com.messagedispatcher.readmodel;
+
+import br.com.messagedispatcher.config.properties.ReadModelProperties.ReadModel;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.ReadModelStorage;
+import br.com.messagedispatcher.exceptions.MessageDispatcherRuntimeException;
+import br.com.messagedispatcher.model.EntityDelta;
+import br.com.messagedispatcher.publisher.MessagePublisher;
+import br.com.messagedispatcher.util.factory.ExchangeFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Exchange;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionListener;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.BODY_TYPE;
+
+/**
+ * Réplica local das entidades de outro serviço, alimentada pelos eventos de entidade dele. Cada instância consome uma
+ * fila própria, não durável e removida quando o consumidor sai, ligada à exchange de eventos do serviço dono; eventos
+ * com a entidade inteira substituem a entrada e deltas são aplicados sobre a entrada existente. As leituras são locais;
+ * sem entrada, a leitura cai em um {@code doQuery} ao serviço dono e guarda a resposta.
+ * <p>
+ * Cada entrada guarda a versão da entidade ({@code versionProperty}): eventos e deltas com versão anterior à da entrada
+ * são descartados. Um delta sem entrada, recebido enquanto um {@code doQuery} ou o bootstrap carrega a mesma entidade,
+ * deixa uma marca de invalidação com a sua versão, e o resultado da carga só é guardado se tiver versão igual ou
+ * maior; sem versão para comparar, não é guardado.
+ * <p>
+ * O mapa é limitado a {@code maxEntries}, com remoção por segunda chance (CLOCK): a leitura apenas marca a entrada,
+ * sem lock, e a remoção poupa uma vez as entradas marcadas. Quando a conexão cai, a fila é removida pelo broker e os
+ * eventos do intervalo são perdidos, então a réplica é esvaziada na reconexão e o bootstrap, se houver, roda de novo.
+ * <p>
+ * Local replica of another service's entities, fed by its entity events. Every instance consumes a queue of its own,
+ * non-durable and deleted when the consumer leaves, bound to the owning service's events exchange; events with the
+ * whole entity replace the entry and deltas are applied over the existing entry. Reads are local; without an entry, a
+ * read falls back to a {@code doQuery} to the owning service and keeps the response.
+ * <p>
+ * Every entry keeps the entity version ({@code versionProperty}): events and deltas older than the entry are discarded.
+ * A delta without an entry, received while a {@code doQuery} or the bootstrap loads the same entity, leaves an
+ * invalidation marker with its version, and the loaded result is only kept if its version is the same or higher;
+ * without a version to compare, it is not kept.
+ * <p>
+ * The map is bounded to {@code maxEntries}, with second-chance (CLOCK) eviction: a read only marks the entry, without a
+ * lock, and eviction spares marked entries once. When the connection drops, the broker deletes the queue and the
+ * events in between are lost, so the replica is emptied on reconnection and the bootstrap, if any, runs again.
+ */
+public class ReadModelCache<T> implements MessageListener, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadModelCache.class);
+    private static final String DELTA_TYPE = EntityDelta.class.getSimpleName();
+
+    private final String name;
+    private final Class<T> type;
+    private final ReadModel settings;
+    private final Function<Object, ?> query;
+    private final Supplier<? extends Collection<? extends T>> bootstrap;
+    private final MessagePublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final ConnectionFactory connectionFactory;
+    private final AmqpAdmin amqpAdmin;
+    private final Exchange exchange;
+    private final Queue queue;
+    private final List<Binding> bindings;
+    private final ConnectionListener reconnectListener = this::connectionCreated;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Integer> loading = new ConcurrentHashMap<>();
+    private final Map<String, JsonNode> invalidated = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<String> clock = new ConcurrentLinkedQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder events = new LongAdder();
+
+    private SimpleMessageListenerContainer container;
+    private volatile boolean running;
+    private volatile boolean bootstrapping;
+
+    ReadModelCache(String name, Class<T> type, ReadModel settings, String queueName, Function<Object, ?> query,
+                   Supplier<? extends Collection<? extends T>> bootstrap, MessagePublisher publisher,
+                   ObjectMapper objectMapper, ConnectionFactory connectionFactory, AmqpAdmin amqpAdmin) {
+        this.name = name;
+        this.type = type;
+        this.settings = settings;
+        this.query = query;
+        this.bootstrap = bootstrap;
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.connectionFactory = connectionFactory;
+        this.amqpAdmin = amqpAdmin;
+        this.exchange = ExchangeFactory.buildExchange(settings.getExchange(), true, settings.getExchangeType(), null);
+        this.queue = QueueBuilder.nonDurable(queueName).autoDelete().build();
+        this.bindings = settings.getBindingKeys().stream()
+                .map(bindingKey -> BindingBuilder.bind(queue).to(exchange).with(bindingKey).noargs())
+                .toList();
+    }
+
+    /**
+     * Entidade pelo id, da réplica local ou, sem entrada, do serviço dono por {@code doQuery}.
+     * <p>
+     * Entity by id, from the local replica or, without an entry, from the owning service through {@code doQuery}.
+     *
+     * @return a entidade, ou {@code null} quando não existe ou não há doQuery configurado
+     * / the entity, or {@code null} when it does not exist or no doQuery is configured
+     */
+    public T get(Object id) {
+        var value = getIfPresent(id);
+        if (value != null || query == null || settings.getQueryRoutingKey() == null) {
+            return value;
+        }
+        var key = key(id);
+        var body = query.apply(id);
+        loading.merge(key, 1, Integer::sum);
+        try {
+            var loaded = settings.getQueryExchange() == null
+                    ? publisher.doQuery(settings.getQueryRoutingKey(), body, type)
+                    : publisher.doQuery(settings.getQueryExchange(), settings.getQueryRoutingKey(), body, type);
+            if (loaded != null) {
+                // Um evento recebido durante o doQuery é mais novo que a resposta e prevalece
+                load(key, loaded, objectMapper.valueToTree(loaded));
+            }
+            return loaded;
+        } finally {
+            if (loading.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1) == null && !bootstrapping) {
+                invalidated.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Entidade pelo id somente da réplica local.
+     * <p>
+     * Entity by id from the local replica only.
+     */
+    public T getIfPresent(Object id) {
+        var entry = id == null ? null : entries.get(key(id));
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        hits.increment();
+        return decode(entry.value);
+    }
+
+    /**
+     * Adiciona as entidades que ainda não têm entrada, sem substituir as recebidas por eventos.
+     * <p>
+     * Adds the entities that have no entry yet, without replacing the ones received through events.
+     */
+    public void load(Collection<? extends T> values) {
+        var idProperty = settings.getIdProperty();
+        for (var value : values) {
+            JsonNode tree = objectMapper.valueToTree(value);
+            var id = tree.get(idProperty);
+            if (id != null && id.isValueNode()) {
+                load(id.asText(), value, tree);
+            }
+        }
+    }
+
+    public void clear() {
+        String key;
+        while ((key = clock.poll()) != null) {
+            entries.remove(key);
+        }
+        invalidated.clear();
+    }
+
+    @Override
+    public void onMessage(Message message) {
+        events.increment();
+        try {
+            var node = objectMapper.readTree(message.getBody());
+            if (DELTA_TYPE.equals(message.getMessageProperties().getHeader(BODY_TYPE.getHeaderName()))) {
+                applyDelta(node);
+            } else {
+                var id = node.get(settings.getIdProperty());
+                if (id == null || !id.isValueNode()) {
+                    log.debug("Evento sem {} ignorado no read model {}", settings.getIdProperty(), name);
+                    return;
+                }
+                store(id.asText(), encode(node), version(node));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Evento ignorado no read model {}: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica as alterações do delta sobre a entrada local, se o delta for mais novo que ela. Sem entrada o delta é
+     * ignorado e a próxima leitura busca a entidade no serviço dono; com uma carga da entidade em andamento, fica a
+     * marca de invalidação. Se o resultado não converte para o tipo, a entrada é removida.
+     * <p>
+     * Applies the delta changes over the local entry, if the delta is newer than it. Without an entry the delta is
+     * ignored and the next read fetches the entity from the owning service; with a load of the entity in progress, the
+     * invalidation marker is left. If the result does not convert to the type, the entry is removed.
+     */
+    private void applyDelta(JsonNode delta) {
+        var id = delta.get("id");
+        if (id == null || !id.isValueNode()) {
+            return;
+        }
+        var version = present(delta.get("version"));
+        entries.compute(id.asText(), (key, entry) -> {
+            if (entry == null) {
+                if (bootstrapping || loading.containsKey(key)) {
+                    // Sem versão, a marca descarta qualquer carga em andamento
+                    invalidated.merge(key, version == null ? NullNode.getInstance() : version,
+                            (current, next) -> current.isNull() || next.isNull() ? NullNode.getInstance()
+                                    : newer(next, current) ? next : current);
+                }
+                return null;
+            }
+            if (version != null && entry.version != null && !newer(version, entry.version)) {
+                return entry;
+            }
+            var changes = delta.get("changes");
+            var current = tree(entry.value);
+            if (current instanceof ObjectNode object) {
+                if (changes != null) {
+                    changes.properties().forEach(change -> object.set(change.getKey(), change.getValue()));
+                }
+                if (version != null && object.has(settings.getVersionProperty())) {
+                    object.set(settings.getVersionProperty(), version);
+                }
+            }
+            try {
+                entry.value = encode(current);
+                if (version != null) {
+                    entry.version = version;
+                }
+                return entry;
+            } catch (RuntimeException e) {
+                log.debug("Delta não aplicável no read model {}, entrada {} removida: {}", name, key, e.getMessage());
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Guarda o estado recebido por evento, a menos que a entrada tenha versão mais nova.
+     * <p>
+     * Stores the state received through an event, unless the entry has a newer version.
+     */
+    private void store(String key, Object value, JsonNode version) {
+        var added = new boolean[1];
+        entries.compute(key, (k, entry) -> {
+            if (entry == null) {
+                added[0] = true;
+                return new Entry(value, version);
+            }
+            if (version == null || entry.version == null || !newer(entry.version, version)) {
+                entry.value = value;
+                entry.version = version;
+            }
+            return entry;
+        });
+        added(key, added[0]);
+    }
+
+    /**
+     * Guarda o estado carregado por {@code doQuery} ou bootstrap somente sem entrada, ou sobre uma entrada de versão
+     * anterior, e nunca abaixo da versão de um delta recebido durante a carga.
+     * <p>
+     * Stores the state loaded through {@code doQuery} or bootstrap only without an entry, or over an entry with an
+     * older version, and never below the version of a delta received during the load.
+     */
+    private void load(String key, T value, JsonNode tree) {
+        var version = present(tree.get(settings.getVersionProperty()));
+        var added = new boolean[1];
+        entries.compute(key, (k, entry) -> {
+            if (entry != null) {
+                if (version != null && entry.version != null && newer(version, entry.version)) {
+                    entry.value = encode(value);
+                    entry.version = version;
+                }
+                return entry;
+            }
+            var invalidation = invalidated.get(key);
+            if (invalidation != null && (version == null || invalidation.isNull() || newer(invalidation, version))) {
+                log.debug("Carga da entrada {} descartada no read model {}: um delta mais novo chegou durante a carga",
+                        key, name);
+                return null;
+            }
+            added[0] = true;
+            return new Entry(encode(value), version);
+        });
+        added(key, added[0]);
+    }
+
+    private void added(String key, boolean added) {
+        if (added) {
+            clock.offer(key);
+            evict();
+        }
+    }
+
+    private JsonNode version(JsonNode node) {
+        return present(node.get(settings.getVersionProperty()));
+    }
+
+    private static JsonNode present(JsonNode node) {
+        return node == null || node.isNull() || !node.isValueNode() ? null : node;
+    }
+
+    /**
+     * Versões numéricas são comparadas pelo valor; as demais, como timestamps ISO, pelo texto.
+     * <p>
+     * Numeric versions are compared by value; the others, such as ISO timestamps, by text.
+     */
+    private static boolean newer(JsonNode version, JsonNode than) {
+        if (version.isNumber() && than.isNumber()) {
+            return version.decimalValue().compareTo(than.decimalValue()) > 0;
+        }
+        return version.asText().compareTo(than.asText()) > 0;
+    }
+
+    /**
+     * Remove entradas até caber em {@code maxEntries}. Entradas lidas desde a última passagem perdem a marca e voltam
+     * ao fim da fila, então a remoção termina em no máximo duas voltas.
+     * <p>
+     * Removes entries until it fits {@code maxEntries}. Entries read since the last pass lose the mark and go back to
+     * the end of the queue, so eviction ends in at most two rounds.
+     */
+    private void evict() {
+        while (entries.size() > settings.getMaxEntries()) {
+            var key = clock.poll();
+            if (key == null) {
+                return;
+            }
+            var entry = entries.get(key);
+            if (entry == null) {
+                continue;
+            }
+            if (entry.referenced) {
+                entry.referenced = false;
+                clock.offer(key);
+            } else {
+                entries.remove(key, entry);
+            }
+        }
+    }
+
+    private Object encode(JsonNode node) {
+        try {
+            if (settings.getStorage() == ReadModelStorage.OFF_HEAP) {
+                return offHeap(objectMapper.writeValueAsBytes(node));
+            }
+            return objectMapper.treeToValue(node, type);
+        } catch (IOException e) {
+            throw new MessageDispatcherRuntimeException("Não foi possível converter a entrada do read model " + name, e);
+        }
+    }
+
+    private Object encode(T value) {
+        if (settings.getStorage() != ReadModelStorage.OFF_HEAP) {
+            return value;
+        }
+        try {
+            return offHeap(objectMapper.writeValueAsBytes(value));
+        } catch (IOException e) {
+            throw new MessageDispatcherRuntimeException("Não foi possível converter a entrada do read model " + name, e);
+        }
+    }
+
+    private static ByteBuffer offHeap(byte[] json) {
+        return ByteBuffer.allocateDirect(json.length).put(json).flip();
+    }
+
+    private T decode(Object value) {
+        if (!(value instanceof ByteBuffer buffer)) {
+            return type.cast(value);
+        }
+        try {
+            return objectMapper.readValue(new ByteBufferBackedInputStream(buffer.duplicate()), type);
+        } catch (IOException e) {
+            throw new MessageDispatcherRuntimeException("Não foi possível ler a entrada do read model " + name, e);
+        }
+    }
+
+    private JsonNode tree(Object value) {
+        if (!(value instanceof ByteBuffer buffer)) {
+            return objectMapper.valueToTree(value);
+        }
+        try {
+            return objectMapper.readTree(new ByteBufferBackedInputStream(buffer.duplicate()));
+        } catch (IOException e) {
+            throw new MessageDispatcherRuntimeException("Não foi possível ler a entrada do read model " + name, e);
+        }
+    }
+
+    private static String key(Object id) {
+        return String.valueOf(id);
+    }
+
+    @Override
+    public synchronized void start() {
+        declare();
+        container = new SimpleMessageListenerContainer(connectionFactory);
+        container.setQueueNames(queue.getName());
+        container.setMessageListener(this);
+        // Um consumidor, para aplicar os eventos na ordem em que foram publicados
+        container.setConcurrentConsumers(1);
+        container.setPrefetchCount(settings.getPrefetchCount());
+        container.setDefaultRequeueRejected(false);
+        container.setMissingQueuesFatal(false);
+        container.setConsumerTagStrategy(queueName -> queueName + "-consumer");
+        container.afterPropertiesSet();
+        container.start();
+        connectionFactory.addConnectionListener(reconnectListener);
+        running = true;
+        log.info("Read model {} consumindo {} na exchange {} com as binding keys {}", name, queue.getName(),
+                exchange.getName(), settings.getBindingKeys());
+        runBootstrap();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        connectionFactory.removeConnectionListener(reconnectListener);
+        if (container != null) {
+            container.stop();
+            container = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void declare() {
+        amqpAdmin.declareExchange(exchange);
+        amqpAdmin.declareQueue(queue);
+        bindings.forEach(amqpAdmin::declareBinding);
+    }
+
+    /**
+     * Nova conexão: a fila anterior foi removida com o consumidor, então é declarada de novo e a réplica, que perdeu
+     * os eventos do intervalo, é esvaziada.
+     * <p>
+     * New connection: the previous queue was deleted along with the consumer, so it is declared again and the replica,
+     * which missed the events in between, is emptied.
+     */
+    private void connectionCreated(Connection connection) {
+        if (!running) {
+            return;
+        }
+        declare();
+        clear();
+        log.info("Read model {} esvaziado após reconexão", name);
+        runBootstrap();
+    }
+
+    private void runBootstrap() {
+        if (bootstrap == null) {
+            return;
+        }
+        var thread = new Thread(() -> {
+            bootstrapping = true;
+            try {
+                var values = bootstrap.get();
+                load(values);
+                log.info("Read model {} carregado com {} entidades", name, values.size());
+            } catch (RuntimeException e) {
+                log.warn("Falha no bootstrap do read model {}: {}", name, e.getMessage());
+            } finally {
+                bootstrapping = false;
+                invalidated.keySet().removeIf(key -> !loading.containsKey(key));
+            }
+        }, "message-dispatcher-read-model-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getQueueName() {
+        return queue.getName();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEventCount() {
+        return events.sum();
+    }
+
+    private static final class Entry {
+
+        private volatile Object value;
+        private volatile JsonNode version;
+        private volatile boolean referenced;
+
+        private Entry(Object value, JsonNode version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+}
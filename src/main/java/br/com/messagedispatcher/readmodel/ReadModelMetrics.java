@@ -0,0 +1,36 @@
+package br.com.messagedispatcher.readmodel;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Expõe os read models no Micrometer, com a tag {@code read-model}.
+ * <p>
+ * Exposes the read models through Micrometer, tagged with {@code read-model}.
+ */
+public class ReadModelMetrics {
+
+    public static final String METRIC_PREFIX = "message.dispatcher.read-model";
+
+    public ReadModelMetrics(Iterable<? extends ReadModelCache<?>> caches, MeterRegistry meterRegistry) {
+        for (var cache : caches) {
+            Gauge.builder(METRIC_PREFIX + ".size", cache, ReadModelCache::size)
+                    .description("Entradas na réplica local")
+                    .tag("read-model", cache.getName())
+                    .register(meterRegistry);
+            FunctionCounter.builder(METRIC_PREFIX + ".hits", cache, ReadModelCache::getHitCount)
+                    .description("Leituras atendidas pela réplica local")
+                    .tag("read-model", cache.getName())
+                    .register(meterRegistry);
+            FunctionCounter.builder(METRIC_PREFIX + ".misses", cache, ReadModelCache::getMissCount)
+                    .description("Leituras sem entrada local")
+                    .tag("read-model", cache.getName())
+                    .register(meterRegistry);
+            FunctionCounter.builder(METRIC_PREFIX + ".events", cache, ReadModelCache::getEventCount)
+                    .description("Eventos de entidade recebidos")
+                    .tag("read-model", cache.getName())
+                    .register(meterRegistry);
+        }
+    }
+}
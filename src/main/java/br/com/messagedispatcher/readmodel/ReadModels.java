@@ -0,0 +1,72 @@
+package br.com.messagedispatcher.readmodel;
+
+import br.com.messagedispatcher.config.properties.ReadModelProperties;
+import br.com.messagedispatcher.exceptions.MessageDispatcherBeanResolutionException;
+import br.com.messagedispatcher.publisher.MessagePublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cria os read models configurados em {@code message.dispatcher.read-models.caches}. Cada read model é declarado como
+ * bean pela aplicação, que informa o tipo da entidade e como montar o corpo do {@code doQuery} a partir do id:
+ * <pre>{@code
+ * @Bean
+ * public ReadModelCache<Product> products(ReadModels readModels) {
+ *     return readModels.cache("products", Product.class, FindProduct::new);
+ * }
+ * }</pre>
+ * <p>
+ * Creates the read models configured in {@code message.dispatcher.read-models.caches}. Each read model is declared as a
+ * bean by the application, which gives the entity type and how to build the {@code doQuery} body from the id.
+ */
+public class ReadModels {
+
+    private final ReadModelProperties properties;
+    private final String appName;
+    private final MessagePublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final ConnectionFactory connectionFactory;
+    private final AmqpAdmin amqpAdmin;
+
+    public ReadModels(ReadModelProperties properties, String appName, MessagePublisher publisher,
+                      ObjectMapper objectMapper, ConnectionFactory connectionFactory, AmqpAdmin amqpAdmin) {
+        this.properties = properties;
+        this.appName = appName;
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.connectionFactory = connectionFactory;
+        this.amqpAdmin = amqpAdmin;
+    }
+
+    /**
+     * @param query monta o corpo do doQuery feito sem entrada local a partir do id, ou {@code null} para não consultar
+     *              / builds the body of the doQuery made without a local entry from the id, or {@code null} to never
+     *              query
+     */
+    public <T> ReadModelCache<T> cache(String name, Class<T> type, Function<Object, ?> query) {
+        return cache(name, type, query, null);
+    }
+
+    /**
+     * @param bootstrap carga inicial da réplica, executada em segundo plano no início e a cada reconexão, como um
+     *                  doQuery que devolve todas as entidades / initial load of the replica, run in the background on
+     *                  start and on every reconnection, such as a doQuery returning every entity
+     */
+    public <T> ReadModelCache<T> cache(String name, Class<T> type, Function<Object, ?> query,
+                                       Supplier<? extends Collection<? extends T>> bootstrap) {
+        var settings = properties.getCaches().get(name);
+        if (settings == null || settings.getExchange() == null) {
+            throw new MessageDispatcherBeanResolutionException("Read model " + name + " sem exchange configurada em "
+                    + "message.dispatcher.read-models.caches." + name + ".exchange");
+        }
+        var queueName = new Base64UrlNamingStrategy(appName + ".read-model." + name + ".").generateName();
+        return new ReadModelCache<>(name, type, settings, queueName, query, bootstrap, publisher, objectMapper,
+                connectionFactory, amqpAdmin);
+    }
+}
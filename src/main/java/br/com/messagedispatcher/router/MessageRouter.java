@@ -2,4 +2,16 @@ package br.com.messagedispatcher.router;
 
 public interface MessageRouter {
     Object routeMessage(Object objectMessage);
+
+    /**
+     * Como {@link #routeMessage(Object)}, avisando {@code beforeHandler} logo antes de invocar o handler. Roteadores
+     * que não sabem separar a resolução do handler da execução avisam antes de rotear.
+     * <p>
+     * Like {@link #routeMessage(Object)}, notifying {@code beforeHandler} right before the handler is invoked. Routers
+     * that cannot tell resolving the handler from running it notify before routing.
+     */
+    default Object routeMessage(Object objectMessage, Runnable beforeHandler) {
+        beforeHandler.run();
+        return routeMessage(objectMessage);
+    }
 }
@@ -2,16 +2,16 @@ package br.com.messagedispatcher.router.impl;
 
 import br.com.messagedispatcher.handlerdiscover.MessageDispatcherAnnotatedHandlerDiscover;
 import br.com.messagedispatcher.exceptions.MessageRouterMissingHeaderException;
+import br.com.messagedispatcher.model.InProcessMessage;
 import br.com.messagedispatcher.router.MessageRouter;
-import br.com.messagedispatcher.util.context.MessageDispatcherContextHolder;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.amqp.core.Message;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
-import java.util.Optional;
 
 import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.valueOf;
 import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.BODY_TYPE;
@@ -34,37 +34,51 @@ public class AnnotatedMessageRouter implements MessageRouter {
 
     @Override
     public Object routeMessage(Object objectMessage) {
-        var message = (Message) objectMessage;
+        return routeMessage(objectMessage, () -> {
+        });
+    }
 
-        MessageDispatcherContextHolder.setHeaders(message.getMessageProperties().getHeaders());
+    @Override
+    public Object routeMessage(Object objectMessage, Runnable beforeHandler) {
+        var message = (Message) objectMessage;
 
-        var bodyType = Optional.ofNullable(message.getMessageProperties().getHeaders().get(BODY_TYPE.getHeaderName()));
-        var handlerType = Optional.ofNullable(message.getMessageProperties().getHeaders().get(HANDLER_TYPE.getHeaderName()));
+        var headers = message.getMessageProperties().getHeaders();
+        var bodyType = headers.get(BODY_TYPE.getHeaderName());
+        var handlerType = headers.get(HANDLER_TYPE.getHeaderName());
 
-        if (bodyType.isEmpty()) {
+        if (bodyType == null) {
             handleHeaderError(BODY_TYPE.getHeaderName());
         }
 
-        if (handlerType.isEmpty()) {
+        if (handlerType == null) {
             handleHeaderError(HANDLER_TYPE.getHeaderName());
         }
 
         try {
-            var handlerMethod = annotatedMethodDiscover.getHandler(valueOf(handlerType.get().toString()), bodyType.get().toString());
+            var handlerMethod = annotatedMethodDiscover.getHandler(valueOf(handlerType.toString()), bodyType.toString());
 
-            var payload = objectMapper.readValue(message.getBody(), handlerMethod.getParameterTypes()[0]);
+            var payload = readPayload(message, handlerMethod.getParameterTypes()[0]);
+            var handler = applicationContext.getBean(handlerMethod.getDeclaringClass());
 
-            return handlerMethod.invoke(applicationContext.getBean(handlerMethod.getDeclaringClass()), payload);
+            beforeHandler.run();
+            return handlerMethod.invoke(handler, payload);
 
         } catch (InvocationTargetException e) {
             throw new RuntimeException(e.getTargetException());
         } catch (Exception e) {
             throw new RuntimeException(e);
-        } finally {
-            MessageDispatcherContextHolder.clear();
         }
     }
 
+    private Object readPayload(Message message, Class<?> payloadType) throws IOException {
+        if (message instanceof InProcessMessage inProcessMessage) {
+            var payload = inProcessMessage.getPayload();
+            return payloadType.isInstance(payload) ? payload : objectMapper.convertValue(payload, payloadType);
+        }
+
+        return objectMapper.readValue(message.getBody(), payloadType);
+    }
+
     private void handleHeaderError(String header) {
         throw new MessageRouterMissingHeaderException("Header " + header + " ausente na mensagem.");
     }
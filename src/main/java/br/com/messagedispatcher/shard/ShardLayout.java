@@ -0,0 +1,75 @@
+package br.com.messagedispatcher.shard;
+
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.config.properties.ShardingProperties;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.Exchange;
+import br.com.messagedispatcher.exceptions.MessageDispatcherBeanResolutionException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Nomes e pesos das partições. Cada partição é uma fila {@code {queueName}.shard-{n}} ligada à exchange consistent-hash
+ * com o seu peso como binding key, então a exchange distribui as routing keys entre as partições na proporção dos
+ * pesos e mensagens com a mesma routing key caem sempre na mesma partição.
+ * <p>
+ * Shard names and weights. Each shard is a {@code {queueName}.shard-{n}} queue bound to the consistent-hash exchange
+ * with its weight as binding key, so the exchange spreads routing keys across shards in proportion to the weights and
+ * messages with the same routing key always land on the same shard.
+ */
+public class ShardLayout {
+
+    private final String queueName;
+    private final List<Integer> weights;
+    private final int totalWeight;
+
+    public ShardLayout(MessageDispatcherProperties properties, ShardingProperties sharding) {
+        if (properties.getExchangeType() != Exchange.CONSISTENT_HASH) {
+            throw new MessageDispatcherBeanResolutionException("Partições exigem exchange do tipo "
+                    + Exchange.CONSISTENT_HASH.getType() + ": " + properties.getExchangeType());
+        }
+        if (sharding.getShards() < 1) {
+            throw new MessageDispatcherBeanResolutionException("A quantidade de partições deve ser maior que zero: "
+                    + sharding.getShards());
+        }
+        if (!sharding.getWeights().isEmpty() && sharding.getWeights().size() != sharding.getShards()) {
+            throw new MessageDispatcherBeanResolutionException("Informe um peso para cada uma das "
+                    + sharding.getShards() + " partições: " + sharding.getWeights());
+        }
+
+        var resolved = new ArrayList<Integer>(sharding.getShards());
+        for (var shard = 0; shard < sharding.getShards(); shard++) {
+            var weight = sharding.getWeights().isEmpty() ? Integer.valueOf(1) : sharding.getWeights().get(shard);
+            if (weight == null || weight < 1) {
+                throw new MessageDispatcherBeanResolutionException("O peso da partição " + shard
+                        + " deve ser maior que zero: " + weight);
+            }
+            resolved.add(weight);
+        }
+        this.queueName = properties.getQueueName();
+        this.weights = Collections.unmodifiableList(resolved);
+        this.totalWeight = resolved.stream().mapToInt(Integer::intValue).sum();
+    }
+
+    public int getShards() {
+        return weights.size();
+    }
+
+    public String queueName(int shard) {
+        return queueName + ".shard-" + shard;
+    }
+
+    public int weight(int shard) {
+        return weights.get(shard);
+    }
+
+    /**
+     * Fração do anel de hash atribuída à partição.
+     * <p>
+     * Fraction of the hash ring assigned to the shard.
+     */
+    public double share(int shard) {
+        return (double) weights.get(shard) / totalWeight;
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.messagedispatcher.shard;
+
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.ContainerType;
+import br.com.messagedispatcher.listener.RabbitMqMessageDispatcherListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListenerConfigurer;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MethodRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.api.RabbitListenerErrorHandler;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.messaging.handler.annotation.support.MessageHandlerMethodFactory;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Registra um container por partição, com um único consumidor, invocando o listener padrão com o mesmo error handler.
+ * Com um consumidor ativo por fila em todo o cluster, as mensagens de uma partição são processadas em ordem.
+ * <p>
+ * Registers one container per shard, with a single consumer, invoking the default listener with the same error
+ * handler. With one active consumer per queue across the cluster, the messages of a shard are processed in order.
+ */
+public class ShardListenerConfigurer implements RabbitListenerConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardListenerConfigurer.class);
+
+    private final ShardLayout layout;
+    private final ShardRebalancer rebalancer;
+    private final ContainerType containerType;
+    private final RabbitMqMessageDispatcherListener listener;
+    private final RabbitListenerErrorHandler errorHandler;
+    private final BeanFactory beanFactory;
+
+    public ShardListenerConfigurer(ShardLayout layout, ShardRebalancer rebalancer, ContainerType containerType,
+                                   RabbitMqMessageDispatcherListener listener, RabbitListenerErrorHandler errorHandler,
+                                   BeanFactory beanFactory) {
+        this.layout = layout;
+        this.rebalancer = rebalancer;
+        this.containerType = containerType;
+        this.listener = listener;
+        this.errorHandler = errorHandler;
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void configureRabbitListeners(RabbitListenerEndpointRegistrar registrar) {
+        var method = ReflectionUtils.findMethod(RabbitMqMessageDispatcherListener.class, "onMessage", Message.class);
+        var handlerMethodFactory = handlerMethodFactory(registrar);
+
+        for (var shard = 0; shard < layout.getShards(); shard++) {
+            var endpoint = new ShardListenerEndpoint(shard, rebalancer);
+            endpoint.setId("message-dispatcher-shard-" + shard);
+            endpoint.setQueueNames(layout.queueName(shard));
+            // Na fila de consumidor único os demais consumidores da instância ficariam apenas em espera
+            endpoint.setConcurrency(containerType == ContainerType.DIRECT ? "1" : "1-1");
+            endpoint.setBean(listener);
+            endpoint.setMethod(method);
+            endpoint.setMessageHandlerMethodFactory(handlerMethodFactory);
+            endpoint.setErrorHandler(errorHandler);
+            endpoint.setReturnExceptions(false);
+            endpoint.setBeanFactory(beanFactory);
+            registrar.registerEndpoint(endpoint);
+        }
+        log.info("{} partições registradas, de {} a {}", layout.getShards(), layout.queueName(0),
+                layout.queueName(layout.getShards() - 1));
+    }
+
+    private MessageHandlerMethodFactory handlerMethodFactory(RabbitListenerEndpointRegistrar registrar) {
+        if (registrar.getMessageHandlerMethodFactory() != null) {
+            return registrar.getMessageHandlerMethodFactory();
+        }
+        var factory = new DefaultMessageHandlerMethodFactory();
+        factory.setBeanFactory(beanFactory);
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+    /**
+     * Conta as entregas da partição, que indicam ao {@link ShardRebalancer} que ela está ativa nesta instância.
+     * <p>
+     * Counts the shard deliveries, which tell the {@link ShardRebalancer} the shard is active on this instance.
+     */
+    static final class ShardListenerEndpoint extends MethodRabbitListenerEndpoint {
+
+        private final int shard;
+        private final ShardRebalancer rebalancer;
+
+        ShardListenerEndpoint(int shard, ShardRebalancer rebalancer) {
+            this.shard = shard;
+            this.rebalancer = rebalancer;
+        }
+
+        @Override
+        public void setupListenerContainer(MessageListenerContainer listenerContainer) {
+            super.setupListenerContainer(listenerContainer);
+            if (listenerContainer instanceof AbstractMessageListenerContainer container) {
+                container.addAfterReceivePostProcessors(message -> {
+                    rebalancer.recordDelivery(shard);
+                    return message;
+                });
+            }
+        }
+    }
+}
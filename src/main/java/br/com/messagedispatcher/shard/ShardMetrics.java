@@ -0,0 +1,44 @@
+package br.com.messagedispatcher.shard;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Expõe o estado das partições no Micrometer, com a tag {@code shard}. Profundidade, consumidores e desbalanceamento
+ * vêm da última verificação do {@link ShardRebalancer}; as entregas são as desta instância.
+ * <p>
+ * Exposes the shard state through Micrometer, tagged with {@code shard}. Depth, consumers and skew come from the last
+ * {@link ShardRebalancer} check; deliveries are those of this instance.
+ */
+public class ShardMetrics {
+
+    public static final String METRIC_PREFIX = "message.dispatcher.sharding";
+
+    public ShardMetrics(ShardRebalancer rebalancer, MeterRegistry meterRegistry) {
+        Gauge.builder(METRIC_PREFIX + ".instances", rebalancer, ShardRebalancer::getInstances)
+                .description("Instâncias consumindo as partições na última verificação")
+                .register(meterRegistry);
+
+        for (var shard = 0; shard < rebalancer.getShards(); shard++) {
+            var index = shard;
+            var tag = String.valueOf(shard);
+            Gauge.builder(METRIC_PREFIX + ".skew", rebalancer, r -> r.getSkew(index))
+                    .description("Profundidade da partição sobre a esperada pelo seu peso; 1 é equilibrada")
+                    .tag("shard", tag)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".depth", rebalancer, r -> r.getDepth(index))
+                    .description("Mensagens prontas na partição na última verificação")
+                    .tag("shard", tag)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".owned", rebalancer, r -> r.isOwned(index) ? 1 : 0)
+                    .description("1 enquanto a partição está ativa nesta instância")
+                    .tag("shard", tag)
+                    .register(meterRegistry);
+            FunctionCounter.builder(METRIC_PREFIX + ".deliveries", rebalancer, r -> r.getDeliveries(index))
+                    .description("Mensagens da partição recebidas por esta instância")
+                    .tag("shard", tag)
+                    .register(meterRegistry);
+        }
+    }
+}
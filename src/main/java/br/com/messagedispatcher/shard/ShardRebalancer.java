@@ -0,0 +1,221 @@
+package br.com.messagedispatcher.shard;
+
+import br.com.messagedispatcher.listener.ListenerContainers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Distribui as partições entre as instâncias. Toda instância consome todas as partições, mas as filas são de
+ * consumidor único ativo, então o broker entrega cada partição a uma só instância e promove a próxima da fila de espera
+ * quando ela sai. Sem outro ajuste, a primeira instância a subir ficaria com todas as partições.
+ * <p>
+ * A cada intervalo, a instância considera suas as partições que receberam mensagens desde a verificação anterior e
+ * conta as instâncias pelos consumidores de cada fila. Se tem mais que a sua parte, reinicia o container das partições
+ * excedentes que têm outra instância em espera: o broker passa a partição para a próxima consumidora e esta instância
+ * volta para o fim da fila de espera. As mensagens não confirmadas retornam à fila na posição original, mantendo a
+ * ordem.
+ * <p>
+ * Spreads the shards across instances. Every instance consumes every shard, but the queues are single-active-consumer,
+ * so the broker delivers each shard to a single instance and promotes the next waiting one when it leaves. Without
+ * further adjustment, the first instance to start would own every shard.
+ * <p>
+ * On every interval, the instance considers its own the shards that received messages since the previous check and
+ * counts instances by the consumers of each queue. If it owns more than its share, it restarts the containers of the
+ * excess shards that have another instance waiting: the broker hands the shard to the next consumer and this instance
+ * goes back to the end of the waiting line. Unacknowledged messages return to the queue at their original position,
+ * keeping the order.
+ */
+public class ShardRebalancer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardRebalancer.class);
+
+    private final AmqpAdmin amqpAdmin;
+    private final Supplier<? extends Iterable<MessageListenerContainer>> containers;
+    private final ShardLayout layout;
+    private final Duration interval;
+    private final LongAdder[] deliveries;
+    private final long[] lastDeliveries;
+    private final long[] depths;
+    private final int[] consumers;
+    private final boolean[] owned;
+    private final double[] skews;
+
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+    private volatile int instances;
+
+    public ShardRebalancer(AmqpAdmin amqpAdmin, Supplier<? extends Iterable<MessageListenerContainer>> containers,
+                           ShardLayout layout, Duration interval) {
+        this.amqpAdmin = amqpAdmin;
+        this.containers = containers;
+        this.layout = layout;
+        this.interval = interval;
+        this.deliveries = new LongAdder[layout.getShards()];
+        for (var shard = 0; shard < deliveries.length; shard++) {
+            deliveries[shard] = new LongAdder();
+        }
+        this.lastDeliveries = new long[layout.getShards()];
+        this.depths = new long[layout.getShards()];
+        this.consumers = new int[layout.getShards()];
+        this.owned = new boolean[layout.getShards()];
+        this.skews = new double[layout.getShards()];
+    }
+
+    /**
+     * Registra uma entrega da partição nesta instância.
+     * <p>
+     * Records a delivery of the shard on this instance.
+     */
+    public void recordDelivery(int shard) {
+        deliveries[shard].increment();
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "message-dispatcher-shard-rebalancer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::rebalanceSafely, interval.toMillis(), interval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        running = true;
+        log.info("Rebalanceamento de {} partições iniciado, a cada {}", layout.getShards(), interval);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void rebalanceSafely() {
+        try {
+            rebalance();
+        } catch (RuntimeException e) {
+            log.warn("Falha no rebalanceamento das partições: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Executa uma verificação: lê as filas, atualiza as métricas e libera as partições excedentes.
+     * <p>
+     * Runs one check: reads the queues, updates the metrics and releases the excess shards.
+     *
+     * @return partições liberadas / released shards
+     */
+    synchronized List<Integer> rebalance() {
+        var shards = layout.getShards();
+        var totalDepth = 0L;
+        var maxConsumers = 0;
+        var ownedShards = new ArrayList<Integer>();
+        for (var shard = 0; shard < shards; shard++) {
+            readQueue(shard);
+            totalDepth += depths[shard];
+            maxConsumers = Math.max(maxConsumers, consumers[shard]);
+
+            var delivered = deliveries[shard].sum();
+            owned[shard] = delivered > lastDeliveries[shard];
+            lastDeliveries[shard] = delivered;
+            if (owned[shard]) {
+                ownedShards.add(shard);
+            }
+        }
+        for (var shard = 0; shard < shards; shard++) {
+            skews[shard] = totalDepth == 0 ? 0 : depths[shard] / (totalDepth * layout.share(shard));
+        }
+        instances = Math.max(maxConsumers, 1);
+
+        var fairShare = (shards + instances - 1) / instances;
+        var released = new ArrayList<Integer>();
+        for (var i = ownedShards.size() - 1; i >= 0 && ownedShards.size() - released.size() > fairShare; i--) {
+            var shard = ownedShards.get(i);
+            if (consumers[shard] > 1 && restart(shard)) {
+                owned[shard] = false;
+                released.add(shard);
+            }
+        }
+        if (!released.isEmpty()) {
+            log.info("Partições {} liberadas para outras instâncias: {} ativas aqui, parte justa {} com {} instâncias",
+                    released, ownedShards.size(), fairShare, instances);
+        }
+        return released;
+    }
+
+    private void readQueue(int shard) {
+        try {
+            var info = amqpAdmin.getQueueInfo(layout.queueName(shard));
+            depths[shard] = info == null ? 0 : info.getMessageCount();
+            consumers[shard] = info == null ? 0 : info.getConsumerCount();
+        } catch (AmqpException e) {
+            log.debug("Não foi possível ler a fila {}: {}", layout.queueName(shard), e.getMessage());
+        }
+    }
+
+    private boolean restart(int shard) {
+        if (!running) {
+            return false;
+        }
+        var shardContainers = ListenerContainers.consuming(containers.get(), layout.queueName(shard));
+        for (var container : shardContainers) {
+            container.stop();
+            container.start();
+        }
+        return !shardContainers.isEmpty();
+    }
+
+    public int getShards() {
+        return layout.getShards();
+    }
+
+    public int getInstances() {
+        return instances;
+    }
+
+    public long getDeliveries(int shard) {
+        return deliveries[shard].sum();
+    }
+
+    public long getDepth(int shard) {
+        return depths[shard];
+    }
+
+    public int getConsumers(int shard) {
+        return consumers[shard];
+    }
+
+    public boolean isOwned(int shard) {
+        return owned[shard];
+    }
+
+    /**
+     * Profundidade da partição sobre a esperada pelo seu peso, na última verificação: 1 é equilibrada, acima de 1
+     * indica chaves quentes ou consumidor lento. 0 quando todas as partições estão vazias.
+     * <p>
+     * Shard depth over the depth expected from its weight, at the last check: 1 is balanced, above 1 points to hot keys
+     * or a slow consumer. 0 when every shard is empty.
+     */
+    public double getSkew(int shard) {
+        return skews[shard];
+    }
+}
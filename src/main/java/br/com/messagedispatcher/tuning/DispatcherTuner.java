@@ -0,0 +1,231 @@
+package br.com.messagedispatcher.tuning;
+
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.listener.ListenerContainers;
+import br.com.messagedispatcher.util.validator.BeanValidatorUtil;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.retry.backoff.ExponentialBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.ContainerType;
+
+/**
+ * Lê e altera, com o listener em execução, a concorrência, o prefetch e as retentativas do listener padrão. As
+ * alterações são validadas antes de qualquer aplicação, pelas mesmas restrições de {@link MessageDispatcherProperties}
+ * aplicadas na inicialização, e registradas no log com a origem, o valor anterior e o novo.
+ * <p>
+ * A concorrência muda de imediato: consumidores são iniciados ou encerrados pelo container. O broker fixa o prefetch
+ * de um consumidor quando ele é criado, então uma alteração de prefetch reinicia os containers em execução: as
+ * mensagens em andamento terminam e as não confirmadas voltam para a fila. As retentativas valem para as próximas
+ * mensagens. As lanes e as partições não são lidas nem alteradas: a concorrência e o prefetch delas vêm apenas da
+ * configuração.
+ * <p>
+ * Reads and changes, with the listener running, the concurrency, prefetch and retries of the default listener. Changes
+ * are validated before anything is applied, against the same {@link MessageDispatcherProperties} constraints applied
+ * on startup, and logged with their source, previous and new value.
+ * <p>
+ * Concurrency changes immediately: consumers are started or stopped by the container. The broker fixes a consumer's
+ * prefetch when it is created, so a prefetch change restarts the running containers: in-flight messages finish and
+ * unacknowledged ones go back to the queue. Retries apply to the next messages. Lanes and shards are neither read nor
+ * changed: their concurrency and prefetch come from configuration only.
+ */
+public class DispatcherTuner {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatcherTuner.class);
+
+    private final MessageDispatcherProperties properties;
+    private final Supplier<? extends Iterable<MessageListenerContainer>> containers;
+    private final RetryTemplate retryTemplate;
+    private final boolean autoscaled;
+    private final int maxPrefetch;
+    private final Validator validator;
+
+    public DispatcherTuner(MessageDispatcherProperties properties,
+                           Supplier<? extends Iterable<MessageListenerContainer>> containers,
+                           RetryTemplate retryTemplate, boolean autoscaled) {
+        this(properties, containers, retryTemplate, autoscaled, false, BeanValidatorUtil.getValidator());
+    }
+
+    /**
+     * @param flowControlled se o controle de fluxo por bytes está ativo, o que libera prefetch acima de
+     *                       {@link MessageDispatcherProperties#MAX_PREFETCH_COUNT} / whether byte-based flow control is
+     *                       on, which allows prefetch above {@link MessageDispatcherProperties#MAX_PREFETCH_COUNT}
+     * @param validator      valida cada valor alterado pelas restrições da propriedade / validates each changed value
+     *                       against the property constraints
+     */
+    public DispatcherTuner(MessageDispatcherProperties properties,
+                           Supplier<? extends Iterable<MessageListenerContainer>> containers,
+                           RetryTemplate retryTemplate, boolean autoscaled, boolean flowControlled,
+                           Validator validator) {
+        this.properties = properties;
+        this.validator = validator;
+        this.containers = containers;
+        this.retryTemplate = retryTemplate;
+        this.autoscaled = autoscaled;
+        this.maxPrefetch = flowControlled
+                ? MessageDispatcherProperties.MAX_FLOW_CONTROLLED_PREFETCH_COUNT
+                : MessageDispatcherProperties.MAX_PREFETCH_COUNT;
+    }
+
+    public synchronized TuningSettings current() {
+        return new TuningSettings(properties.getContainerType(), properties.getConcurrency(),
+                properties.getConsumersPerQueue(), properties.getPrefetchCount(), properties.getMaxRetryAttempts(),
+                properties.getInitialInterval(), properties.getMultiplier(), properties.getMaxInterval());
+    }
+
+    /**
+     * Valida e aplica a alteração. Nada é aplicado se algum valor for inválido.
+     * <p>
+     * Validates and applies the change. Nothing is applied if any value is invalid.
+     *
+     * @param change alteração solicitada / requested change
+     * @param source origem registrada no log, ex.: actuator ou jmx / source recorded in the log, e.g. actuator or jmx
+     * @return configurações após a alteração / settings after the change
+     * @throws IllegalArgumentException se algum valor for inválido / if any value is invalid
+     * @throws IllegalStateException    se os consumidores estiverem sob controle do autoscaler / if the consumers are
+     *                                  controlled by the autoscaler
+     */
+    public synchronized TuningSettings update(TuningChange change, String source) {
+        var before = current();
+        try {
+            validate(change, before);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.warn("Ajuste em tempo de execução via {} rejeitado: {}", source, e.getMessage());
+            throw e;
+        }
+
+        if (change.concurrency() != null) {
+            properties.setConcurrency(change.concurrency());
+        }
+        if (change.consumersPerQueue() != null) {
+            properties.setConsumersPerQueue(change.consumersPerQueue());
+        }
+        if (change.prefetchCount() != null) {
+            properties.setPrefetchCount(change.prefetchCount());
+        }
+        if (change.maxRetryAttempts() != null) {
+            properties.setMaxRetryAttempts(change.maxRetryAttempts());
+        }
+        if (change.initialInterval() != null) {
+            properties.setInitialInterval(change.initialInterval());
+        }
+        if (change.multiplier() != null) {
+            properties.setMultiplier(change.multiplier());
+        }
+        if (change.maxInterval() != null) {
+            properties.setMaxInterval(change.maxInterval());
+        }
+
+        if (change.changesConsumers()) {
+            applyToContainers(properties.getPrefetchCount() != before.prefetchCount());
+        }
+        if (change.changesRetry()) {
+            applyToRetryTemplate();
+        }
+
+        var after = current();
+        log.info("Ajuste em tempo de execução via {}: {}", source, describe(before, after));
+        return after;
+    }
+
+    private void validate(TuningChange change, TuningSettings current) {
+        if (autoscaled && change.changesConsumers()) {
+            throw new IllegalStateException("Concorrência e prefetch estão sob controle do autoscaler");
+        }
+        if (change.concurrency() != null && current.containerType() == ContainerType.DIRECT) {
+            throw new IllegalArgumentException("O container direct tem concorrência fixa e ignora concurrency: altere "
+                    + "consumersPerQueue");
+        }
+        validateValue("concurrency", change.concurrency());
+        validateValue("consumersPerQueue", change.consumersPerQueue());
+        validateValue("prefetchCount", change.prefetchCount());
+        validateValue("maxRetryAttempts", change.maxRetryAttempts());
+        validateValue("initialInterval", change.initialInterval());
+        validateValue("multiplier", change.multiplier());
+        validateValue("maxInterval", change.maxInterval());
+
+        // Sem o controle de fluxo por bytes o limite é menor que o da propriedade, que admite o máximo do protocolo
+        if (change.prefetchCount() != null && change.prefetchCount() > maxPrefetch) {
+            throw new IllegalArgumentException("prefetchCount deve ser menor ou igual a " + maxPrefetch + ": "
+                    + change.prefetchCount());
+        }
+        if (change.concurrency() != null) {
+            var bounds = change.concurrency().split("-");
+            if (Integer.parseInt(bounds[1]) < Integer.parseInt(bounds[0])) {
+                throw new IllegalArgumentException("concurrency deve ter mínimo menor ou igual ao máximo: "
+                        + change.concurrency());
+            }
+        }
+
+        var initialInterval = Objects.requireNonNullElse(change.initialInterval(), current.initialInterval());
+        var maxInterval = Objects.requireNonNullElse(change.maxInterval(), current.maxInterval());
+        if (maxInterval < initialInterval) {
+            throw new IllegalArgumentException("maxInterval (" + maxInterval + ") deve ser maior ou igual a "
+                    + "initialInterval (" + initialInterval + ")");
+        }
+    }
+
+    private void validateValue(String property, Object value) {
+        if (value == null) {
+            return;
+        }
+        var violations = validator.validateValue(MessageDispatcherProperties.class, property, value);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(property + " " + violations.iterator().next().getMessage() + ": "
+                    + value);
+        }
+    }
+
+    private void applyToContainers(boolean restart) {
+        var inbox = ListenerContainers.consuming(containers.get(), properties.getQueueName());
+        for (var container : inbox) {
+            container.setPrefetchCount(properties.getPrefetchCount());
+            if (container instanceof SimpleMessageListenerContainer) {
+                ListenerContainers.setConsumers(container, properties.minConsumers(), properties.maxConsumers());
+            } else {
+                ListenerContainers.setConsumers(container, properties.getConsumersPerQueue(),
+                        properties.getConsumersPerQueue());
+            }
+        }
+        if (restart) {
+            ListenerContainers.restart(inbox);
+        }
+    }
+
+    private void applyToRetryTemplate() {
+        var backOffPolicy = new ExponentialBackOffPolicy();
+        backOffPolicy.setInitialInterval(properties.getInitialInterval());
+        backOffPolicy.setMultiplier(properties.getMultiplier());
+        backOffPolicy.setMaxInterval(properties.getMaxInterval());
+
+        retryTemplate.setRetryPolicy(new SimpleRetryPolicy(properties.getMaxRetryAttempts()));
+        retryTemplate.setBackOffPolicy(backOffPolicy);
+    }
+
+    private static String describe(TuningSettings before, TuningSettings after) {
+        var changes = new ArrayList<String>();
+        describe(changes, "concurrency", before.concurrency(), after.concurrency());
+        describe(changes, "consumersPerQueue", before.consumersPerQueue(), after.consumersPerQueue());
+        describe(changes, "prefetchCount", before.prefetchCount(), after.prefetchCount());
+        describe(changes, "maxRetryAttempts", before.maxRetryAttempts(), after.maxRetryAttempts());
+        describe(changes, "initialInterval", before.initialInterval(), after.initialInterval());
+        describe(changes, "multiplier", before.multiplier(), after.multiplier());
+        describe(changes, "maxInterval", before.maxInterval(), after.maxInterval());
+        return changes.isEmpty() ? "nenhuma alteração" : String.join(", ", changes);
+    }
+
+    private static void describe(ArrayList<String> changes, String name, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            changes.add(name + " " + before + " -> " + after);
+        }
+    }
+}
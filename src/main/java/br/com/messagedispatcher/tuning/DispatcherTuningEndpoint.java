@@ -0,0 +1,46 @@
+package br.com.messagedispatcher.tuning;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Endpoint do actuator {@code messagedispatcher} para consultar e ajustar o listener padrão em tempo de execução. A
+ * exposição segue as regras do actuator ({@code management.endpoints.web.exposure.include} e
+ * {@code management.endpoints.jmx.exposure.include}). Lanes e partições não são cobertas: a concorrência e o prefetch
+ * delas vêm apenas da configuração.
+ * <p>
+ * Actuator endpoint {@code messagedispatcher} to read and adjust the default listener at runtime. Exposure follows the
+ * actuator rules ({@code management.endpoints.web.exposure.include} and
+ * {@code management.endpoints.jmx.exposure.include}). Lanes and shards are not covered: their concurrency and prefetch
+ * come from configuration only.
+ */
+@Endpoint(id = "messagedispatcher")
+public class DispatcherTuningEndpoint {
+
+    private final DispatcherTuner tuner;
+
+    public DispatcherTuningEndpoint(DispatcherTuner tuner) {
+        this.tuner = tuner;
+    }
+
+    @ReadOperation
+    public TuningSettings settings() {
+        return tuner.current();
+    }
+
+    @WriteOperation
+    public TuningSettings update(@Nullable String concurrency, @Nullable Integer consumersPerQueue,
+                                 @Nullable Integer prefetchCount, @Nullable Integer maxRetryAttempts,
+                                 @Nullable Integer initialInterval, @Nullable Integer multiplier,
+                                 @Nullable Integer maxInterval) {
+        try {
+            return tuner.update(new TuningChange(concurrency, consumersPerQueue, prefetchCount, maxRetryAttempts,
+                    initialInterval, multiplier, maxInterval), "actuator");
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
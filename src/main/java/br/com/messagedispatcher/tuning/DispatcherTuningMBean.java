@@ -0,0 +1,101 @@
+package br.com.messagedispatcher.tuning;
+
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * Exposição via JMX do {@link DispatcherTuner} para aplicações sem o actuator. Exportado quando
+ * {@code spring.jmx.enabled=true}; cada atributo alterado é validado e aplicado isoladamente. Lanes e partições não
+ * são cobertas.
+ * <p>
+ * JMX exposure of the {@link DispatcherTuner} for applications without the actuator. Exported when
+ * {@code spring.jmx.enabled=true}; every changed attribute is validated and applied on its own. Lanes and shards are
+ * not covered.
+ */
+@ManagedResource(objectName = "br.com.messagedispatcher:type=DispatcherTuning",
+        description = "Ajuste em tempo de execução do listener padrão")
+public class DispatcherTuningMBean {
+
+    private static final String SOURCE = "jmx";
+
+    private final DispatcherTuner tuner;
+
+    public DispatcherTuningMBean(DispatcherTuner tuner) {
+        this.tuner = tuner;
+    }
+
+    @ManagedAttribute(description = "Tipo do container de listener")
+    public String getContainerType() {
+        return tuner.current().containerType().name();
+    }
+
+    @ManagedAttribute(description = "Faixa de consumidores do container simple (mínimo-máximo)")
+    public String getConcurrency() {
+        return tuner.current().concurrency();
+    }
+
+    @ManagedAttribute
+    public void setConcurrency(String concurrency) {
+        tuner.update(new TuningChange(concurrency, null, null, null, null, null, null), SOURCE);
+    }
+
+    @ManagedAttribute(description = "Consumidores do container direct")
+    public int getConsumersPerQueue() {
+        return tuner.current().consumersPerQueue();
+    }
+
+    @ManagedAttribute
+    public void setConsumersPerQueue(int consumersPerQueue) {
+        tuner.update(new TuningChange(null, consumersPerQueue, null, null, null, null, null), SOURCE);
+    }
+
+    @ManagedAttribute(description = "Prefetch dos consumidores iniciados após a alteração")
+    public int getPrefetchCount() {
+        return tuner.current().prefetchCount();
+    }
+
+    @ManagedAttribute
+    public void setPrefetchCount(int prefetchCount) {
+        tuner.update(new TuningChange(null, null, prefetchCount, null, null, null, null), SOURCE);
+    }
+
+    @ManagedAttribute(description = "Tentativas de processamento")
+    public int getMaxRetryAttempts() {
+        return tuner.current().maxRetryAttempts();
+    }
+
+    @ManagedAttribute
+    public void setMaxRetryAttempts(int maxRetryAttempts) {
+        tuner.update(new TuningChange(null, null, null, maxRetryAttempts, null, null, null), SOURCE);
+    }
+
+    @ManagedAttribute(description = "Intervalo inicial entre tentativas, em ms")
+    public int getInitialInterval() {
+        return tuner.current().initialInterval();
+    }
+
+    @ManagedAttribute
+    public void setInitialInterval(int initialInterval) {
+        tuner.update(new TuningChange(null, null, null, null, initialInterval, null, null), SOURCE);
+    }
+
+    @ManagedAttribute(description = "Multiplicador do intervalo entre tentativas")
+    public int getMultiplier() {
+        return tuner.current().multiplier();
+    }
+
+    @ManagedAttribute
+    public void setMultiplier(int multiplier) {
+        tuner.update(new TuningChange(null, null, null, null, null, multiplier, null), SOURCE);
+    }
+
+    @ManagedAttribute(description = "Intervalo máximo entre tentativas, em ms")
+    public int getMaxInterval() {
+        return tuner.current().maxInterval();
+    }
+
+    @ManagedAttribute
+    public void setMaxInterval(int maxInterval) {
+        tuner.update(new TuningChange(null, null, null, null, null, null, maxInterval), SOURCE);
+    }
+}
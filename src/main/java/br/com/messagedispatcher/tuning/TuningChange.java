@@ -0,0 +1,19 @@
+package br.com.messagedispatcher.tuning;
+
+/**
+ * Alteração solicitada nas {@link TuningSettings}; campos nulos permanecem como estão.
+ * <p>
+ * Requested change to the {@link TuningSettings}; null fields are left as they are.
+ */
+public record TuningChange(String concurrency, Integer consumersPerQueue, Integer prefetchCount,
+                           Integer maxRetryAttempts, Integer initialInterval, Integer multiplier,
+                           Integer maxInterval) {
+
+    public boolean changesConsumers() {
+        return concurrency != null || consumersPerQueue != null || prefetchCount != null;
+    }
+
+    public boolean changesRetry() {
+        return maxRetryAttempts != null || initialInterval != null || multiplier != null || maxInterval != null;
+    }
+}
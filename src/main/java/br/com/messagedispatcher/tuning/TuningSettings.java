@@ -0,0 +1,22 @@
+package br.com.messagedispatcher.tuning;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.ContainerType;
+
+/**
+ * Configurações do listener padrão ajustáveis em tempo de execução.
+ * <p>
+ * Default listener settings that can be adjusted at runtime.
+ *
+ * @param containerType     tipo do container / container type
+ * @param concurrency       faixa de consumidores do container simple / simple container consumer range
+ * @param consumersPerQueue consumidores do container direct / direct container consumers
+ * @param prefetchCount     prefetch dos consumidores / consumer prefetch
+ * @param maxRetryAttempts  tentativas de processamento / processing attempts
+ * @param initialInterval   intervalo inicial entre tentativas, em ms / initial retry interval, in ms
+ * @param multiplier        multiplicador do intervalo / interval multiplier
+ * @param maxInterval       intervalo máximo entre tentativas, em ms / max retry interval, in ms
+ */
+public record TuningSettings(ContainerType containerType, String concurrency, int consumersPerQueue,
+                             int prefetchCount, int maxRetryAttempts, int initialInterval, int multiplier,
+                             int maxInterval) {
+}
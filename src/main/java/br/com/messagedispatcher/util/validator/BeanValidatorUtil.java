@@ -53,6 +53,15 @@ public final class BeanValidatorUtil {
         }
     }
 
+    /**
+     * Validador compartilhado, para quem precisa das violações em vez da exceção.
+     * <p>
+     * Shared validator, for callers that need the violations instead of the exception.
+     */
+    public static Validator getValidator() {
+        return validator;
+    }
+
     /**
      * Valida um objeto.
      * <p>
@@ -0,0 +1,186 @@
+package br.com.messagedispatcher.allocation;
+
+import br.com.messagedispatcher.annotation.Command;
+import br.com.messagedispatcher.annotation.MessageListener;
+import br.com.messagedispatcher.annotation.PartitionKey;
+import br.com.messagedispatcher.config.MessageConverterAutoConfig;
+import br.com.messagedispatcher.config.ObjectMapperAutoConfig;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.handlerdiscover.impl.MessageDispatcherAnnotatedHandlerDiscoverImpl;
+import br.com.messagedispatcher.interceptor.DispatchInterceptorChain;
+import br.com.messagedispatcher.interceptor.impl.ContextHolderDispatchInterceptor;
+import br.com.messagedispatcher.lane.HandlerLanes;
+import br.com.messagedispatcher.listener.RabbitMqMessageDispatcherListener;
+import br.com.messagedispatcher.publisher.proxy.RabbitTemplateProxy;
+import br.com.messagedispatcher.router.impl.AnnotatedMessageRouter;
+import br.com.messagedispatcher.util.MessageDispatcherUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Exchange.CONSISTENT_HASH;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.COMMAND;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.BODY_TYPE;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.HANDLER_TYPE;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Mede os bytes alocados por mensagem nos caminhos de consumo e publicação com os componentes reais do starter
+ * e falha quando o valor ultrapassa o orçamento em {@code allocation-budget.properties}.
+ * <p>
+ * Measures the bytes allocated per message on the consume and publish paths using the real starter components
+ * and fails when the value exceeds the budget in {@code allocation-budget.properties}.
+ */
+class AllocationBudgetTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AllocationBudgetTest.class);
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 10_000;
+
+    private static com.sun.management.ThreadMXBean threadMXBean;
+    private static Properties budget;
+    private static GenericApplicationContext context;
+    private static ObjectMapper objectMapper;
+    private static MessageDispatcherProperties properties;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "JVM sem suporte a contadores de alocação por thread");
+        threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(), "JVM sem suporte a contadores de alocação por thread");
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        budget = new Properties();
+        try (var input = AllocationBudgetTest.class.getResourceAsStream("/allocation-budget.properties")) {
+            assertNotNull(input, "allocation-budget.properties não encontrado");
+            budget.load(input);
+        }
+
+        objectMapper = new ObjectMapperAutoConfig().objectMapper();
+        properties = new MessageDispatcherProperties();
+        properties.setQueueName("allocation-test");
+        properties.init();
+        new MessageDispatcherUtils(properties);
+
+        context = new GenericApplicationContext();
+        context.registerBean(AllocationTestHandler.class);
+        context.refresh();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Test
+    void consumePathShouldStayWithinAllocationBudget() throws IOException {
+        var router = new AnnotatedMessageRouter(objectMapper, new MessageDispatcherAnnotatedHandlerDiscoverImpl(context), context);
+        var chain = new DispatchInterceptorChain(List.of(new ContextHolderDispatchInterceptor()));
+        var listener = new RabbitMqMessageDispatcherListener(router, objectMapper, chain);
+
+        var messageProperties = new MessageProperties();
+        messageProperties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        messageProperties.setReplyTo("amq.rabbitmq.reply-to");
+        messageProperties.setHeader(HANDLER_TYPE.getHeaderName(), COMMAND.name());
+        messageProperties.setHeader(BODY_TYPE.getHeaderName(), AllocationTestPayload.class.getSimpleName());
+        var message = new Message(objectMapper.writeValueAsBytes(new AllocationTestPayload("id-1", "payload", 10)),
+                messageProperties);
+
+        assertWithinBudget("consume", () -> listener.onMessage(message));
+    }
+
+    @Test
+    void publishPathShouldStayWithinAllocationBudget() {
+        var rabbitTemplate = new NoOpRabbitTemplate();
+        rabbitTemplate.setMessageConverter(new MessageConverterAutoConfig().jackson2JsonMessageConverter(objectMapper));
+        var proxy = new RabbitTemplateProxy(rabbitTemplate, objectMapper, properties,
+                new HandlerLanes(properties, List::of));
+        var payload = new AllocationTestPayload("id-1", "payload", 10);
+
+        assertWithinBudget("publish", () ->
+                proxy.convertAndSend(properties.getExchangeName(), properties.getRoutingKey(), payload, COMMAND));
+    }
+
+    @Test
+    void partitionedPublishPathShouldStayWithinAllocationBudget() {
+        var partitioned = new MessageDispatcherProperties();
+        partitioned.setQueueName("allocation-test");
+        partitioned.setExchangeType(CONSISTENT_HASH);
+        partitioned.setExchangeConsistentHashArguments(Map.of("hash-header", "partition-key"));
+        partitioned.init();
+        var rabbitTemplate = new NoOpRabbitTemplate();
+        rabbitTemplate.setMessageConverter(new MessageConverterAutoConfig().jackson2JsonMessageConverter(objectMapper));
+        var proxy = new RabbitTemplateProxy(rabbitTemplate, objectMapper, partitioned,
+                new HandlerLanes(partitioned, List::of));
+        var payload = new PartitionedTestPayload("id-1", "payload", 10);
+
+        assertWithinBudget("publish-partitioned", () ->
+                proxy.convertAndSend(partitioned.getExchangeName(), partitioned.getRoutingKey(), payload, COMMAND));
+    }
+
+    private static void assertWithinBudget(String path, Runnable operation) {
+        for (var i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run();
+        }
+
+        var threadId = Thread.currentThread().threadId();
+        var before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (var i = 0; i < MEASURED_ITERATIONS; i++) {
+            operation.run();
+        }
+        var bytesPerMessage = (threadMXBean.getThreadAllocatedBytes(threadId) - before) / MEASURED_ITERATIONS;
+
+        var limit = Long.parseLong(budget.getProperty(path + ".bytes-per-message"));
+        log.info("Alocação por mensagem [{}]: {} bytes (orçamento {})", path, bytesPerMessage, limit);
+        assertTrue(bytesPerMessage <= limit,
+                "Caminho " + path + " alocou " + bytesPerMessage + " bytes por mensagem, acima do orçamento de " + limit);
+    }
+
+    public record AllocationTestPayload(String id, String name, int quantity) {
+    }
+
+    public record PartitionedTestPayload(@PartitionKey String id, String name, int quantity) {
+    }
+
+    @MessageListener
+    public static class AllocationTestHandler {
+
+        @Command
+        public AllocationTestPayload handle(AllocationTestPayload payload) {
+            return payload;
+        }
+    }
+
+    /**
+     * Descarta a mensagem já convertida e com headers aplicados, evitando a conexão com o broker.
+     * <p>
+     * Discards the message once converted and with headers applied, avoiding the broker connection.
+     */
+    static class NoOpRabbitTemplate extends RabbitTemplate {
+
+        @Override
+        public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+            // sem broker / no broker
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package br.com.messagedispatcher.autoscaler;
+
+import br.com.messagedispatcher.interceptor.impl.DwellTimeDispatchInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpIOException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.PUBLISHED_AT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ConsumerAutoscalerTest {
+
+    private static final String QUEUE = "inbox";
+
+    private final AmqpAdmin amqpAdmin = mock(AmqpAdmin.class);
+    private final DwellTimeDispatchInterceptor dwellTime = new DwellTimeDispatchInterceptor(QUEUE);
+    private final ScalingPolicy policy = new ScalingPolicy(1, 8, 50, 200, 0.5, TimeUnit.SECONDS.toNanos(30));
+    private final SimpleMessageListenerContainer inbox = new SimpleMessageListenerContainer();
+    private final SimpleMessageListenerContainer other = new SimpleMessageListenerContainer();
+
+    private ConsumerAutoscaler autoscaler;
+
+    @AfterEach
+    void tearDown() {
+        autoscaler.stop();
+    }
+
+    @Test
+    void startShouldPinInboxContainersToInitialValues() {
+        inbox.setQueueNames(QUEUE);
+        other.setQueueNames("other");
+        autoscaler = createAutoscaler(List.of(inbox, other), 2, 10);
+
+        autoscaler.start();
+
+        assertEquals(2, ReflectionTestUtils.getField(inbox, "concurrentConsumers"));
+        assertEquals(2, ReflectionTestUtils.getField(inbox, "maxConcurrentConsumers"));
+        assertEquals(10, ReflectionTestUtils.getField(inbox, "prefetchCount"));
+        assertEquals(1, ReflectionTestUtils.getField(other, "concurrentConsumers"));
+    }
+
+    @Test
+    void evaluateShouldScaleUpWhenBacklogGrows() {
+        inbox.setQueueNames(QUEUE);
+        autoscaler = createAutoscaler(List.of(inbox), 1, 10);
+        autoscaler.start();
+        when(amqpAdmin.getQueueInfo(QUEUE)).thenReturn(new QueueInformation(QUEUE, 500, 1));
+
+        var decision = autoscaler.evaluate();
+
+        assertEquals(ScalingDecision.Action.SCALE_UP, decision.action());
+        assertEquals(2, autoscaler.getConsumers());
+        assertEquals(2, ReflectionTestUtils.getField(inbox, "concurrentConsumers"));
+        assertEquals(2, ReflectionTestUtils.getField(inbox, "maxConcurrentConsumers"));
+        assertEquals(500, autoscaler.getQueueDepth());
+        assertEquals(1, autoscaler.getDecisionCount(ScalingDecision.Action.SCALE_UP));
+    }
+
+    @Test
+    void evaluateShouldUseDwellTimeAndResizeDirectContainer() {
+        var direct = new DirectMessageListenerContainer();
+        direct.setQueueNames(QUEUE);
+        autoscaler = createAutoscaler(List.of(direct), 2, 10);
+        autoscaler.start();
+        when(amqpAdmin.getQueueInfo(QUEUE)).thenReturn(new QueueInformation(QUEUE, 0, 2));
+        for (int i = 0; i < 10; i++) {
+            dwellTime.beforeDispatch(createMessage(QUEUE, OffsetDateTime.now().minusSeconds(1)));
+        }
+        dwellTime.beforeDispatch(createMessage("other", OffsetDateTime.now().minusSeconds(60)));
+
+        var decision = autoscaler.evaluate();
+
+        assertEquals(ScalingDecision.Action.SCALE_UP, decision.action());
+        assertEquals(1000, autoscaler.getMeanDwellMillis(), 100);
+        assertEquals(autoscaler.getConsumers(), ReflectionTestUtils.getField(direct, "consumersPerQueue"));
+        assertEquals(autoscaler.getPrefetch(), ReflectionTestUtils.getField(direct, "prefetchCount"));
+    }
+
+    @Test
+    void prefetchChangeShouldRestartRunningInboxContainers() {
+        var running = spy(new SimpleMessageListenerContainer());
+        running.setQueueNames(QUEUE);
+        doReturn(true).when(running).isRunning();
+        doNothing().when(running).stop();
+        doNothing().when(running).start();
+        autoscaler = createAutoscaler(List.of(running), 2, 10);
+        autoscaler.start();
+        when(amqpAdmin.getQueueInfo(QUEUE)).thenReturn(new QueueInformation(QUEUE, 0, 2));
+        for (int i = 0; i < 50; i++) {
+            dwellTime.beforeDispatch(createMessage(QUEUE, OffsetDateTime.now()));
+        }
+
+        autoscaler.evaluate();
+
+        assertEquals(autoscaler.getPrefetch(), ReflectionTestUtils.getField(running, "prefetchCount"));
+        var order = inOrder(running);
+        order.verify(running).stop();
+        order.verify(running).start();
+    }
+
+    @Test
+    void consumerChangeWithoutPrefetchChangeShouldNotRestartContainers() {
+        var running = spy(new SimpleMessageListenerContainer());
+        running.setQueueNames(QUEUE);
+        doReturn(true).when(running).isRunning();
+        autoscaler = createAutoscaler(List.of(running), 1, 10);
+        autoscaler.start();
+        when(amqpAdmin.getQueueInfo(QUEUE)).thenReturn(new QueueInformation(QUEUE, 500, 1));
+
+        autoscaler.evaluate();
+
+        assertEquals(2, ReflectionTestUtils.getField(running, "concurrentConsumers"));
+        verify(running, never()).stop();
+    }
+
+    @Test
+    void dwellTimeShouldFallBackToTheAmqpTimestamp() {
+        inbox.setQueueNames(QUEUE);
+        autoscaler = createAutoscaler(List.of(inbox), 2, 10);
+        autoscaler.start();
+        var properties = new MessageProperties();
+        properties.setConsumerQueue(QUEUE);
+        properties.setTimestamp(Date.from(Instant.now().minusSeconds(2)));
+        dwellTime.beforeDispatch(new Message(new byte[0], properties));
+        var message = createMessage(QUEUE, OffsetDateTime.now());
+        message.getMessageProperties().getHeaders().remove(PUBLISHED_AT.getHeaderName());
+        dwellTime.beforeDispatch(message);
+
+        var window = dwellTime.drain();
+
+        assertEquals(2, window.received());
+        assertEquals(2000, window.meanDwellMillis(), 1000);
+    }
+
+    @Test
+    void evaluateShouldHoldWhenQueueDepthIsUnavailable() {
+        inbox.setQueueNames(QUEUE);
+        autoscaler = createAutoscaler(List.of(inbox), 3, 10);
+        autoscaler.start();
+        when(amqpAdmin.getQueueInfo(QUEUE)).thenThrow(new AmqpIOException(new IOException("closed")));
+
+        var decision = autoscaler.evaluate();
+
+        assertEquals(ScalingDecision.Action.HOLD, decision.action());
+        assertEquals(3, autoscaler.getConsumers());
+        assertEquals(10, autoscaler.getPrefetch());
+    }
+
+    private ConsumerAutoscaler createAutoscaler(List<MessageListenerContainer> containers, int consumers,
+                                                int prefetch) {
+        return new ConsumerAutoscaler(amqpAdmin, () -> containers, dwellTime, policy, QUEUE, Duration.ofMinutes(1),
+                consumers, prefetch);
+    }
+
+    private static Message createMessage(String consumerQueue, OffsetDateTime timestamp) {
+        var properties = new MessageProperties();
+        properties.setConsumerQueue(consumerQueue);
+        properties.setHeader(PUBLISHED_AT.getHeaderName(), timestamp.toInstant().toEpochMilli());
+        return new Message(new byte[0], properties);
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.messagedispatcher.autoscaler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScalingPolicyTest {
+
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long LONG_AGO = TimeUnit.MINUTES.toNanos(10);
+
+    private final ScalingPolicy policy = new ScalingPolicy(1, 10, 50, 200, 0.5, TimeUnit.SECONDS.toNanos(30));
+
+    @Test
+    void shouldScaleUpInProportionToTheExcessLatency() {
+        var decision = policy.decide(2, 10, new ScalingPolicy.Observation(0, 100, 500, ONE_SECOND), LONG_AGO);
+
+        assertEquals(ScalingDecision.Action.SCALE_UP, decision.action());
+        assertEquals(5, decision.consumers());
+        assertEquals(500, decision.estimatedLatencyMillis());
+    }
+
+    @Test
+    void shouldUseBacklogDrainTimeWhenGreaterThanDwellTime() {
+        // 100 msg/s com 300 mensagens na fila: 3 s para escoar
+        var decision = policy.decide(1, 10, new ScalingPolicy.Observation(300, 100, 50, ONE_SECOND), LONG_AGO);
+
+        assertEquals(ScalingDecision.Action.SCALE_UP, decision.action());
+        assertEquals(3000, decision.estimatedLatencyMillis());
+        assertEquals(10, decision.consumers());
+    }
+
+    @Test
+    void shouldDoubleConsumersWhenBacklogIsNotDraining() {
+        var decision = policy.decide(3, 10, new ScalingPolicy.Observation(50, 0, 0, ONE_SECOND), LONG_AGO);
+
+        assertEquals(ScalingDecision.Action.SCALE_UP, decision.action());
+        assertEquals(6, decision.consumers());
+        assertTrue(Double.isInfinite(decision.estimatedLatencyMillis()));
+        assertEquals(10, decision.prefetch());
+    }
+
+    @Test
+    void shouldReportSaturationAtMaxConsumers() {
+        var decision = policy.decide(10, 10, new ScalingPolicy.Observation(0, 100, 900, ONE_SECOND), LONG_AGO);
+
+        assertEquals(ScalingDecision.Action.SATURATED, decision.action());
+        assertEquals(10, decision.consumers());
+    }
+
+    @Test
+    void shouldHoldWithinHysteresisBand() {
+        var decision = policy.decide(4, 10, new ScalingPolicy.Observation(0, 100, 150, ONE_SECOND), LONG_AGO);
+
+        assertEquals(ScalingDecision.Action.HOLD, decision.action());
+        assertEquals(4, decision.consumers());
+    }
+
+    @Test
+    void shouldScaleDownOneAtATimeOnlyAfterDelay() {
+        var observation = new ScalingPolicy.Observation(0, 100, 20, ONE_SECOND);
+
+        var tooSoon = policy.decide(4, 10, observation, TimeUnit.SECONDS.toNanos(5));
+        var afterDelay = policy.decide(4, 10, observation, LONG_AGO);
+
+        assertEquals(ScalingDecision.Action.HOLD, tooSoon.action());
+        assertEquals(4, tooSoon.consumers());
+        assertEquals(ScalingDecision.Action.SCALE_DOWN, afterDelay.action());
+        assertEquals(3, afterDelay.consumers());
+    }
+
+    @Test
+    void shouldNotScaleBelowMinConsumers() {
+        var decision = policy.decide(1, 10, new ScalingPolicy.Observation(0, 0, 0, ONE_SECOND), LONG_AGO);
+
+        assertEquals(ScalingDecision.Action.HOLD, decision.action());
+        assertEquals(1, decision.consumers());
+    }
+
+    @Test
+    void shouldSizePrefetchToPerConsumerThroughputWithinTarget() {
+        // 1000 msg/s em 2 consumidores, alvo de 200 ms: 100 por consumidor, limitado a 50
+        var high = policy.decide(2, 10, new ScalingPolicy.Observation(0, 1000, 150, ONE_SECOND), LONG_AGO);
+        // 20 msg/s em 2 consumidores: 2 por consumidor
+        var low = policy.decide(2, 10, new ScalingPolicy.Observation(0, 20, 150, ONE_SECOND), LONG_AGO);
+
+        assertEquals(50, high.prefetch());
+        assertEquals(2, low.prefetch());
+    }
+
+    @Test
+    void shouldKeepPrefetchOnHoldWithinFactorOfTwo() {
+        // 30 msg/s em 2 consumidores, alvo de 200 ms: 3 por consumidor
+        var observation = new ScalingPolicy.Observation(0, 30, 150, ONE_SECOND);
+
+        assertEquals(4, policy.decide(2, 4, observation, LONG_AGO).prefetch());
+        assertEquals(3, policy.decide(2, 10, observation, LONG_AGO).prefetch());
+    }
+
+    @Test
+    void shouldKeepPrefetchWithinFactorOfTwoWhenScaling() {
+        // 100 msg/s em 5 consumidores, alvo de 200 ms: 4 por consumidor, dentro de um fator 2 de 5
+        var decision = policy.decide(2, 5, new ScalingPolicy.Observation(0, 100, 500, ONE_SECOND), LONG_AGO);
+
+        assertEquals(ScalingDecision.Action.SCALE_UP, decision.action());
+        assertEquals(5, decision.prefetch());
+    }
+
+    @Test
+    void shouldRejectInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalingPolicy(0, 5, 10, 200, 0.5, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ScalingPolicy(5, 4, 10, 200, 0.5, 0));
+    }
+}
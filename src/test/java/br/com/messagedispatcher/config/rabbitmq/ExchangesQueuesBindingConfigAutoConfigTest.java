@@ -1,6 +1,7 @@
 package br.com.messagedispatcher.config.rabbitmq;
 
 import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.config.properties.ShardingProperties;
 import br.com.messagedispatcher.exceptions.MessageDispatcherBeanResolutionException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,6 +15,7 @@ import org.springframework.amqp.core.Queue;
 
 import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Exchange.DIRECT;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -49,7 +51,7 @@ public class ExchangesQueuesBindingConfigAutoConfigTest {
 
         properties.setExchangeType(null);
 
-        assertThrows(MessageDispatcherBeanResolutionException.class, () -> config.defaultExchangeAndQueue(properties));
+        assertThrows(MessageDispatcherBeanResolutionException.class, () -> config.defaultExchangeAndQueue(properties, new ShardingProperties()));
     }
 
     /**
@@ -117,7 +119,7 @@ public class ExchangesQueuesBindingConfigAutoConfigTest {
         when(properties.getDeadLetterRoutingKey()).thenReturn("testDLRK");
         when(properties.getRoutingKey()).thenReturn("testRoutingKey");
 
-        Declarables result = config.defaultExchangeAndQueue(properties);
+        Declarables result = config.defaultExchangeAndQueue(properties, new ShardingProperties());
 
         assertNotNull(result);
         assertEquals(3, result.getDeclarables().size());
@@ -126,4 +128,18 @@ public class ExchangesQueuesBindingConfigAutoConfigTest {
         assertTrue(result.getDeclarables().stream().anyMatch(d -> d instanceof Binding));
     }
 
+    @Test
+    public void test_inboxQueue_declaresMaxPriorityOnlyWhenConfigured() {
+        var properties = new MessageDispatcherProperties();
+
+        assertFalse(ExchangesQueuesBindingConfigAutoConfig.inboxQueue("inbox", properties).getArguments()
+                .containsKey("x-max-priority"));
+
+        properties.setMaxPriority(10);
+        Queue queue = ExchangesQueuesBindingConfigAutoConfig.inboxQueue("inbox", properties);
+
+        assertEquals(10, queue.getArguments().get("x-max-priority"));
+        assertEquals(properties.getDeadLetterExchangeName(), queue.getArguments().get("x-dead-letter-exchange"));
+    }
+
 }
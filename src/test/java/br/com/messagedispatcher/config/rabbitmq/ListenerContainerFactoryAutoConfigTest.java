@@ -0,0 +1,191 @@
+package br.com.messagedispatcher.config.rabbitmq;
+
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.exceptions.MessageDispatcherBeanResolutionException;
+import br.com.messagedispatcher.listener.AckBatcher;
+import br.com.messagedispatcher.listener.ByteBudgets;
+import br.com.messagedispatcher.listener.WorkSharingDispatcher;
+import org.aopalliance.aop.Advice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AcknowledgeMode;
+import org.springframework.amqp.rabbit.config.AbstractRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.ContainerType.DIRECT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class ListenerContainerFactoryAutoConfigTest {
+
+    private final ListenerContainerFactoryAutoConfig config = new ListenerContainerFactoryAutoConfig();
+    private MessageDispatcherProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MessageDispatcherProperties();
+        properties.setQueueName("container-test");
+        properties.setConcurrency("2-8");
+        properties.init();
+    }
+
+    @Test
+    void simpleContainerShouldUseConcurrencyRange() {
+        var container = createContainer();
+
+        var simple = assertInstanceOf(SimpleMessageListenerContainer.class, container);
+        assertEquals(2, ReflectionTestUtils.getField(simple, "concurrentConsumers"));
+        assertEquals(8, ReflectionTestUtils.getField(simple, "maxConcurrentConsumers"));
+        assertEquals(AcknowledgeMode.AUTO, simple.getAcknowledgeMode());
+        assertEquals("2-8", properties.listenerConcurrency());
+    }
+
+    @Test
+    void directContainerShouldUseConsumersPerQueueAndMonitorInterval() {
+        properties.setContainerType(DIRECT);
+        properties.setConsumersPerQueue(3);
+        properties.setMonitorInterval(5_000);
+
+        var container = createContainer();
+
+        var direct = assertInstanceOf(DirectMessageListenerContainer.class, container);
+        assertEquals(3, ReflectionTestUtils.getField(direct, "consumersPerQueue"));
+        assertEquals(5_000L, ReflectionTestUtils.getField(direct, "monitorInterval"));
+        assertEquals(10, ReflectionTestUtils.getField(direct, "prefetchCount"));
+        assertEquals("3", properties.listenerConcurrency());
+    }
+
+    @Test
+    void workSharingShouldSwitchToManualAckAndWrapListener() {
+        properties.setContainerType(DIRECT);
+        var dispatcher = new WorkSharingDispatcher(1, Duration.ofSeconds(1));
+
+        try {
+            var container = createContainer(dispatcher);
+
+            assertEquals(AcknowledgeMode.MANUAL, container.getAcknowledgeMode());
+            assertEquals("WorkSharingMessageListener", container.getMessageListener().getClass().getSimpleName());
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    @Test
+    void byteBudgetShouldDecorateConsumerChannelsAndLiftPrefetchCap() {
+        properties.setPrefetchCount(500);
+        var byteBudgets = new ByteBudgets(1024, 512);
+
+        try {
+            var container = createContainer(byteBudgets);
+
+            assertTrue(container.getConnectionFactory().toString().startsWith("ListenerChannels("));
+            assertEquals(500, ReflectionTestUtils.getField(container, "prefetchCount"));
+            assertEquals(1, ((Advice[]) ReflectionTestUtils.getField(container, "adviceChain")).length);
+            assertEquals(Set.of("test"), byteBudgets.getBudgets().keySet());
+        } finally {
+            byteBudgets.destroy();
+        }
+    }
+
+    @Test
+    void everyContainerShouldGetItsOwnByteBudget() {
+        var byteBudgets = new ByteBudgets(1024, 512);
+
+        try {
+            var factory = createFactory(byteBudgets);
+            var inbox = createContainer(factory, "inbox", "container-test");
+            var lane = createContainer(factory, "lane-query", "container-test.query");
+
+            assertNotSame(inbox.getConnectionFactory(), lane.getConnectionFactory());
+            var budgets = byteBudgets.getBudgets();
+            assertEquals(Set.of("inbox", "lane-query"), budgets.keySet());
+            assertNotSame(budgets.get("inbox"), budgets.get("lane-query"));
+
+            budgets.get("lane-query").reserve(2048);
+            assertTrue(budgets.get("lane-query").isPaused());
+            assertFalse(budgets.get("inbox").isPaused());
+        } finally {
+            byteBudgets.destroy();
+        }
+    }
+
+    @Test
+    void prefetchAboveCapWithoutFlowControlShouldFail() {
+        properties.setPrefetchCount(101);
+
+        assertThrows(MessageDispatcherBeanResolutionException.class, this::createContainer);
+    }
+
+    @Test
+    void lanePrefetchAboveCapShouldRequireFlowControl() {
+        var lane = new MessageDispatcherProperties.Lane();
+        lane.setPrefetchCount(500);
+        properties.getLanes().put("events", lane);
+
+        assertThrows(MessageDispatcherBeanResolutionException.class, this::createContainer);
+
+        var byteBudgets = new ByteBudgets(1024, 512);
+        try {
+            createContainer(byteBudgets);
+        } finally {
+            byteBudgets.destroy();
+        }
+    }
+
+    @Test
+    void ackBatchingShouldSwitchToManualAckAndWrapListener() {
+        var ackBatcher = new AckBatcher(10, Duration.ofMillis(100));
+
+        try {
+            var container = createContainer(ackBatcher);
+
+            assertEquals(AcknowledgeMode.MANUAL, container.getAcknowledgeMode());
+            assertEquals("BatchingAckMessageListener", container.getMessageListener().getClass().getSimpleName());
+            assertEquals(0, ((Advice[]) ReflectionTestUtils.getField(container, "adviceChain")).length);
+        } finally {
+            ackBatcher.destroy();
+        }
+    }
+
+    private AbstractMessageListenerContainer createContainer(Object... beans) {
+        return createContainer(createFactory(beans), "test", properties.getQueueName());
+    }
+
+    private AbstractRabbitListenerContainerFactory<?> createFactory(Object... beans) {
+        var beanFactory = new StaticListableBeanFactory();
+        for (var bean : beans) {
+            beanFactory.addBean(bean.getClass().getSimpleName(), bean);
+        }
+
+        return config.rabbitListenerContainerFactory(mock(ConnectionFactory.class), new SimpleMessageConverter(),
+                RetryInterceptorBuilder.stateless().build(), properties,
+                beanFactory.getBeanProvider(WorkSharingDispatcher.class), beanFactory.getBeanProvider(ByteBudgets.class),
+                beanFactory.getBeanProvider(AckBatcher.class));
+    }
+
+    private static AbstractMessageListenerContainer createContainer(AbstractRabbitListenerContainerFactory<?> factory,
+                                                                    String id, String queue) {
+        var endpoint = new SimpleRabbitListenerEndpoint();
+        endpoint.setId(id);
+        endpoint.setQueueNames(queue);
+        endpoint.setMessageListener(message -> {
+        });
+        return (AbstractMessageListenerContainer) factory.createListenerContainer(endpoint);
+    }
+}
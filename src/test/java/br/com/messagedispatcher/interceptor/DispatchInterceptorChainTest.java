@@ -0,0 +1,139 @@
+package br.com.messagedispatcher.interceptor;
+
+import br.com.messagedispatcher.interceptor.impl.ContextHolderDispatchInterceptor;
+import br.com.messagedispatcher.router.MessageRouter;
+import br.com.messagedispatcher.util.context.MessageDispatcherContextHolder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DispatchInterceptorChainTest {
+
+    private final List<String> calls = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        MessageDispatcherContextHolder.clear();
+    }
+
+    @Test
+    void dispatchShouldApplyBeforeInOrderAndAfterInReverseOrder() {
+        var chain = new DispatchInterceptorChain(List.of(new RecordingInterceptor("a"), new RecordingInterceptor("b")));
+
+        var result = chain.dispatch(createMessage(), message -> {
+            calls.add("route");
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(List.of("before-a", "before-b", "route", "after-b", "after-a"), calls);
+    }
+
+    @Test
+    void dispatchShouldApplyErrorHooksInReverseOrderAndRethrow() {
+        var chain = new DispatchInterceptorChain(List.of(new RecordingInterceptor("a"), new RecordingInterceptor("b")));
+        var exception = new IllegalStateException("falha");
+
+        var thrown = assertThrows(IllegalStateException.class, () -> chain.dispatch(createMessage(), message -> {
+            throw exception;
+        }));
+
+        assertSame(exception, thrown);
+        assertEquals(List.of("before-a", "before-b", "error-b", "error-a"), calls);
+    }
+
+    @Test
+    void dispatchShouldOnlyNotifyAppliedInterceptorsWhenBeforeFails() {
+        var failing = new RecordingInterceptor("b") {
+            @Override
+            public void beforeDispatch(Message message) {
+                throw new IllegalStateException("falha");
+            }
+        };
+        var chain = new DispatchInterceptorChain(List.of(new RecordingInterceptor("a"), failing, new RecordingInterceptor("c")));
+
+        assertThrows(IllegalStateException.class, () -> chain.dispatch(createMessage(), message -> {
+            calls.add("route");
+            return null;
+        }));
+
+        assertEquals(List.of("before-a", "error-a"), calls);
+    }
+
+    @Test
+    void dispatchShouldNotPropagateExceptionsFromAfterHooks() {
+        var failing = new RecordingInterceptor("b") {
+            @Override
+            public void afterDispatch(Message message, Object result, long elapsedNanos) {
+                throw new IllegalStateException("falha");
+            }
+        };
+        var chain = new DispatchInterceptorChain(List.of(new RecordingInterceptor("a"), failing));
+
+        var result = chain.dispatch(createMessage(), message -> "ok");
+
+        assertEquals("ok", result);
+        assertEquals(List.of("before-a", "before-b", "after-a"), calls);
+    }
+
+    @Test
+    void contextHolderInterceptorShouldExposeHeadersDuringRoutingAndClearAfterwards() {
+        var chain = new DispatchInterceptorChain(List.of(new ContextHolderDispatchInterceptor()));
+
+        var result = chain.dispatch(createMessage(), message -> MessageDispatcherContextHolder.getHeader("X-Tenant"));
+
+        assertEquals("tenant-1", result);
+        assertNull(MessageDispatcherContextHolder.getHeaders());
+    }
+
+    @Test
+    void contextHolderInterceptorShouldClearHeadersWhenRoutingFails() {
+        var chain = new DispatchInterceptorChain(List.of(new ContextHolderDispatchInterceptor()));
+        MessageRouter failingRouter = message -> {
+            throw new IllegalStateException("falha");
+        };
+
+        assertThrows(IllegalStateException.class, () -> chain.dispatch(createMessage(), failingRouter));
+
+        assertNull(MessageDispatcherContextHolder.getHeaders());
+    }
+
+    private static Message createMessage() {
+        var properties = new MessageProperties();
+        properties.setHeader("X-Tenant", "tenant-1");
+        return new Message("teste".getBytes(), properties);
+    }
+
+    private class RecordingInterceptor implements DispatchInterceptor {
+
+        private final String name;
+
+        RecordingInterceptor(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void beforeDispatch(Message message) {
+            calls.add("before-" + name);
+        }
+
+        @Override
+        public void afterDispatch(Message message, Object result, long elapsedNanos) {
+            calls.add("after-" + name);
+        }
+
+        @Override
+        public void onDispatchError(Message message, Throwable exception, long elapsedNanos) {
+            calls.add("error-" + name);
+        }
+    }
+}
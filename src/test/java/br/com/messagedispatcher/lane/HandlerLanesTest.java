@@ -0,0 +1,184 @@
+package br.com.messagedispatcher.lane;
+
+import br.com.messagedispatcher.annotation.Event;
+import br.com.messagedispatcher.annotation.Query;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties.Lane;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
+import br.com.messagedispatcher.exceptions.MessageDispatcherBeanResolutionException;
+import br.com.messagedispatcher.listener.RabbitMqMessageDispatcherListener;
+import br.com.messagedispatcher.util.validator.BeanValidatorUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistrar;
+import org.springframework.amqp.rabbit.listener.api.RabbitListenerErrorHandler;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.ContainerType.SIMPLE;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Exchange.FANOUT;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.COMMAND;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.EVENT;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.QUERY;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class HandlerLanesTest {
+
+    private static final String EXCHANGE = "message.dispatcher.ex";
+
+    private final MessageDispatcherProperties properties = new MessageDispatcherProperties();
+
+    @BeforeEach
+    void setUp() {
+        properties.setQueueName("orders.inbox");
+        properties.setRoutingKey("orders");
+        properties.setExchangeName(EXCHANGE);
+    }
+
+    @Test
+    void routingKeyShouldFollowHandlerAnnotationThenPayloadThenHandlerType() {
+        properties.getLanes().put("queries", lane(List.of(QUERY), List.of()));
+        properties.getLanes().put("replay", lane(List.of(), List.of("OrderImported", "OrderAudited")));
+        properties.getLanes().put("audit", lane(List.of(), List.of()));
+        var lanes = new HandlerLanes(properties, () -> List.of(new OrderListener()));
+
+        assertEquals("orders.queries", lanes.routingKey(EXCHANGE, "orders", QUERY, new FindOrder()));
+        assertEquals("orders.replay", lanes.routingKey(EXCHANGE, "orders", EVENT, new OrderImported()));
+        assertEquals("orders.audit", lanes.routingKey(EXCHANGE, "orders", EVENT, new OrderAudited()));
+        assertEquals("billing.queries", lanes.routingKey(EXCHANGE, "billing", QUERY, new FindOrder()));
+        assertEquals("orders", lanes.routingKey(EXCHANGE, "orders", COMMAND, new FindOrder()));
+        assertEquals("orders", lanes.routingKey("other.ex", "orders", QUERY, new FindOrder()));
+    }
+
+    @Test
+    void annotatedHandlerLaneShouldOnlyApplyToMessagesForThisService() {
+        properties.getLanes().put("audit", lane(List.of(), List.of()));
+        properties.getLanes().put("replay", lane(List.of(), List.of()));
+        var lanes = new HandlerLanes(properties, () -> List.of(new OrderListener()));
+
+        assertEquals("orders.audit", lanes.routingKey(EXCHANGE, "orders", EVENT, new OrderAudited()));
+        assertEquals("billing", lanes.routingKey(EXCHANGE, "billing", EVENT, new OrderAudited()));
+        assertEquals("orders.inbox.audit", lanes.expectedQueue(EVENT, "OrderAudited"));
+        assertEquals("orders.inbox", lanes.expectedQueue(QUERY, "FindOrder"));
+    }
+
+    @Test
+    void withoutLanesRoutingKeyShouldBeUnchanged() {
+        var lanes = new HandlerLanes(properties, List::of);
+
+        assertNull(lanes.laneOf(QUERY, "FindOrder"));
+        assertEquals("orders", lanes.routingKey(EXCHANGE, "orders", QUERY, new FindOrder()));
+    }
+
+    @Test
+    void invalidLanesShouldFailAtStartup() {
+        properties.getLanes().put("a", lane(List.of(QUERY), List.of()));
+        properties.getLanes().put("b", lane(List.of(QUERY), List.of()));
+        assertThrows(MessageDispatcherBeanResolutionException.class, () -> new HandlerLanes(properties, List::of));
+
+        properties.getLanes().clear();
+        properties.getLanes().put("queries.fast", lane(List.of(QUERY), List.of()));
+        assertThrows(MessageDispatcherBeanResolutionException.class, () -> new HandlerLanes(properties, List::of));
+
+        properties.getLanes().clear();
+        properties.getLanes().put("queries", lane(List.of(QUERY), List.of()));
+        properties.setExchangeType(FANOUT);
+        assertThrows(MessageDispatcherBeanResolutionException.class, () -> new HandlerLanes(properties, List::of));
+    }
+
+    @Test
+    void laneSettingsShouldBeValidatedAtBinding() {
+        var validator = BeanValidatorUtil.getValidator();
+        var lane = lane(List.of(QUERY), List.of());
+        lane.setConcurrency("0-x");
+        assertEquals(1, validator.validate(lane).size());
+
+        lane.setConcurrency("2-4");
+        lane.setPrefetchCount(500);
+        assertTrue(validator.validate(lane).isEmpty());
+
+        lane.setPrefetchCount(MessageDispatcherProperties.MAX_FLOW_CONTROLLED_PREFETCH_COUNT + 1);
+        assertEquals(1, validator.validate(lane).size());
+    }
+
+    @Test
+    void annotatedHandlerWithUnknownLaneShouldFailOnResolution() {
+        properties.getLanes().put("queries", lane(List.of(QUERY), List.of()));
+        var lanes = new HandlerLanes(properties, () -> List.of(new OrderListener()));
+
+        assertThrows(MessageDispatcherBeanResolutionException.class, lanes::resolveHandlers);
+    }
+
+    @Test
+    void configurerShouldRegisterOneContainerPerLaneWithItsSettings() {
+        var queries = lane(List.of(QUERY), List.of());
+        queries.setConcurrency("2-4");
+        queries.setPrefetchCount(1);
+        properties.getLanes().put("queries", queries);
+        properties.getLanes().put("replay", lane(List.of(EVENT), List.of()));
+        properties.getLanes().put("audit", lane(List.of(), List.of()));
+        var lanes = new HandlerLanes(properties, () -> List.of(new OrderListener()));
+        var registrar = mock(RabbitListenerEndpointRegistrar.class);
+
+        new LaneListenerConfigurer(lanes, SIMPLE, mock(RabbitMqMessageDispatcherListener.class),
+                mock(RabbitListenerErrorHandler.class),
+                new DefaultListableBeanFactory()).configureRabbitListeners(registrar);
+
+        var endpoints = ArgumentCaptor.forClass(RabbitListenerEndpoint.class);
+        verify(registrar, times(3)).registerEndpoint(endpoints.capture());
+        var factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(mock(ConnectionFactory.class));
+        factory.setPrefetchCount(10);
+        var container = factory.createListenerContainer(endpoints.getAllValues().get(0));
+        assertArrayEquals(new String[]{"orders.inbox.queries"}, container.getQueueNames());
+        assertEquals(2, ReflectionTestUtils.getField(container, "concurrentConsumers"));
+        assertEquals(4, ReflectionTestUtils.getField(container, "maxConcurrentConsumers"));
+        assertEquals(1, ReflectionTestUtils.getField(container, "prefetchCount"));
+    }
+
+    private static Lane lane(List<HandlerType> handlerTypes, List<String> payloadTypes) {
+        var lane = new Lane();
+        lane.setHandlerTypes(handlerTypes);
+        lane.setPayloadTypes(payloadTypes);
+        return lane;
+    }
+
+    @SuppressWarnings("unused")
+    static class OrderListener {
+
+        @Query
+        public String find(FindOrder query) {
+            return "order";
+        }
+
+        @Event(lane = "audit")
+        public void audited(OrderAudited event) {
+        }
+
+        @Event(lane = "replay")
+        public void imported(OrderImported event) {
+        }
+    }
+
+    static class FindOrder {
+    }
+
+    static class OrderAudited {
+    }
+
+    static class OrderImported {
+    }
+}
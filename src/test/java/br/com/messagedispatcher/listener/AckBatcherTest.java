@@ -0,0 +1,177 @@
+package br.com.messagedispatcher.listener;
+
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AckBatcherTest {
+
+    private static final Duration LONG_TIMEOUT = Duration.ofMinutes(1);
+
+    private final Channel channel = mock(Channel.class);
+    private AckBatcher ackBatcher;
+
+    @AfterEach
+    void tearDown() {
+        ackBatcher.destroy();
+    }
+
+    @Test
+    void shouldAckOnceWithMultipleAfterBatchSize() throws Exception {
+        ackBatcher = new AckBatcher(3, LONG_TIMEOUT);
+        var listener = ackBatcher.wrap(message -> {
+        });
+
+        for (long tag = 1; tag <= 7; tag++) {
+            listener.onMessage(createMessage(tag), channel);
+        }
+
+        verify(channel).basicAck(3, true);
+        verify(channel).basicAck(6, true);
+        verify(channel, never()).basicAck(7, true);
+        assertEquals(1, ackBatcher.getPendingAcks());
+        assertEquals(2, ackBatcher.getAckFrames());
+        assertEquals(6, ackBatcher.getAckedMessages());
+    }
+
+    @Test
+    void shouldFlushPartialBatchAfterTimeout() throws Exception {
+        ackBatcher = new AckBatcher(100, Duration.ofMillis(50));
+        var listener = ackBatcher.wrap(message -> {
+        });
+        when(channel.isOpen()).thenReturn(true);
+
+        listener.onMessage(createMessage(1), channel);
+        listener.onMessage(createMessage(2), channel);
+
+        verify(channel, timeout(2_000)).basicAck(2, true);
+        verify(channel, never()).basicAck(1, true);
+    }
+
+    @Test
+    void failureInTheMiddleOfBatchShouldAckEarlierMessagesThenRejectOnlyTheFailedOne() throws Exception {
+        ackBatcher = new AckBatcher(10, LONG_TIMEOUT);
+        var listener = ackBatcher.wrap(message -> {
+            var tag = message.getMessageProperties().getDeliveryTag();
+            if (tag == 3) {
+                throw new IllegalStateException("falha");
+            }
+            if (tag == 4) {
+                throw new ImmediateRequeueAmqpException("reenfileirar");
+            }
+        });
+
+        for (long tag = 1; tag <= 5; tag++) {
+            listener.onMessage(createMessage(tag), channel);
+        }
+
+        InOrder order = inOrder(channel);
+        order.verify(channel).basicAck(2, true);
+        order.verify(channel).basicReject(3, false);
+        order.verify(channel).basicReject(4, true);
+        verify(channel, never()).basicAck(3, true);
+        verify(channel, never()).basicAck(4, true);
+        assertEquals(1, ackBatcher.getPendingAcks());
+    }
+
+    @Test
+    void recoveredMessageShouldBeAckedWithTheBatch() throws Exception {
+        var recovered = new ArrayList<Long>();
+        var retry = RetryInterceptorBuilder.stateless()
+                .maxAttempts(2)
+                .backOffOptions(1, 1, 1)
+                .recoverer((message, cause) -> recovered.add(message.getMessageProperties().getDeliveryTag()))
+                .build();
+        ackBatcher = new AckBatcher(3, LONG_TIMEOUT, retry);
+        var listener = ackBatcher.wrap(message -> {
+            if (message.getMessageProperties().getDeliveryTag() == 2) {
+                throw new IllegalStateException("falha");
+            }
+        });
+
+        for (long tag = 1; tag <= 3; tag++) {
+            listener.onMessage(createMessage(tag), channel);
+        }
+
+        assertEquals(List.of(2L), recovered);
+        verify(channel).basicAck(3, true);
+        verify(channel, never()).basicReject(anyLong(), anyBoolean());
+    }
+
+    @Test
+    void contextCloseShouldFlushAndAckLaterMessagesImmediately() throws Exception {
+        ackBatcher = new AckBatcher(10, LONG_TIMEOUT);
+        var listener = ackBatcher.wrap(message -> {
+        });
+        var other = mock(Channel.class);
+
+        listener.onMessage(createMessage(1), channel);
+        listener.onMessage(createMessage(2), channel);
+        listener.onMessage(createMessage(1), other);
+
+        try (var context = new GenericApplicationContext()) {
+            ackBatcher.onApplicationEvent(new ContextClosedEvent(context));
+        }
+        listener.onMessage(createMessage(3), channel);
+
+        verify(channel).basicAck(2, true);
+        verify(other).basicAck(1, true);
+        verify(channel).basicAck(3, true);
+        assertEquals(0, ackBatcher.getPendingAcks());
+    }
+
+    @Test
+    void prefetchChangeShouldCapTheChannelBatch() throws Exception {
+        ackBatcher = new AckBatcher(10, LONG_TIMEOUT);
+        var listener = ackBatcher.wrap(message -> {
+        });
+
+        ackBatcher.prefetchChanged(channel, 4);
+        listener.onMessage(createMessage(1), channel);
+        listener.onMessage(createMessage(2), channel);
+
+        verify(channel).basicAck(2, true);
+        assertEquals(0, ackBatcher.getPendingAcks());
+    }
+
+    @Test
+    void closingChannelShouldFlushItsBatch() throws Exception {
+        ackBatcher = new AckBatcher(10, LONG_TIMEOUT);
+        var listener = ackBatcher.wrap(message -> {
+        });
+        listener.onMessage(createMessage(1), channel);
+        listener.onMessage(createMessage(2), channel);
+
+        ackBatcher.closing(channel);
+
+        verify(channel).basicAck(2, true);
+        assertEquals(0, ackBatcher.getPendingAcks());
+    }
+
+    private static Message createMessage(long deliveryTag) {
+        var properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        return new Message("teste".getBytes(), properties);
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.messagedispatcher.listener;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class ByteBudgetTest {
+
+    private static final long TIMEOUT_MILLIS = 2_000;
+
+    private ByteBudget byteBudget;
+
+    @AfterEach
+    void tearDown() {
+        if (byteBudget != null) {
+            byteBudget.destroy();
+        }
+    }
+
+    @Test
+    void shouldPauseAboveHighWatermarkAndResumeAtLowWatermark() {
+        byteBudget = new ByteBudget(100, 40);
+        var listener = mock(ByteBudget.Listener.class);
+        byteBudget.addListener(listener);
+        byteBudget.reserve(60);
+        byteBudget.reserve(30);
+        assertFalse(byteBudget.isPaused());
+
+        byteBudget.reserve(20);
+
+        assertTrue(byteBudget.isPaused());
+        verify(listener, timeout(TIMEOUT_MILLIS)).paused();
+
+        // 110 -> 50: abaixo do limite, mas ainda acima do low-watermark
+        byteBudget.release(60);
+        assertTrue(byteBudget.isPaused());
+        verify(listener, never()).resumed();
+
+        byteBudget.release(30);
+        assertFalse(byteBudget.isPaused());
+        assertEquals(20, byteBudget.getBufferedBytes());
+        assertEquals(1, byteBudget.getPauseCount());
+        InOrder order = inOrder(listener);
+        order.verify(listener, timeout(TIMEOUT_MILLIS)).paused();
+        order.verify(listener, timeout(TIMEOUT_MILLIS)).resumed();
+    }
+
+    @Test
+    void messageLargerThanBudgetShouldPauseUntilReleased() {
+        byteBudget = new ByteBudget(100, 50);
+
+        byteBudget.reserve(500);
+
+        assertEquals(500, byteBudget.getBufferedBytes());
+        assertTrue(byteBudget.isPaused());
+        byteBudget.release(500);
+        assertEquals(0, byteBudget.getBufferedBytes());
+        assertFalse(byteBudget.isPaused());
+    }
+
+    @Test
+    void shouldRejectInvalidWatermarks() {
+        assertThrows(IllegalArgumentException.class, () -> new ByteBudget(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ByteBudget(100, 200));
+    }
+}
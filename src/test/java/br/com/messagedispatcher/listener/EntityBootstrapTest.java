@@ -0,0 +1,183 @@
+package br.com.messagedispatcher.listener;
+
+import br.com.messagedispatcher.annotation.EntityEventsPublish;
+import br.com.messagedispatcher.config.properties.EntityBootstrapProperties;
+import br.com.messagedispatcher.config.properties.EntityEventsProperties;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.BootstrapStatus;
+import br.com.messagedispatcher.exceptions.MessagePublisherException;
+import br.com.messagedispatcher.publisher.proxy.RabbitTemplateProxy;
+import br.com.messagedispatcher.publisher.proxy.SendOptions;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.EVENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class EntityBootstrapTest {
+
+    private final RabbitTemplateProxy templateProxy = mock(RabbitTemplateProxy.class);
+    private final List<List<Long>> batches = new ArrayList<>();
+
+    @TempDir
+    private Path checkpointDirectory;
+
+    private SessionFactoryImplementor sessionFactory;
+    private EntityBootstrap bootstrap;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = (SessionFactoryImplementor) new Configuration()
+                .addAnnotatedClass(Product.class)
+                .addAnnotatedClass(Catalog.class)
+                .setProperty(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:bootstrap-" + UUID.randomUUID())
+                .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                .buildSessionFactory();
+        sessionFactory.inTransaction(session -> {
+            for (var id = 1L; id <= 25; id++) {
+                session.persist(new Product(id, "product-" + id));
+            }
+        });
+
+        var entityEventsProperties = new EntityEventsProperties();
+        entityEventsProperties.setExchange("products.ex");
+        entityEventsProperties.setRoutingKey("{entity}.{action}");
+        var properties = new EntityBootstrapProperties();
+        properties.setBatchSize(10);
+        properties.setCheckpointDirectory(checkpointDirectory);
+        bootstrap = new EntityBootstrap(sessionFactory, templateProxy, entityEventsProperties, properties,
+                new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void runShouldPublishAllRowsInConfirmedBatchesAndRemoveCheckpoint() throws Exception {
+        recordBatches(0);
+
+        var progress = bootstrap.run("Product", false);
+
+        assertEquals(BootstrapStatus.COMPLETED, progress.status());
+        assertEquals(25, progress.published());
+        assertEquals(List.of(10, 10, 5), batches.stream().map(List::size).toList());
+        assertEquals(ids(1, 25), batches.stream().flatMap(List::stream).toList());
+        assertTrue(isEmpty(checkpointDirectory));
+    }
+
+    @Test
+    void failedRunShouldResumeAfterLastConfirmedBatch() {
+        recordBatches(2);
+
+        var failed = bootstrap.run("Product", false);
+
+        assertEquals(BootstrapStatus.FAILED, failed.status());
+        assertEquals(10, failed.published());
+        assertEquals(10L, failed.lastId());
+        assertTrue(Files.exists(checkpointDirectory.resolve(Product.class.getName() + ".json")));
+
+        batches.clear();
+        var resumed = bootstrap.run("Product", false);
+
+        assertEquals(BootstrapStatus.COMPLETED, resumed.status());
+        assertEquals(25, resumed.published());
+        assertEquals(ids(11, 25), batches.stream().flatMap(List::stream).toList());
+    }
+
+    @Test
+    void entitiesWithoutAnnotationShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> bootstrap.run("Unknown", false));
+    }
+
+    @Test
+    void entitiesPublishedWholeShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> bootstrap.run("Catalog", false));
+    }
+
+    @Test
+    void bootstrapWithoutCheckpointDirectoryShouldBeRejected() {
+        var unconfigured = new EntityBootstrap(sessionFactory, templateProxy, new EntityEventsProperties(),
+                new EntityBootstrapProperties(), new ObjectMapper());
+
+        assertThrows(IllegalStateException.class, () -> unconfigured.run("Product", false));
+    }
+
+    /**
+     * Registra os ids de cada lote; o envio de número {@code failing} (a partir de 1) falha.
+     */
+    private void recordBatches(int failing) {
+        var sends = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (sends.incrementAndGet() == failing) {
+                throw new MessagePublisherException("Confirmações do lote não recebidas", null);
+            }
+            List<?> bodies = invocation.getArgument(2);
+            batches.add(bodies.stream().map(body -> (Long) ((Map<?, ?>) body).get("id")).toList());
+            return null;
+        }).when(templateProxy).convertAndSendConfirmed(eq("products.ex"), eq("Product.snapshot"), anyList(),
+                eq(EVENT), eq(SendOptions.NONE), any());
+    }
+
+    private static List<Long> ids(long from, long to) {
+        var ids = new ArrayList<Long>();
+        for (var id = from; id <= to; id++) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private static boolean isEmpty(Path directory) throws Exception {
+        try (var files = Files.list(directory)) {
+            return files.findAny().isEmpty();
+        }
+    }
+
+    @Entity(name = "Product")
+    @EntityEventsPublish(properties = "name")
+    static class Product {
+
+        @Id
+        private Long id;
+        private String name;
+
+        Product() {
+        }
+
+        Product(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    @Entity(name = "Catalog")
+    @EntityEventsPublish
+    static class Catalog {
+
+        @Id
+        private Long id;
+    }
+}
@@ -0,0 +1,202 @@
+package br.com.messagedispatcher.listener;
+
+import br.com.messagedispatcher.annotation.EntityEventsPublish;
+import br.com.messagedispatcher.config.properties.EntityEventsProperties;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.integrator.hibernate.MessageDispatcherHibernateIntegrator;
+import br.com.messagedispatcher.lane.HandlerLanes;
+import br.com.messagedispatcher.outbox.OutboxStore;
+import br.com.messagedispatcher.publisher.MessagePublisher;
+import br.com.messagedispatcher.publisher.RabbitMessagePublisher;
+import br.com.messagedispatcher.publisher.proxy.OutboxTemplateProxy;
+import br.com.messagedispatcher.publisher.proxy.RabbitTemplateProxy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Id;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.registry.BootstrapServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Agrupamento dos eventos de entidade com o {@link JpaTransactionManager} e o Hibernate reais: no modo pós-commit o
+ * buffer é registrado pelos callbacks pós-commit do Hibernate, já dentro do commit do Spring; no modo outbox é gravado
+ * pelo processo de antes da conclusão, após o último flush.
+ */
+class EntityEventsTransactionTest {
+
+    private final JdbcDataSource dataSource = new JdbcDataSource();
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private TransactionTemplate transactions;
+
+    @BeforeEach
+    void createDatabase() {
+        dataSource.setURL("jdbc:h2:mem:entity-events-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    void postCommitShouldPublishOneBatchWithTheFinalStateAfterTheCommit() {
+        var publisher = mock(MessagePublisher.class);
+        var sent = new ArrayList<List<?>>();
+        var committedRows = new ArrayList<Integer>();
+        doAnswer(invocation -> {
+            sent.add(invocation.getArgument(2));
+            // Conexão própria: só enxerga as linhas se o commit já aconteceu
+            committedRows.add(countProductsFromAnotherConnection());
+            return null;
+        }).when(publisher).sendEvents(anyString(), anyString(), anyList());
+        setUp(publisher, false);
+
+        transactions.executeWithoutResult(status -> {
+            entityManager.persist(new Product(1L, "pen"));
+            entityManager.persist(new Product(2L, "ink"));
+            entityManager.flush();
+            entityManager.find(Product.class, 1L).name = "red pen";
+        });
+
+        verify(publisher).sendEvents(anyString(), anyString(), anyList());
+        assertEquals(List.of(List.of(Map.of("id", 1L, "name", "red pen"), Map.of("id", 2L, "name", "ink"))), sent);
+        assertEquals(List.of(2), committedRows);
+    }
+
+    @Test
+    void postCommitShouldNotPublishOnRollback() {
+        var publisher = mock(MessagePublisher.class);
+        setUp(publisher, false);
+
+        transactions.executeWithoutResult(status -> {
+            entityManager.persist(new Product(1L, "pen"));
+            entityManager.flush();
+            status.setRollbackOnly();
+        });
+
+        verify(publisher, never()).sendEvents(any(), any(), anyList());
+        verify(publisher, never()).sendEvent(any(), any(), any());
+    }
+
+    @Test
+    void outboxShouldWriteOneRowPerEntityWithTheFinalStateInTheTransaction() throws Exception {
+        var store = createOutbox();
+
+        transactions.executeWithoutResult(status -> {
+            entityManager.persist(new Product(1L, "pen"));
+            entityManager.persist(new Product(2L, "ink"));
+            entityManager.flush();
+            entityManager.find(Product.class, 1L).name = "red pen";
+        });
+
+        assertEquals(2, store.countPending());
+        var rows = jdbcTemplate.queryForList("SELECT routing_key, body FROM message_dispatcher_outbox ORDER BY seq");
+        assertEquals("Product.created", rows.get(0).get("routing_key"));
+        assertEquals(Map.of("id", 1, "name", "red pen"),
+                new ObjectMapper().readValue((String) rows.get(0).get("body"), Map.class));
+        assertEquals("Product.created", rows.get(1).get("routing_key"));
+    }
+
+    @Test
+    void outboxRowsShouldRollBackWithTheEntities() {
+        var store = createOutbox();
+
+        transactions.executeWithoutResult(status -> {
+            entityManager.persist(new Product(1L, "pen"));
+            entityManager.flush();
+            entityManager.find(Product.class, 1L).name = "red pen";
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, store.countPending());
+        assertTrue(jdbcTemplate.queryForList("SELECT id FROM Product").isEmpty());
+    }
+
+    private OutboxStore createOutbox() {
+        var store = new OutboxStore(jdbcTemplate, new ObjectMapper(), "message_dispatcher_outbox");
+        store.initializeSchema();
+        var properties = new MessageDispatcherProperties();
+        var rabbitTemplateProxy = new RabbitTemplateProxy(mock(RabbitTemplate.class), new ObjectMapper(), properties,
+                mock(HandlerLanes.class));
+        var templateProxy = new OutboxTemplateProxy(rabbitTemplateProxy, new Jackson2JsonMessageConverter(), store,
+                properties);
+        setUp(new RabbitMessagePublisher(templateProxy, properties), true);
+        return store;
+    }
+
+    private void setUp(MessagePublisher publisher, boolean inTransaction) {
+        var entityEventsProperties = new EntityEventsProperties();
+        entityEventsProperties.setExchange("products.ex");
+        entityEventsProperties.setRoutingKey("{entity}.{action}");
+        var listener = new MessageDispatcherEntityEventsListenerImpl(publisher, entityEventsProperties, inTransaction);
+        var registry = new BootstrapServiceRegistryBuilder()
+                .applyIntegrator(new MessageDispatcherHibernateIntegrator(listener, inTransaction))
+                .build();
+        var configuration = new Configuration(registry).addAnnotatedClass(Product.class);
+        configuration.getProperties().put(AvailableSettings.JAKARTA_NON_JTA_DATASOURCE, dataSource);
+        configuration.setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        sessionFactory = configuration.buildSessionFactory();
+
+        var transactionManager = new JpaTransactionManager(sessionFactory);
+        transactionManager.setJpaDialect(new HibernateJpaDialect());
+        transactionManager.setDataSource(dataSource);
+        transactions = new TransactionTemplate(transactionManager);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(sessionFactory);
+    }
+
+    private int countProductsFromAnotherConnection() throws Exception {
+        try (var connection = dataSource.getConnection();
+             var resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM Product")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    @Entity(name = "Product")
+    @EntityEventsPublish(properties = "name")
+    static class Product {
+
+        @Id
+        private Long id;
+        private String name;
+
+        Product() {
+        }
+
+        Product(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package br.com.messagedispatcher.listener;
+
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.Channel;
+import com.rabbitmq.client.Consumer;
+import com.rabbitmq.client.Envelope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ListenerChannelsTest {
+
+    private static final long TIMEOUT_MILLIS = 2_000;
+    private static final String QUEUE = "orders";
+    private static final String TAG = "orders-consumer";
+
+    private ByteBudget byteBudget;
+    private ListenerChannels listenerChannels;
+    private Channel target;
+    private Channel channel;
+    private Consumer container;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        byteBudget = new ByteBudget(100, 40);
+        listenerChannels = new ListenerChannels(byteBudget);
+        target = mock(Channel.class);
+        when(target.isOpen()).thenReturn(true);
+        when(target.basicConsume(eq(QUEUE), eq(false), eq(TAG), eq(false), eq(false), any(), any())).thenReturn(TAG);
+        var connection = mock(Connection.class);
+        when(connection.createChannel(false)).thenReturn(target);
+        var connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+
+        channel = listenerChannels.decorate(connectionFactory).createConnection().createChannel(false);
+        container = mock(Consumer.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        byteBudget.destroy();
+    }
+
+    @Test
+    void prefetchedDeliveriesOverBudgetShouldCancelConsumerUntilAcked() throws Exception {
+        var consumer = consume();
+
+        // Três entregas em prefetch, nenhuma processada: a segunda já passa do limite de 100 bytes
+        deliver(consumer, 1, 60);
+        deliver(consumer, 2, 60);
+        deliver(consumer, 3, 60);
+
+        assertEquals(180, byteBudget.getBufferedBytes());
+        assertTrue(byteBudget.isPaused());
+        verify(target, timeout(TIMEOUT_MILLIS)).basicCancel(TAG);
+        consumer.handleCancelOk(TAG);
+        verify(container, never()).handleCancelOk(any());
+        verify(container, times(3)).handleDelivery(eq(TAG), any(), any(), any());
+        assertEquals(1, listenerChannels.getSuspendedConsumers());
+
+        // 60 bytes restantes, ainda acima do low-watermark
+        channel.basicAck(2, true);
+        assertEquals(60, byteBudget.getBufferedBytes());
+        assertTrue(byteBudget.isPaused());
+
+        channel.basicAck(3, false);
+        assertEquals(0, byteBudget.getBufferedBytes());
+        verify(target, timeout(TIMEOUT_MILLIS).times(2))
+                .basicConsume(QUEUE, false, TAG, false, false, Map.of(), consumer);
+        consumer.handleConsumeOk(TAG);
+        verify(container, never()).handleConsumeOk(any());
+        verify(target).basicAck(2, true);
+        verify(target).basicAck(3, false);
+    }
+
+    @Test
+    void containerCancelWhileSuspendedShouldOnlyNotifyContainer() throws Exception {
+        var consumer = consume();
+        deliver(consumer, 1, 150);
+        verify(target, timeout(TIMEOUT_MILLIS)).basicCancel(TAG);
+        consumer.handleCancelOk(TAG);
+
+        channel.basicCancel(TAG);
+
+        verify(target, times(1)).basicCancel(TAG);
+        verify(container).handleCancelOk(TAG);
+    }
+
+    @Test
+    void closingChannelShouldReleaseUnackedBytes() throws Exception {
+        var consumer = consume();
+        deliver(consumer, 1, 30);
+        deliver(consumer, 2, 30);
+        channel.basicReject(1, false);
+
+        channel.close();
+
+        assertEquals(0, byteBudget.getBufferedBytes());
+        assertFalse(byteBudget.isPaused());
+        verify(target).close();
+    }
+
+    @Test
+    void channelListenersShouldSeePrefetchChangesAndCloseBeforeTheChannelCloses() throws Exception {
+        var channelListener = mock(ListenerChannels.ChannelListener.class);
+        var connection = mock(Connection.class);
+        when(connection.createChannel(false)).thenReturn(target);
+        var connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        var listened = new ListenerChannels(null, List.of(channelListener))
+                .decorate(connectionFactory).createConnection().createChannel(false);
+
+        listened.basicQos(20);
+        listened.basicQos(0, 30, false);
+        listened.close();
+
+        verify(channelListener).prefetchChanged(listened, 20);
+        verify(channelListener).prefetchChanged(listened, 30);
+        InOrder order = inOrder(channelListener, target);
+        order.verify(channelListener).closing(listened);
+        order.verify(target).close();
+    }
+
+    private Consumer consume() throws Exception {
+        assertEquals(TAG, channel.basicConsume(QUEUE, false, TAG, false, false, Map.of(), container));
+        var consumer = ArgumentCaptor.forClass(Consumer.class);
+        verify(target).basicConsume(eq(QUEUE), eq(false), eq(TAG), eq(false), eq(false), eq(Map.of()),
+                consumer.capture());
+        return consumer.getValue();
+    }
+
+    private static void deliver(Consumer consumer, long deliveryTag, int bytes) throws Exception {
+        consumer.handleDelivery(TAG, new Envelope(deliveryTag, false, "orders.ex", QUEUE),
+                new AMQP.BasicProperties(), new byte[bytes]);
+    }
+}
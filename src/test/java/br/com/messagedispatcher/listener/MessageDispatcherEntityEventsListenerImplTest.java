@@ -2,22 +2,51 @@ package br.com.messagedispatcher.listener;
 
 import br.com.messagedispatcher.annotation.EntityEventsPublish;
 import br.com.messagedispatcher.config.properties.EntityEventsProperties;
+import br.com.messagedispatcher.exceptions.MessageDispatcherBeanResolutionException;
+import br.com.messagedispatcher.model.EntityDelta;
+import br.com.messagedispatcher.publisher.AsyncEventPublisher;
 import br.com.messagedispatcher.publisher.MessagePublisher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Entity;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.engine.spi.ActionQueue;
+import org.hibernate.event.spi.EventSource;
 import org.hibernate.event.spi.PostInsertEvent;
 import org.hibernate.event.spi.PostUpdateEvent;
 import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.type.Type;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
 
 @ExtendWith(MockitoExtension.class)
 class MessageDispatcherEntityEventsListenerImplTest {
@@ -117,6 +146,214 @@ class MessageDispatcherEntityEventsListenerImplTest {
         assertTrue(result);
     }
 
+    @Test
+    void requiresPostCommitHandlingShouldReturnFalseForEntitiesNeverPublished() {
+        doReturn(TestEntityWithoutAnnotation.class).when(entityPersister).getMappedClass();
+
+        assertFalse(listener.requiresPostCommitHandling(entityPersister));
+    }
+
+    @Test
+    void eventsShouldUseExchangeAndRoutingKeyOfTheAnnotation() {
+        var entity = new TestEntityWithRouteSubclass();
+        when(postInsertEvent.getEntity()).thenReturn(entity);
+
+        listener.onPostInsert(postInsertEvent);
+
+        verify(publisher).sendEvent("orders.ex", routingKey, entity);
+    }
+
+    @Test
+    void coalescedEventsShouldBeSentOncePerRoute() {
+        var routed = new TestEntityWithRouteSubclass();
+        var other = new TestEntityWithPublishUpdate();
+        when(entityPersister.getEntityName()).thenReturn("Entity");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listener.onPostUpdate(updateEvent(routed, 1L));
+            listener.onPostUpdate(updateEvent(other, 2L));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            verify(publisher).sendEvents("orders.ex", routingKey, List.of(routed));
+            verify(publisher).sendEvents(exchange, routingKey, List.of(other));
+        } finally {
+            TransactionSynchronizationManager.unbindResourceIfPossible(listener);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void deltaUpdateShouldPublishOnlyChangedPropertiesWithPreviousValues() {
+        var entity = new TestEntityWithDelta();
+        stubDeltaPersister();
+        when(entityPersister.getPropertyTypes()).thenReturn(new Type[]{mock(Type.class), mock(Type.class), mock(Type.class)});
+        when(entityPersister.getEntityName()).thenReturn("Entity");
+        var event = deltaEvent(entity, new int[]{0, 1, 2}, new Object[]{"new", 20L, 3}, new Object[]{"old", 10L, 2});
+
+        listener.onPostUpdate(event);
+
+        verify(publisher).sendEvent(exchange, routingKey,
+                new EntityDelta("Entity", 1L, 3, Map.of("name", "new"), Map.of("name", "old")));
+    }
+
+    @Test
+    void updateShouldBeSkippedWhenOnlyIgnoredPropertiesChanged() {
+        var entity = new TestEntityWithDelta();
+        stubDeltaPersister();
+        var event = mock(PostUpdateEvent.class);
+        when(event.getEntity()).thenReturn(entity);
+        when(event.getPersister()).thenReturn(entityPersister);
+        when(event.getDirtyProperties()).thenReturn(new int[]{1, 2});
+
+        listener.onPostUpdate(event);
+
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    void coalescedDeltasShouldMergeChangesKeepingFirstPreviousValue() {
+        var entity = new TestEntityWithDelta();
+        stubDeltaPersister();
+        when(entityPersister.getPropertyTypes()).thenReturn(new Type[]{mock(Type.class), mock(Type.class), mock(Type.class)});
+        when(entityPersister.getEntityName()).thenReturn("Entity");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listener.onPostUpdate(deltaEvent(entity, new int[]{0, 2}, new Object[]{"b", 10L, 3}, new Object[]{"a", 10L, 2}));
+            listener.onPostUpdate(deltaEvent(entity, new int[]{0, 2}, new Object[]{"c", 10L, 4}, new Object[]{"b", 10L, 3}));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            verify(publisher).sendEvents(exchange, routingKey,
+                    List.of(new EntityDelta("Entity", 1L, 4, Map.of("name", "c"), Map.of("name", "a"))));
+        } finally {
+            TransactionSynchronizationManager.unbindResourceIfPossible(listener);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void insertShouldPublishAllowedPropertiesFromEventState() {
+        var customer = new Object();
+        var session = projectionSession(customer);
+        stubProjectionInsert(new TestEntityWithProperties(), session, customer);
+
+        listener.onPostInsert(postInsertEvent);
+
+        verify(publisher).sendEvent(exchange, routingKey, Map.of("id", 1L, "name", "x", "customer", 7L));
+    }
+
+    @Test
+    void insertShouldPublishMapperResultWithoutUninitializedCollections() {
+        var customer = new Object();
+        var session = projectionSession(customer);
+        stubProjectionInsert(new TestEntityWithMapper(), session, customer);
+
+        listener.onPostInsert(postInsertEvent);
+
+        verify(publisher).sendEvent(exchange, routingKey, new Summary("x", 7L, false));
+    }
+
+    @Test
+    void routingKeyTemplateShouldResolveEntityAndAction() {
+        entityEventsProperties.setRoutingKey("{entity}.{action}");
+        listener = new MessageDispatcherEntityEventsListenerImpl(publisher, entityEventsProperties);
+        var created = new TestEntityWithPublishCreate();
+        var updated = new TestEntityWithRouteSubclass();
+        when(postInsertEvent.getEntity()).thenReturn(created);
+        when(postUpdateEvent.getEntity()).thenReturn(updated);
+
+        listener.onPostInsert(postInsertEvent);
+        listener.onPostUpdate(postUpdateEvent);
+
+        verify(publisher).sendEvent(exchange, "TestEntityWithPublishCreate.created", created);
+        verify(publisher).sendEvent("orders.ex", "TestEntityWithRouteSubclass.updated", updated);
+    }
+
+    @Test
+    void entityCreatedAndUpdatedInTransactionShouldKeepCreatedRoutingKey() {
+        var entity = new TestEntityWithTemplate();
+        when(entityPersister.getEntityName()).thenReturn("Entity");
+        when(postInsertEvent.getEntity()).thenReturn(entity);
+        when(postInsertEvent.getPersister()).thenReturn(entityPersister);
+        when(postInsertEvent.getId()).thenReturn(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listener.onPostInsert(postInsertEvent);
+            listener.onPostUpdate(updateEvent(entity, 1L));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            verify(publisher).sendEvents(exchange, "orders.Order.created", List.of(entity));
+        } finally {
+            TransactionSynchronizationManager.unbindResourceIfPossible(listener);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publishShouldRecordEventsAndFailuresPerEntityAndAction() {
+        var meterRegistry = new SimpleMeterRegistry();
+        listener = new MessageDispatcherEntityEventsListenerImpl(publisher, entityEventsProperties, false,
+                new MicrometerEntityEventMetrics(meterRegistry));
+        var created = new TestEntityWithTemplate();
+        var updated = new TestEntityWithTemplate();
+        when(postInsertEvent.getEntity()).thenReturn(created);
+        when(postUpdateEvent.getEntity()).thenReturn(updated);
+        lenient().doThrow(new IllegalStateException("broker")).when(publisher).sendEvent(exchange, "orders.Order.updated", updated);
+
+        listener.onPostInsert(postInsertEvent);
+        assertThrows(IllegalStateException.class, () -> listener.onPostUpdate(postUpdateEvent));
+
+        assertEquals(1, meterRegistry.get("message.dispatcher.entity-events.published")
+                .tags("entity", "Order", "action", "created").counter().count());
+        assertEquals(1, meterRegistry.get("message.dispatcher.entity-events.publish-failed")
+                .tags("entity", "Order", "action", "updated").counter().count());
+        assertEquals(1, meterRegistry.get("message.dispatcher.entity-events.publish")
+                .tags("entity", "Order", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void coalescedSendShouldRecordEachEntityOnce() {
+        var meterRegistry = new SimpleMeterRegistry();
+        listener = new MessageDispatcherEntityEventsListenerImpl(publisher, entityEventsProperties, false,
+                new MicrometerEntityEventMetrics(meterRegistry));
+        when(entityPersister.getEntityName()).thenReturn("Entity");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listener.onPostUpdate(updateEvent(new TestEntityWithPublishUpdate(), 1L));
+            listener.onPostUpdate(updateEvent(new TestEntityWithPublishUpdate(), 2L));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.unbindResourceIfPossible(listener);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(2, meterRegistry.get("message.dispatcher.entity-events.published")
+                .tags("entity", "TestEntityWithPublishUpdate", "action", "updated").counter().count());
+        assertEquals(1, meterRegistry.get("message.dispatcher.entity-events.publish")
+                .tags("entity", "TestEntityWithPublishUpdate", "outcome", "success").timer().count());
+    }
+
+    @Test
+    void commitFailedShouldBeCountedForPublishedEntitiesOnly() {
+        var meterRegistry = new SimpleMeterRegistry();
+        listener = new MessageDispatcherEntityEventsListenerImpl(publisher, entityEventsProperties, false,
+                new MicrometerEntityEventMetrics(meterRegistry));
+        when(postInsertEvent.getEntity()).thenReturn(new TestEntityWithPublishCreate());
+        when(postUpdateEvent.getEntity()).thenReturn(new TestEntityWithoutPublishUpdate());
+
+        listener.onPostInsertCommitFailed(postInsertEvent);
+        listener.onPostUpdateCommitFailed(postUpdateEvent);
+
+        assertEquals(1, meterRegistry.get("message.dispatcher.entity-events.commit-failed")
+                .tags("entity", "TestEntityWithPublishCreate", "action", "created").counter().count());
+        assertNull(meterRegistry.find("message.dispatcher.entity-events.commit-failed")
+                .tags("action", "updated").counter());
+        verifyNoInteractions(publisher);
+    }
+
     @Test
     void onPostInsertCommitFailedShouldNotThrowException() {
         listener.onPostInsertCommitFailed(postInsertEvent);
@@ -131,6 +368,183 @@ class MessageDispatcherEntityEventsListenerImplTest {
         verifyNoInteractions(publisher);
     }
 
+    @Test
+    void eventsInsideTransactionShouldBeCoalescedAndPublishedOnceAfterCommit() {
+        var created = new TestEntityWithPublishCreate();
+        var updated = new TestEntityWithPublishCreate();
+        var other = new TestEntityWithPublishUpdate();
+        when(entityPersister.getEntityName()).thenReturn("Entity");
+        when(postInsertEvent.getEntity()).thenReturn(created);
+        when(postInsertEvent.getPersister()).thenReturn(entityPersister);
+        when(postInsertEvent.getId()).thenReturn(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listener.onPostInsert(postInsertEvent);
+            listener.onPostUpdate(updateEvent(updated, 1L));
+            listener.onPostUpdate(updateEvent(updated, 1L));
+            listener.onPostUpdate(updateEvent(other, 2L));
+            verifyNoInteractions(publisher);
+
+            var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+            verify(publisher).sendEvents(exchange, routingKey, List.of(updated, other));
+            verify(publisher, never()).sendEvent(anyString(), anyString(), any());
+            assertNull(TransactionSynchronizationManager.getResource(listener));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void eventsInsideOutboxTransactionShouldBePublishedBeforeCompletion() {
+        listener = new MessageDispatcherEntityEventsListenerImpl(publisher, entityEventsProperties, true);
+        var entity = new TestEntityWithPublishUpdate();
+        var session = mock(EventSource.class, withSettings().withoutAnnotations());
+        var actionQueue = mock(ActionQueue.class);
+        when(session.getActionQueue()).thenReturn(actionQueue);
+        when(entityPersister.getEntityName()).thenReturn("Entity");
+        when(postUpdateEvent.getEntity()).thenReturn(entity);
+        when(postUpdateEvent.getSession()).thenReturn(session);
+        when(postUpdateEvent.getPersister()).thenReturn(entityPersister);
+        when(postUpdateEvent.getId()).thenReturn(1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listener.onPostUpdate(postUpdateEvent);
+            listener.onPostUpdate(postUpdateEvent);
+
+            var process = ArgumentCaptor.forClass(BeforeTransactionCompletionProcess.class);
+            verify(actionQueue, times(1)).registerProcess(process.capture());
+            process.getValue().doBeforeTransactionCompletion(null);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            verify(publisher, times(1)).sendEvents(exchange, routingKey, List.of(entity));
+        } finally {
+            TransactionSynchronizationManager.unbindResourceIfPossible(listener);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void asyncPublishingShouldRequireProjectionAndOrderEventsByEntity() {
+        var async = mock(AsyncEventPublisher.class);
+        listener = new MessageDispatcherEntityEventsListenerImpl(async, entityEventsProperties);
+
+        var error = assertThrows(MessageDispatcherBeanResolutionException.class, () -> listener.validate(
+                List.of(TestEntityWithProperties.class, TestEntityWithPublishCreate.class, TestEntityWithoutAnnotation.class)));
+        assertTrue(error.getMessage().endsWith(": TestEntityWithPublishCreate"));
+        listener.validate(List.of(TestEntityWithProperties.class, TestEntityWithMapper.class));
+
+        var customer = new Object();
+        stubProjectionInsert(new TestEntityWithProperties(), projectionSession(customer), customer);
+        when(entityPersister.getEntityName()).thenReturn("Entity");
+        listener.onPostInsert(postInsertEvent);
+
+        verify(async).sendEvent(exchange, routingKey, Map.of("id", 1L, "name", "x", "customer", 7L),
+                new EntityEventBuffer.EntityKey("Entity", 1L), AsyncEventPublisher.SendCallback.NONE);
+    }
+
+    @Test
+    void asyncPublishingShouldRecordTheOutcomeReportedByThePublisherThread() {
+        var async = mock(AsyncEventPublisher.class);
+        var meterRegistry = new SimpleMeterRegistry();
+        listener = new MessageDispatcherEntityEventsListenerImpl(async, entityEventsProperties, false,
+                new MicrometerEntityEventMetrics(meterRegistry));
+        var customer = new Object();
+        stubProjectionInsert(new TestEntityWithProperties(), projectionSession(customer), customer);
+        when(entityPersister.getEntityName()).thenReturn("Entity");
+
+        listener.onPostInsert(postInsertEvent);
+
+        var callback = ArgumentCaptor.forClass(AsyncEventPublisher.SendCallback.class);
+        verify(async).sendEvent(anyString(), anyString(), any(), any(), callback.capture());
+        assertNull(meterRegistry.find("message.dispatcher.entity-events.published").counter());
+
+        callback.getValue().completed(List.of(0), false, 5_000_000);
+
+        assertEquals(1, meterRegistry.get("message.dispatcher.entity-events.publish-failed")
+                .tags("entity", "TestEntityWithProperties", "action", "created").counter().count());
+        assertEquals(5, meterRegistry.get("message.dispatcher.entity-events.publish")
+                .tags("entity", "TestEntityWithProperties", "outcome", "error").timer()
+                .totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void asyncCoalescedSendShouldRecordTheEntitiesOfEachPartition() {
+        var async = mock(AsyncEventPublisher.class);
+        var meterRegistry = new SimpleMeterRegistry();
+        listener = new MessageDispatcherEntityEventsListenerImpl(async, entityEventsProperties, false,
+                new MicrometerEntityEventMetrics(meterRegistry));
+        when(entityPersister.getEntityName()).thenReturn("Entity");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            listener.onPostUpdate(updateEvent(new TestEntityWithPublishUpdate(), 1L));
+            listener.onPostUpdate(updateEvent(new TestEntityWithPublishUpdate(), 2L));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.unbindResourceIfPossible(listener);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        var callback = ArgumentCaptor.forClass(AsyncEventPublisher.SendCallback.class);
+        verify(async).sendEvents(anyString(), anyString(), anyList(), anyList(), callback.capture());
+        callback.getValue().completed(List.of(1), true, 1_000);
+        callback.getValue().completed(List.of(0), false, 1_000);
+
+        assertEquals(1, meterRegistry.get("message.dispatcher.entity-events.published")
+                .tags("entity", "TestEntityWithPublishUpdate", "action", "updated").counter().count());
+        assertEquals(1, meterRegistry.get("message.dispatcher.entity-events.publish-failed")
+                .tags("entity", "TestEntityWithPublishUpdate", "action", "updated").counter().count());
+    }
+
+    private EventSource projectionSession(Object customer) {
+        var session = mock(EventSource.class, withSettings().withoutAnnotations());
+        when(session.getContextEntityIdentifier(customer)).thenReturn(7L);
+        return session;
+    }
+
+    private void stubProjectionInsert(Object entity, EventSource session, Object customer) {
+        var association = mock(Type.class);
+        when(association.isEntityType()).thenReturn(true);
+        var collection = mock(Type.class);
+        lenient().when(collection.isCollectionType()).thenReturn(true);
+        when(entityPersister.getPropertyNames()).thenReturn(new String[]{"name", "customer", "items"});
+        when(entityPersister.getPropertyTypes()).thenReturn(new Type[]{mock(Type.class), association, collection});
+        when(entityPersister.getIdentifierPropertyName()).thenReturn("id");
+        when(postInsertEvent.getEntity()).thenReturn(entity);
+        when(postInsertEvent.getPersister()).thenReturn(entityPersister);
+        when(postInsertEvent.getSession()).thenReturn(session);
+        when(postInsertEvent.getId()).thenReturn(1L);
+        when(postInsertEvent.getState()).thenReturn(new Object[]{"x", customer, mock(PersistentCollection.class)});
+    }
+
+    private void stubDeltaPersister() {
+        when(entityPersister.getPropertyNames()).thenReturn(new String[]{"name", "lastAccessed", "version"});
+        when(entityPersister.isVersioned()).thenReturn(true);
+        when(entityPersister.getVersionProperty()).thenReturn(2);
+    }
+
+    private PostUpdateEvent deltaEvent(Object entity, int[] dirty, Object[] state, Object[] oldState) {
+        var event = updateEvent(entity, 1L);
+        when(event.getDirtyProperties()).thenReturn(dirty);
+        when(event.getState()).thenReturn(state);
+        when(event.getOldState()).thenReturn(oldState);
+        return event;
+    }
+
+    private PostUpdateEvent updateEvent(Object entity, Object id) {
+        var event = mock(PostUpdateEvent.class);
+        when(event.getEntity()).thenReturn(entity);
+        when(event.getPersister()).thenReturn(entityPersister);
+        when(event.getId()).thenReturn(id);
+        return event;
+    }
+
     @EntityEventsPublish
     static class TestEntityWithPublishCreate {
     }
@@ -149,4 +563,39 @@ class MessageDispatcherEntityEventsListenerImplTest {
 
     static class TestEntityWithoutAnnotation {
     }
+
+    @EntityEventsPublish(exchange = "orders.ex")
+    static class TestEntityWithRoute {
+    }
+
+    static class TestEntityWithRouteSubclass extends TestEntityWithRoute {
+    }
+
+    @EntityEventsPublish(delta = true, includePreviousValues = true, ignoredProperties = "lastAccessed")
+    static class TestEntityWithDelta {
+    }
+
+    @Entity(name = "Order")
+    @EntityEventsPublish(routingKey = "orders.{entity}.{action}")
+    static class TestEntityWithTemplate {
+    }
+
+    @EntityEventsPublish(properties = {"name", "customer"})
+    static class TestEntityWithProperties {
+    }
+
+    @EntityEventsPublish(mapper = SummaryMapper.class)
+    static class TestEntityWithMapper {
+    }
+
+    record Summary(String name, Object customer, boolean items) {
+    }
+
+    static class SummaryMapper implements EntityEventMapper {
+
+        @Override
+        public Object map(Map<String, Object> state) {
+            return new Summary((String) state.get("name"), state.get("customer"), state.containsKey("items"));
+        }
+    }
 }
\ No newline at end of file
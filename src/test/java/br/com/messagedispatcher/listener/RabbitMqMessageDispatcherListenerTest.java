@@ -1,5 +1,6 @@
 package br.com.messagedispatcher.listener;
 
+import br.com.messagedispatcher.interceptor.DispatchInterceptorChain;
 import br.com.messagedispatcher.model.MessageDispatcherRemoteInvocationResult;
 import br.com.messagedispatcher.router.MessageRouter;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.Message;
@@ -29,6 +31,9 @@ public class RabbitMqMessageDispatcherListenerTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Spy
+    private DispatchInterceptorChain interceptorChain = DispatchInterceptorChain.empty();
+
     /**
      * Tests the constructor of RabbitMqMessageDispatcherListener with a null MessageRouter.
      * This is an edge case where an essential dependency is not provided.
@@ -37,7 +42,7 @@ public class RabbitMqMessageDispatcherListenerTest {
     public void testConstructorWithNullMessageRouter() {
         ObjectMapper objectMapper = mock(ObjectMapper.class);
         assertThrows(NullPointerException.class, () -> {
-            new RabbitMqMessageDispatcherListener(null, objectMapper);
+            new RabbitMqMessageDispatcherListener(null, objectMapper, DispatchInterceptorChain.empty());
         });
     }
 
@@ -54,7 +59,7 @@ public class RabbitMqMessageDispatcherListenerTest {
 
         LoggerFactory.getLogger(RabbitMqMessageDispatcherListener.class);
 
-        new RabbitMqMessageDispatcherListener(mockMessageRouter, mockObjectMapper);
+        new RabbitMqMessageDispatcherListener(mockMessageRouter, mockObjectMapper, DispatchInterceptorChain.empty());
     }
 
     /**
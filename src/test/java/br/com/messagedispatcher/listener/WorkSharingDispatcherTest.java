@@ -0,0 +1,160 @@
+package br.com.messagedispatcher.listener;
+
+import com.rabbitmq.client.Channel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.ImmediateRequeueAmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.listener.api.ChannelAwareMessageListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class WorkSharingDispatcherTest {
+
+    private static final long TIMEOUT_MILLIS = 2_000;
+
+    private WorkSharingDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.destroy();
+    }
+
+    @Test
+    void slowMessageShouldNotBlockMessagesReceivedAfterIt() throws Exception {
+        dispatcher = new WorkSharingDispatcher(2, Duration.ofSeconds(1));
+        var release = new CountDownLatch(1);
+        var listener = dispatcher.wrap((ChannelAwareMessageListener) (message, channel) -> {
+            if (message.getMessageProperties().getDeliveryTag() == 1) {
+                release.await();
+            }
+        });
+        var channel = mock(Channel.class);
+
+        listener.onMessage(createMessage(1), channel);
+        listener.onMessage(createMessage(2), channel);
+        listener.onMessage(createMessage(3), channel);
+
+        verify(channel, timeout(TIMEOUT_MILLIS)).basicAck(2, false);
+        verify(channel, timeout(TIMEOUT_MILLIS)).basicAck(3, false);
+        verify(channel, never()).basicAck(1, false);
+
+        release.countDown();
+        verify(channel, timeout(TIMEOUT_MILLIS)).basicAck(1, false);
+    }
+
+    @Test
+    void ackShouldBeSentOnTheChannelTheMessageArrivedOn() throws Exception {
+        dispatcher = new WorkSharingDispatcher(1, Duration.ofSeconds(1));
+        var listener = dispatcher.wrap(message -> {
+        });
+        var first = mock(Channel.class);
+        var second = mock(Channel.class);
+
+        listener.onMessage(createMessage(7), first);
+        listener.onMessage(createMessage(7), second);
+
+        verify(first, timeout(TIMEOUT_MILLIS)).basicAck(7, false);
+        verify(second, timeout(TIMEOUT_MILLIS)).basicAck(7, false);
+    }
+
+    @Test
+    void failedMessageShouldBeRejectedWithoutRequeue() throws Exception {
+        dispatcher = new WorkSharingDispatcher(1, Duration.ofSeconds(1));
+        var listener = dispatcher.wrap(message -> {
+            throw new IllegalStateException("falha");
+        });
+        var channel = mock(Channel.class);
+
+        listener.onMessage(createMessage(1), channel);
+
+        verify(channel, timeout(TIMEOUT_MILLIS)).basicReject(1, false);
+        verify(channel, never()).basicAck(1, false);
+    }
+
+    @Test
+    void immediateRequeueExceptionShouldRequeueMessage() throws Exception {
+        dispatcher = new WorkSharingDispatcher(1, Duration.ofSeconds(1));
+        var listener = dispatcher.wrap(message -> {
+            throw new ImmediateRequeueAmqpException("reenfileirar");
+        });
+        var channel = mock(Channel.class);
+
+        listener.onMessage(createMessage(1), channel);
+
+        verify(channel, timeout(TIMEOUT_MILLIS)).basicReject(1, true);
+    }
+
+    @Test
+    void adviceChainShouldBeAppliedOnTheWorker() throws Exception {
+        var retry = RetryInterceptorBuilder.stateless()
+                .maxAttempts(3)
+                .backOffOptions(1, 1, 1)
+                .build();
+        dispatcher = new WorkSharingDispatcher(1, Duration.ofSeconds(1), retry);
+        var attempts = new AtomicInteger();
+        var listener = dispatcher.wrap(message -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("falha");
+            }
+        });
+        var channel = mock(Channel.class);
+
+        listener.onMessage(createMessage(1), channel);
+
+        verify(channel, timeout(TIMEOUT_MILLIS)).basicAck(1, false);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void contextCloseShouldFinishInFlightMessagesAndLeaveNewDeliveriesUnacked() throws Exception {
+        dispatcher = new WorkSharingDispatcher(1, Duration.ofSeconds(5));
+        var started = new CountDownLatch(1);
+        var listener = dispatcher.wrap(message -> {
+            started.countDown();
+            sleep(100);
+        });
+        var channel = mock(Channel.class);
+        var lateChannel = mock(Channel.class);
+
+        listener.onMessage(createMessage(1), channel);
+        assertTrue(started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+        try (var context = new GenericApplicationContext()) {
+            dispatcher.onApplicationEvent(new ContextClosedEvent(context));
+        }
+        listener.onMessage(createMessage(2), lateChannel);
+
+        verify(channel).basicAck(1, false);
+        verifyNoInteractions(lateChannel);
+    }
+
+    private static Message createMessage(long deliveryTag) {
+        var properties = new MessageProperties();
+        properties.setDeliveryTag(deliveryTag);
+        return new Message("teste".getBytes(), properties);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package br.com.messagedispatcher.outbox;
+
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.exceptions.MessagePublisherException;
+import br.com.messagedispatcher.lane.HandlerLanes;
+import br.com.messagedispatcher.publisher.proxy.OutboxTemplateProxy;
+import br.com.messagedispatcher.publisher.proxy.RabbitTemplateProxy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.COMMAND;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.HANDLER_TYPE;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.EVENT;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final List<Message> sent = new ArrayList<>();
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactions;
+    private OutboxStore store;
+    private OutboxTemplateProxy proxy;
+
+    @BeforeEach
+    void setUp() {
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:outbox-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        store = new OutboxStore(jdbcTemplate, new ObjectMapper(), "message_dispatcher_outbox");
+        store.initializeSchema();
+
+        var properties = new MessageDispatcherProperties();
+        var rabbitTemplateProxy = new RabbitTemplateProxy(rabbitTemplate, new ObjectMapper(), properties,
+                mock(HandlerLanes.class));
+        proxy = new OutboxTemplateProxy(rabbitTemplateProxy, new Jackson2JsonMessageConverter(), store, properties);
+
+        when(rabbitTemplate.invoke(ArgumentMatchers.<RabbitOperations.OperationsCallback<Object>>any()))
+                .thenAnswer(invocation -> invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0)
+                        .doInRabbit(rabbitTemplate));
+    }
+
+    @Test
+    void writeShouldFollowTheBusinessTransaction() {
+        transactions.executeWithoutResult(status -> {
+            proxy.convertAndSend("orders", "order.created", new OrderCreated("1"), EVENT);
+            status.setRollbackOnly();
+        });
+        assertEquals(0, store.countPending());
+
+        transactions.executeWithoutResult(status ->
+                proxy.convertAndSend("orders", "order.created", new OrderCreated("1"), EVENT));
+        assertEquals(1, store.countPending());
+    }
+
+    @Test
+    void commandsShouldNotGoThroughTheOutbox() {
+        assertThrows(MessagePublisherException.class, () ->
+                proxy.convertSendAndReceive("orders", "order.create", new OrderCreated("1"), Void.class, COMMAND));
+    }
+
+    @Test
+    void relayShouldPublishInOrderAndDeleteConfirmedRecords() {
+        confirmWith(true);
+        for (var i = 0; i < 3; i++) {
+            proxy.convertAndSend("orders", "order.created", new OrderCreated(String.valueOf(i)), EVENT);
+        }
+
+        var claimed = relay(1, 10, Duration.ZERO).relayBatch(0);
+
+        assertEquals(3, claimed);
+        assertEquals(0, store.countPending());
+        assertEquals(0, count());
+        assertEquals(3, sent.size());
+        for (var i = 0; i < 3; i++) {
+            var message = sent.get(i);
+            assertEquals("{\"id\":\"" + i + "\"}", new String(message.getBody(), StandardCharsets.UTF_8));
+            assertEquals(EVENT.name(), message.getMessageProperties().getHeaders().get(HANDLER_TYPE.getHeaderName()));
+        }
+    }
+
+    @Test
+    void nackedRecordsShouldStayPending() {
+        confirmWith(false);
+        proxy.convertAndSend("orders", "order.created", new OrderCreated("1"), EVENT);
+
+        var relay = relay(1, 10, Duration.ZERO);
+        relay.relayBatch(0);
+
+        assertEquals(1, store.countPending());
+        assertEquals(1, relay.getFailedCount());
+    }
+
+    @Test
+    void recordsAfterAnUnconfirmedOneShouldStayPendingInOrder() {
+        doAnswer(invocation -> {
+            var message = invocation.<Message>getArgument(2);
+            sent.add(message);
+            // Somente o segundo envio, o registro 1 no primeiro lote, é recusado
+            var ack = sent.size() != 2;
+            invocation.<CorrelationData>getArgument(3).getFuture()
+                    .complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+        for (var i = 0; i < 3; i++) {
+            proxy.convertAndSend("orders", "order.created", new OrderCreated(String.valueOf(i)), EVENT);
+        }
+
+        var relay = relay(1, 10, Duration.ZERO);
+        relay.relayBatch(0);
+
+        assertEquals(2, store.countPending());
+        assertEquals(1, relay.getPublishedCount());
+        relay.relayBatch(0);
+        assertEquals(0, store.countPending());
+        assertEquals(List.of("0", "1", "2", "1", "2"), sent.stream()
+                .map(message -> new String(message.getBody(), StandardCharsets.UTF_8).replaceAll("\\D", ""))
+                .toList());
+    }
+
+    @Test
+    void claimShouldFollowInsertionOrderRegardlessOfIdAndTimestamp() {
+        for (var id : List.of("c", "b", "a")) {
+            store.insert(new OutboxRecord(id, "orders", "order.created", Map.of(), "application/json", null, "{}", 1));
+        }
+
+        var claimed = transactions.execute(status -> store.claim(0, 1, 10));
+
+        assertEquals(List.of("c", "b", "a"), claimed.stream().map(OutboxRecord::id).toList());
+    }
+
+    @Test
+    void retentionShouldMarkRecordsAsSentUntilCleanup() {
+        confirmWith(true);
+        proxy.convertAndSend("orders", "order.created", new OrderCreated("1"), EVENT);
+
+        relay(1, 10, Duration.ofHours(1)).relayBatch(0);
+
+        assertEquals(0, store.countPending());
+        assertEquals(1, count());
+        assertEquals(0, store.deleteSentBefore(Instant.now().minus(Duration.ofHours(1))));
+        assertEquals(1, store.deleteSentBefore(Instant.now().plusSeconds(1)));
+    }
+
+    @Test
+    void relaysShouldSplitRecordsByKey() {
+        confirmWith(true);
+        for (var i = 0; i < 20; i++) {
+            proxy.convertAndSend("orders", "order.created." + i, new OrderCreated(String.valueOf(i)), EVENT);
+        }
+
+        var relay = relay(2, 100, Duration.ZERO);
+        var first = relay.relayBatch(0);
+        var firstKeys = sent.stream().map(message -> message.getMessageProperties().getReceivedRoutingKey()).toList();
+        var second = relay.relayBatch(1);
+
+        assertTrue(first > 0 && second > 0);
+        assertEquals(20, first + second);
+        assertEquals(0, store.countPending());
+        assertEquals(20, relay.getPublishedCount());
+        assertTrue(firstKeys.stream().allMatch(key -> (key.hashCode() & Integer.MAX_VALUE) % 2 == 0));
+    }
+
+    private OutboxRelay relay(int relays, int batchSize, Duration retention) {
+        return new OutboxRelay(store, rabbitTemplate, transactions, relays, batchSize, Duration.ofMillis(10),
+                Duration.ofSeconds(1), retention, Duration.ofMinutes(1));
+    }
+
+    private void confirmWith(boolean ack) {
+        doAnswer(invocation -> {
+            var message = invocation.<Message>getArgument(2);
+            message.getMessageProperties().setReceivedRoutingKey(invocation.getArgument(1));
+            sent.add(message);
+            invocation.<CorrelationData>getArgument(3).getFuture()
+                    .complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            return null;
+        }).when(rabbitTemplate).send(anyString(), anyString(), any(Message.class), any(CorrelationData.class));
+    }
+
+    private int count() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM message_dispatcher_outbox", Integer.class);
+    }
+
+    record OrderCreated(String id) {
+    }
+}
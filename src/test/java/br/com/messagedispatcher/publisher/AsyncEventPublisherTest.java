@@ -0,0 +1,303 @@
+package br.com.messagedispatcher.publisher;
+
+import br.com.messagedispatcher.config.properties.AsyncEntityEventsProperties;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.OverflowPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+class AsyncEventPublisherTest {
+
+    private final MessagePublisher delegate = mock(MessagePublisher.class);
+    private final AsyncEntityEventsProperties asyncProperties = new AsyncEntityEventsProperties();
+    private final CountDownLatch taken = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @TempDir
+    private Path spillDirectory;
+
+    private AsyncEventPublisher publisher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (publisher != null && publisher.isRunning()) {
+            publisher.stop();
+        }
+    }
+
+    @Test
+    void eventsShouldBePublishedOffTheCallingThread() {
+        var thread = new AtomicReference<String>();
+        doAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return null;
+        }).when(delegate).sendEvent(anyString(), anyString(), any());
+        publisher = start(OverflowPolicy.BLOCK, 10);
+
+        publisher.sendEvent("orders", "order.shipped", new Shipped("1"));
+        publisher.sendEvents("orders", "order.shipped", List.of(new Shipped("2"), new Shipped("3")));
+
+        verify(delegate, timeout(1000)).sendEvent("orders", "order.shipped", new Shipped("1"));
+        verify(delegate, timeout(1000)).sendEvents("orders", "order.shipped", List.of(new Shipped("2"), new Shipped("3")));
+        assertTrue(thread.get().startsWith("message-dispatcher-async-events-"));
+    }
+
+    @Test
+    void eventsOfTheSameKeyShouldKeepTheirOrderAcrossPublisherThreads() {
+        var published = new ConcurrentHashMap<String, List<Integer>>();
+        var threads = new ConcurrentHashMap<String, Set<String>>();
+        doAnswer(invocation -> {
+            record(invocation.getArgument(2), published, threads);
+            return null;
+        }).when(delegate).sendEvent(anyString(), anyString(), any());
+        doAnswer(invocation -> {
+            invocation.<List<Sequenced>>getArgument(2).forEach(event -> record(event, published, threads));
+            return null;
+        }).when(delegate).sendEvents(anyString(), anyString(), any());
+        publisher = start(OverflowPolicy.BLOCK, 1_000, 4);
+
+        for (var sequence = 0; sequence < 100; sequence++) {
+            var key = "order-" + sequence % 5;
+            if (sequence % 2 == 0) {
+                publisher.sendEvent("orders", "rk", new Sequenced(key, sequence), key);
+            } else {
+                var other = "order-" + (sequence + 1) % 5;
+                publisher.sendEvents("orders", "rk", List.of(new Sequenced(key, sequence), new Sequenced(other, -1)),
+                        List.of(key, other));
+            }
+        }
+        publisher.stop();
+
+        assertEquals(5, published.size());
+        published.forEach((key, sequences) -> {
+            var ordered = sequences.stream().filter(sequence -> sequence >= 0).toList();
+            assertEquals(ordered.stream().sorted().toList(), ordered, key);
+            assertEquals(1, threads.get(key).size(), key);
+        });
+    }
+
+    @Test
+    void fullQueueShouldDropOldestEvent() {
+        blockFirstPublish();
+        publisher = start(OverflowPolicy.DROP_OLDEST, 2);
+        fillQueue();
+
+        release.countDown();
+
+        verify(delegate, timeout(1000)).sendEvent("orders", "rk", new Shipped("4"));
+        verify(delegate, timeout(1000)).sendEvent("orders", "rk", new Shipped("3"));
+        verify(delegate, never()).sendEvent("orders", "rk", new Shipped("2"));
+        assertEquals(1, publisher.getDroppedCount());
+    }
+
+    @Test
+    void fullQueueShouldSpillToDiskAndReplayWhenDrained() throws Exception {
+        blockFirstPublish();
+        publisher = start(OverflowPolicy.SPILL, 2);
+        fillQueue();
+
+        assertEquals(1, publisher.getSpilledCount());
+        try (var files = Files.list(spillDirectory)) {
+            assertEquals(1, files.count());
+        }
+
+        release.countDown();
+
+        verify(delegate, timeout(2000)).sendEvent("orders", "rk", new Shipped("4"));
+        verify(delegate, timeout(1000)).sendEvent("orders", "rk", new Shipped("3"));
+        verify(delegate, timeout(1000)).sendEvent("orders", "rk", new Shipped("2"));
+    }
+
+    @Test
+    void spilledEventsShouldBePublishedBeforeLaterEventsOfTheSameThread() throws Exception {
+        var order = new CopyOnWriteArrayList<String>();
+        var secondTaken = new CountDownLatch(1);
+        var secondRelease = new CountDownLatch(1);
+        var last = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            var id = invocation.<Shipped>getArgument(2).id();
+            if (id.equals("1")) {
+                taken.countDown();
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            } else if (id.equals("2")) {
+                secondTaken.countDown();
+                assertTrue(secondRelease.await(5, TimeUnit.SECONDS));
+            }
+            order.add(id);
+            if (id.equals("20")) {
+                last.countDown();
+            }
+            return null;
+        }).when(delegate).sendEvent(anyString(), anyString(), any());
+        publisher = start(OverflowPolicy.SPILL, 2);
+        fillQueue();
+
+        // A fila volta a ter vaga, mas o evento 5 não pode passar à frente do 4, gravado em disco
+        release.countDown();
+        assertTrue(secondTaken.await(5, TimeUnit.SECONDS));
+        publisher.sendEvent("orders", "rk", new Shipped("5"));
+        secondRelease.countDown();
+        for (var i = 6; i <= 20; i++) {
+            publisher.sendEvent("orders", "rk", new Shipped(String.valueOf(i)));
+        }
+
+        assertTrue(last.await(5, TimeUnit.SECONDS));
+        assertEquals(IntStream.rangeClosed(1, 20).mapToObj(String::valueOf).toList(), order);
+    }
+
+    @Test
+    void callbackShouldReceiveTheOutcomeOfEachSendFromThePublisherThread() {
+        var callback = mock(AsyncEventPublisher.SendCallback.class);
+        var thread = new AtomicReference<String>();
+        doAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return null;
+        }).when(callback).completed(any(), eq(false), anyLong());
+        doThrow(new IllegalStateException("broker")).when(delegate).sendEvent("orders", "rk", new Shipped("1"));
+        publisher = start(OverflowPolicy.BLOCK, 10);
+
+        publisher.sendEvent("orders", "rk", new Shipped("1"), "order-1", callback);
+        publisher.sendEvents("orders", "rk", List.of(new Shipped("2"), new Shipped("3")), List.of("order-2", "order-3"),
+                callback);
+
+        verify(callback, timeout(1000)).completed(eq(List.of(0)), eq(false), anyLong());
+        verify(callback, timeout(1000)).completed(eq(List.of(0, 1)), eq(true), anyLong());
+        assertTrue(thread.get().startsWith("message-dispatcher-async-events-"));
+        assertEquals(1, publisher.getFailedCount());
+    }
+
+    @Test
+    void droppedEventsShouldBeReportedAsFailed() {
+        var callback = mock(AsyncEventPublisher.SendCallback.class);
+        blockFirstPublish();
+        publisher = start(OverflowPolicy.DROP_OLDEST, 2);
+        publisher.sendEvent("orders", "rk", new Shipped("1"));
+        try {
+            assertTrue(taken.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+
+        publisher.sendEvent("orders", "rk", new Shipped("2"), "order-2", callback);
+        publisher.sendEvent("orders", "rk", new Shipped("3"));
+        publisher.sendEvent("orders", "rk", new Shipped("4"));
+
+        verify(callback).completed(eq(List.of(0)), eq(false), anyLong());
+        verify(callback, never()).completed(any(), eq(true), anyLong());
+    }
+
+    @Test
+    void stopShouldDrainQueueAndPublishLaterEventsSynchronously() {
+        publisher = start(OverflowPolicy.BLOCK, 100);
+        for (var i = 0; i < 50; i++) {
+            publisher.sendEvent("orders", "rk", new Shipped(String.valueOf(i)));
+        }
+
+        publisher.stop();
+
+        assertEquals(0, publisher.getDepth());
+        assertEquals(50, publisher.getPublishedCount());
+        publisher.sendEvent("orders", "rk", new Shipped("late"));
+        verify(delegate).sendEvent("orders", "rk", new Shipped("late"));
+    }
+
+    @Test
+    void eventsSentWhileStoppingShouldNotBeLost() throws Exception {
+        publisher = start(OverflowPolicy.BLOCK, 10_000);
+        var sending = new CountDownLatch(100);
+        var sender = new Thread(() -> {
+            for (var i = 0; i < 5_000; i++) {
+                publisher.sendEvent("orders", "rk", new Shipped(String.valueOf(i)), "order-" + i);
+                sending.countDown();
+            }
+        });
+        sender.start();
+        assertTrue(sending.await(5, TimeUnit.SECONDS));
+
+        publisher.stop();
+        sender.join(5_000);
+
+        assertEquals(0, publisher.getDepth());
+        assertEquals(5_000, publisher.getPublishedCount());
+    }
+
+    private static void record(Sequenced event, Map<String, List<Integer>> published,
+                               Map<String, Set<String>> threads) {
+        published.computeIfAbsent(event.key(), key -> new CopyOnWriteArrayList<>()).add(event.sequence());
+        threads.computeIfAbsent(event.key(), key -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread().getName());
+    }
+
+    private AsyncEventPublisher start(OverflowPolicy overflowPolicy, int capacity) {
+        return start(overflowPolicy, capacity, 1);
+    }
+
+    private AsyncEventPublisher start(OverflowPolicy overflowPolicy, int capacity, int publishers) {
+        asyncProperties.setPublishers(publishers);
+        asyncProperties.setQueueCapacity(capacity);
+        asyncProperties.setOverflowPolicy(overflowPolicy);
+        asyncProperties.setSpillDirectory(spillDirectory);
+        asyncProperties.setShutdownTimeout(Duration.ofSeconds(5));
+        var async = new AsyncEventPublisher(delegate, new MessageDispatcherProperties(), asyncProperties,
+                new ObjectMapper());
+        async.start();
+        return async;
+    }
+
+    private void blockFirstPublish() {
+        doAnswer(invocation -> {
+            taken.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return null;
+        }).when(delegate).sendEvent(anyString(), anyString(), eq(new Shipped("1")));
+    }
+
+    /**
+     * Com a única thread presa no evento 1, os eventos 2 e 3 ocupam a fila de 2 e o evento 4 estoura.
+     */
+    private void fillQueue() {
+        publisher.sendEvent("orders", "rk", new Shipped("1"));
+        try {
+            assertTrue(taken.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+        for (var i = 2; i <= 4; i++) {
+            publisher.sendEvent("orders", "rk", new Shipped(String.valueOf(i)));
+        }
+    }
+
+    record Shipped(String id) {
+    }
+
+    record Sequenced(String key, int sequence) {
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.messagedispatcher.publisher;
 
 import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.publisher.proxy.SendOptions;
 import br.com.messagedispatcher.publisher.proxy.TemplateProxy;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,10 +9,15 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
+
+
 import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -114,6 +120,51 @@ class RabbitMessagePublisherTest {
                 eq(payload), eq(NOTIFICATION));
     }
 
+    @Test
+    void withPriority_shouldSendWithPriorityAndKeepOriginalPublisher() {
+        // Arrange
+        TestPayload payload = new TestPayload();
+
+        // Act
+        publisher.withPriority(9).sendEvent(payload);
+        publisher.sendEvent(payload);
+
+        // Assert
+        verify(templateProxy).convertAndSend(eq("test.exchange"), eq("test.routing.key"), eq(payload), eq(EVENT),
+                eq(SendOptions.NONE.withPriority(9)));
+        verify(templateProxy).convertAndSend(eq("test.exchange"), eq("test.routing.key"), eq(payload), eq(EVENT));
+        assertThrows(IllegalArgumentException.class, () -> publisher.withPriority(256));
+    }
+
+    @Test
+    void withPartitionKey_shouldKeepPreviousOptions() {
+        // Arrange
+        TestPayload payload = new TestPayload();
+
+        // Act
+        publisher.withPriority(5).withPartitionKey("order-1").doCommand(payload, TestPayload.class);
+
+        // Assert
+        verify(templateProxy).convertSendAndReceive(eq("test.exchange"), eq("test.routing.key"), eq(payload),
+                eq(TestPayload.class), eq(COMMAND), eq(new SendOptions(5, "order-1")));
+        assertThrows(IllegalArgumentException.class, () -> publisher.withPartitionKey(" "));
+    }
+
+    @Test
+    void sendEvents_shouldSendBatchWithOptions() {
+        // Arrange
+        var payloads = List.of(new TestPayload(), new TestPayload());
+
+        // Act
+        publisher.withPriority(5).sendEvents("test.exchange", "test.routing.key", payloads);
+        publisher.sendEvents("test.exchange", "test.routing.key", List.of());
+
+        // Assert
+        verify(templateProxy).convertAndSendAll("test.exchange", "test.routing.key", payloads, EVENT,
+                new SendOptions(5, null));
+        verifyNoMoreInteractions(templateProxy);
+    }
+
     @SuppressWarnings("unused")
     static class TestPayload {
 
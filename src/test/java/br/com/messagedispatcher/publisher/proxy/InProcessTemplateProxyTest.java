@@ -0,0 +1,322 @@
+package br.com.messagedispatcher.publisher.proxy;
+
+import br.com.messagedispatcher.config.MessageConverterAutoConfig;
+import br.com.messagedispatcher.config.ObjectMapperAutoConfig;
+import br.com.messagedispatcher.config.properties.InProcessTransportProperties;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties.Lane;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
+import br.com.messagedispatcher.exceptions.MessageDispatcherRemoteResultException;
+import br.com.messagedispatcher.annotation.Command;
+import br.com.messagedispatcher.annotation.MessageListener;
+import br.com.messagedispatcher.handlerdiscover.impl.MessageDispatcherAnnotatedHandlerDiscoverImpl;
+import br.com.messagedispatcher.interceptor.DispatchInterceptor;
+import br.com.messagedispatcher.interceptor.DispatchInterceptorChain;
+import br.com.messagedispatcher.interceptor.impl.ContextHolderDispatchInterceptor;
+import br.com.messagedispatcher.lane.HandlerLanes;
+import br.com.messagedispatcher.model.InProcessMessage;
+import br.com.messagedispatcher.router.MessageRouter;
+import br.com.messagedispatcher.router.impl.AnnotatedMessageRouter;
+import br.com.messagedispatcher.util.MessageDispatcherUtils;
+import br.com.messagedispatcher.util.context.MessageDispatcherContextHolder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.Message;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Exchange.CONSISTENT_HASH;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.COMMAND;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.EVENT;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.BODY_TYPE;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.HANDLER_TYPE;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InProcessTemplateProxyTest {
+
+    @Mock
+    private TemplateProxy delegate;
+
+    private final ObjectMapper objectMapper = new ObjectMapperAutoConfig().objectMapper();
+    private final AtomicReference<Message> routedMessage = new AtomicReference<>();
+    private final AtomicReference<Map<String, Object>> routedContext = new AtomicReference<>();
+    private MessageDispatcherProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new MessageDispatcherProperties();
+        properties.setQueueName("in-process-test");
+        properties.init();
+        new MessageDispatcherUtils(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        MessageDispatcherContextHolder.clear();
+    }
+
+    @Test
+    void convertSendAndReceiveShouldDispatchLocalRouteInProcess() {
+        var proxy = createProxy(echoRouter(), InProcessTransportProperties.Mode.LOCAL, true);
+        var payload = new TestPayload("teste");
+
+        var result = proxy.convertSendAndReceive(properties.getExchangeName(), properties.getRoutingKey(), payload,
+                TestPayload.class, COMMAND);
+
+        assertEquals(payload, result);
+        assertNotSame(payload, result);
+        var headers = routedMessage.get().getMessageProperties().getHeaders();
+        assertEquals(COMMAND, headers.get(HANDLER_TYPE.getHeaderName()));
+        assertEquals("TestPayload", headers.get(BODY_TYPE.getHeaderName()));
+        assertSame(headers, routedContext.get());
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void convertSendAndReceiveShouldDelegateRemoteRoutes() {
+        var proxy = createProxy(echoRouter(), InProcessTransportProperties.Mode.LOCAL, true);
+        var payload = new TestPayload("teste");
+        when(delegate.convertSendAndReceive("other.ex", "other-service", payload, TestPayload.class, COMMAND))
+                .thenReturn(payload);
+
+        var result = proxy.convertSendAndReceive("other.ex", "other-service", payload, TestPayload.class, COMMAND);
+
+        assertSame(payload, result);
+        assertNull(routedMessage.get());
+    }
+
+    @Test
+    void convertSendAndReceiveShouldWrapHandlerExceptionLikeRemoteResult() {
+        MessageRouter failingRouter = message -> {
+            throw new RuntimeException(new IllegalStateException("falha no handler"));
+        };
+        var proxy = createProxy(failingRouter, InProcessTransportProperties.Mode.LOCAL, true);
+
+        var exception = assertThrows(MessageDispatcherRemoteResultException.class, () ->
+                proxy.convertSendAndReceive(properties.getExchangeName(), properties.getRoutingKey(),
+                        new TestPayload("teste"), TestPayload.class, COMMAND));
+
+        assertEquals("IllegalStateException", exception.getRemoteExceptionType());
+    }
+
+    @Test
+    void convertAndSendShouldFallBackToBrokerWhenDispatchFailsBeforeTheHandler() {
+        var proxy = createProxy(echoRouter(), InProcessTransportProperties.Mode.LOCAL, true, new DispatchInterceptor() {
+            @Override
+            public void beforeDispatch(Message message) {
+                throw new IllegalStateException("falha no interceptor");
+            }
+        });
+        var payload = new TestPayload("teste");
+
+        proxy.convertAndSend(properties.getExchangeName(), properties.getRoutingKey(), payload, EVENT);
+
+        verify(delegate).convertAndSend(properties.getExchangeName(), properties.getRoutingKey(), payload, EVENT);
+    }
+
+    @Test
+    void convertAndSendShouldLogHandlerFailureWithoutResending() {
+        MessageRouter failingRouter = message -> {
+            throw new IllegalStateException("falha no handler");
+        };
+        var proxy = createProxy(failingRouter, InProcessTransportProperties.Mode.LOCAL, true);
+
+        assertDoesNotThrow(() -> proxy.convertAndSend(properties.getExchangeName(), properties.getRoutingKey(),
+                new TestPayload("teste"), EVENT));
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void convertAndSendShouldFallBackToBrokerWhenNoHandlerMatches() {
+        var payload = new TestPayload("teste");
+        try (var context = new GenericApplicationContext()) {
+            context.registerBean(InProcessTestHandler.class);
+            context.refresh();
+            var router = new AnnotatedMessageRouter(objectMapper, new MessageDispatcherAnnotatedHandlerDiscoverImpl(context),
+                    context);
+            var proxy = createProxy(router, InProcessTransportProperties.Mode.LOCAL, true);
+
+            // O handler de teste atende apenas comandos
+            proxy.convertAndSend(properties.getExchangeName(), properties.getRoutingKey(), payload, EVENT);
+
+            verify(delegate).convertAndSend(properties.getExchangeName(), properties.getRoutingKey(), payload, EVENT);
+        }
+    }
+
+    @Test
+    void handlerShouldRunOutsideTheCallerTransaction() {
+        var transactionManager = transactionManager();
+        var inTransaction = new AtomicReference<Boolean>();
+        MessageRouter router = message -> {
+            inTransaction.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return null;
+        };
+        var proxy = createProxy(router, inProcessProperties(InProcessTransportProperties.Mode.LOCAL, true),
+                transactionManager);
+        var transactions = new TransactionTemplate(transactionManager);
+
+        transactions.executeWithoutResult(status -> proxy.convertAndSend(properties.getExchangeName(),
+                properties.getRoutingKey(), new TestPayload("teste"), EVENT));
+        assertEquals(false, inTransaction.get());
+
+        var joining = inProcessProperties(InProcessTransportProperties.Mode.LOCAL, true);
+        joining.setJoinTransaction(true);
+        var joiningProxy = createProxy(router, joining, transactionManager);
+        transactions.executeWithoutResult(status -> joiningProxy.convertAndSend(properties.getExchangeName(),
+                properties.getRoutingKey(), new TestPayload("teste"), EVENT));
+        assertEquals(true, inTransaction.get());
+    }
+
+    @Test
+    void messagesWithLaneOrPartitionKeyShouldGoThroughTheBroker() {
+        properties.getLanes().put("events", lane(EVENT));
+        var proxy = createProxy(echoRouter(), InProcessTransportProperties.Mode.LOCAL, true);
+        var payload = new TestPayload("teste");
+        var options = new SendOptions(null, "order-1");
+
+        proxy.convertAndSend(properties.getExchangeName(), properties.getRoutingKey(), payload, EVENT);
+        properties.getLanes().clear();
+        properties.setExchangeType(CONSISTENT_HASH);
+        var partitioned = createProxy(echoRouter(), InProcessTransportProperties.Mode.LOCAL, true);
+        partitioned.convertAndSend(properties.getExchangeName(), properties.getRoutingKey(), payload, COMMAND, options);
+
+        verify(delegate).convertAndSend(properties.getExchangeName(), properties.getRoutingKey(), payload, EVENT);
+        verify(delegate).convertAndSend(properties.getExchangeName(), properties.getRoutingKey(), payload, COMMAND,
+                options);
+        assertNull(routedMessage.get());
+    }
+
+    @Test
+    void convertAndSendShouldPropagateFailureBeforeTheHandlerInAllMode() {
+        var proxy = createProxy(echoRouter(), InProcessTransportProperties.Mode.ALL, true, new DispatchInterceptor() {
+            @Override
+            public void beforeDispatch(Message message) {
+                throw new IllegalStateException("falha no interceptor");
+            }
+        });
+
+        assertThrows(IllegalStateException.class, () ->
+                proxy.convertAndSend("other.ex", "other-service", new TestPayload("teste"), EVENT));
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    void dispatchWithoutSerializationShouldHandOverPayloadInstance() {
+        var payload = new TestPayload("teste");
+        try (var context = new GenericApplicationContext()) {
+            context.registerBean(InProcessTestHandler.class);
+            context.refresh();
+            var router = new AnnotatedMessageRouter(objectMapper, new MessageDispatcherAnnotatedHandlerDiscoverImpl(context),
+                    context);
+            var proxy = createProxy(router, InProcessTransportProperties.Mode.ALL, false);
+
+            var result = proxy.convertSendAndReceive("other.ex", "other-service", payload, TestPayload.class, COMMAND);
+
+            assertSame(payload, result);
+            assertInstanceOf(InProcessMessage.class, routedMessage.get());
+        }
+    }
+
+    @Test
+    void dispatchShouldRestoreCallerContextAfterwards() {
+        var callerHeaders = Map.<String, Object>of("X-Tenant", "tenant-1");
+        MessageDispatcherContextHolder.setHeaders(callerHeaders);
+        var proxy = createProxy(echoRouter(), InProcessTransportProperties.Mode.LOCAL, true);
+
+        proxy.convertAndSend(properties.getExchangeName(), properties.getRoutingKey(), new TestPayload("teste"), EVENT);
+
+        assertSame(callerHeaders, MessageDispatcherContextHolder.getHeaders());
+        assertInstanceOf(Map.class, routedContext.get());
+    }
+
+    private InProcessTemplateProxy createProxy(MessageRouter router, InProcessTransportProperties.Mode mode,
+                                               boolean serialize, DispatchInterceptor... interceptors) {
+        return createProxy(router, inProcessProperties(mode, serialize), null, interceptors);
+    }
+
+    private InProcessTemplateProxy createProxy(MessageRouter router, InProcessTransportProperties inProcessProperties,
+                                               PlatformTransactionManager transactionManager,
+                                               DispatchInterceptor... interceptors) {
+        var recordingInterceptor = new DispatchInterceptor() {
+            @Override
+            public void beforeDispatch(Message message) {
+                routedMessage.set(message);
+                routedContext.set(MessageDispatcherContextHolder.getHeaders());
+            }
+        };
+        var chain = new DispatchInterceptorChain(Stream.concat(
+                Stream.of(new ContextHolderDispatchInterceptor(), recordingInterceptor), Stream.of(interceptors)).toList());
+        var converter = new MessageConverterAutoConfig().jackson2JsonMessageConverter(objectMapper);
+
+        return new InProcessTemplateProxy(delegate, router, chain, converter, objectMapper, properties,
+                new HandlerLanes(properties, List::of), inProcessProperties, transactionManager);
+    }
+
+    private static InProcessTransportProperties inProcessProperties(InProcessTransportProperties.Mode mode,
+                                                                    boolean serialize) {
+        var inProcessProperties = new InProcessTransportProperties();
+        inProcessProperties.setEnabled(true);
+        inProcessProperties.setMode(mode);
+        inProcessProperties.setSerialize(serialize);
+        return inProcessProperties;
+    }
+
+    private static PlatformTransactionManager transactionManager() {
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:in-process-" + UUID.randomUUID());
+        return new DataSourceTransactionManager(dataSource);
+    }
+
+    private static Lane lane(HandlerType handlerType) {
+        var lane = new Lane();
+        lane.setHandlerTypes(List.of(handlerType));
+        return lane;
+    }
+
+    private MessageRouter echoRouter() {
+        return message -> {
+            try {
+                return objectMapper.readValue(((Message) message).getBody(), TestPayload.class);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    public record TestPayload(String name) {
+    }
+
+    @MessageListener
+    public static class InProcessTestHandler {
+
+        @Command
+        public TestPayload handle(TestPayload payload) {
+            return payload;
+        }
+    }
+}
@@ -1,18 +1,44 @@
 package br.com.messagedispatcher.publisher.proxy;
 
+import br.com.messagedispatcher.annotation.MessagePriority;
+import br.com.messagedispatcher.annotation.PartitionKey;
 import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties.Lane;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType;
+import br.com.messagedispatcher.exceptions.MessagePublisherException;
 import br.com.messagedispatcher.exceptions.MessagePublisherTimeOutException;
+import br.com.messagedispatcher.lane.HandlerLanes;
+import br.com.messagedispatcher.model.MessageDispatcherRemoteInvocationResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.AmqpMessageReturnedException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Exchange.CONSISTENT_HASH;
 import static br.com.messagedispatcher.constants.MessageDispatcherConstants.HandlerType.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -80,10 +106,202 @@ class RabbitTemplateProxyTest {
         verify(proxy).convertSendAndReceive(eq(exchange), eq(routingKey), eq(payload), any(), any());
     }
 
+    @Test
+    void sendAndReceive_shouldFallBackToRoutingKeyWhenLaneIsUnroutable() {
+        var proxy = new RabbitTemplateProxy(rabbitTemplate, new ObjectMapper(), queriesLaneProperties(),
+                new HandlerLanes(queriesLaneProperties(), List::of));
+        var returned = new ReturnedMessage(new Message(new byte[0]), 312, "NO_ROUTE", "dispatcher.ex", "orders.queries");
+        when(rabbitTemplate.convertSendAndReceive(eq("dispatcher.ex"), eq("orders.queries"), any(),
+                any(MessagePostProcessor.class)))
+                .thenThrow(new AmqpMessageReturnedException("devolvida", returned));
+        when(rabbitTemplate.convertSendAndReceive(eq("dispatcher.ex"), eq("orders"), any(), any(MessagePostProcessor.class)))
+                .thenReturn(MessageDispatcherRemoteInvocationResult.of("ok"));
+
+        var result = proxy.convertSendAndReceive("dispatcher.ex", "orders", new TestPayload(), String.class, QUERY);
+
+        assertEquals("ok", result);
+    }
+
+    @Test
+    void send_shouldResendReturnedLaneMessageWithRoutingKey() {
+        var proxy = new RabbitTemplateProxy(rabbitTemplate, new ObjectMapper(), queriesLaneProperties(),
+                new HandlerLanes(queriesLaneProperties(), List::of));
+        var message = new Message(new byte[0], new MessageProperties());
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(4);
+            correlationData.setReturned(new ReturnedMessage(message, 312, "NO_ROUTE", "dispatcher.ex", "orders.queries"));
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(eq("dispatcher.ex"), eq("orders.queries"), any(),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+
+        proxy.convertAndSend("dispatcher.ex", "orders", new TestPayload(), QUERY);
+
+        verify(rabbitTemplate, timeout(TimeUnit.SECONDS.toMillis(5)))
+                .send(eq("dispatcher.ex"), eq("orders"), eq(message), any(CorrelationData.class));
+    }
+
+    @Test
+    void convertAndSendAll_shouldSendBatchInOrderOnOneChannel() {
+        var properties = new MessageDispatcherProperties();
+        var proxy = new RabbitTemplateProxy(rabbitTemplate, new ObjectMapper(), properties,
+                new HandlerLanes(properties, List::of));
+        var first = new TestPayload();
+        var second = new TestPayload();
+        when(rabbitTemplate.invoke(ArgumentMatchers.<RabbitOperations.OperationsCallback<Object>>any()))
+                .thenAnswer(invocation -> invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0)
+                        .doInRabbit(rabbitTemplate));
+
+        proxy.convertAndSendAll("dispatcher.ex", "orders", List.of(first, second), EVENT, SendOptions.NONE);
+
+        var order = inOrder(rabbitTemplate);
+        order.verify(rabbitTemplate).invoke(ArgumentMatchers.<RabbitOperations.OperationsCallback<Object>>any());
+        order.verify(rabbitTemplate).convertAndSend(eq("dispatcher.ex"), eq("orders"), same(first),
+                any(MessagePostProcessor.class));
+        order.verify(rabbitTemplate).convertAndSend(eq("dispatcher.ex"), eq("orders"), same(second),
+                any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void convertAndSendConfirmed_shouldFailWhenBrokerNacksAMessage() {
+        var properties = new MessageDispatcherProperties();
+        var proxy = new RabbitTemplateProxy(rabbitTemplate, new ObjectMapper(), properties,
+                new HandlerLanes(properties, List::of));
+        when(rabbitTemplate.invoke(ArgumentMatchers.<RabbitOperations.OperationsCallback<Object>>any()))
+                .thenAnswer(invocation -> invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0)
+                        .doInRabbit(rabbitTemplate));
+        var acks = List.of(true, false).iterator();
+        doAnswer(invocation -> {
+            invocation.<CorrelationData>getArgument(4).getFuture().complete(new CorrelationData.Confirm(acks.next(),
+                    "rejected"));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(eq("dispatcher.ex"), eq("orders"), any(), any(MessagePostProcessor.class),
+                any(CorrelationData.class));
+
+        var exception = assertThrows(MessagePublisherException.class, () -> proxy.convertAndSendConfirmed("dispatcher.ex",
+                "orders", List.of(new TestPayload(), new TestPayload()), EVENT, SendOptions.NONE, Duration.ofSeconds(1)));
+
+        assertEquals("Mensagem recusada pelo broker: rejected", exception.getMessage());
+    }
+
+    @Test
+    void convertAndSendConfirmed_shouldRouteEachMessageByItsPartitionKeyWithPriority() {
+        var properties = consistentHashProperties(Map.of());
+        var proxy = new RabbitTemplateProxy(rabbitTemplate, new ObjectMapper(), properties,
+                new HandlerLanes(properties, List::of));
+        when(rabbitTemplate.invoke(ArgumentMatchers.<RabbitOperations.OperationsCallback<Object>>any()))
+                .thenAnswer(invocation -> invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0)
+                        .doInRabbit(rabbitTemplate));
+        var priorities = new ArrayList<Integer>();
+        doAnswer(invocation -> {
+            var message = new Message(new byte[0], new MessageProperties());
+            priorities.add(invocation.<MessagePostProcessor>getArgument(3).postProcessMessage(message)
+                    .getMessageProperties().getPriority());
+            invocation.<CorrelationData>getArgument(4).getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(eq("dispatcher.ex"), anyString(), any(), any(MessagePostProcessor.class),
+                any(CorrelationData.class));
+
+        proxy.convertAndSendConfirmed("dispatcher.ex", "orders", List.of(new OrderShipped("order-1", "now"),
+                new OrderShipped("order-2", "now")), EVENT, SendOptions.NONE.withPriority(2), Duration.ofSeconds(1));
+
+        var order = inOrder(rabbitTemplate);
+        order.verify(rabbitTemplate).convertAndSend(eq("dispatcher.ex"), eq("order-1"), any(),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+        order.verify(rabbitTemplate).convertAndSend(eq("dispatcher.ex"), eq("order-2"), any(),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+        assertEquals(List.of(2, 2), priorities);
+    }
+
+    @Test
+    void setMessageHeaders_shouldResolvePriorityFromCallThenPayloadThenHandlerType() {
+        var properties = new MessageDispatcherProperties();
+        properties.getDefaultPriorities().put(QUERY, 7);
+        var proxy = new RabbitTemplateProxy(rabbitTemplate, new ObjectMapper(), properties,
+                new HandlerLanes(properties, List::of));
+
+        assertEquals(9, priorityOf(proxy, new UrgentPayload(), QUERY, 9));
+        assertEquals(3, priorityOf(proxy, new UrgentPayload(), QUERY, null));
+        assertEquals(7, priorityOf(proxy, new TestPayload(), QUERY, null));
+        assertNull(priorityOf(proxy, new TestPayload(), EVENT, null));
+    }
+
+    private static Integer priorityOf(RabbitTemplateProxy proxy, Object body, HandlerType handlerType,
+                                      Integer priority) {
+        var message = new Message(new byte[0], new MessageProperties());
+        return proxy.setMessageHeaders(body, message, handlerType, new SendOptions(priority, null), "dispatcher.ex",
+                        "orders")
+                .getMessageProperties().getPriority();
+    }
+
+    @Test
+    void send_shouldUsePartitionKeyAsRoutingKeyOnConsistentHashExchange() {
+        var properties = consistentHashProperties(Map.of());
+        var proxy = new RabbitTemplateProxy(rabbitTemplate, new ObjectMapper(), properties,
+                new HandlerLanes(properties, List::of));
+
+        proxy.convertAndSend("dispatcher.ex", "orders", new OrderShipped("order-1", "now"), EVENT);
+        proxy.convertAndSend("dispatcher.ex", "orders", new OrderShipped("order-1", "now"), EVENT,
+                SendOptions.NONE.withPartitionKey("order-2"));
+        proxy.convertAndSend("other.ex", "orders", new OrderShipped("order-1", "now"), EVENT);
+        proxy.convertAndSend("dispatcher.ex", "orders", new TestPayload(), EVENT);
+
+        verify(rabbitTemplate).convertAndSend(eq("dispatcher.ex"), eq("order-1"), any(), any(MessagePostProcessor.class));
+        verify(rabbitTemplate).convertAndSend(eq("dispatcher.ex"), eq("order-2"), any(), any(MessagePostProcessor.class));
+        verify(rabbitTemplate).convertAndSend(eq("other.ex"), eq("orders"), any(), any(MessagePostProcessor.class));
+        verify(rabbitTemplate).convertAndSend(eq("dispatcher.ex"), eq("orders"), any(), any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void setMessageHeaders_shouldWritePartitionKeyToHashHeader() {
+        var properties = consistentHashProperties(Map.of("hash-header", "partition-key"));
+        var proxy = new RabbitTemplateProxy(rabbitTemplate, new ObjectMapper(), properties,
+                new HandlerLanes(properties, List::of));
+        var message = new Message(new byte[0], new MessageProperties());
+
+        proxy.convertAndSend("dispatcher.ex", "orders", new InheritedKey(), EVENT);
+        proxy.setMessageHeaders(new InheritedKey(), message, EVENT, SendOptions.NONE, "dispatcher.ex", "orders");
+
+        verify(rabbitTemplate).convertAndSend(eq("dispatcher.ex"), eq("orders"), any(), any(MessagePostProcessor.class));
+        assertEquals("42", message.getMessageProperties().getHeader("partition-key"));
+    }
+
+    private static MessageDispatcherProperties consistentHashProperties(Map<String, Object> arguments) {
+        var properties = new MessageDispatcherProperties();
+        properties.setExchangeName("dispatcher.ex");
+        properties.setExchangeType(CONSISTENT_HASH);
+        properties.setExchangeConsistentHashArguments(arguments);
+        return properties;
+    }
+
+    private static MessageDispatcherProperties queriesLaneProperties() {
+        var properties = new MessageDispatcherProperties();
+        properties.setExchangeName("dispatcher.ex");
+        var lane = new Lane();
+        lane.setHandlerTypes(List.of(QUERY));
+        properties.getLanes().put("queries", lane);
+        return properties;
+    }
+
     static class TestPayload {
 
         public String getData() {
             return "test";
         }
     }
+    @MessagePriority(3)
+    static class UrgentPayload {
+    }
+
+    record OrderShipped(@PartitionKey String orderId, String shippedAt) {
+    }
+
+    static class KeyedPayload {
+
+        @PartitionKey
+        private final long accountId = 42;
+    }
+
+    static class InheritedKey extends KeyedPayload {
+    }
 }
\ No newline at end of file
@@ -0,0 +1,195 @@
+package br.com.messagedispatcher.readmodel;
+
+import br.com.messagedispatcher.config.properties.ReadModelProperties.ReadModel;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.ReadModelStorage;
+import br.com.messagedispatcher.model.EntityDelta;
+import br.com.messagedispatcher.publisher.MessagePublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+
+import java.util.List;
+import java.util.Map;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Headers.BODY_TYPE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReadModelCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private MessagePublisher publisher;
+
+    @Mock
+    private ConnectionFactory connectionFactory;
+
+    @Mock
+    private AmqpAdmin amqpAdmin;
+
+    private ReadModel settings;
+
+    @BeforeEach
+    void setUp() {
+        settings = new ReadModel();
+        settings.setExchange("catalog-entity-events");
+        settings.setBindingKeys(List.of("Product.*"));
+        settings.setQueryRoutingKey("catalog");
+    }
+
+    @Test
+    void eventsShouldReplaceEntriesAndDeltasShouldUpdateThem() throws Exception {
+        var cache = cache();
+
+        cache.onMessage(event(new Product(1L, "pen", 10)));
+        cache.onMessage(event(new EntityDelta("br.com.catalog.Product", 1L, 2, Map.of("stock", 7), null)));
+        cache.onMessage(event(new EntityDelta("br.com.catalog.Product", 2L, 1, Map.of("stock", 3), null)));
+
+        assertEquals(new Product(1L, "pen", 7, 2L), cache.getIfPresent(1L));
+        assertNull(cache.getIfPresent(2L));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void missShouldFallBackToQueryAndKeepTheResult() {
+        var cache = cache();
+        when(publisher.doQuery("catalog", new FindProduct(5L), Product.class)).thenReturn(new Product(5L, "ink", 1));
+
+        assertEquals(new Product(5L, "ink", 1), cache.get(5L));
+        assertEquals(new Product(5L, "ink", 1), cache.get(5L));
+
+        verify(publisher).doQuery("catalog", new FindProduct(5L), Product.class);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void deltaReceivedDuringQueryShouldDiscardOlderResult() {
+        var cache = cache();
+        when(publisher.doQuery("catalog", new FindProduct(5L), Product.class)).thenAnswer(invocation -> {
+            cache.onMessage(event(new EntityDelta("br.com.catalog.Product", 5L, 3, Map.of("stock", 0), null)));
+            return new Product(5L, "ink", 1, 2L);
+        });
+
+        assertEquals(new Product(5L, "ink", 1, 2L), cache.get(5L));
+
+        assertNull(cache.getIfPresent(5L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void deltaReceivedDuringQueryShouldKeepResultThatAlreadyHasIt() {
+        var cache = cache();
+        when(publisher.doQuery("catalog", new FindProduct(5L), Product.class)).thenAnswer(invocation -> {
+            cache.onMessage(event(new EntityDelta("br.com.catalog.Product", 5L, 3, Map.of("stock", 0), null)));
+            return new Product(5L, "ink", 0, 3L);
+        });
+
+        cache.get(5L);
+
+        assertEquals(new Product(5L, "ink", 0, 3L), cache.getIfPresent(5L));
+    }
+
+    @Test
+    void olderEventsAndDeltasShouldNotReplaceNewerEntry() throws Exception {
+        var cache = cache();
+        cache.onMessage(event(new Product(1L, "pen", 10, 3L)));
+
+        cache.onMessage(event(new Product(1L, "pen", 12, 2L)));
+        cache.onMessage(event(new EntityDelta("br.com.catalog.Product", 1L, 3, Map.of("stock", 9), null)));
+        cache.onMessage(event(new EntityDelta("br.com.catalog.Product", 1L, 4, Map.of("stock", 8), null)));
+
+        assertEquals(new Product(1L, "pen", 8, 4L), cache.getIfPresent(1L));
+    }
+
+    @Test
+    void hitShouldNotQuery() throws Exception {
+        var cache = cache();
+        cache.onMessage(event(new Product(1L, "pen", 10)));
+
+        assertEquals(new Product(1L, "pen", 10), cache.get(1L));
+
+        verify(publisher, never()).doQuery(any(), any(), any());
+    }
+
+    @Test
+    void loadShouldNotReplaceEntriesReceivedThroughEvents() throws Exception {
+        var cache = cache();
+        cache.onMessage(event(new Product(1L, "pen", 7)));
+
+        cache.load(List.of(new Product(1L, "pen", 10), new Product(2L, "ink", 1)));
+
+        assertEquals(new Product(1L, "pen", 7), cache.getIfPresent(1L));
+        assertEquals(new Product(2L, "ink", 1), cache.getIfPresent(2L));
+    }
+
+    @Test
+    void evictionShouldSpareRecentlyReadEntries() throws Exception {
+        settings.setMaxEntries(2);
+        var cache = cache();
+        cache.onMessage(event(new Product(1L, "pen", 1)));
+        cache.onMessage(event(new Product(2L, "ink", 2)));
+        cache.getIfPresent(1L);
+
+        cache.onMessage(event(new Product(3L, "pad", 3)));
+
+        assertEquals(2, cache.size());
+        assertEquals(new Product(1L, "pen", 1), cache.getIfPresent(1L));
+        assertNull(cache.getIfPresent(2L));
+    }
+
+    @Test
+    void offHeapStorageShouldKeepJsonAndApplyDeltas() throws Exception {
+        settings.setStorage(ReadModelStorage.OFF_HEAP);
+        var cache = cache();
+
+        cache.onMessage(event(new Product(1L, "pen", 10)));
+        cache.onMessage(event(new EntityDelta("br.com.catalog.Product", 1L, 2, Map.of("name", "red pen"), null)));
+
+        assertEquals(new Product(1L, "red pen", 10, 2L), cache.getIfPresent(1L));
+    }
+
+    @Test
+    void malformedEventsShouldBeIgnored() {
+        var cache = cache();
+
+        cache.onMessage(MessageBuilder.withBody("{".getBytes()).build());
+
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getEventCount());
+    }
+
+    private ReadModelCache<Product> cache() {
+        return new ReadModelCache<>("products", Product.class, settings, "app.read-model.products.q",
+                id -> new FindProduct((Long) id), null, publisher, objectMapper, connectionFactory, amqpAdmin);
+    }
+
+    private Message event(Object body) throws Exception {
+        return MessageBuilder.withBody(objectMapper.writeValueAsBytes(body))
+                .setHeader(BODY_TYPE.getHeaderName(), body.getClass().getSimpleName())
+                .build();
+    }
+
+    record Product(Long id, String name, int stock, Long version) {
+
+        Product(Long id, String name, int stock) {
+            this(id, name, stock, null);
+        }
+    }
+
+    record FindProduct(Long id) {
+    }
+}
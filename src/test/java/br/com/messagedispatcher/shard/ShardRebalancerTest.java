@@ -0,0 +1,141 @@
+package br.com.messagedispatcher.shard;
+
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.config.properties.ShardingProperties;
+import br.com.messagedispatcher.exceptions.MessageDispatcherBeanResolutionException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Exchange.CONSISTENT_HASH;
+import static br.com.messagedispatcher.constants.MessageDispatcherConstants.Exchange.TOPIC;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ShardRebalancerTest {
+
+    private final MessageDispatcherProperties properties = new MessageDispatcherProperties();
+    private final ShardingProperties sharding = new ShardingProperties();
+    private final AmqpAdmin amqpAdmin = mock(AmqpAdmin.class);
+    private final List<MessageListenerContainer> containers = new ArrayList<>();
+
+    private ShardRebalancer rebalancer;
+
+    @BeforeEach
+    void setUp() {
+        properties.setQueueName("orders.inbox");
+        properties.setExchangeType(CONSISTENT_HASH);
+        sharding.setShards(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (rebalancer != null) {
+            rebalancer.stop();
+        }
+    }
+
+    @Test
+    void layoutShouldNameShardsAndValidateWeights() {
+        sharding.setWeights(List.of(1, 1, 2, 4));
+        var layout = new ShardLayout(properties, sharding);
+
+        assertEquals("orders.inbox.shard-3", layout.queueName(3));
+        assertEquals(4, layout.weight(3));
+        assertEquals(0.5, layout.share(3));
+
+        sharding.setWeights(List.of(1, 2));
+        assertThrows(MessageDispatcherBeanResolutionException.class, () -> new ShardLayout(properties, sharding));
+
+        sharding.setWeights(List.of(1, 1, 0, 1));
+        assertThrows(MessageDispatcherBeanResolutionException.class, () -> new ShardLayout(properties, sharding));
+
+        sharding.setWeights(List.of());
+        properties.setExchangeType(TOPIC);
+        assertThrows(MessageDispatcherBeanResolutionException.class, () -> new ShardLayout(properties, sharding));
+    }
+
+    @Test
+    void rebalanceShouldReleaseShardsAboveFairShareThatHaveWaitingInstances() {
+        var shardContainers = startRebalancer();
+        for (var shard = 0; shard < 4; shard++) {
+            queue(shard, 0, 2);
+            rebalancer.recordDelivery(shard);
+        }
+
+        var released = rebalancer.rebalance();
+
+        assertEquals(List.of(3, 2), released);
+        assertEquals(2, rebalancer.getInstances());
+        assertTrue(rebalancer.isOwned(0));
+        assertFalse(rebalancer.isOwned(3));
+        verify(shardContainers.get(3)).stop();
+        verify(shardContainers.get(3)).start();
+        verify(shardContainers.get(0), never()).stop();
+    }
+
+    @Test
+    void rebalanceShouldKeepShardsWithoutWaitingInstancesOrDeliveries() {
+        var shardContainers = startRebalancer();
+        queue(0, 0, 1);
+        queue(1, 0, 1);
+        queue(2, 0, 2);
+        queue(3, 0, 2);
+        rebalancer.recordDelivery(0);
+        rebalancer.recordDelivery(1);
+
+        assertEquals(List.of(), rebalancer.rebalance());
+        assertEquals(List.of(), rebalancer.rebalance());
+        assertFalse(rebalancer.isOwned(0));
+        shardContainers.forEach(container -> verify(container, never()).stop());
+    }
+
+    @Test
+    void skewShouldCompareDepthWithWeightShare() {
+        sharding.setWeights(List.of(1, 1, 1, 1));
+        startRebalancer();
+        queue(0, 70, 1);
+        queue(1, 10, 1);
+        queue(2, 10, 1);
+        queue(3, 10, 1);
+
+        rebalancer.rebalance();
+
+        assertEquals(2.8, rebalancer.getSkew(0), 0.001);
+        assertEquals(0.4, rebalancer.getSkew(1), 0.001);
+        assertEquals(70, rebalancer.getDepth(0));
+    }
+
+    private List<SimpleMessageListenerContainer> startRebalancer() {
+        var layout = new ShardLayout(properties, sharding);
+        var shardContainers = new ArrayList<SimpleMessageListenerContainer>();
+        for (var shard = 0; shard < layout.getShards(); shard++) {
+            var container = mock(SimpleMessageListenerContainer.class);
+            when(container.getQueueNames()).thenReturn(new String[]{layout.queueName(shard)});
+            shardContainers.add(container);
+        }
+        containers.addAll(shardContainers);
+        rebalancer = new ShardRebalancer(amqpAdmin, () -> containers, layout, Duration.ofHours(1));
+        rebalancer.start();
+        return shardContainers;
+    }
+
+    private void queue(int shard, int depth, int consumers) {
+        var name = "orders.inbox.shard-" + shard;
+        when(amqpAdmin.getQueueInfo(name)).thenReturn(new QueueInformation(name, depth, consumers));
+    }
+}
@@ -0,0 +1,193 @@
+package br.com.messagedispatcher.tuning;
+
+import br.com.messagedispatcher.config.properties.MessageDispatcherProperties;
+import br.com.messagedispatcher.constants.MessageDispatcherConstants.ContainerType;
+import br.com.messagedispatcher.util.validator.BeanValidatorUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.retry.backoff.ExponentialBackOffPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class DispatcherTunerTest {
+
+    private static final String QUEUE = "inbox";
+
+    private final MessageDispatcherProperties properties = new MessageDispatcherProperties();
+    private final SimpleMessageListenerContainer simple = new SimpleMessageListenerContainer();
+    private final DirectMessageListenerContainer direct = new DirectMessageListenerContainer();
+    private final SimpleMessageListenerContainer other = new SimpleMessageListenerContainer();
+    private final RetryTemplate retryTemplate = new RetryTemplate();
+
+    @BeforeEach
+    void setUp() {
+        properties.setQueueName(QUEUE);
+        simple.setQueueNames(QUEUE);
+        direct.setQueueNames(QUEUE);
+        other.setQueueNames("other");
+    }
+
+    @Test
+    void updateShouldApplyConcurrencyAndPrefetchToInboxContainers() {
+        var tuner = createTuner(false);
+
+        var settings = tuner.update(new TuningChange("4-20", 3, 50, null, null, null, null), "test");
+
+        assertEquals("4-20", settings.concurrency());
+        assertEquals(50, settings.prefetchCount());
+        assertEquals(4, ReflectionTestUtils.getField(simple, "concurrentConsumers"));
+        assertEquals(20, ReflectionTestUtils.getField(simple, "maxConcurrentConsumers"));
+        assertEquals(50, ReflectionTestUtils.getField(simple, "prefetchCount"));
+        assertEquals(3, ReflectionTestUtils.getField(direct, "consumersPerQueue"));
+        assertEquals(50, ReflectionTestUtils.getField(direct, "prefetchCount"));
+        assertEquals(1, ReflectionTestUtils.getField(other, "concurrentConsumers"));
+        assertEquals(20, properties.maxConsumers());
+    }
+
+    @Test
+    void prefetchChangeShouldRestartRunningInboxContainers() {
+        var running = spy(new SimpleMessageListenerContainer());
+        running.setQueueNames(QUEUE);
+        doReturn(true).when(running).isRunning();
+        doNothing().when(running).stop();
+        doNothing().when(running).start();
+        List<MessageListenerContainer> containers = List.of(running, other);
+        var tuner = new DispatcherTuner(properties, () -> containers, retryTemplate, false);
+
+        tuner.update(new TuningChange(null, null, 50, null, null, null, null), "test");
+
+        assertEquals(50, ReflectionTestUtils.getField(running, "prefetchCount"));
+        var order = inOrder(running);
+        order.verify(running).stop();
+        order.verify(running).start();
+    }
+
+    @Test
+    void concurrencyChangeWithoutPrefetchChangeShouldNotRestartContainers() {
+        var running = spy(new SimpleMessageListenerContainer());
+        running.setQueueNames(QUEUE);
+        List<MessageListenerContainer> containers = List.of(running);
+        var tuner = new DispatcherTuner(properties, () -> containers, retryTemplate, false);
+
+        tuner.update(new TuningChange("2-4", null, properties.getPrefetchCount(), null, null, null, null), "test");
+
+        assertEquals(4, ReflectionTestUtils.getField(running, "maxConcurrentConsumers"));
+        verify(running, never()).stop();
+    }
+
+    @Test
+    void updateShouldReplaceRetryPolicies() {
+        var tuner = createTuner(false);
+        var attempts = new AtomicInteger();
+
+        tuner.update(new TuningChange(null, null, null, 5, 1, 1, 1), "test");
+
+        assertThrows(IllegalStateException.class, () -> retryTemplate.execute(context -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("falha");
+        }));
+        assertEquals(5, attempts.get());
+        var backOffPolicy = (ExponentialBackOffPolicy) ReflectionTestUtils.getField(retryTemplate, "backOffPolicy");
+        assertEquals(1, backOffPolicy.getInitialInterval());
+        assertEquals(1, backOffPolicy.getMaxInterval());
+    }
+
+    @Test
+    void invalidChangeShouldApplyNothing() {
+        var tuner = createTuner(false);
+        var before = tuner.current();
+
+        assertThrows(IllegalArgumentException.class,
+                () -> tuner.update(new TuningChange("10-2", null, 50, null, null, null, null), "test"));
+        assertThrows(IllegalArgumentException.class,
+                () -> tuner.update(new TuningChange(null, null, 0, null, null, null, null), "test"));
+        assertThrows(IllegalArgumentException.class,
+                () -> tuner.update(new TuningChange(null, null, 101, null, null, null, null), "test"));
+        assertThrows(IllegalArgumentException.class,
+                () -> tuner.update(new TuningChange(null, null, null, null, 20_000, null, null), "test"));
+
+        assertEquals(before, tuner.current());
+        assertEquals(1, ReflectionTestUtils.getField(simple, "concurrentConsumers"));
+    }
+
+    @Test
+    void changedValuesShouldBeValidatedAgainstThePropertyConstraints() {
+        var tuner = createTuner(false);
+
+        var error = assertThrows(IllegalArgumentException.class,
+                () -> tuner.update(new TuningChange("0-5", null, null, null, null, null, null), "test"));
+        assertTrue(error.getMessage().startsWith("concurrency "));
+        assertThrows(IllegalArgumentException.class,
+                () -> tuner.update(new TuningChange(null, null, null, 0, null, null, null), "test"));
+        assertThrows(IllegalArgumentException.class,
+                () -> tuner.update(new TuningChange(null, null, null, null, null, 0, null), "test"));
+    }
+
+    @Test
+    void flowControlShouldRaisePrefetchCapUpToThePropertyLimit() {
+        List<MessageListenerContainer> containers = List.of(simple);
+        var tuner = new DispatcherTuner(properties, () -> containers, retryTemplate, false, true,
+                BeanValidatorUtil.getValidator());
+
+        assertEquals(500, tuner.update(new TuningChange(null, null, 500, null, null, null, null), "test")
+                .prefetchCount());
+        assertThrows(IllegalArgumentException.class,
+                () -> tuner.update(new TuningChange(null, null, 70_000, null, null, null, null), "test"));
+    }
+
+    @Test
+    void concurrencyChangeShouldBeRejectedOnDirectContainer() {
+        properties.setContainerType(ContainerType.DIRECT);
+        var tuner = createTuner(false);
+
+        var error = assertThrows(IllegalArgumentException.class,
+                () -> tuner.update(new TuningChange("2-4", null, null, null, null, null, null), "test"));
+        assertTrue(error.getMessage().contains("consumersPerQueue"));
+        assertEquals(3, tuner.update(new TuningChange(null, 3, null, null, null, null, null), "test")
+                .consumersPerQueue());
+        assertEquals(3, ReflectionTestUtils.getField(direct, "consumersPerQueue"));
+    }
+
+    @Test
+    void consumerChangesShouldBeRejectedWhileAutoscaled() {
+        var tuner = createTuner(true);
+
+        assertThrows(IllegalStateException.class,
+                () -> tuner.update(new TuningChange("2-4", null, null, null, null, null, null), "test"));
+        assertEquals(7, tuner.update(new TuningChange(null, null, null, 7, null, null, null), "test")
+                .maxRetryAttempts());
+    }
+
+    @Test
+    void endpointShouldReportInvalidChangesAsBadRequest() {
+        var endpoint = new DispatcherTuningEndpoint(createTuner(false));
+
+        assertThrows(InvalidEndpointRequestException.class,
+                () -> endpoint.update("abc", null, null, null, null, null, null));
+        assertEquals(30, endpoint.update(null, null, 30, null, null, null, null).prefetchCount());
+    }
+
+    private DispatcherTuner createTuner(boolean autoscaled) {
+        retryTemplate.setRetryPolicy(new SimpleRetryPolicy(properties.getMaxRetryAttempts()));
+        List<MessageListenerContainer> containers = List.of(simple, direct, other);
+        return new DispatcherTuner(properties, () -> containers, retryTemplate, autoscaled);
+    }
+}